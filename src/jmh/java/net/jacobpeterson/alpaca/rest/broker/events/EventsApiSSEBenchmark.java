@@ -0,0 +1,158 @@
+package net.jacobpeterson.alpaca.rest.broker.events;
+
+import net.jacobpeterson.alpaca.openapi.broker.ApiClient;
+import net.jacobpeterson.alpaca.openapi.broker.ApiException;
+import net.jacobpeterson.alpaca.openapi.broker.model.AccountStatusEvent;
+import net.jacobpeterson.alpaca.util.sse.SSEListener;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link EventsApiSSEBenchmark} benchmarks the event decoding of {@link EventsApiSSE} with alternating
+ * <code>"new"</code> and <code>"fill"</code> events of the <code>trade_v2</code> broker SSE stream. Each invocation
+ * subscribes with {@link EventsApiSSE#subscribeToTradeV2(java.time.OffsetDateTime, java.time.OffsetDateTime, String,
+ * String, SSEListener)} and reads {@link #EVENT_COUNT} events from a canned <code>text/event-stream</code> response
+ * returned by an OkHttp interceptor, so no connection is made.
+ */
+@State(Scope.Thread)
+public class EventsApiSSEBenchmark {
+
+    private static final int EVENT_COUNT = 1024;
+    private static final MediaType EVENT_STREAM_MEDIA_TYPE = MediaType.get("text/event-stream");
+
+    private EventsApiSSE eventsApiSSE;
+    private BlackholeSSEListener sseListener;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        final StringBuilder eventStream = new StringBuilder();
+        for (int index = 0; index < EVENT_COUNT; index++) {
+            eventStream.append("data: ").append(createEvent(index / 2, (index & 1) == 1)).append("\n\n");
+        }
+        final byte[] eventStreamBytes = eventStream.toString().getBytes(UTF_8);
+
+        final ApiClient apiClient = new ApiClient();
+        apiClient.setHttpClient(apiClient.getHttpClient().newBuilder()
+                .addInterceptor(chain -> new Response.Builder()
+                        .request(chain.request())
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(200)
+                        .message("OK")
+                        .body(ResponseBody.create(eventStreamBytes, EVENT_STREAM_MEDIA_TYPE))
+                        .build())
+                .build());
+        eventsApiSSE = new EventsApiSSE(apiClient);
+        sseListener = new BlackholeSSEListener(blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENT_COUNT)
+    @SuppressWarnings("unchecked")
+    public void subscribeToTradeV2() throws ApiException, InterruptedException {
+        sseListener.reset();
+        // The 'SSEListener' type of 'subscribeToTradeV2' is broken (it decodes 'TradeUpdateEventV2's), so the listener
+        // is typed as 'SSEListener<Object>' to avoid a cast in a bridge method.
+        eventsApiSSE.subscribeToTradeV2(null, null, null, null,
+                (SSEListener<AccountStatusEvent>) (SSEListener<?>) sseListener);
+        sseListener.awaitClose();
+    }
+
+    /**
+     * Creates a <code>trade_v2</code> event of a limit order.
+     *
+     * @param orderIndex the index of the order
+     * @param filled     <code>true</code> for a <code>"fill"</code> event, <code>false</code> for a <code>"new"</code>
+     *                   event
+     *
+     * @return the event data {@link String}
+     */
+    private static String createEvent(int orderIndex, boolean filled) {
+        final String orderID = String.format("61e69015-8549-4bfd-b9c3-%012d", orderIndex);
+        final String price = (100 + orderIndex) + ".25";
+        final StringBuilder event = new StringBuilder(1024)
+                .append("{\"account_id\":\"529248ad-c4cc-4a50-bea4-6bfd2953f83a\"")
+                .append(",\"at\":\"2024-03-15T14:30:01.123456Z\",\"event\":\"").append(filled ? "fill" : "new")
+                .append("\",\"event_id\":\"01HRYD8J4QT5W1R5ZEN4C").append(String.format("%05d", orderIndex))
+                .append('"');
+        if (filled) {
+            event.append(",\"execution_id\":\"7922ab44-5a6f-4a8e-bd1c-").append(String.format("%012d", orderIndex))
+                    .append("\",\"price\":\"").append(price).append("\",\"qty\":\"100\",\"position_qty\":\"100\"");
+        }
+        event.append(",\"timestamp\":\"2024-03-15T14:30:01.123456Z\",\"order\":{\"id\":\"").append(orderID)
+                .append("\",\"client_order_id\":\"eb9e2aaa-f71a-4f51-b5b4-").append(String.format("%012d", orderIndex))
+                .append("\",\"created_at\":\"2024-03-15T14:30:00.987654Z\"")
+                .append(",\"updated_at\":\"2024-03-15T14:30:01.123456Z\"")
+                .append(",\"submitted_at\":\"2024-03-15T14:30:00.991234Z\"");
+        if (filled) {
+            event.append(",\"filled_at\":\"2024-03-15T14:30:01.123456Z\",\"filled_avg_price\":\"").append(price)
+                    .append('"');
+        }
+        event.append(",\"asset_id\":\"b0b6dd9d-8b9b-48a9-ba46-b9d54906e415\",\"symbol\":\"AAPL\"")
+                .append(",\"asset_class\":\"us_equity\",\"qty\":\"100\",\"filled_qty\":\"")
+                .append(filled ? "100" : "0")
+                .append("\",\"order_class\":\"simple\",\"order_type\":\"limit\",\"type\":\"limit\",\"side\":\"buy\"")
+                .append(",\"time_in_force\":\"day\",\"limit_price\":\"").append(price)
+                .append("\",\"status\":\"").append(filled ? "filled" : "new")
+                .append("\",\"extended_hours\":false,\"commission\":\"0\"}}");
+        return event.toString();
+    }
+
+    /**
+     * {@link BlackholeSSEListener} is an {@link SSEListener} that consumes the decoded events in a {@link Blackhole}.
+     */
+    private static final class BlackholeSSEListener implements SSEListener<Object> {
+
+        private final Blackhole blackhole;
+        private CountDownLatch closeLatch;
+        private volatile Throwable error;
+
+        private BlackholeSSEListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        private void reset() {
+            closeLatch = new CountDownLatch(1);
+            error = null;
+        }
+
+        private void awaitClose() throws InterruptedException {
+            closeLatch.await();
+            if (error != null) {
+                throw new IllegalStateException("Event stream failed!", error);
+            }
+        }
+
+        @Override
+        public void onOpen() {}
+
+        @Override
+        public void onClose() {
+            closeLatch.countDown();
+        }
+
+        @Override
+        public void onError(@Nullable Throwable throwable, @Nullable Response response) {
+            error = throwable != null ? throwable : new IllegalStateException("Response: " + response);
+            closeLatch.countDown();
+        }
+
+        @Override
+        public void onMessage(@NotNull Object message) {
+            blackhole.consume(message);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package net.jacobpeterson.alpaca.rest.marketdata;
+
+import net.jacobpeterson.alpaca.openapi.marketdata.JSON;
+import net.jacobpeterson.alpaca.openapi.marketdata.api.StockApi;
+import net.jacobpeterson.alpaca.openapi.marketdata.model.StockBarsResp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+/**
+ * {@link StockBarsDeserializationBenchmark} benchmarks the deserialization of {@link StockApi} multi-symbol bars
+ * pages with the generated {@link JSON} {@link com.google.gson.Gson}, which is what the generated client does with
+ * each response body.
+ */
+@State(Scope.Benchmark)
+public class StockBarsDeserializationBenchmark {
+
+    private static final int SYMBOL_COUNT = 10;
+    private static final long MINUTE_SECONDS = 60;
+
+    @Param({"1000", "10000"})
+    public int barsPerPage;
+
+    private String page;
+
+    @Setup
+    public void setup() {
+        final SplittableRandom random = new SplittableRandom(0);
+        final int barsPerSymbol = barsPerPage / SYMBOL_COUNT;
+        final long startEpochSecond = Instant.parse("2024-03-15T13:30:00Z").getEpochSecond();
+        final StringBuilder pageBuilder = new StringBuilder(barsPerPage * 160).append("{\"bars\":{");
+        for (int symbolIndex = 0; symbolIndex < SYMBOL_COUNT; symbolIndex++) {
+            if (symbolIndex > 0) {
+                pageBuilder.append(',');
+            }
+            pageBuilder.append("\"SYM").append(symbolIndex).append("\":[");
+            int priceCents = 1000 + random.nextInt(100_000);
+            for (int barIndex = 0; barIndex < barsPerSymbol; barIndex++) {
+                if (barIndex > 0) {
+                    pageBuilder.append(',');
+                }
+                final int closeCents = Math.max(1, priceCents + random.nextInt(-50, 51));
+                final int highCents = Math.max(priceCents, closeCents) + random.nextInt(20);
+                final int lowCents = Math.max(1, Math.min(priceCents, closeCents) - random.nextInt(20));
+                pageBuilder.append("{\"c\":").append(closeCents / 100.0)
+                        .append(",\"h\":").append(highCents / 100.0)
+                        .append(",\"l\":").append(lowCents / 100.0)
+                        .append(",\"n\":").append(1 + random.nextInt(1000))
+                        .append(",\"o\":").append(priceCents / 100.0)
+                        .append(",\"t\":\"").append(Instant.ofEpochSecond(startEpochSecond + barIndex * MINUTE_SECONDS))
+                        .append("\",\"v\":").append(100 + random.nextInt(100_000))
+                        .append(",\"vw\":").append((priceCents + closeCents) / 200.0).append('}');
+                priceCents = closeCents;
+            }
+            pageBuilder.append(']');
+        }
+        page = pageBuilder.append("},\"next_page_token\":\"U1lNOXwyMDI0LTAzLTE1VDIxOjQ5OjAwWg==\"}").toString();
+    }
+
+    @Benchmark
+    public StockBarsResp deserialize() {
+        return JSON.getGson().fromJson(page, StockBarsResp.class);
+    }
+}
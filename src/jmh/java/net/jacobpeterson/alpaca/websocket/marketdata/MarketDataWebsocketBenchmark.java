@@ -0,0 +1,174 @@
+package net.jacobpeterson.alpaca.websocket.marketdata;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.bar.StockBarMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.quote.StockQuoteMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import net.jacobpeterson.alpaca.websocket.TestWebSocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataFlyweightListener;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataListenerAdapter;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataWebsocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockQuoteFlyweight;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockTradeFlyweight;
+import okhttp3.OkHttpClient;
+import okio.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+
+import static com.google.gson.JsonParser.parseString;
+import static net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType.IEX;
+import static net.jacobpeterson.alpaca.util.msgpack.MessagePackUtil.toMessagePack;
+
+/**
+ * {@link MarketDataWebsocketBenchmark} benchmarks {@link MarketDataWebsocket#onMessage} of a
+ * {@link StockMarketDataWebsocket} with frames of mixed trade, quote, and minute bar messages, as received from the
+ * Alpaca stock market data stream. Each decoder is benchmarked with a listener that consumes every decoded message.
+ */
+@State(Scope.Thread)
+public class MarketDataWebsocketBenchmark {
+
+    private static final int FRAME_COUNT = 64;
+    private static final int SYMBOL_COUNT = 500;
+    private static final String[] EXCHANGES = {"V", "Q", "N", "P", "K", "Z"};
+
+    /**
+     * The decoder of {@link MarketDataWebsocket#onMessage}.
+     */
+    public enum Decoder {
+
+        /** Parses frames into a JSON tree and then into message models. */
+        TREE,
+
+        /** Reads frames directly into message models with the streaming decoder. */
+        STREAMING,
+
+        /** Reads MessagePack binary frames directly into message models. */
+        MESSAGE_PACK,
+
+        /** Reads trades and quotes into reused flyweights. */
+        FLYWEIGHT
+    }
+
+    @Param({"TREE", "STREAMING", "MESSAGE_PACK", "FLYWEIGHT"})
+    public Decoder decoder;
+
+    @Param({"1", "100"})
+    public int messagesPerFrame;
+
+    private StockMarketDataWebsocket websocket;
+    private String[] textFrames;
+    private ByteString[] binaryFrames;
+    private int frameIndex;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        websocket = new StockMarketDataWebsocket(new OkHttpClient(), "key", "secret", null, null, IEX);
+        websocket.setUseStreamingDecoder(decoder == Decoder.STREAMING);
+        if (decoder == Decoder.FLYWEIGHT) {
+            websocket.setFlyweightListener(new StockMarketDataFlyweightListener() {
+                @Override
+                public void onTrade(StockTradeFlyweight trade) {
+                    blackhole.consume(trade.getPrice());
+                    blackhole.consume(trade.getSize());
+                }
+
+                @Override
+                public void onQuote(StockQuoteFlyweight quote) {
+                    blackhole.consume(quote.getAskPrice());
+                    blackhole.consume(quote.getBidPrice());
+                }
+            });
+        }
+        // Bars are never decoded by the flyweight decoder, so the listener is also needed for it
+        websocket.setListener(new StockMarketDataListenerAdapter() {
+            @Override
+            public void onTrade(StockTradeMessage trade) {
+                blackhole.consume(trade);
+            }
+
+            @Override
+            public void onQuote(StockQuoteMessage quote) {
+                blackhole.consume(quote);
+            }
+
+            @Override
+            public void onMinuteBar(StockBarMessage bar) {
+                blackhole.consume(bar);
+            }
+        });
+
+        final SplittableRandom random = new SplittableRandom(0);
+        textFrames = new String[FRAME_COUNT];
+        binaryFrames = new ByteString[FRAME_COUNT];
+        for (int index = 0; index < FRAME_COUNT; index++) {
+            textFrames[index] = createFrame(random, messagesPerFrame);
+            binaryFrames[index] = ByteString.of(toMessagePack(parseString(textFrames[index])));
+        }
+        frameIndex = 0;
+    }
+
+    @Benchmark
+    public void onMessage() {
+        final int index = frameIndex++ & (FRAME_COUNT - 1);
+        if (decoder == Decoder.MESSAGE_PACK) {
+            websocket.onMessage(TestWebSocket.INSTANCE, binaryFrames[index]);
+        } else {
+            websocket.onMessage(TestWebSocket.INSTANCE, textFrames[index]);
+        }
+    }
+
+    /**
+     * Creates a frame of messages in the proportions of a typical stock market data stream: mostly quotes, some
+     * trades, and a few minute bars.
+     *
+     * @param random       the {@link SplittableRandom}
+     * @param messageCount the number of messages in the frame
+     *
+     * @return the frame {@link String}
+     */
+    private static String createFrame(SplittableRandom random, int messageCount) {
+        final StringBuilder frame = new StringBuilder(messageCount * 200).append('[');
+        for (int index = 0; index < messageCount; index++) {
+            if (index > 0) {
+                frame.append(',');
+            }
+            final String symbol = "SYM" + random.nextInt(SYMBOL_COUNT);
+            final int priceCents = 1000 + random.nextInt(100_000);
+            final String timestamp = "2024-03-15T14:" + (10 + random.nextInt(50)) + ":" + (10 + random.nextInt(50)) +
+                    "." + (100_000_000 + random.nextInt(900_000_000)) + "Z";
+            final int messageType = random.nextInt(20);
+            if (messageType < 13) {
+                frame.append("{\"T\":\"q\",\"S\":\"").append(symbol)
+                        .append("\",\"bx\":\"").append(EXCHANGES[random.nextInt(EXCHANGES.length)])
+                        .append("\",\"bp\":").append((priceCents - 1) / 100.0)
+                        .append(",\"bs\":").append(1 + random.nextInt(20))
+                        .append(",\"ax\":\"").append(EXCHANGES[random.nextInt(EXCHANGES.length)])
+                        .append("\",\"ap\":").append((priceCents + 1) / 100.0)
+                        .append(",\"as\":").append(1 + random.nextInt(20))
+                        .append(",\"t\":\"").append(timestamp).append("\",\"c\":[\"R\"],\"z\":\"C\"}");
+            } else if (messageType < 19) {
+                frame.append("{\"T\":\"t\",\"S\":\"").append(symbol)
+                        .append("\",\"i\":").append(random.nextInt(Integer.MAX_VALUE))
+                        .append(",\"x\":\"").append(EXCHANGES[random.nextInt(EXCHANGES.length)])
+                        .append("\",\"p\":").append(priceCents / 100.0)
+                        .append(",\"s\":").append(1 + random.nextInt(500))
+                        .append(",\"t\":\"").append(timestamp).append("\",\"c\":[\"@\",\"I\"],\"z\":\"C\"}");
+            } else {
+                frame.append("{\"T\":\"b\",\"S\":\"").append(symbol)
+                        .append("\",\"o\":").append(priceCents / 100.0)
+                        .append(",\"h\":").append((priceCents + 25) / 100.0)
+                        .append(",\"l\":").append((priceCents - 25) / 100.0)
+                        .append(",\"c\":").append((priceCents + 5) / 100.0)
+                        .append(",\"v\":").append(100 + random.nextInt(100_000))
+                        .append(",\"t\":\"2024-03-15T14:30:00Z\",\"n\":").append(1 + random.nextInt(1000))
+                        .append(",\"vw\":").append((priceCents + 2) / 100.0).append('}');
+            }
+        }
+        return frame.append(']').toString();
+    }
+}
@@ -0,0 +1,87 @@
+package net.jacobpeterson.alpaca.websocket.marketdata;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.control.StockSubscriptionsMessage;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataWebsocket;
+import okhttp3.OkHttpClient;
+import okio.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType.IEX;
+
+/**
+ * {@link SubscriptionFrameBenchmark} benchmarks {@link MarketDataWebsocket#setSubscriptions(Set, Set,
+ * java.util.function.Function)}, from computing the changes against the acknowledged subscriptions to serializing the
+ * unsubscribe and subscribe frames. Each invocation replaces a tenth of the acknowledged trade and quote symbols.
+ */
+@State(Scope.Thread)
+public class SubscriptionFrameBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int symbolCount;
+
+    @Param({"false", "true"})
+    public boolean useMessagePack;
+
+    private BenchmarkStockMarketDataWebsocket websocket;
+    private Set<String> newSubscriptions;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        final Set<String> acknowledgedSubscriptions = new LinkedHashSet<>();
+        newSubscriptions = new LinkedHashSet<>();
+        final int replacedSymbolCount = symbolCount / 10;
+        for (int index = 0; index < symbolCount; index++) {
+            acknowledgedSubscriptions.add("SYM" + index);
+            newSubscriptions.add("SYM" + (index + replacedSymbolCount));
+        }
+        websocket = new BenchmarkStockMarketDataWebsocket(blackhole);
+        websocket.setUseMessagePack(useMessagePack);
+        websocket.setAcknowledgedSubscriptions(new StockSubscriptionsMessage()
+                .withTrades(acknowledgedSubscriptions)
+                .withQuotes(acknowledgedSubscriptions));
+    }
+
+    @Benchmark
+    public void setSubscriptions() {
+        websocket.setTradeSubscriptions(newSubscriptions);
+        websocket.setQuoteSubscriptions(newSubscriptions);
+        // Drop the in-flight frames so that the next invocation computes the same changes
+        websocket.subscriptionBatcher.clear();
+    }
+
+    /**
+     * {@link BenchmarkStockMarketDataWebsocket} is a {@link StockMarketDataWebsocket} that consumes sent messages with
+     * a {@link Blackhole} instead of sending them.
+     */
+    private static final class BenchmarkStockMarketDataWebsocket extends StockMarketDataWebsocket {
+
+        private final Blackhole blackhole;
+
+        BenchmarkStockMarketDataWebsocket(Blackhole blackhole) {
+            super(new OkHttpClient(), "key", "secret", null, null, IEX);
+            this.blackhole = blackhole;
+        }
+
+        void setAcknowledgedSubscriptions(StockSubscriptionsMessage subscriptionsMessage) {
+            this.subscriptionsMessage = subscriptionsMessage;
+        }
+
+        @Override
+        protected void sendWebsocketMessage(String message) {
+            blackhole.consume(message);
+        }
+
+        @Override
+        protected void sendWebsocketMessage(ByteString message) {
+            blackhole.consume(message);
+        }
+    }
+}
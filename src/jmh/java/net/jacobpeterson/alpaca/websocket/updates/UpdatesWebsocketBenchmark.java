@@ -0,0 +1,82 @@
+package net.jacobpeterson.alpaca.websocket.updates;
+
+import net.jacobpeterson.alpaca.model.util.apitype.TraderAPIEndpointType;
+import net.jacobpeterson.alpaca.websocket.TestWebSocket;
+import okhttp3.OkHttpClient;
+import okio.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link UpdatesWebsocketBenchmark} benchmarks {@link UpdatesWebsocket#onMessage(okhttp3.WebSocket, ByteString)} with
+ * alternating <code>"new"</code> and <code>"fill"</code> trade update frames, as received from the Alpaca trade
+ * updates stream.
+ */
+@State(Scope.Thread)
+public class UpdatesWebsocketBenchmark {
+
+    private static final int FRAME_COUNT = 64;
+
+    private UpdatesWebsocket websocket;
+    private ByteString[] frames;
+    private int frameIndex;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        websocket = new UpdatesWebsocket(new OkHttpClient(), TraderAPIEndpointType.PAPER, "key", "secret", null);
+        websocket.setListener(blackhole::consume);
+
+        frames = new ByteString[FRAME_COUNT];
+        for (int index = 0; index < FRAME_COUNT; index++) {
+            frames[index] = ByteString.encodeUtf8(createFrame(index / 2, (index & 1) == 1));
+        }
+        frameIndex = 0;
+    }
+
+    @Benchmark
+    public void onMessage() {
+        websocket.onMessage(TestWebSocket.INSTANCE, frames[frameIndex++ & (FRAME_COUNT - 1)]);
+    }
+
+    /**
+     * Creates a trade update frame of a limit order.
+     *
+     * @param orderIndex the index of the order
+     * @param filled     <code>true</code> for a <code>"fill"</code> event, <code>false</code> for a <code>"new"</code>
+     *                   event
+     *
+     * @return the frame {@link String}
+     */
+    private static String createFrame(int orderIndex, boolean filled) {
+        final String orderID = String.format("61e69015-8549-4bfd-b9c3-%012d", orderIndex);
+        final String price = (100 + orderIndex) + ".25";
+        final StringBuilder frame = new StringBuilder(1024)
+                .append("{\"stream\":\"trade_updates\",\"data\":{\"event\":\"").append(filled ? "fill" : "new")
+                .append('"');
+        if (filled) {
+            frame.append(",\"execution_id\":\"7922ab44-5a6f-4a8e-bd1c-").append(String.format("%012d", orderIndex))
+                    .append("\",\"price\":\"").append(price).append("\",\"qty\":\"100\",\"position_qty\":\"100\"");
+        }
+        frame.append(",\"timestamp\":\"2024-03-15T14:30:01.123456789Z\",\"order\":{\"id\":\"").append(orderID)
+                .append("\",\"client_order_id\":\"eb9e2aaa-f71a-4f51-b5b4-").append(String.format("%012d", orderIndex))
+                .append("\",\"created_at\":\"2024-03-15T14:30:00.987654321Z\"")
+                .append(",\"updated_at\":\"2024-03-15T14:30:01.123456789Z\"")
+                .append(",\"submitted_at\":\"2024-03-15T14:30:00.991234567Z\"")
+                .append(",\"filled_at\":").append(filled ? "\"2024-03-15T14:30:01.123456789Z\"" : "null")
+                .append(",\"expired_at\":null,\"canceled_at\":null,\"failed_at\":null,\"replaced_at\":null")
+                .append(",\"replaced_by\":null,\"replaces\":null")
+                .append(",\"asset_id\":\"b0b6dd9d-8b9b-48a9-ba46-b9d54906e415\",\"symbol\":\"AAPL\"")
+                .append(",\"asset_class\":\"us_equity\",\"notional\":null,\"qty\":\"100\",\"filled_qty\":\"")
+                .append(filled ? "100" : "0").append("\",\"filled_avg_price\":")
+                .append(filled ? "\"" + price + "\"" : "null")
+                .append(",\"order_class\":\"\",\"order_type\":\"limit\",\"type\":\"limit\",\"side\":\"buy\"")
+                .append(",\"time_in_force\":\"day\",\"limit_price\":\"").append(price)
+                .append("\",\"stop_price\":null,\"status\":\"").append(filled ? "filled" : "new")
+                .append("\",\"extended_hours\":false,\"legs\":null,\"trail_percent\":null,\"trail_price\":null")
+                .append(",\"hwm\":null}}}");
+        return frame.toString();
+    }
+}
@@ -6,19 +6,27 @@ import net.jacobpeterson.alpaca.model.util.apitype.TraderAPIEndpointType;
 import net.jacobpeterson.alpaca.rest.broker.AlpacaBrokerAPI;
 import net.jacobpeterson.alpaca.rest.marketdata.AlpacaMarketDataAPI;
 import net.jacobpeterson.alpaca.rest.trader.AlpacaTraderAPI;
+import net.jacobpeterson.alpaca.util.concurrent.ListenerExecutionMode;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.metrics.NoopAlpacaMetrics;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
 import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.CryptoMarketDataWebsocket;
 import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.CryptoMarketDataWebsocketInterface;
 import net.jacobpeterson.alpaca.websocket.marketdata.streams.news.NewsMarketDataWebsocket;
 import net.jacobpeterson.alpaca.websocket.marketdata.streams.news.NewsMarketDataWebsocketInterface;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.ShardedStockMarketDataStream;
 import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataWebsocket;
 import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataWebsocketInterface;
 import net.jacobpeterson.alpaca.websocket.updates.UpdatesWebsocket;
 import net.jacobpeterson.alpaca.websocket.updates.UpdatesWebsocketInterface;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Executor;
+
 import static net.jacobpeterson.alpaca.model.util.apitype.BrokerAPIEndpointType.SANDBOX;
 import static net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType.IEX;
 import static net.jacobpeterson.alpaca.model.util.apitype.TraderAPIEndpointType.PAPER;
@@ -47,6 +55,11 @@ public class AlpacaAPI {
     private final String brokerAPISecret;
     private final BrokerAPIEndpointType brokerAPIEndpointType;
     private final OkHttpClient okHttpClient;
+    private final AlpacaMetrics metrics;
+    private final HttpUrl websocketBaseURL;
+    private final SymbolDictionary symbolDictionary;
+    private final ListenerExecutionMode listenerExecutionMode;
+    private final Executor listenerExecutor;
 
     private AlpacaTraderAPI trader;
     private AlpacaMarketDataAPI marketData;
@@ -157,6 +170,124 @@ public class AlpacaAPI {
             MarketDataWebsocketSourceType marketDataWebsocketSourceType,
             String brokerAPIKey, String brokerAPISecret, BrokerAPIEndpointType brokerAPIEndpointType,
             OkHttpClient okHttpClient) {
+        this(traderKeyID, traderSecretKey, traderOAuthToken, traderAPIEndpointType, marketDataWebsocketSourceType,
+                brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient, null);
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaAPI}.
+     *
+     * @param traderKeyID                   the Trader key ID
+     * @param traderSecretKey               the Trader secret key
+     * @param traderOAuthToken              the Trader OAuth token
+     * @param traderAPIEndpointType         the {@link TraderAPIEndpointType}
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param brokerAPIKey                  the Broker API key
+     * @param brokerAPISecret               the Broker API secret
+     * @param brokerAPIEndpointType         the {@link BrokerAPIEndpointType}
+     * @param okHttpClient                  an existing {@link OkHttpClient} or <code>null</code> to create a new
+     *                                      default instance
+     * @param metrics                       the {@link AlpacaMetrics} for the websockets and SSE streams or
+     *                                      <code>null</code> for {@link NoopAlpacaMetrics}
+     */
+    public AlpacaAPI(String traderKeyID, String traderSecretKey,
+            String traderOAuthToken, TraderAPIEndpointType traderAPIEndpointType,
+            MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            String brokerAPIKey, String brokerAPISecret, BrokerAPIEndpointType brokerAPIEndpointType,
+            OkHttpClient okHttpClient, AlpacaMetrics metrics) {
+        this(traderKeyID, traderSecretKey, traderOAuthToken, traderAPIEndpointType, marketDataWebsocketSourceType,
+                brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient, metrics, null);
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaAPI}.
+     *
+     * @param traderKeyID                   the Trader key ID
+     * @param traderSecretKey               the Trader secret key
+     * @param traderOAuthToken              the Trader OAuth token
+     * @param traderAPIEndpointType         the {@link TraderAPIEndpointType}
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param brokerAPIKey                  the Broker API key
+     * @param brokerAPISecret               the Broker API secret
+     * @param brokerAPIEndpointType         the {@link BrokerAPIEndpointType}
+     * @param okHttpClient                  an existing {@link OkHttpClient} or <code>null</code> to create a new
+     *                                      default instance
+     * @param metrics                       the {@link AlpacaMetrics} for the websockets and SSE streams or
+     *                                      <code>null</code> for {@link NoopAlpacaMetrics}
+     * @param websocketBaseURL              the base {@link HttpUrl} that all websockets connect to instead of the
+     *                                      Alpaca hosts (e.g. <code>http://localhost:8080</code> for a local stand-in
+     *                                      server) or <code>null</code> for the Alpaca hosts
+     */
+    public AlpacaAPI(String traderKeyID, String traderSecretKey,
+            String traderOAuthToken, TraderAPIEndpointType traderAPIEndpointType,
+            MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            String brokerAPIKey, String brokerAPISecret, BrokerAPIEndpointType brokerAPIEndpointType,
+            OkHttpClient okHttpClient, AlpacaMetrics metrics, HttpUrl websocketBaseURL) {
+        this(traderKeyID, traderSecretKey, traderOAuthToken, traderAPIEndpointType, marketDataWebsocketSourceType,
+                brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient, metrics, websocketBaseURL, null);
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaAPI}.
+     *
+     * @param traderKeyID                   the Trader key ID
+     * @param traderSecretKey               the Trader secret key
+     * @param traderOAuthToken              the Trader OAuth token
+     * @param traderAPIEndpointType         the {@link TraderAPIEndpointType}
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param brokerAPIKey                  the Broker API key
+     * @param brokerAPISecret               the Broker API secret
+     * @param brokerAPIEndpointType         the {@link BrokerAPIEndpointType}
+     * @param okHttpClient                  an existing {@link OkHttpClient} or <code>null</code> to create a new
+     *                                      default instance
+     * @param metrics                       the {@link AlpacaMetrics} for the websockets and SSE streams or
+     *                                      <code>null</code> for {@link NoopAlpacaMetrics}
+     * @param websocketBaseURL              the base {@link HttpUrl} that all websockets connect to instead of the
+     *                                      Alpaca hosts (e.g. <code>http://localhost:8080</code> for a local stand-in
+     *                                      server) or <code>null</code> for the Alpaca hosts
+     * @param symbolDictionary              the {@link SymbolDictionary} shared by all market data websockets or
+     *                                      <code>null</code> to create a new instance
+     */
+    public AlpacaAPI(String traderKeyID, String traderSecretKey,
+            String traderOAuthToken, TraderAPIEndpointType traderAPIEndpointType,
+            MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            String brokerAPIKey, String brokerAPISecret, BrokerAPIEndpointType brokerAPIEndpointType,
+            OkHttpClient okHttpClient, AlpacaMetrics metrics, HttpUrl websocketBaseURL,
+            SymbolDictionary symbolDictionary) {
+        this(traderKeyID, traderSecretKey, traderOAuthToken, traderAPIEndpointType, marketDataWebsocketSourceType,
+                brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient, metrics, websocketBaseURL,
+                symbolDictionary, null);
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaAPI}.
+     *
+     * @param traderKeyID                   the Trader key ID
+     * @param traderSecretKey               the Trader secret key
+     * @param traderOAuthToken              the Trader OAuth token
+     * @param traderAPIEndpointType         the {@link TraderAPIEndpointType}
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param brokerAPIKey                  the Broker API key
+     * @param brokerAPISecret               the Broker API secret
+     * @param brokerAPIEndpointType         the {@link BrokerAPIEndpointType}
+     * @param okHttpClient                  an existing {@link OkHttpClient} or <code>null</code> to create a new
+     *                                      default instance
+     * @param metrics                       the {@link AlpacaMetrics} for the websockets and SSE streams or
+     *                                      <code>null</code> for {@link NoopAlpacaMetrics}
+     * @param websocketBaseURL              the base {@link HttpUrl} that all websockets connect to instead of the
+     *                                      Alpaca hosts (e.g. <code>http://localhost:8080</code> for a local stand-in
+     *                                      server) or <code>null</code> for the Alpaca hosts
+     * @param symbolDictionary              the {@link SymbolDictionary} shared by all market data websockets or
+     *                                      <code>null</code> to create a new instance
+     * @param listenerExecutionMode         the {@link ListenerExecutionMode} of the websocket and SSE stream listeners
+     *                                      or <code>null</code> for {@link ListenerExecutionMode#DIRECT}
+     */
+    public AlpacaAPI(String traderKeyID, String traderSecretKey,
+            String traderOAuthToken, TraderAPIEndpointType traderAPIEndpointType,
+            MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            String brokerAPIKey, String brokerAPISecret, BrokerAPIEndpointType brokerAPIEndpointType,
+            OkHttpClient okHttpClient, AlpacaMetrics metrics, HttpUrl websocketBaseURL,
+            SymbolDictionary symbolDictionary, ListenerExecutionMode listenerExecutionMode) {
         this.traderKeyID = traderKeyID;
         this.traderSecretKey = traderSecretKey;
         this.traderOAuthToken = traderOAuthToken;
@@ -180,6 +311,12 @@ public class AlpacaAPI {
             okHttpClient = clientBuilder.build();
         }
         this.okHttpClient = okHttpClient;
+        this.metrics = metrics != null ? metrics : NoopAlpacaMetrics.INSTANCE;
+        this.websocketBaseURL = websocketBaseURL;
+        this.symbolDictionary = symbolDictionary != null ? symbolDictionary : new SymbolDictionary();
+        this.listenerExecutionMode = listenerExecutionMode != null ? listenerExecutionMode :
+                ListenerExecutionMode.DIRECT;
+        listenerExecutor = this.listenerExecutionMode.createExecutor("Alpaca Listener");
     }
 
     /**
@@ -199,6 +336,47 @@ public class AlpacaAPI {
         return okHttpClient;
     }
 
+    /**
+     * Gets the {@link AlpacaMetrics}.
+     *
+     * @return the {@link AlpacaMetrics}
+     */
+    public AlpacaMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the {@link SymbolDictionary} that is shared by all market data websockets created by this
+     * {@link AlpacaAPI}, so a symbol has the same symbol ID in every market data stream. Symbols are added to it when
+     * they are subscribed to, but a symbol universe can also be preloaded with
+     * {@link SymbolDictionary#addSymbols(Iterable)} (e.g. with the symbols of the assets from
+     * <code>trader().assets()</code>) so that symbol IDs are assigned up front.
+     *
+     * @return the {@link SymbolDictionary}
+     */
+    public SymbolDictionary getSymbolDictionary() {
+        return symbolDictionary;
+    }
+
+    /**
+     * Gets the {@link ListenerExecutionMode} of the websocket and SSE stream listeners.
+     *
+     * @return the {@link ListenerExecutionMode}
+     */
+    public ListenerExecutionMode getListenerExecutionMode() {
+        return listenerExecutionMode;
+    }
+
+    /**
+     * Gets the {@link Executor} that the websocket and SSE stream listeners are called on, which is shared by all
+     * streams created by this {@link AlpacaAPI}.
+     *
+     * @return the {@link Executor} or <code>null</code> for {@link ListenerExecutionMode#DIRECT}
+     */
+    public Executor getListenerExecutor() {
+        return listenerExecutor;
+    }
+
     /**
      * Gets the {@link AlpacaTraderAPI}. Lazily instantiated.
      *
@@ -232,7 +410,8 @@ public class AlpacaAPI {
      */
     public synchronized AlpacaBrokerAPI broker() {
         if (broker == null) {
-            broker = new AlpacaBrokerAPI(brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient);
+            broker = new AlpacaBrokerAPI(brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient, metrics,
+                    listenerExecutor);
         }
         return broker;
     }
@@ -245,7 +424,9 @@ public class AlpacaAPI {
     public synchronized UpdatesWebsocketInterface updatesStream() {
         if (updatesWebsocket == null) {
             updatesWebsocket = new UpdatesWebsocket(okHttpClient, traderAPIEndpointType,
-                    traderKeyID, traderSecretKey, traderOAuthToken);
+                    traderKeyID, traderSecretKey, traderOAuthToken, websocketBaseURL);
+            updatesWebsocket.setMetrics(metrics);
+            updatesWebsocket.setListenerExecutor(listenerExecutor);
         }
         return updatesWebsocket;
     }
@@ -258,11 +439,32 @@ public class AlpacaAPI {
     public synchronized StockMarketDataWebsocketInterface stockMarketDataStream() {
         if (stockMarketDataWebsocket == null) {
             stockMarketDataWebsocket = new StockMarketDataWebsocket(okHttpClient,
-                    traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, marketDataWebsocketSourceType);
+                    traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, marketDataWebsocketSourceType,
+                    "Stock", symbolDictionary, websocketBaseURL);
+            stockMarketDataWebsocket.setMetrics(metrics);
+            stockMarketDataWebsocket.setListenerExecutor(listenerExecutor);
         }
         return stockMarketDataWebsocket;
     }
 
+    /**
+     * Creates a new {@link ShardedStockMarketDataStream} that spreads its symbol subscriptions across
+     * <code>shardCount</code> stock market data websocket connections. Your Alpaca subscription plan must allow this
+     * many concurrent market data connections.
+     *
+     * @param shardCount the number of shards (websocket connections)
+     *
+     * @return the {@link ShardedStockMarketDataStream}
+     */
+    public ShardedStockMarketDataStream createShardedStockMarketDataStream(int shardCount) {
+        final ShardedStockMarketDataStream shardedStockMarketDataStream = new ShardedStockMarketDataStream(
+                okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret,
+                marketDataWebsocketSourceType, shardCount, symbolDictionary, websocketBaseURL);
+        shardedStockMarketDataStream.setMetrics(metrics);
+        shardedStockMarketDataStream.setListenerExecutor(listenerExecutor);
+        return shardedStockMarketDataStream;
+    }
+
     /**
      * Gets the {@link CryptoMarketDataWebsocketInterface}. Lazily instantiated.
      *
@@ -271,7 +473,9 @@ public class AlpacaAPI {
     public synchronized CryptoMarketDataWebsocketInterface cryptoMarketDataStream() {
         if (cryptoMarketDataWebsocket == null) {
             cryptoMarketDataWebsocket = new CryptoMarketDataWebsocket(okHttpClient,
-                    traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret);
+                    traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, symbolDictionary, websocketBaseURL);
+            cryptoMarketDataWebsocket.setMetrics(metrics);
+            cryptoMarketDataWebsocket.setListenerExecutor(listenerExecutor);
         }
         return cryptoMarketDataWebsocket;
     }
@@ -284,7 +488,9 @@ public class AlpacaAPI {
     public synchronized NewsMarketDataWebsocketInterface newsMarketDataStream() {
         if (newsMarketDataWebsocket == null) {
             newsMarketDataWebsocket = new NewsMarketDataWebsocket(okHttpClient,
-                    traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret);
+                    traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, symbolDictionary, websocketBaseURL);
+            newsMarketDataWebsocket.setMetrics(metrics);
+            newsMarketDataWebsocket.setListenerExecutor(listenerExecutor);
         }
         return newsMarketDataWebsocket;
     }
@@ -312,6 +518,10 @@ public class AlpacaAPI {
         private String brokerAPISecret;
         private BrokerAPIEndpointType brokerAPIEndpointType;
         private OkHttpClient okHttpClient;
+        private AlpacaMetrics metrics;
+        private HttpUrl websocketBaseURL;
+        private SymbolDictionary symbolDictionary;
+        private ListenerExecutionMode listenerExecutionMode;
 
         private Builder() {}
 
@@ -360,9 +570,30 @@ public class AlpacaAPI {
             return this;
         }
 
+        public Builder withMetrics(AlpacaMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public Builder withWebsocketBaseURL(HttpUrl websocketBaseURL) {
+            this.websocketBaseURL = websocketBaseURL;
+            return this;
+        }
+
+        public Builder withSymbolDictionary(SymbolDictionary symbolDictionary) {
+            this.symbolDictionary = symbolDictionary;
+            return this;
+        }
+
+        public Builder withListenerExecutionMode(ListenerExecutionMode listenerExecutionMode) {
+            this.listenerExecutionMode = listenerExecutionMode;
+            return this;
+        }
+
         public AlpacaAPI build() {
             return new AlpacaAPI(traderKeyID, traderSecretKey, traderOAuthToken, traderAPIEndpointType,
-                    marketDataWebsocketSourceType, brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient);
+                    marketDataWebsocketSourceType, brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient,
+                    metrics, websocketBaseURL, symbolDictionary, listenerExecutionMode);
         }
     }
 }
@@ -28,8 +28,11 @@ import net.jacobpeterson.alpaca.openapi.broker.model.JNLS;
 import net.jacobpeterson.alpaca.openapi.broker.model.NonTradeActivity;
 import net.jacobpeterson.alpaca.openapi.broker.model.TradeActivity;
 import net.jacobpeterson.alpaca.rest.broker.events.EventsApiSSE;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.metrics.NoopAlpacaMetrics;
 import okhttp3.OkHttpClient;
 
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -65,6 +68,8 @@ public class AlpacaBrokerAPI {
     }
 
     private final ApiClient apiClient;
+    private final AlpacaMetrics metrics;
+    private final Executor listenerExecutor;
     private AccountsApi accounts;
     private AssetsApi assets;
     private CalendarApi calendar;
@@ -93,13 +98,49 @@ public class AlpacaBrokerAPI {
      * @param okHttpClient          an existing {@link OkHttpClient} or <code>null</code> to create a new default
      *                              instance
      */
-    @SuppressWarnings("UnnecessaryDefault")
     public AlpacaBrokerAPI(String brokerAPIKey, String brokerAPISecret, BrokerAPIEndpointType brokerAPIEndpointType,
             OkHttpClient okHttpClient) {
+        this(brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient, NoopAlpacaMetrics.INSTANCE);
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaBrokerAPI}.
+     *
+     * @param brokerAPIKey          the Broker API key
+     * @param brokerAPISecret       the Broker API secret
+     * @param brokerAPIEndpointType the {@link BrokerAPIEndpointType}
+     * @param okHttpClient          an existing {@link OkHttpClient} or <code>null</code> to create a new default
+     *                              instance
+     * @param metrics               the {@link AlpacaMetrics} for the {@link EventsApiSSE} streams
+     */
+    public AlpacaBrokerAPI(String brokerAPIKey, String brokerAPISecret, BrokerAPIEndpointType brokerAPIEndpointType,
+            OkHttpClient okHttpClient, AlpacaMetrics metrics) {
+        this(brokerAPIKey, brokerAPISecret, brokerAPIEndpointType, okHttpClient, metrics, null);
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaBrokerAPI}.
+     *
+     * @param brokerAPIKey          the Broker API key
+     * @param brokerAPISecret       the Broker API secret
+     * @param brokerAPIEndpointType the {@link BrokerAPIEndpointType}
+     * @param okHttpClient          an existing {@link OkHttpClient} or <code>null</code> to create a new default
+     *                              instance
+     * @param metrics               the {@link AlpacaMetrics} for the {@link EventsApiSSE} streams
+     * @param listenerExecutor      the {@link Executor} that the {@link EventsApiSSE} listeners are called on or
+     *                              <code>null</code> to call them on the OkHttp reader threads
+     */
+    @SuppressWarnings("UnnecessaryDefault")
+    public AlpacaBrokerAPI(String brokerAPIKey, String brokerAPISecret, BrokerAPIEndpointType brokerAPIEndpointType,
+            OkHttpClient okHttpClient, AlpacaMetrics metrics, Executor listenerExecutor) {
         checkNotNull(brokerAPIKey);
         checkNotNull(brokerAPISecret);
         checkNotNull(brokerAPIEndpointType);
         checkNotNull(okHttpClient);
+        checkNotNull(metrics);
+
+        this.metrics = metrics;
+        this.listenerExecutor = listenerExecutor;
 
         apiClient = new ApiClient(okHttpClient);
         apiClient.setServerIndex(switch (brokerAPIEndpointType) {
@@ -211,7 +252,7 @@ public class AlpacaBrokerAPI {
      */
     public synchronized EventsApiSSE events() {
         if (events == null) {
-            events = new EventsApiSSE(apiClient);
+            events = new EventsApiSSE(apiClient, metrics, listenerExecutor);
         }
         return events;
     }
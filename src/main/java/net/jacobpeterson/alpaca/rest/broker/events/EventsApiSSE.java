@@ -1,5 +1,6 @@
 package net.jacobpeterson.alpaca.rest.broker.events;
 
+import com.google.common.base.Utf8;
 import com.google.gson.reflect.TypeToken;
 import net.jacobpeterson.alpaca.openapi.broker.ApiClient;
 import net.jacobpeterson.alpaca.openapi.broker.ApiException;
@@ -10,6 +11,10 @@ import net.jacobpeterson.alpaca.openapi.broker.model.SubscribeToAdminActionSSE20
 import net.jacobpeterson.alpaca.openapi.broker.model.TradeUpdateEvent;
 import net.jacobpeterson.alpaca.openapi.broker.model.TradeUpdateEventV2;
 import net.jacobpeterson.alpaca.openapi.broker.model.TransferStatusEvent;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.metrics.MetricsCounter;
+import net.jacobpeterson.alpaca.util.metrics.MetricsTimer;
+import net.jacobpeterson.alpaca.util.metrics.NoopAlpacaMetrics;
 import net.jacobpeterson.alpaca.util.sse.SSEListener;
 import net.jacobpeterson.alpaca.util.sse.SSERequest;
 import okhttp3.Request;
@@ -25,9 +30,20 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Type;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.newSequentialExecutor;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static net.jacobpeterson.alpaca.openapi.broker.JSON.getGson;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.SSE_BYTES_RECEIVED;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.SSE_CONNECT_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.SSE_DECODE_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.SSE_EVENTS_RECEIVED;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.SSE_FAILURES;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.SSE_LISTENER_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.SSE_STREAM_TAG;
 
 /**
  * {@link EventsApiSSE} add SSE support to {@link EventsApi}.
@@ -38,6 +54,8 @@ public class EventsApiSSE {
 
     private final EventsApi eventsAPI;
     private final EventSource.Factory eventSourceFactory;
+    private final AlpacaMetrics metrics;
+    private final Executor listenerExecutor;
 
     /**
      * Instantiates a new {@link EventsApiSSE}.
@@ -45,6 +63,30 @@ public class EventsApiSSE {
      * @param apiClient the api client
      */
     public EventsApiSSE(ApiClient apiClient) {
+        this(apiClient, NoopAlpacaMetrics.INSTANCE);
+    }
+
+    /**
+     * Instantiates a new {@link EventsApiSSE}.
+     *
+     * @param apiClient the api client
+     * @param metrics   the {@link AlpacaMetrics}
+     */
+    public EventsApiSSE(ApiClient apiClient, AlpacaMetrics metrics) {
+        this(apiClient, metrics, null);
+    }
+
+    /**
+     * Instantiates a new {@link EventsApiSSE}.
+     *
+     * @param apiClient        the api client
+     * @param metrics          the {@link AlpacaMetrics}
+     * @param listenerExecutor the {@link Executor} that the {@link SSEListener}s are called on (in order for each
+     *                         stream) or <code>null</code> to call them on the OkHttp reader threads
+     */
+    public EventsApiSSE(ApiClient apiClient, AlpacaMetrics metrics, Executor listenerExecutor) {
+        this.metrics = checkNotNull(metrics);
+        this.listenerExecutor = listenerExecutor;
         eventsAPI = new EventsApi(apiClient);
         eventSourceFactory = EventSources.createFactory(apiClient.getHttpClient().newBuilder() // Shallow clone
                 .readTimeout(0, SECONDS)
@@ -62,8 +104,9 @@ public class EventsApiSSE {
             SSEListener<Object> sseListener) throws ApiException { // TODO OpenAPI response type is broken
         final Request request = eventsAPI.getV1EventsNtaCall(id, since, until, sinceId, untilId, sinceUlid, untilUlid,
                 includePreprocessing, null).request();
-        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener(sseListener,
-                new TypeToken<Object>() {}.getType()))); // TODO OpenAPI response type is broken
+        return new SSERequest(eventSourceFactory.newEventSource(request,
+                createEventSourceListener("non_trading_activities", sseListener,
+                        new TypeToken<Object>() {}.getType()))); // TODO OpenAPI response type is broken
     }
 
     /**
@@ -74,8 +117,8 @@ public class EventsApiSSE {
     public SSERequest subscribeToAdminAction(OffsetDateTime since, OffsetDateTime until, String sinceId,
             String untilId, SSEListener<AccountStatusEvent> sseListener) throws ApiException {
         final Request request = eventsAPI.subscribeToAdminActionSSECall(since, until, sinceId, untilId, null).request();
-        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener(sseListener,
-                new TypeToken<SubscribeToAdminActionSSE200ResponseInner>() {}.getType())));
+        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener("admin_action",
+                sseListener, new TypeToken<SubscribeToAdminActionSSE200ResponseInner>() {}.getType())));
     }
 
     /**
@@ -90,8 +133,8 @@ public class EventsApiSSE {
             SSEListener<AccountStatusEvent> sseListener) throws ApiException {
         final Request request = eventsAPI.subscribeToJournalStatusSSECall(since, until, sinceId, untilId, sinceUlid,
                 untilUlid, id, null).request();
-        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener(sseListener,
-                new TypeToken<JournalStatusEvent>() {}.getType())));
+        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener("journal_status",
+                sseListener, new TypeToken<JournalStatusEvent>() {}.getType())));
     }
 
     /**
@@ -104,8 +147,8 @@ public class EventsApiSSE {
             throws ApiException {
         final Request request = eventsAPI.subscribeToTradeSSECall(since, until, sinceId, untilId, sinceUlid, untilUlid,
                 null).request();
-        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener(sseListener,
-                new TypeToken<TradeUpdateEvent>() {}.getType())));
+        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener("trade",
+                sseListener, new TypeToken<TradeUpdateEvent>() {}.getType())));
     }
 
     /**
@@ -116,8 +159,8 @@ public class EventsApiSSE {
     public SSERequest subscribeToTradeV2(OffsetDateTime since, OffsetDateTime until, String sinceId,
             String untilId, SSEListener<AccountStatusEvent> sseListener) throws ApiException {
         final Request request = eventsAPI.subscribeToTradeV2SSECall(since, until, sinceId, untilId, null).request();
-        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener(sseListener,
-                new TypeToken<TradeUpdateEventV2>() {}.getType())));
+        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener("trade_v2",
+                sseListener, new TypeToken<TradeUpdateEventV2>() {}.getType())));
     }
 
     /**
@@ -132,8 +175,8 @@ public class EventsApiSSE {
             throws ApiException {
         final Request request = eventsAPI.subscribeToTransferStatusSSECall(since, until, sinceId, untilId, sinceUlid,
                 untilUlid, null).request();
-        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener(sseListener,
-                new TypeToken<TransferStatusEvent>() {}.getType())));
+        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener("transfer_status",
+                sseListener, new TypeToken<TransferStatusEvent>() {}.getType())));
     }
 
     /**
@@ -147,41 +190,93 @@ public class EventsApiSSE {
             throws ApiException {
         final Request request = eventsAPI.suscribeToAccountStatusSSECall(since, until, sinceId, untilId, sinceUlid,
                 untilUlid, id, null).request();
-        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener(sseListener,
-                new TypeToken<AccountStatusEvent>() {}.getType())));
+        return new SSERequest(eventSourceFactory.newEventSource(request, createEventSourceListener("account_status",
+                sseListener, new TypeToken<AccountStatusEvent>() {}.getType())));
     }
 
-    private <T> EventSourceListener createEventSourceListener(SSEListener<T> sseListener, Type responseTypeToken) {
+    private <T> EventSourceListener createEventSourceListener(String streamName, SSEListener<T> sseListener,
+            Type responseTypeToken) {
+        final MetricsTimer connectTimer = metrics.timer(SSE_CONNECT_TIME, SSE_STREAM_TAG, streamName);
+        final MetricsCounter failureCounter = metrics.counter(SSE_FAILURES, SSE_STREAM_TAG, streamName);
+        final MetricsCounter eventsReceivedCounter = metrics.counter(SSE_EVENTS_RECEIVED, SSE_STREAM_TAG, streamName);
+        final MetricsCounter bytesReceivedCounter = metrics.counter(SSE_BYTES_RECEIVED, SSE_STREAM_TAG, streamName);
+        final MetricsTimer decodeTimer = metrics.timer(SSE_DECODE_TIME, SSE_STREAM_TAG, streamName);
+        final MetricsTimer listenerTimer = metrics.timer(SSE_LISTENER_TIME, SSE_STREAM_TAG, streamName);
+        final long connectNanoTime = System.nanoTime();
+        final Executor sequentialListenerExecutor = listenerExecutor == null ? null :
+                newSequentialExecutor(listenerExecutor);
         return new EventSourceListener() {
             @Override
             public void onClosed(@NotNull EventSource eventSource) {
                 LOGGER.info("Event source closed: eventSource={}", eventSource);
-                sseListener.onClose();
+                executeListenerTask(sseListener::onClose);
             }
 
             @Override
             public void onEvent(@NotNull EventSource eventSource, @Nullable String id, @Nullable String type,
                     @NotNull String data) {
                 LOGGER.trace("Event source event: eventSource={} id={}, type={}, data={}", eventSource, id, type, data);
-                sseListener.onMessage(getGson().fromJson(data, responseTypeToken));
+                eventsReceivedCounter.increment();
+                if (metrics.isEnabled()) {
+                    bytesReceivedCounter.increment(Utf8.encodedLength(data));
+                    final long decodeNanoTime = System.nanoTime();
+                    final T message = getGson().fromJson(data, responseTypeToken);
+                    decodeTimer.record(System.nanoTime() - decodeNanoTime);
+                    executeListenerTask(() -> {
+                        final long listenerNanoTime = System.nanoTime();
+                        sseListener.onMessage(message);
+                        listenerTimer.record(System.nanoTime() - listenerNanoTime);
+                    });
+                } else if (sequentialListenerExecutor == null) {
+                    sseListener.onMessage(getGson().fromJson(data, responseTypeToken));
+                } else {
+                    final T message = getGson().fromJson(data, responseTypeToken);
+                    executeListenerTask(() -> sseListener.onMessage(message));
+                }
             }
 
             @Override
             public void onFailure(@NotNull EventSource eventSource, @Nullable Throwable throwable,
                     @Nullable Response response) {
                 if (throwable != null && throwable.getMessage().equals("canceled")) {
-                    sseListener.onClose();
+                    executeListenerTask(sseListener::onClose);
                     return;
                 }
                 LOGGER.error("Event source failure: eventSource={} throwable={}, response={}",
                         eventSource, throwable, response);
-                sseListener.onError(throwable, response);
+                failureCounter.increment();
+                executeListenerTask(() -> sseListener.onError(throwable, response));
             }
 
             @Override
             public void onOpen(@NotNull EventSource eventSource, @NotNull Response response) {
                 LOGGER.info("Event source opened: {}", eventSource);
-                sseListener.onOpen();
+                connectTimer.record(System.nanoTime() - connectNanoTime);
+                executeListenerTask(sseListener::onOpen);
+            }
+
+            /**
+             * Runs the given {@link SSEListener} callback <code>task</code> on the
+             * <code>sequentialListenerExecutor</code> or, if there is none, synchronously.
+             *
+             * @param task the task {@link Runnable}
+             */
+            private void executeListenerTask(Runnable task) {
+                if (sequentialListenerExecutor == null) {
+                    task.run();
+                    return;
+                }
+                try {
+                    sequentialListenerExecutor.execute(() -> {
+                        try {
+                            task.run();
+                        } catch (Exception exception) {
+                            LOGGER.error("Event source listener threw an exception!", exception);
+                        }
+                    });
+                } catch (RejectedExecutionException rejectedExecutionException) {
+                    LOGGER.error("Event source listener executor rejected a task!", rejectedExecutionException);
+                }
             }
         };
     }
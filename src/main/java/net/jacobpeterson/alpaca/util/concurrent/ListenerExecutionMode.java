@@ -0,0 +1,44 @@
+package net.jacobpeterson.alpaca.util.concurrent;
+
+import java.util.concurrent.Executor;
+
+/**
+ * {@link ListenerExecutionMode} defines the threads that websocket and SSE listener callbacks are called on.
+ */
+public enum ListenerExecutionMode {
+
+    /**
+     * Calls listener callbacks synchronously on the OkHttp reader threads, which is the default. Listener callbacks
+     * should therefore return quickly, since a blocking callback stalls the reading of its stream.
+     */
+    DIRECT,
+
+    /**
+     * Calls listener callbacks on virtual threads (Java 21+), so listener callbacks may block (e.g. to place an order
+     * or write to a database) without stalling the reading of their stream. Callbacks for the same symbol (or, for
+     * streams without symbols, the same stream) are still called in order, while callbacks for different symbols or
+     * streams may be called in parallel, so listeners must be thread-safe. On Java versions without virtual threads,
+     * this falls back to a cached pool of daemon platform threads.
+     *
+     * @see ListenerExecutors#newVirtualThreadExecutor(String)
+     */
+    VIRTUAL_THREADS;
+
+    /**
+     * Creates the {@link Executor} that listener callbacks are called on in this {@link ListenerExecutionMode}.
+     *
+     * @param threadNamePrefix the name prefix of the created threads
+     *
+     * @return the {@link Executor} or <code>null</code> for {@link #DIRECT}
+     */
+    public Executor createExecutor(String threadNamePrefix) {
+        switch (this) {
+            case DIRECT:
+                return null;
+            case VIRTUAL_THREADS:
+                return ListenerExecutors.newVirtualThreadExecutor(threadNamePrefix);
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+}
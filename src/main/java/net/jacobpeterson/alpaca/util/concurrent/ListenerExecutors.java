@@ -0,0 +1,82 @@
+package net.jacobpeterson.alpaca.util.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ListenerExecutors} contains factory methods for the {@link java.util.concurrent.Executor}s that listener
+ * callbacks are called on. Since this library targets Java 17, virtual threads (Java 21+) are created reflectively.
+ */
+public final class ListenerExecutors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ListenerExecutors.class);
+
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY_PROTOTYPE = createVirtualThreadFactory("");
+
+    private ListenerExecutors() {}
+
+    /**
+     * Whether the running Java version supports virtual threads.
+     *
+     * @return a boolean
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_FACTORY_PROTOTYPE != null;
+    }
+
+    /**
+     * Creates an {@link ExecutorService} that runs each task on a new virtual thread or, if the running Java version
+     * doesn't support virtual threads, a cached thread pool of daemon platform threads.
+     *
+     * @param threadNamePrefix the name prefix of the created threads
+     *
+     * @return the {@link ExecutorService}
+     */
+    public static ExecutorService newVirtualThreadExecutor(String threadNamePrefix) {
+        final ThreadFactory virtualThreadFactory = isVirtualThreadSupported() ?
+                createVirtualThreadFactory(threadNamePrefix + " ") : null;
+        if (virtualThreadFactory != null) {
+            try {
+                final Method newThreadPerTaskExecutor =
+                        Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                return (ExecutorService) newThreadPerTaskExecutor.invoke(null, virtualThreadFactory);
+            } catch (ReflectiveOperationException reflectiveOperationException) {
+                LOGGER.warn("Could not create a virtual thread executor!", reflectiveOperationException);
+            }
+        }
+
+        LOGGER.warn("Virtual threads aren't supported by Java {}. Falling back to daemon platform threads for {}.",
+                Runtime.version().feature(), threadNamePrefix);
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, threadNamePrefix + " " + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} of virtual threads via <code>Thread.ofVirtual().name(prefix, 0).factory()</code>.
+     *
+     * @param threadNamePrefix the name prefix of the created threads
+     *
+     * @return the {@link ThreadFactory} or <code>null</code> if virtual threads aren't supported
+     */
+    private static ThreadFactory createVirtualThreadFactory(String threadNamePrefix) {
+        try {
+            final Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = ofVirtualClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            return (ThreadFactory) ofVirtualClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException exception) {
+            // Before Java 21, virtual threads either don't exist or are a preview feature that throws when disabled
+            return null;
+        }
+    }
+}
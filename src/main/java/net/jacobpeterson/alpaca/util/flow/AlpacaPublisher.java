@@ -0,0 +1,379 @@
+package net.jacobpeterson.alpaca.util.flow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link AlpacaPublisher} is a {@link Flow.Publisher} that fans out the items of a stream (e.g. the messages of a
+ * websocket connection) to any number of {@link Flow.Subscriber}s. Each {@link Flow.Subscriber} has its own bounded
+ * buffer and only receives items that it has requested via {@link Flow.Subscription#request(long)}. When a buffer is
+ * full, the {@link PublisherOverflowPolicy} decides what happens. All signals to a {@link Flow.Subscriber} are issued
+ * serially on the {@link Executor} of this {@link AlpacaPublisher}, so a slow {@link Flow.Subscriber} never delays the
+ * publishing thread unless the {@link PublisherOverflowPolicy#BLOCK} policy is used.
+ * <br>
+ * {@link #publish(Object)} may be called from multiple threads, but items published concurrently have no defined
+ * order relative to each other.
+ *
+ * @param <T> the item type
+ */
+public class AlpacaPublisher<T> implements Flow.Publisher<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AlpacaPublisher.class);
+
+    /**
+     * The default {@link Executor} that signals {@link Flow.Subscriber}s, which is a cached thread pool of daemon
+     * threads that is shared by all {@link AlpacaPublisher}s.
+     */
+    public static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    private static ExecutorService createDefaultExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "Alpaca Publisher " + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final String name;
+    private final int bufferCapacity;
+    private final PublisherOverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final List<BufferedSubscription> subscriptions;
+    private final AtomicLong droppedItemCount;
+    private volatile boolean closed;
+    private Throwable closeThrowable;
+
+    /**
+     * Instantiates a new {@link AlpacaPublisher} that signals {@link Flow.Subscriber}s on the
+     * {@link #DEFAULT_EXECUTOR}.
+     *
+     * @param name           the name used for logging
+     * @param bufferCapacity the maximum number of buffered items of each {@link Flow.Subscriber}
+     * @param overflowPolicy the {@link PublisherOverflowPolicy}
+     */
+    public AlpacaPublisher(String name, int bufferCapacity, PublisherOverflowPolicy overflowPolicy) {
+        this(name, bufferCapacity, overflowPolicy, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaPublisher}.
+     *
+     * @param name           the name used for logging
+     * @param bufferCapacity the maximum number of buffered items of each {@link Flow.Subscriber}
+     * @param overflowPolicy the {@link PublisherOverflowPolicy}
+     * @param executor       the {@link Executor} that signals {@link Flow.Subscriber}s
+     */
+    public AlpacaPublisher(String name, int bufferCapacity, PublisherOverflowPolicy overflowPolicy,
+            Executor executor) {
+        checkArgument(bufferCapacity > 0, "bufferCapacity must be greater than 0!");
+        checkNotNull(overflowPolicy);
+        checkNotNull(executor);
+
+        this.name = name;
+        this.bufferCapacity = bufferCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+        subscriptions = new CopyOnWriteArrayList<>();
+        droppedItemCount = new AtomicLong();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        checkNotNull(subscriber);
+        final BufferedSubscription subscription = new BufferedSubscription(subscriber);
+        synchronized (this) {
+            if (closed) {
+                subscription.terminate(closeThrowable);
+            } else {
+                subscriptions.add(subscription);
+            }
+        }
+        // The first drain signals 'onSubscribe'
+        subscription.signal();
+    }
+
+    /**
+     * Publishes the given <code>item</code> to all current {@link Flow.Subscriber}s. This does nothing if this
+     * {@link AlpacaPublisher} is closed.
+     *
+     * @param item the item
+     */
+    public void publish(T item) {
+        checkNotNull(item);
+        for (BufferedSubscription subscription : subscriptions) {
+            subscription.offer(item);
+        }
+    }
+
+    /**
+     * Closes this {@link AlpacaPublisher}, which signals <code>onComplete</code> to each {@link Flow.Subscriber} after
+     * its buffered items have been delivered. {@link Flow.Subscriber}s that subscribe later are completed immediately.
+     */
+    public void close() {
+        closeWith(null);
+    }
+
+    /**
+     * Closes this {@link AlpacaPublisher} with the given {@link Throwable}, which signals <code>onError</code> to each
+     * {@link Flow.Subscriber} without delivering its buffered items. {@link Flow.Subscriber}s that subscribe later are
+     * failed immediately.
+     *
+     * @param throwable the {@link Throwable}
+     */
+    public void closeExceptionally(Throwable throwable) {
+        closeWith(checkNotNull(throwable));
+    }
+
+    private synchronized void closeWith(Throwable throwable) {
+        if (closed) {
+            return;
+        }
+        closeThrowable = throwable;
+        closed = true;
+        for (BufferedSubscription subscription : subscriptions) {
+            subscription.terminate(throwable);
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * Whether this {@link AlpacaPublisher} is closed.
+     *
+     * @return a boolean
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets the number of current {@link Flow.Subscriber}s.
+     *
+     * @return the subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Gets the total number of items that were dropped for {@link Flow.Subscriber}s because of the
+     * {@link PublisherOverflowPolicy}.
+     *
+     * @return the dropped item count
+     */
+    public long getDroppedItemCount() {
+        return droppedItemCount.get();
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public PublisherOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * {@link BufferedSubscription} is the {@link Flow.Subscription} of a {@link Flow.Subscriber}, which holds its
+     * buffered items and outstanding demand. Signals are issued by a drain task that runs on the {@link #executor}
+     * while there is something to signal, and at most one drain task runs at a time.
+     */
+    private final class BufferedSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final ArrayDeque<T> buffer;
+        private boolean subscribed;
+        private long demand;
+        private boolean cancelled;
+        private boolean terminated;
+        private Throwable terminalThrowable;
+        private boolean draining;
+        private boolean publisherWaiting;
+
+        private BufferedSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            buffer = new ArrayDeque<>();
+        }
+
+        private void offer(T item) {
+            synchronized (this) {
+                while (!cancelled && !terminated && buffer.size() >= bufferCapacity) {
+                    switch (overflowPolicy) {
+                        case BLOCK:
+                            publisherWaiting = true;
+                            try {
+                                wait();
+                            } catch (InterruptedException interruptedException) {
+                                Thread.currentThread().interrupt();
+                                throw new RuntimeException(name + " publisher was interrupted!",
+                                        interruptedException);
+                            } finally {
+                                publisherWaiting = false;
+                            }
+                            break;
+                        case DROP_OLDEST:
+                            buffer.pollFirst();
+                            droppedItemCount.incrementAndGet();
+                            break;
+                        case DROP_LATEST:
+                            droppedItemCount.incrementAndGet();
+                            return;
+                        case FAIL:
+                            droppedItemCount.addAndGet(buffer.size() + 1);
+                            buffer.clear();
+                            subscriptions.remove(this);
+                            terminate(new IllegalStateException(name + " publisher subscriber buffer overflowed!"));
+                            return;
+                        default:
+                            throw new UnsupportedOperationException();
+                    }
+                }
+                if (cancelled || terminated) {
+                    return;
+                }
+                buffer.addLast(item);
+                if (demand > 0) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private synchronized void terminate(Throwable throwable) {
+            if (terminated || cancelled) {
+                return;
+            }
+            terminated = true;
+            terminalThrowable = throwable;
+            if (publisherWaiting) {
+                notifyAll();
+            }
+            scheduleDrain();
+        }
+
+        private synchronized void signal() {
+            scheduleDrain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                subscriptions.remove(this);
+                synchronized (this) {
+                    // A non-positive request is a subscriber error that overrides normal completion
+                    if (!cancelled) {
+                        buffer.clear();
+                        terminated = true;
+                        terminalThrowable = new IllegalArgumentException("The requested item count must be positive!");
+                        if (publisherWaiting) {
+                            notifyAll();
+                        }
+                        scheduleDrain();
+                    }
+                }
+                return;
+            }
+            synchronized (this) {
+                demand += n;
+                if (demand < 0) { // Overflowed, so the demand is effectively unbounded
+                    demand = Long.MAX_VALUE;
+                }
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            subscriptions.remove(this);
+            synchronized (this) {
+                cancelled = true;
+                buffer.clear();
+                if (publisherWaiting) {
+                    notifyAll();
+                }
+            }
+        }
+
+        private void scheduleDrain() {
+            if (!draining) {
+                draining = true;
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException rejectedExecutionException) {
+                    draining = false;
+                    LOGGER.error("{} publisher executor rejected a subscriber signal!", name,
+                            rejectedExecutionException);
+                }
+            }
+        }
+
+        private void drain() {
+            if (!subscribed) {
+                subscribed = true;
+                try {
+                    subscriber.onSubscribe(this);
+                } catch (Throwable throwable) {
+                    LOGGER.error("{} publisher subscriber threw an exception in onSubscribe!", name, throwable);
+                    cancel();
+                }
+            }
+
+            while (true) {
+                final T item;
+                final Throwable throwable;
+                synchronized (this) {
+                    if (cancelled) {
+                        draining = false;
+                        return;
+                    } else if (terminated && (terminalThrowable != null || buffer.isEmpty())) {
+                        cancelled = true;
+                        draining = false;
+                        item = null;
+                        throwable = terminalThrowable;
+                    } else if (demand > 0 && !buffer.isEmpty()) {
+                        item = buffer.pollFirst();
+                        if (demand != Long.MAX_VALUE) {
+                            demand--;
+                        }
+                        if (publisherWaiting) {
+                            notifyAll();
+                        }
+                        throwable = null;
+                    } else {
+                        draining = false;
+                        return;
+                    }
+                }
+
+                try {
+                    if (item != null) {
+                        subscriber.onNext(item);
+                    } else if (throwable != null) {
+                        subscriber.onError(throwable);
+                        return;
+                    } else {
+                        subscriber.onComplete();
+                        return;
+                    }
+                } catch (Throwable subscriberThrowable) {
+                    LOGGER.error("{} publisher subscriber threw an exception! Cancelling its subscription.", name,
+                            subscriberThrowable);
+                    cancel();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package net.jacobpeterson.alpaca.util.flow;
+
+/**
+ * {@link PublisherOverflowPolicy} defines what an {@link AlpacaPublisher} does when an item is published while the
+ * buffer of a subscriber is full (i.e. the subscriber hasn't requested or consumed the buffered items fast enough).
+ */
+public enum PublisherOverflowPolicy {
+
+    /**
+     * Blocks the publishing thread (e.g. the websocket reader thread) until the subscriber consumes a buffered item.
+     * This applies backpressure to the stream, so a slow subscriber delays all other subscribers of the stream.
+     */
+    BLOCK,
+
+    /**
+     * Drops the oldest buffered item of the subscriber to make room for the new item.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Drops the new item for the subscriber.
+     */
+    DROP_LATEST,
+
+    /**
+     * Drops the buffered items of the subscriber, signals <code>onError</code> to it, and removes it from the
+     * {@link AlpacaPublisher}. The other subscribers aren't affected.
+     */
+    FAIL
+}
@@ -0,0 +1,200 @@
+package net.jacobpeterson.alpaca.util.gson;
+
+import com.google.gson.stream.JsonReader;
+import net.jacobpeterson.alpaca.util.msgpack.MessagePackReader;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.util.symbol.SymbolIdentifiedMessage;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+import net.jacobpeterson.alpaca.util.time.RFC3339Util;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.google.gson.stream.JsonToken.NULL;
+
+/**
+ * {@link JsonReaderUtil} is a utility class for reading nullable values from a {@link JsonReader}.
+ */
+public final class JsonReaderUtil {
+
+    /**
+     * Reads the next {@link String} value or <code>null</code>.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @return a {@link String}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * Reads the next {@link Double} value or <code>null</code>.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @return a {@link Double}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static Double nextDoubleOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextDouble();
+    }
+
+    /**
+     * Reads the next {@link Integer} value or <code>null</code>.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @return an {@link Integer}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static Integer nextIntegerOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextInt();
+    }
+
+    /**
+     * Reads the next {@link Long} value or <code>null</code>.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @return a {@link Long}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static Long nextLongOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextLong();
+    }
+
+    /**
+     * Reads the next {@link Boolean} value or <code>null</code>.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @return a {@link Boolean}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static Boolean nextBooleanOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextBoolean();
+    }
+
+    /**
+     * Reads the next RFC-3339 {@link OffsetDateTime} value (or MessagePack timestamp value if the given
+     * <code>reader</code> is a {@link MessagePackReader}) or <code>null</code>.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @return an {@link OffsetDateTime}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static OffsetDateTime nextOffsetDateTimeOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (reader instanceof MessagePackReader) {
+            return ((MessagePackReader) reader).nextOffsetDateTime();
+        }
+        return RFC3339Util.parseOffsetDateTime(reader.nextString());
+    }
+
+    /**
+     * Reads the next RFC-3339 {@link RFC3339Timestamp} value (or MessagePack timestamp value if the given
+     * <code>reader</code> is a {@link MessagePackReader}) or <code>null</code>.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @return an {@link RFC3339Timestamp}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static RFC3339Timestamp nextRFC3339TimestampOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (reader instanceof MessagePackReader) {
+            return ((MessagePackReader) reader).nextRFC3339Timestamp();
+        }
+        return RFC3339Timestamp.parse(reader.nextString());
+    }
+
+    /**
+     * Reads the next JSON array of strings as a {@link Set} or <code>null</code>.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @return a {@link Set} of {@link String}s
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static Set<String> nextStringSetOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        final Set<String> set = new LinkedHashSet<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            set.add(reader.nextString());
+        }
+        reader.endArray();
+        return set;
+    }
+
+    /**
+     * Reads the next symbol {@link String} value or <code>null</code>, resolving it against the given
+     * {@link SymbolDictionary} and setting its symbol ID on the given {@link SymbolIdentifiedMessage}. The returned
+     * symbol is the interned {@link String} from the {@link SymbolDictionary}. For a {@link MessagePackReader}, no
+     * {@link String} is allocated if the symbol is already in the {@link SymbolDictionary}.
+     *
+     * @param reader           the {@link JsonReader}
+     * @param symbolDictionary the {@link SymbolDictionary}
+     * @param message          the {@link SymbolIdentifiedMessage} to set the symbol ID of
+     *
+     * @return a {@link String}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static String nextSymbolOrNull(JsonReader reader, SymbolDictionary symbolDictionary,
+            SymbolIdentifiedMessage message) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        final int symbolID = reader instanceof MessagePackReader ?
+                ((MessagePackReader) reader).nextSymbolID(symbolDictionary) :
+                symbolDictionary.getID(reader.nextString());
+        message.setSymbolID(symbolID);
+        return symbolDictionary.getSymbol(symbolID);
+    }
+
+    private JsonReaderUtil() {}
+}
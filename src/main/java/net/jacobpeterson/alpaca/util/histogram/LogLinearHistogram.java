@@ -0,0 +1,116 @@
+package net.jacobpeterson.alpaca.util.histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link LogLinearHistogram} is a lock-free, allocation-free histogram of non-negative <code>long</code> values with a
+ * fixed relative precision, modelled after <a href="https://hdrhistogram.github.io/HdrHistogram/">HdrHistogram</a>.
+ * Values are counted in buckets that double in width, each of which is linearly divided into enough sub-buckets to
+ * keep the given number of significant decimal digits, so the memory footprint only grows logarithmically with the
+ * highest trackable value. Values may be recorded concurrently from multiple threads. Use {@link #snapshot()} to get
+ * percentiles.
+ */
+public class LogLinearHistogram {
+
+    private final long highestTrackableValue;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final long[] highestEquivalentValues;
+    private final AtomicLongArray counts;
+    private final AtomicLong maxValue;
+
+    /**
+     * Instantiates a new {@link LogLinearHistogram}.
+     *
+     * @param highestTrackableValue the highest trackable value (higher values are recorded as this value)
+     * @param significantDigits     the number of significant decimal digits to keep (between 1 and 5)
+     */
+    public LogLinearHistogram(long highestTrackableValue, int significantDigits) {
+        checkArgument(highestTrackableValue >= 2, "highestTrackableValue must be at least 2!");
+        checkArgument(significantDigits >= 1 && significantDigits <= 5, "significantDigits must be between 1 and 5!");
+
+        this.highestTrackableValue = highestTrackableValue;
+        final long largestSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        final int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestSingleUnitResolution - 1);
+        subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        subBucketHalfCount = 1 << subBucketHalfCountMagnitude;
+        subBucketMask = (1L << subBucketCountMagnitude) - 1;
+        leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+        final int countsLength = getCountsIndex(highestTrackableValue) + 1;
+        highestEquivalentValues = new long[countsLength];
+        for (int index = 0; index < countsLength; index++) {
+            highestEquivalentValues[index] = getHighestEquivalentValue(index);
+        }
+        counts = new AtomicLongArray(countsLength);
+        maxValue = new AtomicLong();
+    }
+
+    /**
+     * Records the given <code>value</code>. Negative values are recorded as <code>0</code> and values higher than the
+     * highest trackable value are recorded as the highest trackable value.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > highestTrackableValue) {
+            value = highestTrackableValue;
+        }
+        counts.incrementAndGet(getCountsIndex(value));
+        long currentMaxValue;
+        while (value > (currentMaxValue = maxValue.get()) && !maxValue.compareAndSet(currentMaxValue, value)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Resets all counts. Values that are recorded concurrently with this call may or may not be reset.
+     */
+    public void reset() {
+        for (int index = 0; index < counts.length(); index++) {
+            counts.set(index, 0);
+        }
+        maxValue.set(0);
+    }
+
+    /**
+     * Takes a {@link LogLinearHistogramSnapshot} of the current counts. This copies the counts, so it allocates and
+     * shouldn't be called on a hot path.
+     *
+     * @return the {@link LogLinearHistogramSnapshot}
+     */
+    public LogLinearHistogramSnapshot snapshot() {
+        final long[] snapshotCounts = new long[counts.length()];
+        for (int index = 0; index < snapshotCounts.length; index++) {
+            snapshotCounts[index] = counts.get(index);
+        }
+        return new LogLinearHistogramSnapshot(snapshotCounts, highestEquivalentValues, maxValue.get());
+    }
+
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    private int getCountsIndex(long value) {
+        final int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        final int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    private long getHighestEquivalentValue(int countsIndex) {
+        int bucketIndex = (countsIndex >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (countsIndex & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return ((long) subBucketIndex << bucketIndex) + (1L << bucketIndex) - 1;
+    }
+}
@@ -0,0 +1,139 @@
+package net.jacobpeterson.alpaca.util.histogram;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link LogLinearHistogramSnapshot} is an immutable snapshot of a {@link LogLinearHistogram}. Percentile values are
+ * reported as the highest value that is equivalent to the recorded values within the precision of the
+ * {@link LogLinearHistogram}.
+ */
+public class LogLinearHistogramSnapshot {
+
+    private final long[] counts;
+    private final long[] highestEquivalentValues;
+    private final long totalCount;
+    private final long maxValue;
+
+    /**
+     * Instantiates a new {@link LogLinearHistogramSnapshot}.
+     *
+     * @param counts                  the counts indexed by bucket
+     * @param highestEquivalentValues the highest equivalent values indexed by bucket
+     * @param maxValue                the maximum recorded value
+     */
+    LogLinearHistogramSnapshot(long[] counts, long[] highestEquivalentValues, long maxValue) {
+        this.counts = counts;
+        this.highestEquivalentValues = highestEquivalentValues;
+        long totalCount = 0;
+        for (long count : counts) {
+            totalCount += count;
+        }
+        this.totalCount = totalCount;
+        this.maxValue = maxValue;
+    }
+
+    /**
+     * Merges this {@link LogLinearHistogramSnapshot} with the given one, e.g. to aggregate the snapshots of multiple
+     * websockets. Both must be of {@link LogLinearHistogram}s with the same highest trackable value and number of
+     * significant digits.
+     *
+     * @param other the other {@link LogLinearHistogramSnapshot}
+     *
+     * @return a new {@link LogLinearHistogramSnapshot} with the counts of both
+     */
+    public LogLinearHistogramSnapshot merge(LogLinearHistogramSnapshot other) {
+        checkArgument(Arrays.equals(highestEquivalentValues, other.highestEquivalentValues),
+                "The histograms must have the same buckets!");
+        final long[] mergedCounts = counts.clone();
+        for (int index = 0; index < mergedCounts.length; index++) {
+            mergedCounts[index] += other.counts[index];
+        }
+        return new LogLinearHistogramSnapshot(mergedCounts, highestEquivalentValues,
+                Math.max(maxValue, other.maxValue));
+    }
+
+    /**
+     * Gets the value at the given <code>percentile</code>.
+     *
+     * @param percentile the percentile (between 0 and 100)
+     *
+     * @return the value or <code>0</code> if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100!");
+        if (totalCount == 0) {
+            return 0;
+        }
+        final long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long cumulativeCount = 0;
+        for (int index = 0; index < counts.length; index++) {
+            cumulativeCount += counts[index];
+            if (cumulativeCount >= countAtPercentile) {
+                return Math.min(highestEquivalentValues[index], maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Gets the median value.
+     *
+     * @return the median value
+     */
+    public long getMedian() {
+        return getValueAtPercentile(50);
+    }
+
+    /**
+     * Gets the mean of the recorded values, where each value is approximated by the middle of its bucket.
+     *
+     * @return the mean or <code>0</code> if nothing was recorded
+     */
+    public double getMean() {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double total = 0;
+        long lowestEquivalentValue = 0;
+        for (int index = 0; index < counts.length; index++) {
+            if (counts[index] != 0) {
+                total += counts[index] * ((lowestEquivalentValue + highestEquivalentValues[index]) / 2d);
+            }
+            lowestEquivalentValue = highestEquivalentValues[index] + 1;
+        }
+        return total / totalCount;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the total count
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the maximum recorded value.
+     *
+     * @return the maximum value
+     */
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    @Override
+    public String toString() {
+        return "LogLinearHistogramSnapshot{" +
+                "totalCount=" + totalCount +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(50) +
+                ", p90=" + getValueAtPercentile(90) +
+                ", p99=" + getValueAtPercentile(99) +
+                ", p99.9=" + getValueAtPercentile(99.9) +
+                ", max=" + maxValue +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package net.jacobpeterson.alpaca.util.metrics;
+
+/**
+ * {@link AlpacaMetricNames} defines the names and tags of the metrics recorded to {@link AlpacaMetrics}. Timers are
+ * recorded in nanoseconds.
+ */
+public final class AlpacaMetricNames {
+
+    /**
+     * The tag key for the websocket name (e.g. <code>"Stock Market Data"</code>).
+     */
+    public static final String WEBSOCKET_TAG = "websocket";
+
+    /**
+     * The tag key for the SSE stream name (e.g. <code>"trade"</code>).
+     */
+    public static final String SSE_STREAM_TAG = "stream";
+
+    /**
+     * The tag key for the message type (e.g. <code>"TRADES"</code>).
+     */
+    public static final String MESSAGE_TYPE_TAG = "message_type";
+
+    /**
+     * Timer of the time between connecting a websocket and the websocket being opened.
+     */
+    public static final String WEBSOCKET_CONNECT_TIME = "alpaca.websocket.connect.time";
+
+    /**
+     * Timer of the time between sending an authentication message and receiving a successful authentication message.
+     */
+    public static final String WEBSOCKET_AUTHENTICATION_TIME = "alpaca.websocket.authentication.time";
+
+    /**
+     * Counter of reconnection attempts.
+     */
+    public static final String WEBSOCKET_RECONNECTS = "alpaca.websocket.reconnects";
+
+    /**
+     * Counter of websocket failures.
+     */
+    public static final String WEBSOCKET_FAILURES = "alpaca.websocket.failures";
+
+    /**
+     * Counter of received websocket frames.
+     */
+    public static final String WEBSOCKET_FRAMES_RECEIVED = "alpaca.websocket.frames.received";
+
+    /**
+     * Counter of received websocket frame payload bytes.
+     */
+    public static final String WEBSOCKET_BYTES_RECEIVED = "alpaca.websocket.bytes.received";
+
+    /**
+     * Gauge that is <code>1</code> while a websocket is connected and <code>0</code> otherwise.
+     */
+    public static final String WEBSOCKET_CONNECTED = "alpaca.websocket.connected";
+
+    /**
+     * Timer of the decode time of each message, tagged with {@link #MESSAGE_TYPE_TAG}. This isn't recorded for
+     * messages that are decoded into flyweights.
+     */
+    public static final String WEBSOCKET_DECODE_TIME = "alpaca.websocket.decode.time";
+
+    /**
+     * Timer of the listener call time of each message, tagged with {@link #MESSAGE_TYPE_TAG}. This isn't recorded
+     * for flyweight listeners.
+     */
+    public static final String WEBSOCKET_LISTENER_TIME = "alpaca.websocket.listener.time";
+
+    /**
+     * Timer of the time taken to backfill the messages missed while a market data websocket was disconnected.
+     */
+    public static final String WEBSOCKET_BACKFILL_TIME = "alpaca.websocket.backfill.time";
+
+    /**
+     * Counter of messages that were backfilled after a market data websocket reconnected.
+     */
+    public static final String WEBSOCKET_BACKFILLED_MESSAGES = "alpaca.websocket.backfilled.messages";
+
+    /**
+     * Timer of the time between requesting an SSE stream and the stream being opened.
+     */
+    public static final String SSE_CONNECT_TIME = "alpaca.sse.connect.time";
+
+    /**
+     * Counter of SSE stream failures.
+     */
+    public static final String SSE_FAILURES = "alpaca.sse.failures";
+
+    /**
+     * Counter of received SSE events.
+     */
+    public static final String SSE_EVENTS_RECEIVED = "alpaca.sse.events.received";
+
+    /**
+     * Counter of received SSE event data bytes.
+     */
+    public static final String SSE_BYTES_RECEIVED = "alpaca.sse.bytes.received";
+
+    /**
+     * Timer of the decode time of each SSE event.
+     */
+    public static final String SSE_DECODE_TIME = "alpaca.sse.decode.time";
+
+    /**
+     * Timer of the listener call time of each SSE event.
+     */
+    public static final String SSE_LISTENER_TIME = "alpaca.sse.listener.time";
+
+    private AlpacaMetricNames() {}
+}
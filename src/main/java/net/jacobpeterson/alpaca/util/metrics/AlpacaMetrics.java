@@ -0,0 +1,54 @@
+package net.jacobpeterson.alpaca.util.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * {@link AlpacaMetrics} is a service provider interface for recording metrics (counters, timers, and gauges) of the
+ * Alpaca websockets and SSE streams. Implementations bind these metrics to a metrics library of your choice, such as
+ * {@link MicrometerAlpacaMetrics}, or keep them in memory, such as {@link SimpleAlpacaMetrics}. The default is
+ * {@link NoopAlpacaMetrics}. See {@link AlpacaMetricNames} for the recorded metric names and tags.
+ * <br>
+ * Metrics are resolved to a {@link MetricsCounter} or {@link MetricsTimer} handle once, so recording to a handle on a
+ * hot path doesn't look up the metric again. Handles may be recorded to concurrently from multiple threads.
+ */
+public interface AlpacaMetrics {
+
+    /**
+     * Gets or creates a {@link MetricsCounter}.
+     *
+     * @param name the metric name
+     * @param tags the tags as alternating key and value {@link String}s
+     *
+     * @return the {@link MetricsCounter}
+     */
+    MetricsCounter counter(String name, String... tags);
+
+    /**
+     * Gets or creates a {@link MetricsTimer}.
+     *
+     * @param name the metric name
+     * @param tags the tags as alternating key and value {@link String}s
+     *
+     * @return the {@link MetricsTimer}
+     */
+    MetricsTimer timer(String name, String... tags);
+
+    /**
+     * Registers a gauge whose value is sampled from the given {@link DoubleSupplier} whenever it is read.
+     *
+     * @param name          the metric name
+     * @param valueSupplier the value {@link DoubleSupplier}
+     * @param tags          the tags as alternating key and value {@link String}s
+     */
+    void gauge(String name, DoubleSupplier valueSupplier, String... tags);
+
+    /**
+     * Returns <code>true</code> if this {@link AlpacaMetrics} records anything, <code>false</code> otherwise. This is
+     * used to skip measurements, such as reading {@link System#nanoTime()}, when nothing is recorded.
+     *
+     * @return a boolean
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package net.jacobpeterson.alpaca.util.metrics;
+
+/**
+ * {@link MetricsCounter} is a monotonically increasing counter handle of {@link AlpacaMetrics}.
+ */
+@FunctionalInterface
+public interface MetricsCounter {
+
+    /**
+     * Increments this counter by the given <code>amount</code>.
+     *
+     * @param amount the amount
+     */
+    void increment(long amount);
+
+    /**
+     * Increments this counter by one.
+     */
+    default void increment() {
+        increment(1);
+    }
+}
@@ -0,0 +1,15 @@
+package net.jacobpeterson.alpaca.util.metrics;
+
+/**
+ * {@link MetricsTimer} is a timer (duration distribution) handle of {@link AlpacaMetrics}.
+ */
+@FunctionalInterface
+public interface MetricsTimer {
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    void record(long nanos);
+}
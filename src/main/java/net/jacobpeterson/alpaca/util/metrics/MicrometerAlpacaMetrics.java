@@ -0,0 +1,56 @@
+package net.jacobpeterson.alpaca.util.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.DoubleSupplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * {@link MicrometerAlpacaMetrics} is an {@link AlpacaMetrics} adapter for a
+ * <a href="https://micrometer.io/">Micrometer</a> {@link MeterRegistry}, which in turn supports most monitoring
+ * systems (e.g. Prometheus, Datadog, CloudWatch, and Graphite). Micrometer is an optional dependency of this library,
+ * so <code>io.micrometer:micrometer-core</code> must be on the classpath to use this class.
+ */
+public class MicrometerAlpacaMetrics implements AlpacaMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Instantiates a new {@link MicrometerAlpacaMetrics}.
+     *
+     * @param meterRegistry the {@link MeterRegistry}
+     */
+    public MicrometerAlpacaMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = checkNotNull(meterRegistry);
+    }
+
+    @Override
+    public MetricsCounter counter(String name, String... tags) {
+        final Counter counter = Counter.builder(name).tags(tags).register(meterRegistry);
+        return counter::increment;
+    }
+
+    @Override
+    public MetricsTimer timer(String name, String... tags) {
+        final Timer timer = Timer.builder(name).tags(tags).register(meterRegistry);
+        return nanos -> timer.record(nanos, NANOSECONDS);
+    }
+
+    @Override
+    public void gauge(String name, DoubleSupplier valueSupplier, String... tags) {
+        // Use a strong reference since the 'valueSupplier' is usually only referenced by this gauge
+        Gauge.builder(name, valueSupplier, DoubleSupplier::getAsDouble)
+                .tags(tags)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+}
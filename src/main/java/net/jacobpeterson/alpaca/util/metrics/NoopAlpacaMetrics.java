@@ -0,0 +1,37 @@
+package net.jacobpeterson.alpaca.util.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * {@link NoopAlpacaMetrics} is an {@link AlpacaMetrics} that records nothing. This is the default.
+ */
+public final class NoopAlpacaMetrics implements AlpacaMetrics {
+
+    /**
+     * The {@link NoopAlpacaMetrics} instance.
+     */
+    public static final NoopAlpacaMetrics INSTANCE = new NoopAlpacaMetrics();
+
+    private static final MetricsCounter NOOP_COUNTER = amount -> {};
+    private static final MetricsTimer NOOP_TIMER = nanos -> {};
+
+    private NoopAlpacaMetrics() {}
+
+    @Override
+    public MetricsCounter counter(String name, String... tags) {
+        return NOOP_COUNTER;
+    }
+
+    @Override
+    public MetricsTimer timer(String name, String... tags) {
+        return NOOP_TIMER;
+    }
+
+    @Override
+    public void gauge(String name, DoubleSupplier valueSupplier, String... tags) {}
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
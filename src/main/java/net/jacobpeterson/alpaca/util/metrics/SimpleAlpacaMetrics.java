@@ -0,0 +1,130 @@
+package net.jacobpeterson.alpaca.util.metrics;
+
+import net.jacobpeterson.alpaca.util.histogram.LogLinearHistogram;
+import net.jacobpeterson.alpaca.util.histogram.LogLinearHistogramSnapshot;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+/**
+ * {@link SimpleAlpacaMetrics} is an {@link AlpacaMetrics} that keeps its metrics in memory, which is useful for
+ * polling the metrics without a metrics library. Counters are {@link LongAdder}s and timers are
+ * {@link LogLinearHistogram}s. Metrics are identified by their name followed by their tags, e.g.
+ * <code>alpaca.websocket.frames.received{websocket=Stock Market Data}</code>.
+ */
+public class SimpleAlpacaMetrics implements AlpacaMetrics {
+
+    private static final long HIGHEST_TRACKABLE_DURATION_NANOS = HOURS.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<String, LongAdder> counters;
+    private final Map<String, LogLinearHistogram> timers;
+    private final Map<String, DoubleSupplier> gauges;
+
+    /**
+     * Instantiates a new {@link SimpleAlpacaMetrics}.
+     */
+    public SimpleAlpacaMetrics() {
+        counters = new ConcurrentHashMap<>();
+        timers = new ConcurrentHashMap<>();
+        gauges = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public MetricsCounter counter(String name, String... tags) {
+        return counters.computeIfAbsent(createMetricID(name, tags), metricID -> new LongAdder())::add;
+    }
+
+    @Override
+    public MetricsTimer timer(String name, String... tags) {
+        return timers.computeIfAbsent(createMetricID(name, tags),
+                metricID -> new LogLinearHistogram(HIGHEST_TRACKABLE_DURATION_NANOS, SIGNIFICANT_DIGITS))::record;
+    }
+
+    @Override
+    public void gauge(String name, DoubleSupplier valueSupplier, String... tags) {
+        checkNotNull(valueSupplier);
+        gauges.put(createMetricID(name, tags), valueSupplier);
+    }
+
+    /**
+     * Creates a metric ID {@link String} from the given metric <code>name</code> and <code>tags</code>.
+     *
+     * @param name the metric name
+     * @param tags the tags as alternating key and value {@link String}s
+     *
+     * @return the metric ID {@link String}
+     */
+    private static String createMetricID(String name, String... tags) {
+        checkNotNull(name);
+        checkArgument(tags.length % 2 == 0, "tags must be alternating keys and values!");
+        if (tags.length == 0) {
+            return name;
+        }
+        final StringBuilder metricID = new StringBuilder(name).append('{');
+        for (int index = 0; index < tags.length; index += 2) {
+            if (index > 0) {
+                metricID.append(", ");
+            }
+            metricID.append(tags[index]).append('=').append(tags[index + 1]);
+        }
+        return metricID.append('}').toString();
+    }
+
+    /**
+     * Gets the current value of each counter.
+     *
+     * @return a sorted {@link Map} of metric IDs to counts
+     */
+    public Map<String, Long> getCounterValues() {
+        final Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((metricID, counter) -> counterValues.put(metricID, counter.sum()));
+        return counterValues;
+    }
+
+    /**
+     * Gets a {@link LogLinearHistogramSnapshot} of each timer in nanoseconds.
+     *
+     * @return a sorted {@link Map} of metric IDs to {@link LogLinearHistogramSnapshot}s
+     */
+    public Map<String, LogLinearHistogramSnapshot> getTimerSnapshots() {
+        final Map<String, LogLinearHistogramSnapshot> timerSnapshots = new TreeMap<>();
+        timers.forEach((metricID, timer) -> timerSnapshots.put(metricID, timer.snapshot()));
+        return timerSnapshots;
+    }
+
+    /**
+     * Samples the current value of each gauge.
+     *
+     * @return a sorted {@link Map} of metric IDs to gauge values
+     */
+    public Map<String, Double> getGaugeValues() {
+        final Map<String, Double> gaugeValues = new TreeMap<>();
+        gauges.forEach((metricID, gauge) -> gaugeValues.put(metricID, gauge.getAsDouble()));
+        return gaugeValues;
+    }
+
+    /**
+     * Resets all counters and timers.
+     */
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        timers.values().forEach(LogLinearHistogram::reset);
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleAlpacaMetrics{" +
+                "counters=" + getCounterValues() +
+                ", timers=" + getTimerSnapshots() +
+                ", gauges=" + getGaugeValues() +
+                '}';
+    }
+}
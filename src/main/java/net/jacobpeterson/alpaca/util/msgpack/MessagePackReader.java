@@ -0,0 +1,373 @@
+package net.jacobpeterson.alpaca.util.msgpack;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+import net.jacobpeterson.alpaca.util.time.RFC3339Util;
+import org.msgpack.core.MessageUnpacker;
+import org.msgpack.core.buffer.MessageBuffer;
+import org.msgpack.value.ValueType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneOffset.UTC;
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+/**
+ * {@link MessagePackReader} is a {@link JsonReader} that reads <a href="https://msgpack.org">MessagePack</a> encoded
+ * data from a {@link MessageUnpacker}. This allows the same {@link JsonReader}-based decoding logic to be used for
+ * both JSON and MessagePack encoded data, similar to how Gson reads a JSON tree with a {@link JsonReader}. MessagePack
+ * maps must have {@link String} keys. MessagePack timestamp extension values are read as RFC-3339 {@link String}s or
+ * via {@link #nextOffsetDateTime()}.
+ */
+public class MessagePackReader extends JsonReader {
+
+    private final MessageUnpacker unpacker;
+    private boolean[] containerIsMapStack;
+    private int[] containerRemainingStack;
+    private int stackSize;
+    private byte[] symbolBytes;
+    private final AsciiCharSequence symbolChars;
+
+    /**
+     * Instantiates a new {@link MessagePackReader}.
+     *
+     * @param unpacker the {@link MessageUnpacker}
+     */
+    public MessagePackReader(MessageUnpacker unpacker) {
+        super(Reader.nullReader());
+        this.unpacker = unpacker;
+        containerIsMapStack = new boolean[8];
+        containerRemainingStack = new int[8];
+        symbolBytes = new byte[16];
+        symbolChars = new AsciiCharSequence();
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        beforeElement();
+        push(false, unpacker.unpackArrayHeader());
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        pop(false);
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        beforeElement();
+        // Each map entry counts as two elements: the name and the value
+        push(true, unpacker.unpackMapHeader() * 2);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        pop(true);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        return stackSize == 0 ? unpacker.hasNext() : containerRemainingStack[stackSize - 1] > 0;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (stackSize == 0) {
+            if (!unpacker.hasNext()) {
+                return JsonToken.END_DOCUMENT;
+            }
+        } else {
+            final int top = stackSize - 1;
+            if (containerRemainingStack[top] == 0) {
+                return containerIsMapStack[top] ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+            } else if (isNameExpected()) {
+                return JsonToken.NAME;
+            }
+        }
+        switch (unpacker.getNextFormat().getValueType()) {
+            case NIL:
+                return JsonToken.NULL;
+            case BOOLEAN:
+                return JsonToken.BOOLEAN;
+            case INTEGER:
+            case FLOAT:
+                return JsonToken.NUMBER;
+            case ARRAY:
+                return JsonToken.BEGIN_ARRAY;
+            case MAP:
+                return JsonToken.BEGIN_OBJECT;
+            default:
+                return JsonToken.STRING;
+        }
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        if (!isNameExpected()) {
+            throw new IllegalStateException("Expected a name but was " + peek());
+        }
+        beforeElement();
+        return unpacker.unpackString();
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        final ValueType valueType = unpacker.getNextFormat().getValueType();
+        beforeElement();
+        switch (valueType) {
+            case STRING:
+                return unpacker.unpackString();
+            case INTEGER:
+                return Long.toString(unpacker.unpackLong());
+            case FLOAT:
+                return Double.toString(unpacker.unpackDouble());
+            case BOOLEAN:
+                return Boolean.toString(unpacker.unpackBoolean());
+            case EXTENSION:
+                return OffsetDateTime.ofInstant(unpacker.unpackTimestamp(), UTC).format(ISO_OFFSET_DATE_TIME);
+            default:
+                throw new IllegalStateException("Expected a string but was " + valueType);
+        }
+    }
+
+    /**
+     * Reads the next {@link String} value as a symbol and gets its ID from the given {@link SymbolDictionary}. The
+     * UTF-8 bytes of an ASCII symbol are looked up directly, so no {@link String} is allocated if the symbol is already
+     * in the {@link SymbolDictionary}.
+     *
+     * @param symbolDictionary the {@link SymbolDictionary}
+     *
+     * @return the symbol ID
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public int nextSymbolID(SymbolDictionary symbolDictionary) throws IOException {
+        if (unpacker.getNextFormat().getValueType() != ValueType.STRING) {
+            return symbolDictionary.getID(nextString());
+        }
+        beforeElement();
+        final int length = unpacker.unpackRawStringHeader();
+        if (length > symbolBytes.length) {
+            symbolBytes = new byte[Math.max(length, symbolBytes.length * 2)];
+        }
+        unpacker.readPayload(symbolBytes, 0, length);
+        for (int index = 0; index < length; index++) {
+            if (symbolBytes[index] < 0) {
+                return symbolDictionary.getID(new String(symbolBytes, 0, length, UTF_8));
+            }
+        }
+        symbolChars.set(symbolBytes, length);
+        return symbolDictionary.getID(symbolChars, 0, length);
+    }
+
+    /**
+     * Reads the next {@link String} value as a reference to its undecoded UTF-8 bytes. When the unpacked data is an
+     * array, the returned {@link MessageBuffer} shares it instead of copying the bytes, so large values (e.g. news
+     * article content) can be decoded later, or not at all.
+     *
+     * @return the {@link MessageBuffer}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public MessageBuffer nextStringPayloadReference() throws IOException {
+        if (unpacker.getNextFormat().getValueType() != ValueType.STRING) {
+            return MessageBuffer.wrap(nextString().getBytes(UTF_8));
+        }
+        beforeElement();
+        return unpacker.readPayloadAsReference(unpacker.unpackRawStringHeader());
+    }
+
+    /**
+     * Reads the next MessagePack timestamp extension value (or RFC-3339 {@link String} value) as an
+     * {@link OffsetDateTime}.
+     *
+     * @return the {@link OffsetDateTime}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public OffsetDateTime nextOffsetDateTime() throws IOException {
+        if (unpacker.getNextFormat().getValueType() == ValueType.EXTENSION) {
+            beforeElement();
+            return OffsetDateTime.ofInstant(unpacker.unpackTimestamp(), UTC);
+        }
+        return RFC3339Util.parseOffsetDateTime(nextString());
+    }
+
+    /**
+     * Reads the next MessagePack timestamp extension value (or RFC-3339 {@link String} value) as an
+     * {@link RFC3339Timestamp}.
+     *
+     * @return the {@link RFC3339Timestamp}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public RFC3339Timestamp nextRFC3339Timestamp() throws IOException {
+        if (unpacker.getNextFormat().getValueType() == ValueType.EXTENSION) {
+            beforeElement();
+            final Instant instant = unpacker.unpackTimestamp();
+            return RFC3339Timestamp.ofEpochNanos(instant.getEpochSecond() * 1_000_000_000L + instant.getNano());
+        }
+        return RFC3339Timestamp.parse(nextString());
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        beforeElement();
+        return unpacker.unpackBoolean();
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        beforeElement();
+        unpacker.unpackNil();
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        final ValueType valueType = unpacker.getNextFormat().getValueType();
+        beforeElement();
+        switch (valueType) {
+            case FLOAT:
+                return unpacker.unpackDouble();
+            case INTEGER:
+                return unpacker.unpackLong();
+            case STRING:
+                return Double.parseDouble(unpacker.unpackString());
+            default:
+                throw new IllegalStateException("Expected a double but was " + valueType);
+        }
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        final ValueType valueType = unpacker.getNextFormat().getValueType();
+        beforeElement();
+        switch (valueType) {
+            case INTEGER:
+                return unpacker.unpackLong();
+            case FLOAT:
+                final double doubleValue = unpacker.unpackDouble();
+                final long longValue = (long) doubleValue;
+                if (longValue != doubleValue) {
+                    throw new NumberFormatException("Expected a long but was " + doubleValue);
+                }
+                return longValue;
+            case STRING:
+                return Long.parseLong(unpacker.unpackString());
+            default:
+                throw new IllegalStateException("Expected a long but was " + valueType);
+        }
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        final long longValue = nextLong();
+        final int intValue = (int) longValue;
+        if (intValue != longValue) {
+            throw new NumberFormatException("Expected an int but was " + longValue);
+        }
+        return intValue;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        beforeElement();
+        unpacker.skipValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        unpacker.close();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public String getPath() {
+        return "$";
+    }
+
+    @Override
+    public String getPreviousPath() {
+        return "$";
+    }
+
+    private boolean isNameExpected() {
+        // Names are at the even remaining element counts of a map container
+        final int top = stackSize - 1;
+        return stackSize > 0 && containerIsMapStack[top] && (containerRemainingStack[top] & 1) == 0;
+    }
+
+    private void beforeElement() {
+        if (stackSize > 0) {
+            final int top = stackSize - 1;
+            if (containerRemainingStack[top] == 0) {
+                throw new IllegalStateException("No more elements in the current container!");
+            }
+            containerRemainingStack[top]--;
+        }
+    }
+
+    private void push(boolean isMap, int elementCount) {
+        if (stackSize == containerIsMapStack.length) {
+            containerIsMapStack = Arrays.copyOf(containerIsMapStack, stackSize * 2);
+            containerRemainingStack = Arrays.copyOf(containerRemainingStack, stackSize * 2);
+        }
+        containerIsMapStack[stackSize] = isMap;
+        containerRemainingStack[stackSize] = elementCount;
+        stackSize++;
+    }
+
+    private void pop(boolean isMap) {
+        final int top = stackSize - 1;
+        if (stackSize == 0 || containerIsMapStack[top] != isMap || containerRemainingStack[top] != 0) {
+            throw new IllegalStateException("Expected the end of a " + (isMap ? "map" : "array") + "!");
+        }
+        stackSize--;
+    }
+
+    /**
+     * {@link AsciiCharSequence} is a reusable {@link CharSequence} view of ASCII bytes.
+     */
+    private static final class AsciiCharSequence implements CharSequence {
+
+        private byte[] bytes;
+        private int length;
+
+        private void set(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) bytes[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, US_ASCII);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, length, US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.jacobpeterson.alpaca.util.msgpack;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePacker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.msgpack.core.MessagePack.newDefaultBufferPacker;
+
+/**
+ * {@link MessagePackUtil} is a utility class for <a href="https://msgpack.org">MessagePack</a>.
+ */
+public final class MessagePackUtil {
+
+    /**
+     * Encodes the given {@link JsonElement} as MessagePack.
+     *
+     * @param jsonElement the {@link JsonElement}
+     *
+     * @return the MessagePack encoded bytes
+     */
+    public static byte[] toMessagePack(JsonElement jsonElement) {
+        try (MessageBufferPacker packer = newDefaultBufferPacker()) {
+            pack(packer, jsonElement);
+            return packer.toByteArray();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    private static void pack(MessagePacker packer, JsonElement jsonElement) throws IOException {
+        if (jsonElement == null || jsonElement.isJsonNull()) {
+            packer.packNil();
+        } else if (jsonElement.isJsonObject()) {
+            final JsonObject jsonObject = jsonElement.getAsJsonObject();
+            packer.packMapHeader(jsonObject.size());
+            for (Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+                packer.packString(entry.getKey());
+                pack(packer, entry.getValue());
+            }
+        } else if (jsonElement.isJsonArray()) {
+            final JsonArray jsonArray = jsonElement.getAsJsonArray();
+            packer.packArrayHeader(jsonArray.size());
+            for (JsonElement arrayElement : jsonArray) {
+                pack(packer, arrayElement);
+            }
+        } else {
+            final JsonPrimitive jsonPrimitive = jsonElement.getAsJsonPrimitive();
+            if (jsonPrimitive.isBoolean()) {
+                packer.packBoolean(jsonPrimitive.getAsBoolean());
+            } else if (jsonPrimitive.isNumber()) {
+                final BigDecimal number = jsonPrimitive.getAsBigDecimal();
+                if (number.scale() <= 0 && number.toBigInteger().bitLength() < 64) {
+                    packer.packLong(number.longValueExact());
+                } else {
+                    packer.packDouble(number.doubleValue());
+                }
+            } else {
+                packer.packString(jsonPrimitive.getAsString());
+            }
+        }
+    }
+
+    private MessagePackUtil() {}
+}
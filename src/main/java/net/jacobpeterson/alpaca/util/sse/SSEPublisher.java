@@ -0,0 +1,56 @@
+package net.jacobpeterson.alpaca.util.sse;
+
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link SSEPublisher} is an {@link AlpacaPublisher} that is also an {@link SSEListener}, so it can be passed to any
+ * SSE stream method (e.g. of the Broker API <code>EventsApiSSE</code>) to consume the stream as a
+ * {@link java.util.concurrent.Flow.Publisher}. The {@link SSEPublisher} completes its subscribers when the SSE
+ * connection closes and fails them when the SSE connection fails.
+ *
+ * @param <T> the data type
+ */
+public class SSEPublisher<T> extends AlpacaPublisher<T> implements SSEListener<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SSEPublisher.class);
+
+    /**
+     * Instantiates a new {@link SSEPublisher}.
+     *
+     * @param name           the name used for logging
+     * @param bufferCapacity the maximum number of buffered messages of each subscriber
+     * @param overflowPolicy the {@link PublisherOverflowPolicy}
+     */
+    public SSEPublisher(String name, int bufferCapacity, PublisherOverflowPolicy overflowPolicy) {
+        super(name, bufferCapacity, overflowPolicy);
+    }
+
+    @Override
+    public void onOpen() {
+        LOGGER.info("SSE connection opened.");
+    }
+
+    @Override
+    public void onClose() {
+        LOGGER.info("SSE connection closed.");
+        close();
+    }
+
+    @Override
+    public void onError(@Nullable Throwable throwable, @Nullable Response response) {
+        LOGGER.error("SSE connection error! response={}", response, throwable);
+        closeExceptionally(throwable != null ? throwable :
+                new RuntimeException("SSE connection error! response=" + response));
+    }
+
+    @Override
+    public void onMessage(@NotNull T message) {
+        publish(message);
+    }
+}
@@ -0,0 +1,203 @@
+package net.jacobpeterson.alpaca.util.symbol;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * {@link SymbolDictionary} interns symbols to stable, dense <code>int</code> IDs starting at <code>0</code>. Symbols
+ * can be looked up directly from a region of a {@link CharSequence} so that no {@link String} needs to be allocated
+ * for a symbol that is already in this {@link SymbolDictionary}. Lookups are lock-free and new symbols are added
+ * under a lock, so this class is thread-safe.
+ */
+public class SymbolDictionary {
+
+    /**
+     * The symbol ID returned for symbols that are not in a {@link SymbolDictionary}.
+     */
+    public static final int NO_ID = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final VarHandle TABLE_ELEMENT = MethodHandles.arrayElementVarHandle(Entry[].class);
+
+    private volatile Entry[] table;
+    private volatile String[] symbolsByID;
+    private int size;
+
+    /**
+     * Instantiates a new {@link SymbolDictionary}.
+     */
+    public SymbolDictionary() {
+        table = new Entry[INITIAL_CAPACITY];
+        symbolsByID = new String[INITIAL_CAPACITY / 2];
+    }
+
+    /**
+     * Gets the ID of the given <code>symbol</code>, adding it to this {@link SymbolDictionary} if needed.
+     *
+     * @param symbol the symbol
+     *
+     * @return the symbol ID
+     */
+    public int getID(String symbol) {
+        return getID(symbol, 0, symbol.length());
+    }
+
+    /**
+     * Adds the given <code>symbols</code> to this {@link SymbolDictionary}, if needed. This can be used to preload a
+     * symbol universe (e.g. the symbols of the active assets from the Trader API <code>AssetsApi</code>) so that the
+     * decoders never need to add symbols.
+     *
+     * @param symbols the {@link Iterable} of symbols
+     */
+    public void addSymbols(Iterable<String> symbols) {
+        for (String symbol : symbols) {
+            getID(symbol);
+        }
+    }
+
+    /**
+     * Gets the ID of the symbol in the given {@link CharSequence} region, adding it to this {@link SymbolDictionary}
+     * if needed. This doesn't allocate if the symbol is already in this {@link SymbolDictionary}.
+     *
+     * @param chars the {@link CharSequence}
+     * @param start the start index (inclusive)
+     * @param end   the end index (exclusive)
+     *
+     * @return the symbol ID
+     */
+    public int getID(CharSequence chars, int start, int end) {
+        final int id = findID(chars, start, end);
+        return id != NO_ID ? id : addSymbol(chars, start, end);
+    }
+
+    /**
+     * Finds the ID of the symbol in the given {@link CharSequence} region without adding it to this
+     * {@link SymbolDictionary}.
+     *
+     * @param chars the {@link CharSequence}
+     * @param start the start index (inclusive)
+     * @param end   the end index (exclusive)
+     *
+     * @return the symbol ID or {@link #NO_ID}
+     */
+    public int findID(CharSequence chars, int start, int end) {
+        final Entry[] table = this.table;
+        final int mask = table.length - 1;
+        for (int index = hash(chars, start, end) & mask; ; index = (index + 1) & mask) {
+            // Pairs with the release store in addSymbol() so the symbol of the ID is visible to getSymbol()
+            final Entry entry = (Entry) TABLE_ELEMENT.getAcquire(table, index);
+            if (entry == null) {
+                return NO_ID;
+            } else if (entry.matches(chars, start, end)) {
+                return entry.id;
+            }
+        }
+    }
+
+    /**
+     * Gets the symbol of the given <code>id</code>.
+     *
+     * @param id the symbol ID
+     *
+     * @return the symbol {@link String} or <code>null</code> if no symbol has the given <code>id</code>
+     */
+    public String getSymbol(int id) {
+        final String[] symbolsByID = this.symbolsByID;
+        return id >= 0 && id < symbolsByID.length ? symbolsByID[id] : null;
+    }
+
+    /**
+     * Gets the number of symbols in this {@link SymbolDictionary}. Symbol IDs are always less than this value.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int addSymbol(CharSequence chars, int start, int end) {
+        // Check again since another thread may have added the symbol
+        final int existingID = findID(chars, start, end);
+        if (existingID != NO_ID) {
+            return existingID;
+        }
+
+        final int id = size++;
+        final Entry entry = new Entry(chars.subSequence(start, end).toString(), id);
+
+        // Publish the symbol of the ID before the entry, so that a reader that finds the ID can always get its symbol
+        String[] symbolsByID = this.symbolsByID;
+        if (id >= symbolsByID.length) {
+            symbolsByID = Arrays.copyOf(symbolsByID, symbolsByID.length * 2);
+        }
+        symbolsByID[id] = entry.symbol;
+        this.symbolsByID = symbolsByID;
+
+        final Entry[] table = this.table;
+        if (size * 2 > table.length) {
+            final Entry[] newTable = rehash(table, table.length * 2);
+            insert(newTable, entry);
+            this.table = newTable;
+        } else {
+            // The table is read without locks, so the entry is published with a release store
+            TABLE_ELEMENT.setRelease(table, findFreeIndex(table, entry), entry);
+        }
+        return id;
+    }
+
+    private static Entry[] rehash(Entry[] table, int capacity) {
+        final Entry[] newTable = new Entry[capacity];
+        for (Entry entry : table) {
+            if (entry != null) {
+                insert(newTable, entry);
+            }
+        }
+        return newTable;
+    }
+
+    private static void insert(Entry[] table, Entry entry) {
+        table[findFreeIndex(table, entry)] = entry;
+    }
+
+    private static int findFreeIndex(Entry[] table, Entry entry) {
+        final int mask = table.length - 1;
+        int index = hash(entry.symbol, 0, entry.symbol.length()) & mask;
+        while (table[index] != null) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int hash(CharSequence chars, int start, int end) {
+        int hash = 0;
+        for (int index = start; index < end; index++) {
+            hash = 31 * hash + chars.charAt(index);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Entry {
+
+        private final String symbol;
+        private final int id;
+
+        private Entry(String symbol, int id) {
+            this.symbol = symbol;
+            this.id = id;
+        }
+
+        private boolean matches(CharSequence chars, int start, int end) {
+            final int length = end - start;
+            if (symbol.length() != length) {
+                return false;
+            }
+            for (int index = 0; index < length; index++) {
+                if (symbol.charAt(index) != chars.charAt(start + index)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package net.jacobpeterson.alpaca.util.symbol;
+
+import java.io.Serializable;
+
+import static net.jacobpeterson.alpaca.util.symbol.SymbolDictionary.NO_ID;
+
+/**
+ * {@link SymbolIdentifiedMessage} is the base class of messages that carry the {@link SymbolDictionary} ID of their
+ * symbol, so that consumers can index arrays by symbol ID instead of hashing symbol {@link String}s. The symbol ID is
+ * derived from the symbol, so it is neither serialized nor part of {@link #equals(Object)}.
+ */
+public abstract class SymbolIdentifiedMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // The symbol ID plus one, so that the default value of 0 (e.g. after deserialization) means 'NO_ID'
+    private transient int symbolIDPlusOne;
+
+    /**
+     * Gets the {@link SymbolDictionary} ID of the symbol.
+     *
+     * @return the symbol ID or {@link SymbolDictionary#NO_ID} if it hasn't been resolved (e.g. for a message without a
+     * symbol)
+     */
+    public int getSymbolID() {
+        return symbolIDPlusOne - 1;
+    }
+
+    /**
+     * Sets the {@link SymbolDictionary} ID of the symbol.
+     *
+     * @param symbolID the symbol ID or {@link SymbolDictionary#NO_ID}
+     */
+    public void setSymbolID(int symbolID) {
+        symbolIDPlusOne = Math.max(symbolID, NO_ID) + 1;
+    }
+
+    @Override
+    public String toString() {
+        return SymbolIdentifiedMessage.class.getName() + '@' + Integer.toHexString(System.identityHashCode(this)) +
+                "[]";
+    }
+
+    @Override
+    public int hashCode() {
+        return 1;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this || other instanceof SymbolIdentifiedMessage;
+    }
+}
@@ -0,0 +1,195 @@
+package net.jacobpeterson.alpaca.util.time;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.jacobpeterson.alpaca.util.msgpack.MessagePackReader;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static com.google.gson.stream.JsonToken.NULL;
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+/**
+ * {@link RFC3339Timestamp} is an immutable, nanosecond precision
+ * <a href="https://datatracker.ietf.org/doc/html/rfc3339">RFC-3339</a> timestamp that is backed by primitive epoch
+ * nanoseconds and a UTC offset. The {@link OffsetDateTime} representation is only created when
+ * {@link #toOffsetDateTime()} is called. Timestamps must be within the epoch nanoseconds range (years 1677 to 2262).
+ */
+@JsonAdapter(RFC3339Timestamp.GsonTypeAdapter.class)
+public final class RFC3339Timestamp implements Comparable<RFC3339Timestamp>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Parses an RFC-3339 timestamp into an {@link RFC3339Timestamp}.
+     *
+     * @param text the RFC-3339 timestamp {@link CharSequence}
+     *
+     * @return the {@link RFC3339Timestamp}
+     *
+     * @see RFC3339Util#parseEpochNanos(CharSequence, int, int)
+     */
+    public static RFC3339Timestamp parse(CharSequence text) {
+        return new RFC3339Timestamp(RFC3339Util.parseEpochNanos(text, 0, text.length()),
+                RFC3339Util.parseOffsetSeconds(text, 0, text.length()));
+    }
+
+    /**
+     * Creates an {@link RFC3339Timestamp} from epoch nanoseconds in UTC.
+     *
+     * @param epochNanos the epoch nanoseconds
+     *
+     * @return the {@link RFC3339Timestamp}
+     */
+    public static RFC3339Timestamp ofEpochNanos(long epochNanos) {
+        return new RFC3339Timestamp(epochNanos, 0);
+    }
+
+    /**
+     * Creates an {@link RFC3339Timestamp} from an {@link OffsetDateTime}.
+     *
+     * @param offsetDateTime the {@link OffsetDateTime}
+     *
+     * @return the {@link RFC3339Timestamp}
+     *
+     * @throws ArithmeticException thrown if the {@link OffsetDateTime} is out of the epoch nanoseconds range
+     */
+    public static RFC3339Timestamp of(OffsetDateTime offsetDateTime) {
+        final Instant instant = offsetDateTime.toInstant();
+        final RFC3339Timestamp timestamp = new RFC3339Timestamp(
+                Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano()),
+                offsetDateTime.getOffset().getTotalSeconds());
+        timestamp.offsetDateTime = offsetDateTime;
+        return timestamp;
+    }
+
+    private final long epochNanos;
+    private final int offsetSeconds;
+    private transient OffsetDateTime offsetDateTime;
+
+    /**
+     * Instantiates a new {@link RFC3339Timestamp}.
+     *
+     * @param epochNanos    the epoch nanoseconds
+     * @param offsetSeconds the UTC offset in seconds
+     */
+    public RFC3339Timestamp(long epochNanos, int offsetSeconds) {
+        this.epochNanos = epochNanos;
+        this.offsetSeconds = offsetSeconds;
+    }
+
+    /**
+     * Gets the epoch nanoseconds.
+     *
+     * @return the epoch nanoseconds
+     */
+    public long getEpochNanos() {
+        return epochNanos;
+    }
+
+    /**
+     * Gets the epoch milliseconds.
+     *
+     * @return the epoch milliseconds
+     */
+    public long getEpochMillis() {
+        return Math.floorDiv(epochNanos, 1_000_000L);
+    }
+
+    /**
+     * Gets the UTC offset in seconds.
+     *
+     * @return the UTC offset seconds
+     */
+    public int getOffsetSeconds() {
+        return offsetSeconds;
+    }
+
+    /**
+     * Gets this {@link RFC3339Timestamp} as an {@link Instant}.
+     *
+     * @return the {@link Instant}
+     */
+    public Instant toInstant() {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * Gets this {@link RFC3339Timestamp} as an {@link OffsetDateTime}, which is created on the first call.
+     *
+     * @return the {@link OffsetDateTime}
+     */
+    public OffsetDateTime toOffsetDateTime() {
+        OffsetDateTime offsetDateTime = this.offsetDateTime;
+        if (offsetDateTime == null) {
+            offsetDateTime = OffsetDateTime.ofInstant(toInstant(), ZoneOffset.ofTotalSeconds(offsetSeconds));
+            this.offsetDateTime = offsetDateTime;
+        }
+        return offsetDateTime;
+    }
+
+    @Override
+    public int compareTo(RFC3339Timestamp other) {
+        return Long.compare(epochNanos, other.epochNanos);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof RFC3339Timestamp)) {
+            return false;
+        }
+        final RFC3339Timestamp otherTimestamp = (RFC3339Timestamp) other;
+        return epochNanos == otherTimestamp.epochNanos && offsetSeconds == otherTimestamp.offsetSeconds;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(epochNanos) * 31 + offsetSeconds;
+    }
+
+    /**
+     * Formats this {@link RFC3339Timestamp} as an RFC-3339 timestamp {@link String}.
+     *
+     * @return the RFC-3339 timestamp {@link String}
+     */
+    @Override
+    public String toString() {
+        return toOffsetDateTime().format(ISO_OFFSET_DATE_TIME);
+    }
+
+    /**
+     * {@link GsonTypeAdapter} is a Gson {@link TypeAdapter} for {@link RFC3339Timestamp}.
+     */
+    public static class GsonTypeAdapter extends TypeAdapter<RFC3339Timestamp> {
+
+        @Override
+        public void write(JsonWriter out, RFC3339Timestamp value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(value.toString());
+            }
+        }
+
+        @Override
+        public RFC3339Timestamp read(JsonReader in) throws IOException {
+            if (in.peek() == NULL) {
+                in.nextNull();
+                return null;
+            } else if (in instanceof MessagePackReader) {
+                return ((MessagePackReader) in).nextRFC3339Timestamp();
+            }
+            return parse(in.nextString());
+        }
+    }
+}
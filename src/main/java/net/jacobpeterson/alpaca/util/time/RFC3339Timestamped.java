@@ -0,0 +1,75 @@
+package net.jacobpeterson.alpaca.util.time;
+
+import java.time.OffsetDateTime;
+
+/**
+ * {@link RFC3339Timestamped} is a mixin interface for models whose timestamp is stored as an
+ * {@link RFC3339Timestamp}. It provides the {@link OffsetDateTime} <code>timestamp</code> accessors on top of the
+ * stored {@link RFC3339Timestamp}, so the {@link OffsetDateTime} is only created when {@link #getTimestamp()} is
+ * called, and {@link #getTimestampEpochNanos()} for allocation-free access.
+ *
+ * @param <M> the implementing model type
+ */
+public interface RFC3339Timestamped<M extends RFC3339Timestamped<M>> {
+
+    /**
+     * Gets the stored {@link RFC3339Timestamp}.
+     *
+     * @return the {@link RFC3339Timestamp} or <code>null</code>
+     */
+    RFC3339Timestamp getRfc3339Timestamp();
+
+    /**
+     * Sets the stored {@link RFC3339Timestamp}.
+     *
+     * @param rfc3339Timestamp the {@link RFC3339Timestamp} or <code>null</code>
+     */
+    void setRfc3339Timestamp(RFC3339Timestamp rfc3339Timestamp);
+
+    /**
+     * Gets the timestamp as an {@link OffsetDateTime}, which is created on the first call.
+     *
+     * @return the {@link OffsetDateTime} or <code>null</code>
+     */
+    default OffsetDateTime getTimestamp() {
+        final RFC3339Timestamp rfc3339Timestamp = getRfc3339Timestamp();
+        return rfc3339Timestamp == null ? null : rfc3339Timestamp.toOffsetDateTime();
+    }
+
+    /**
+     * Sets the timestamp.
+     *
+     * @param timestamp the {@link OffsetDateTime} or <code>null</code>
+     *
+     * @throws ArithmeticException thrown if the {@link OffsetDateTime} is out of the epoch nanoseconds range
+     */
+    default void setTimestamp(OffsetDateTime timestamp) {
+        setRfc3339Timestamp(timestamp == null ? null : RFC3339Timestamp.of(timestamp));
+    }
+
+    /**
+     * Sets the timestamp.
+     *
+     * @param timestamp the {@link OffsetDateTime} or <code>null</code>
+     *
+     * @return this model
+     *
+     * @see #setTimestamp(OffsetDateTime)
+     */
+    @SuppressWarnings("unchecked")
+    default M withTimestamp(OffsetDateTime timestamp) {
+        setTimestamp(timestamp);
+        return (M) this;
+    }
+
+    /**
+     * Gets the timestamp as epoch nanoseconds without any allocation.
+     *
+     * @return the timestamp epoch nanoseconds
+     *
+     * @throws NullPointerException thrown if {@link #getRfc3339Timestamp()} is <code>null</code>
+     */
+    default long getTimestampEpochNanos() {
+        return getRfc3339Timestamp().getEpochNanos();
+    }
+}
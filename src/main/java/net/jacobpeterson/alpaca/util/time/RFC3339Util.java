@@ -0,0 +1,307 @@
+package net.jacobpeterson.alpaca.util.time;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+/**
+ * {@link RFC3339Util} is a utility class for parsing fixed-layout
+ * <a href="https://datatracker.ietf.org/doc/html/rfc3339">RFC-3339</a> timestamps (e.g.
+ * <code>2021-02-22T15:51:44.208123456Z</code>) into epoch nanoseconds without any allocation. Since consecutive
+ * timestamps almost always share the same date, the epoch day of the most recently parsed date prefix is cached.
+ */
+public final class RFC3339Util {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_DAY = 86_400L * NANOS_PER_SECOND;
+    private static final int DATE_LENGTH = 10;
+    private static final int[] NANO_SCALES = {
+            1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
+    /**
+     * The most recently parsed date prefix: the upper 32 bits are the packed decimal digits of the date and the lower
+     * 32 bits are its epoch day. This is a single <code>long</code> so that it is always read and written atomically.
+     */
+    private static volatile long cachedDatePrefix = -1;
+
+    /**
+     * Parses an RFC-3339 timestamp (or ISO local date, which is treated as the start of the day in UTC) in the given
+     * {@link CharSequence} region into epoch nanoseconds.
+     *
+     * @param text  the {@link CharSequence}
+     * @param start the start index (inclusive)
+     * @param end   the end index (exclusive)
+     *
+     * @return the epoch nanoseconds
+     *
+     * @throws DateTimeParseException thrown if the region isn't a valid timestamp or if it can't be represented as
+     *                                epoch nanoseconds
+     */
+    public static long parseEpochNanos(CharSequence text, int start, int end) {
+        final long epochDay = parseEpochDay(text, start, end);
+        final long timeOfDayNanos = end - start == DATE_LENGTH ? 0 :
+                parseTimeOfDayNanos(text, start + DATE_LENGTH, end);
+        try {
+            return Math.addExact(Math.multiplyExact(epochDay, NANOS_PER_DAY), timeOfDayNanos);
+        } catch (ArithmeticException arithmeticException) {
+            throw new DateTimeParseException("RFC-3339 timestamp is out of the epoch nanoseconds range!", text, start);
+        }
+    }
+
+    /**
+     * Parses the UTC offset of an RFC-3339 timestamp (or ISO local date, which has a UTC offset of zero) in the given
+     * {@link CharSequence} region.
+     *
+     * @param text  the {@link CharSequence}
+     * @param start the start index (inclusive)
+     * @param end   the end index (exclusive)
+     *
+     * @return the UTC offset in seconds
+     *
+     * @throws DateTimeParseException thrown if the region doesn't end with a valid UTC offset
+     */
+    public static int parseOffsetSeconds(CharSequence text, int start, int end) {
+        if (end - start == DATE_LENGTH) {
+            return 0;
+        }
+        final char lastChar = charAt(text, end - 1, end);
+        if (lastChar == 'Z' || lastChar == 'z') {
+            return 0;
+        }
+        final int offsetStart = end - 6;
+        if (offsetStart <= start) {
+            throw parseException(text, start);
+        }
+        return parseNumericOffsetSeconds(text, offsetStart, charAt(text, offsetStart, end), end);
+    }
+
+    /**
+     * Parses an RFC-3339 timestamp (or ISO local date, which is treated as the start of the day in UTC) into an
+     * {@link OffsetDateTime}. This is a faster equivalent of
+     * <code>OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME)</code>, which is used as a fallback for
+     * less common ISO-8601 layouts.
+     *
+     * @param text the {@link CharSequence}
+     *
+     * @return the {@link OffsetDateTime}
+     *
+     * @throws DateTimeParseException thrown if the text isn't a valid timestamp
+     */
+    public static OffsetDateTime parseOffsetDateTime(CharSequence text) {
+        final int end = text.length();
+        try {
+            final int year = parseDigits(text, 0, 4, end);
+            checkChar(text, 4, '-', end);
+            final int month = parseDigits(text, 5, 2, end);
+            checkChar(text, 7, '-', end);
+            final int day = parseDigits(text, 8, 2, end);
+            final LocalDate date = LocalDate.of(year, month, day);
+            if (end == DATE_LENGTH) {
+                return OffsetDateTime.of(date, LocalTime.MIN, ZoneOffset.UTC);
+            }
+
+            checkDateTimeSeparator(text, DATE_LENGTH, end);
+            final int hour = parseDigits(text, 11, 2, end);
+            checkChar(text, 13, ':', end);
+            final int minute = parseDigits(text, 14, 2, end);
+            checkChar(text, 16, ':', end);
+            final int second = parseDigits(text, 17, 2, end);
+            final int fractionEnd = findFractionEnd(text, 19, end);
+            final int nano = parseFractionNanos(text, 19, fractionEnd);
+            final int offsetSeconds = parseOffsetSecondsAt(text, fractionEnd, end);
+            return OffsetDateTime.of(date, LocalTime.of(hour, minute, second, nano),
+                    ZoneOffset.ofTotalSeconds(offsetSeconds));
+        } catch (DateTimeException dateTimeException) {
+            return OffsetDateTime.parse(text, ISO_OFFSET_DATE_TIME);
+        }
+    }
+
+    /**
+     * Parses the time portion of an RFC-3339 timestamp that starts at the <code>'T'</code> date-time separator into
+     * nanoseconds since the start of the UTC day (which may be negative or exceed one day due to the UTC offset).
+     *
+     * @param text  the {@link CharSequence}
+     * @param start the index of the date-time separator
+     * @param end   the end index (exclusive)
+     *
+     * @return the nanoseconds
+     *
+     * @throws DateTimeParseException thrown if the region isn't a valid time
+     */
+    public static long parseTimeOfDayNanos(CharSequence text, int start, int end) {
+        checkDateTimeSeparator(text, start, end);
+        final int hour = parseDigits(text, start + 1, 2, end);
+        checkChar(text, start + 3, ':', end);
+        final int minute = parseDigits(text, start + 4, 2, end);
+        checkChar(text, start + 6, ':', end);
+        final int second = parseDigits(text, start + 7, 2, end);
+        if (hour > 23 || minute > 59 || second > 59) {
+            throw parseException(text, start + 1);
+        }
+        final int fractionEnd = findFractionEnd(text, start + 9, end);
+        final long nanos = parseFractionNanos(text, start + 9, fractionEnd);
+        final long offsetSeconds = parseOffsetSecondsAt(text, fractionEnd, end);
+        return (hour * 3600L + minute * 60L + second - offsetSeconds) * NANOS_PER_SECOND + nanos;
+    }
+
+    /**
+     * Gets the epoch day of the given proleptic Gregorian date.
+     *
+     * @param year  the year
+     * @param month the month (1-12)
+     * @param day   the day of the month (1-31)
+     *
+     * @return the epoch day
+     */
+    public static long epochDay(int year, int month, int day) {
+        // See: https://howardhinnant.github.io/date_algorithms.html#days_from_civil
+        final int adjustedYear = month <= 2 ? year - 1 : year;
+        final int era = (adjustedYear >= 0 ? adjustedYear : adjustedYear - 399) / 400;
+        final int yearOfEra = adjustedYear - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    /**
+     * Parses the <code>yyyy-MM-dd</code> date prefix at the given <code>start</code> index into an epoch day, using
+     * the {@link #cachedDatePrefix} if the date prefix is the same as the last one.
+     *
+     * @param text  the {@link CharSequence}
+     * @param start the start index (inclusive)
+     * @param end   the end index (exclusive)
+     *
+     * @return the epoch day
+     */
+    private static long parseEpochDay(CharSequence text, int start, int end) {
+        int packedDigits = 0;
+        for (int offset = 0; offset < DATE_LENGTH; offset++) {
+            if (offset == 4 || offset == 7) {
+                checkChar(text, start + offset, '-', end);
+            } else {
+                packedDigits = packedDigits << 4 | parseDigits(text, start + offset, 1, end);
+            }
+        }
+
+        final long cachedDatePrefix = RFC3339Util.cachedDatePrefix;
+        if ((int) (cachedDatePrefix >>> 32) == packedDigits) {
+            return (int) cachedDatePrefix;
+        }
+
+        final int year = unpackDigits(packedDigits >>> 16, 4);
+        final int month = unpackDigits(packedDigits >>> 8, 2);
+        final int day = unpackDigits(packedDigits, 2);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw parseException(text, start + 5);
+        }
+        final long epochDay = epochDay(year, month, day);
+        RFC3339Util.cachedDatePrefix = (long) packedDigits << 32 | epochDay & 0xFFFF_FFFFL;
+        return epochDay;
+    }
+
+    private static int unpackDigits(int packedDigits, int count) {
+        int value = 0;
+        for (int shift = (count - 1) * 4; shift >= 0; shift -= 4) {
+            value = value * 10 + (packedDigits >>> shift & 0xF);
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int findFractionEnd(CharSequence text, int index, int end) {
+        if (index >= end || text.charAt(index) != '.') {
+            return index;
+        }
+        int fractionEnd = index + 1;
+        while (fractionEnd < end && text.charAt(fractionEnd) >= '0' && text.charAt(fractionEnd) <= '9') {
+            fractionEnd++;
+        }
+        if (fractionEnd == index + 1) {
+            throw parseException(text, fractionEnd);
+        }
+        return fractionEnd;
+    }
+
+    private static int parseFractionNanos(CharSequence text, int start, int fractionEnd) {
+        if (start == fractionEnd) {
+            return 0;
+        }
+        // Digits beyond nanosecond precision are truncated
+        final int digitCount = Math.min(fractionEnd - start - 1, 9);
+        return parseDigits(text, start + 1, digitCount, fractionEnd) * NANO_SCALES[digitCount];
+    }
+
+    private static int parseOffsetSecondsAt(CharSequence text, int index, int end) {
+        final char offsetChar = charAt(text, index, end);
+        if (offsetChar == 'Z' || offsetChar == 'z') {
+            if (index + 1 != end) {
+                throw parseException(text, index + 1);
+            }
+            return 0;
+        }
+        return parseNumericOffsetSeconds(text, index, offsetChar, end);
+    }
+
+    private static int parseNumericOffsetSeconds(CharSequence text, int index, char signChar, int end) {
+        if (signChar != '+' && signChar != '-') {
+            throw parseException(text, index);
+        }
+        final int offsetHours = parseDigits(text, index + 1, 2, end);
+        checkChar(text, index + 3, ':', end);
+        final int offsetMinutes = parseDigits(text, index + 4, 2, end);
+        if (index + 6 != end || offsetHours > 18 || offsetMinutes > 59) {
+            throw parseException(text, index);
+        }
+        final int offsetSeconds = offsetHours * 3600 + offsetMinutes * 60;
+        return signChar == '-' ? -offsetSeconds : offsetSeconds;
+    }
+
+    private static void checkDateTimeSeparator(CharSequence text, int index, int end) {
+        final char separator = charAt(text, index, end);
+        if (separator != 'T' && separator != 't' && separator != ' ') {
+            throw parseException(text, index);
+        }
+    }
+
+    private static int parseDigits(CharSequence text, int index, int count, int end) {
+        int value = 0;
+        for (int offset = 0; offset < count; offset++) {
+            final int digit = charAt(text, index + offset, end) - '0';
+            if (digit < 0 || digit > 9) {
+                throw parseException(text, index + offset);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void checkChar(CharSequence text, int index, char expected, int end) {
+        if (charAt(text, index, end) != expected) {
+            throw parseException(text, index);
+        }
+    }
+
+    private static char charAt(CharSequence text, int index, int end) {
+        if (index >= end) {
+            throw parseException(text, index);
+        }
+        return text.charAt(index);
+    }
+
+    private static DateTimeParseException parseException(CharSequence text, int index) {
+        return new DateTimeParseException("Invalid RFC-3339 timestamp!", text, index);
+    }
+
+    private RFC3339Util() {}
+}
@@ -1,25 +1,55 @@
 package net.jacobpeterson.alpaca.websocket;
 
+import com.google.common.base.Utf8;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.metrics.MetricsCounter;
+import net.jacobpeterson.alpaca.util.metrics.MetricsTimer;
+import net.jacobpeterson.alpaca.util.metrics.NoopAlpacaMetrics;
+import net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameJournalWriter;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
+import okio.ByteString;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.util.concurrent.ForkJoinPool.commonPool;
+import static com.google.common.util.concurrent.MoreExecutors.newSequentialExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_AUTHENTICATION_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_BYTES_RECEIVED;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_CONNECTED;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_CONNECT_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_FAILURES;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_FRAMES_RECEIVED;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_RECONNECTS;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_TAG;
+import static net.jacobpeterson.alpaca.websocket.AlpacaWebsocketState.AUTHENTICATED;
+import static net.jacobpeterson.alpaca.websocket.AlpacaWebsocketState.CLOSING;
+import static net.jacobpeterson.alpaca.websocket.AlpacaWebsocketState.CONNECTED;
+import static net.jacobpeterson.alpaca.websocket.AlpacaWebsocketState.CONNECTING;
+import static net.jacobpeterson.alpaca.websocket.AlpacaWebsocketState.DISCONNECTED;
+import static net.jacobpeterson.alpaca.websocket.AlpacaWebsocketState.RECONNECT_SCHEDULED;
 
 /**
- * {@link AlpacaWebsocket} represents an abstract websocket for Alpaca.
+ * {@link AlpacaWebsocket} represents an abstract websocket for Alpaca. Its connection is driven by a lock-free
+ * {@link AlpacaWebsocketState} state machine whose transitions are atomic, and reconnection attempts are scheduled on
+ * the shared {@link #SCHEDULER} according to the {@link ReconnectionPolicy}, so no thread is blocked while waiting to
+ * reconnect or authenticate. If a {@link #listenerExecutor} is set, listener callbacks and connection handling are
+ * run on it instead, each in order.
  */
 public abstract class AlpacaWebsocket extends WebSocketListener implements AlpacaWebsocketInterface {
 
@@ -38,29 +68,64 @@ public abstract class AlpacaWebsocket extends WebSocketListener implements Alpac
     public static final String WEBSOCKET_NORMAL_CLOSURE_MESSAGE = "Normal closure";
 
     /**
-     * Defines the maximum number of reconnection attempts to be made by an {@link AlpacaWebsocket}.
+     * The single-threaded {@link ScheduledExecutorService} shared by all {@link AlpacaWebsocket}s to run scheduled
+     * reconnection attempts and, if there is no {@link #listenerExecutor}, connection handling. Tasks that are run on
+     * it must not block.
      */
-    public static int MAX_RECONNECT_ATTEMPTS = 5;
+    protected static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AlpacaWebsocket.class);
+
+    private static ScheduledExecutorService createScheduler() {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "Alpaca Websocket Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
 
     /**
-     * Defines the sleep interval {@link Duration} between reconnection attempts made by an {@link AlpacaWebsocket}.
+     * Creates an {@link HttpUrl.Builder} for a websocket URL, which starts at the given <code>websocketBaseURL</code>
+     * (e.g. the URL of a local stand-in server) or at the given <code>defaultHost</code> over HTTPS.
+     *
+     * @param websocketBaseURL the websocket base {@link HttpUrl} or <code>null</code> for the
+     *                         <code>defaultHost</code>
+     * @param defaultHost      the default host
+     *
+     * @return the {@link HttpUrl.Builder}
      */
-    public static Duration RECONNECT_SLEEP_INTERVAL = Duration.ofSeconds(1);
-
-    private static final Logger LOGGER = LoggerFactory.getLogger(AlpacaWebsocket.class);
+    protected static HttpUrl.Builder newWebsocketURLBuilder(HttpUrl websocketBaseURL, String defaultHost) {
+        return websocketBaseURL != null ? websocketBaseURL.newBuilder() :
+                new HttpUrl.Builder().scheme("https").host(defaultHost);
+    }
 
     protected final OkHttpClient okHttpClient;
     protected final HttpUrl websocketURL;
     protected final String websocketName;
     protected AlpacaWebsocketStateListener alpacaWebsocketStateListener;
-    private WebSocket websocket;
-    protected boolean connected;
-    protected boolean authenticated;
-    protected CompletableFuture<Boolean> authenticationMessageFuture;
-    protected boolean intentionalClose;
-    protected int reconnectAttempts;
-
-    protected boolean automaticallyReconnect;
+    private final AtomicReference<AlpacaWebsocketState> state;
+    private final AtomicReference<CompletableFuture<Boolean>> authorizationFuture;
+    private volatile WebSocket websocket;
+    private volatile int reconnectAttempts;
+    private volatile ScheduledFuture<?> scheduledReconnection;
+
+    protected volatile boolean automaticallyReconnect;
+    protected volatile ReconnectionPolicy reconnectionPolicy;
+
+    protected volatile WebsocketFrameJournalWriter frameJournalWriter;
+    protected volatile Executor listenerExecutor;
+    private volatile Executor sequentialListenerExecutor;
+    private volatile Executor connectionExecutor;
+    protected AlpacaMetrics metrics;
+    private MetricsTimer connectTimer;
+    private MetricsTimer authenticationTimer;
+    private MetricsCounter reconnectCounter;
+    private MetricsCounter failureCounter;
+    private MetricsCounter framesReceivedCounter;
+    private MetricsCounter bytesReceivedCounter;
+    private long connectNanoTime;
 
     /**
      * Instantiates a {@link AlpacaWebsocket}.
@@ -77,139 +142,297 @@ public abstract class AlpacaWebsocket extends WebSocketListener implements Alpac
         this.okHttpClient = okHttpClient;
         this.websocketURL = websocketURL;
         this.websocketName = websocketName;
+        state = new AtomicReference<>(DISCONNECTED);
+        authorizationFuture = new AtomicReference<>();
 
         automaticallyReconnect = true;
+        reconnectionPolicy = ReconnectionPolicy.DEFAULT;
+        connectionExecutor = SCHEDULER;
+        resolveMetrics(NoopAlpacaMetrics.INSTANCE);
+    }
+
+    /**
+     * Sets the {@link #metrics} and resolves the metric handles of this {@link AlpacaWebsocket}.
+     *
+     * @param metrics the {@link AlpacaMetrics}
+     */
+    private void resolveMetrics(AlpacaMetrics metrics) {
+        this.metrics = metrics;
+        connectTimer = metrics.timer(WEBSOCKET_CONNECT_TIME, WEBSOCKET_TAG, websocketName);
+        authenticationTimer = metrics.timer(WEBSOCKET_AUTHENTICATION_TIME, WEBSOCKET_TAG, websocketName);
+        reconnectCounter = metrics.counter(WEBSOCKET_RECONNECTS, WEBSOCKET_TAG, websocketName);
+        failureCounter = metrics.counter(WEBSOCKET_FAILURES, WEBSOCKET_TAG, websocketName);
+        framesReceivedCounter = metrics.counter(WEBSOCKET_FRAMES_RECEIVED, WEBSOCKET_TAG, websocketName);
+        bytesReceivedCounter = metrics.counter(WEBSOCKET_BYTES_RECEIVED, WEBSOCKET_TAG, websocketName);
+        metrics.gauge(WEBSOCKET_CONNECTED, () -> isConnected() ? 1 : 0, WEBSOCKET_TAG, websocketName);
     }
 
     @Override
     public void connect() {
-        if (!isConnected()) {
-            final Request websocketRequest = new Request.Builder()
-                    .url(websocketURL)
-                    .get()
-                    .build();
-            websocket = okHttpClient.newWebSocket(websocketRequest, this);
+        // If a reconnection attempt is scheduled, connect now instead of waiting for it
+        if (!openWebsocket(DISCONNECTED)) {
+            openWebsocket(RECONNECT_SCHEDULED);
+        }
+    }
+
+    /**
+     * Opens a new websocket connection if the {@link #state} is <code>expectedState</code>.
+     *
+     * @param expectedState the expected {@link AlpacaWebsocketState}
+     *
+     * @return <code>true</code> if a new websocket connection is being opened, <code>false</code> otherwise
+     */
+    private boolean openWebsocket(AlpacaWebsocketState expectedState) {
+        if (!state.compareAndSet(expectedState, CONNECTING)) {
+            return false;
         }
+        // Keep a pending authorization future so that anyone waiting on it gets the result of the new connection
+        authorizationFuture.updateAndGet(future -> future == null || future.isDone() ?
+                new CompletableFuture<>() : future);
+        connectNanoTime = System.nanoTime();
+        websocket = okHttpClient.newWebSocket(createWebsocketRequest(), this);
+        return true;
+    }
+
+    /**
+     * Creates the websocket upgrade {@link Request} used by {@link #connect()}.
+     *
+     * @return the {@link Request}
+     */
+    protected Request createWebsocketRequest() {
+        return new Request.Builder()
+                .url(websocketURL)
+                .get()
+                .build();
     }
 
     @Override
     public void disconnect() {
-        if (websocket != null && isConnected()) {
-            intentionalClose = true;
-            websocket.close(WEBSOCKET_NORMAL_CLOSURE_CODE, WEBSOCKET_NORMAL_CLOSURE_MESSAGE);
-        } else {
+        final AlpacaWebsocketState currentState = state.get();
+        final WebSocket websocket = this.websocket;
+        if (websocket != null && (currentState == CONNECTING || currentState == CONNECTED ||
+                currentState == AUTHENTICATED)) {
+            if (state.compareAndSet(currentState, CLOSING)) {
+                websocket.close(WEBSOCKET_NORMAL_CLOSURE_CODE, WEBSOCKET_NORMAL_CLOSURE_MESSAGE);
+            } else {
+                disconnect(); // The state changed concurrently, so try again
+            }
+        } else if (currentState != CLOSING) {
             cleanupState();
         }
     }
 
     @Override
     public boolean isConnected() {
-        return connected;
+        final AlpacaWebsocketState currentState = state.get();
+        return currentState == CONNECTED || currentState == AUTHENTICATED;
     }
 
     @Override
     public boolean isAuthenticated() {
-        return authenticated;
+        return state.get() == AUTHENTICATED;
     }
 
     @Override
     public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
-        connected = true;
+        if (!state.compareAndSet(CONNECTING, CONNECTED)) {
+            LOGGER.debug("{} websocket opened while {}. Ignoring.", websocketName, state.get());
+            return;
+        }
+        connectTimer.record(System.nanoTime() - connectNanoTime);
         LOGGER.info("{} websocket response: response={}", websocketName, response);
-        // Call 'onConnection' or 'onReconnection' async to avoid any potential deadlocking since this is called
-        // in sync with 'onMessage' in OkHttp's 'WebSocketListener'
-        commonPool().execute(() -> {
-            if (reconnectAttempts > 0) {
+
+        // Call 'onConnection' or 'onReconnection' on the connection executor to avoid any potential deadlocking since
+        // this is called in sync with 'onMessage' in OkHttp's 'WebSocketListener'
+        final boolean reconnection = reconnectAttempts > 0;
+        CompletableFuture.runAsync(() -> {
+            // Both 'onConnection' and 'onReconnection' send the authentication message first
+            final CompletableFuture<Boolean> authorizationFuture = getAuthorizationFuture();
+            if (!authorizationFuture.isDone()) {
+                final long authenticationNanoTime = System.nanoTime();
+                authorizationFuture.thenAccept(authorized -> {
+                    if (authorized) {
+                        authenticationTimer.record(System.nanoTime() - authenticationNanoTime);
+                    }
+                });
+            }
+            if (reconnection) {
                 onReconnection();
             } else {
                 onConnection();
             }
+        }, connectionExecutor).exceptionally(throwable -> {
+            LOGGER.error("{} websocket connection handling failed!", websocketName, throwable);
+            return null;
         });
+
+        final AlpacaWebsocketStateListener alpacaWebsocketStateListener = this.alpacaWebsocketStateListener;
         if (alpacaWebsocketStateListener != null) {
-            alpacaWebsocketStateListener.onOpen(response);
+            executeListenerTask(() -> alpacaWebsocketStateListener.onOpen(response));
         }
     }
 
     @Override
     public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
-        connected = false;
-        if (intentionalClose) {
+        if (state.get() == CLOSING) {
             LOGGER.info("{} websocket closed. code={}, reason={}", websocketName, code, reason);
             cleanupState();
         } else {
             LOGGER.error("{} websocket closed unintentionally! code={}, reason={}", websocketName, code, reason);
-            handleReconnectionAttempt();
+            handleConnectionLoss();
         }
+        final AlpacaWebsocketStateListener alpacaWebsocketStateListener = this.alpacaWebsocketStateListener;
         if (alpacaWebsocketStateListener != null) {
-            alpacaWebsocketStateListener.onClosed(code, reason);
+            executeListenerTask(() -> alpacaWebsocketStateListener.onClosed(code, reason));
         }
     }
 
     @Override
     public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable cause, @Nullable Response response) {
-        if (intentionalClose) {
+        if (state.get() == CLOSING) {
             onClosed(webSocket, WEBSOCKET_NORMAL_CLOSURE_CODE, WEBSOCKET_NORMAL_CLOSURE_MESSAGE);
             return;
         }
 
         LOGGER.error("{} websocket failure!", websocketName, cause);
+        failureCounter.increment();
         // A websocket failure occurs when either there is a connection failure or when the client throws
         // an exception when receiving a message. In either case, OkHttp will close the websocket connection,
         // so try to reopen it.
-        connected = false;
-        handleReconnectionAttempt();
+        handleConnectionLoss();
+        final AlpacaWebsocketStateListener alpacaWebsocketStateListener = this.alpacaWebsocketStateListener;
         if (alpacaWebsocketStateListener != null) {
-            alpacaWebsocketStateListener.onFailure(cause);
+            executeListenerTask(() -> alpacaWebsocketStateListener.onFailure(cause));
         }
     }
 
     /**
-     * Attempts to reconnect the disconnected {@link #websocket} asynchronously.
+     * Schedules a reconnection attempt of the unintentionally disconnected {@link #websocket} according to the
+     * {@link #reconnectionPolicy}, or cleans up the state if this shouldn't reconnect.
      */
-    private void handleReconnectionAttempt() {
+    private void handleConnectionLoss() {
+        final AlpacaWebsocketState currentState = state.get();
+        if (currentState != CONNECTING && currentState != CONNECTED && currentState != AUTHENTICATED) {
+            return; // The connection loss was already handled
+        }
+        final ReconnectionPolicy reconnectionPolicy = this.reconnectionPolicy;
         if (!automaticallyReconnect) {
+            cleanupState();
             return;
         }
-        if (reconnectAttempts < MAX_RECONNECT_ATTEMPTS) {
-            LOGGER.info("Attempting to reconnect {} websocket in {} seconds... (attempt {} of {})",
-                    websocketName, RECONNECT_SLEEP_INTERVAL.toSeconds(), reconnectAttempts + 1, MAX_RECONNECT_ATTEMPTS);
-            reconnectAttempts++;
-            commonPool().execute(() -> {
-                try {
-                    Thread.sleep(RECONNECT_SLEEP_INTERVAL.toMillis());
-                } catch (InterruptedException interruptedException) {
-                    return;
-                }
-                connect();
-            });
-        } else {
-            LOGGER.error("Exhausted {} reconnection attempts. Not attempting to reconnect.", MAX_RECONNECT_ATTEMPTS);
+        if (reconnectAttempts >= reconnectionPolicy.getMaxAttempts()) {
+            LOGGER.error("Exhausted {} reconnection attempts. Not attempting to reconnect.",
+                    reconnectionPolicy.getMaxAttempts());
             cleanupState();
+            return;
         }
+        if (!state.compareAndSet(currentState, RECONNECT_SCHEDULED)) {
+            handleConnectionLoss(); // The state changed concurrently, so try again
+            return;
+        }
+
+        final int attempt = reconnectAttempts + 1;
+        reconnectAttempts = attempt;
+        final long delayNanos = reconnectionPolicy.getDelayNanos(attempt);
+        LOGGER.info("Attempting to reconnect {} websocket in {} milliseconds... (attempt {} of {})",
+                websocketName, NANOSECONDS.toMillis(delayNanos), attempt, reconnectionPolicy.getMaxAttempts());
+        reconnectCounter.increment();
+        scheduledReconnection = SCHEDULER.schedule(() -> openWebsocket(RECONNECT_SCHEDULED), delayNanos, NANOSECONDS);
     }
 
     /**
      * Cleans up this instance's state variables.
      */
     protected void cleanupState() {
+        final ScheduledFuture<?> scheduledReconnection = this.scheduledReconnection;
+        if (scheduledReconnection != null) {
+            scheduledReconnection.cancel(false);
+            this.scheduledReconnection = null;
+        }
         websocket = null;
-        connected = false;
-        authenticated = false;
-        if (authenticationMessageFuture != null && !authenticationMessageFuture.isDone()) {
-            authenticationMessageFuture.complete(false);
+        state.set(DISCONNECTED);
+        final CompletableFuture<Boolean> authorizationFuture = this.authorizationFuture.getAndSet(null);
+        if (authorizationFuture != null) {
+            authorizationFuture.complete(false);
         }
-        authenticationMessageFuture = null;
-        intentionalClose = false;
         reconnectAttempts = 0;
     }
 
+    /**
+     * Completes the authentication of the current connection. This should be called when an authentication message
+     * is received.
+     *
+     * @param authenticated <code>true</code> if authentication succeeded, <code>false</code> otherwise
+     */
+    protected void completeAuthentication(boolean authenticated) {
+        if (authenticated) {
+            if (state.compareAndSet(CONNECTED, AUTHENTICATED)) {
+                reconnectAttempts = 0;
+            }
+        } else {
+            state.compareAndSet(AUTHENTICATED, CONNECTED);
+        }
+        final CompletableFuture<Boolean> authorizationFuture = this.authorizationFuture.get();
+        if (authorizationFuture != null) {
+            authorizationFuture.complete(authenticated);
+        }
+    }
+
+    /**
+     * Runs the given <code>task</code> with the connection handling after the current connection has authenticated
+     * successfully. The <code>task</code> isn't run if authentication fails.
+     *
+     * @param task the task {@link Runnable}
+     *
+     * @return a {@link CompletableFuture} that completes after the <code>task</code> has run or authentication has
+     * failed
+     */
+    protected CompletableFuture<Void> whenAuthenticated(Runnable task) {
+        return getAuthorizationFuture().thenAcceptAsync(authenticated -> {
+            if (authenticated) {
+                task.run();
+            }
+        }, connectionExecutor).exceptionally(throwable -> {
+            LOGGER.error("{} websocket post-authentication task failed!", websocketName, throwable);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given listener callback <code>task</code> on the {@link #listenerExecutor} in order with the other
+     * listener callback tasks of this websocket, or synchronously if there is no {@link #listenerExecutor}. An
+     * exception thrown by the <code>task</code> on the {@link #listenerExecutor} is logged.
+     *
+     * @param task the task {@link Runnable}
+     */
+    protected void executeListenerTask(Runnable task) {
+        final Executor sequentialListenerExecutor = this.sequentialListenerExecutor;
+        if (sequentialListenerExecutor == null) {
+            task.run();
+            return;
+        }
+        try {
+            sequentialListenerExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception exception) {
+                    LOGGER.error("{} websocket listener threw an exception!", websocketName, exception);
+                }
+            });
+        } catch (RejectedExecutionException rejectedExecutionException) {
+            LOGGER.error("{} websocket listener executor rejected a task!", websocketName,
+                    rejectedExecutionException);
+        }
+    }
+
     /**
      * Sends a message to the underlying {@link #websocket}.
      *
      * @param message the message
      */
     protected void sendWebsocketMessage(String message) {
-        if (!isConnected()) {
+        final WebSocket websocket = this.websocket;
+        if (websocket == null || !isConnected()) {
             throw new IllegalStateException("This websocket must be connected before send a message!");
         }
         LOGGER.trace("Websocket message sent: {}", message);
@@ -217,12 +440,63 @@ public abstract class AlpacaWebsocket extends WebSocketListener implements Alpac
     }
 
     /**
-     * Called asynchronously when a websocket connection is made.
+     * Sends a binary message to the underlying {@link #websocket}.
+     *
+     * @param message the message {@link ByteString}
+     */
+    protected void sendWebsocketMessage(ByteString message) {
+        final WebSocket websocket = this.websocket;
+        if (websocket == null || !isConnected()) {
+            throw new IllegalStateException("This websocket must be connected before send a message!");
+        }
+        LOGGER.trace("Websocket binary message sent: {}", message);
+        websocket.send(message);
+    }
+
+    /**
+     * Records a received text frame with the {@link #metrics} and appends it to the {@link #frameJournalWriter}, if
+     * any.
+     *
+     * @param message         the message
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the frame was received
+     */
+    protected void recordReceivedFrame(String message, long receiveNanoTime) {
+        final WebsocketFrameJournalWriter frameJournalWriter = this.frameJournalWriter;
+        if (frameJournalWriter != null) {
+            frameJournalWriter.append(message, receiveNanoTime);
+        }
+        framesReceivedCounter.increment();
+        if (metrics.isEnabled()) {
+            bytesReceivedCounter.increment(Utf8.encodedLength(message));
+        }
+    }
+
+    /**
+     * Records a received binary frame with the {@link #metrics} and appends it to the {@link #frameJournalWriter}, if
+     * any.
+     *
+     * @param message         the message {@link ByteString}
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the frame was received
+     */
+    protected void recordReceivedFrame(ByteString message, long receiveNanoTime) {
+        final WebsocketFrameJournalWriter frameJournalWriter = this.frameJournalWriter;
+        if (frameJournalWriter != null) {
+            frameJournalWriter.append(message, receiveNanoTime);
+        }
+        framesReceivedCounter.increment();
+        bytesReceivedCounter.increment(message.size());
+    }
+
+    /**
+     * Called on the {@link #SCHEDULER} (or the {@link #listenerExecutor}, if any) when a websocket connection is made.
+     * This must not block.
      */
     protected abstract void onConnection();
 
     /**
-     * Called asynchronously when a websocket reconnection is made after unintentional disconnection.
+     * Called on the {@link #SCHEDULER} (or the {@link #listenerExecutor}, if any) when a websocket reconnection is made
+     * after unintentional disconnection. This must not block, so use {@link #whenAuthenticated(Runnable)} to act after
+     * reauthentication.
      */
     protected abstract void onReconnection();
 
@@ -232,11 +506,8 @@ public abstract class AlpacaWebsocket extends WebSocketListener implements Alpac
     protected abstract void sendAuthenticationMessage();
 
     @Override
-    public Future<Boolean> getAuthorizationFuture() {
-        if (authenticationMessageFuture == null) {
-            authenticationMessageFuture = new CompletableFuture<>();
-        }
-        return authenticationMessageFuture;
+    public CompletableFuture<Boolean> getAuthorizationFuture() {
+        return authorizationFuture.updateAndGet(future -> future == null ? new CompletableFuture<>() : future);
     }
 
     @Override
@@ -254,6 +525,71 @@ public abstract class AlpacaWebsocket extends WebSocketListener implements Alpac
         this.automaticallyReconnect = automaticallyReconnect;
     }
 
+    @Override
+    public ReconnectionPolicy getReconnectionPolicy() {
+        return reconnectionPolicy;
+    }
+
+    @Override
+    public void setReconnectionPolicy(ReconnectionPolicy reconnectionPolicy) {
+        this.reconnectionPolicy = checkNotNull(reconnectionPolicy);
+    }
+
+    @Override
+    public AlpacaMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void setMetrics(AlpacaMetrics metrics) {
+        resolveMetrics(checkNotNull(metrics));
+    }
+
+    @Override
+    public WebsocketFrameJournalWriter getFrameJournalWriter() {
+        return frameJournalWriter;
+    }
+
+    @Override
+    public void setFrameJournalWriter(WebsocketFrameJournalWriter frameJournalWriter) {
+        this.frameJournalWriter = frameJournalWriter;
+    }
+
+    @Override
+    public Executor getListenerExecutor() {
+        return listenerExecutor;
+    }
+
+    @Override
+    public void setListenerExecutor(Executor listenerExecutor) {
+        this.listenerExecutor = listenerExecutor;
+        if (listenerExecutor == null) {
+            sequentialListenerExecutor = null;
+            connectionExecutor = SCHEDULER;
+        } else {
+            sequentialListenerExecutor = newSequentialExecutor(listenerExecutor);
+            connectionExecutor = newSequentialExecutor(listenerExecutor);
+        }
+    }
+
+    /**
+     * Gets the current {@link AlpacaWebsocketState}.
+     *
+     * @return the {@link AlpacaWebsocketState}
+     */
+    public AlpacaWebsocketState getState() {
+        return state.get();
+    }
+
+    /**
+     * Gets the number of consecutive reconnection attempts since the last successful authentication.
+     *
+     * @return the number of reconnection attempts
+     */
+    public int getReconnectAttempts() {
+        return reconnectAttempts;
+    }
+
     public OkHttpClient getOkHttpClient() {
         return okHttpClient;
     }
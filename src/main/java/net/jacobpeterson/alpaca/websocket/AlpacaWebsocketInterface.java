@@ -1,6 +1,14 @@
 package net.jacobpeterson.alpaca.websocket;
 
+import net.jacobpeterson.alpaca.util.concurrent.ListenerExecutionMode;
+import net.jacobpeterson.alpaca.util.concurrent.ListenerExecutors;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.metrics.NoopAlpacaMetrics;
+import net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameJournalWriter;
+import net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameReplayer;
+
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -46,10 +54,11 @@ public interface AlpacaWebsocketInterface {
 
     /**
      * Gets a {@link Boolean} {@link Future} that completes when an authentication message that is received after a new
-     * websocket connection indicates successful authentication.
+     * websocket connection indicates successful authentication. If the connection is lost before authenticating, the
+     * {@link Future} completes with the authentication result of the reconnection.
      * <br>
-     * Note that if this {@link AlpacaWebsocketInterface} is already authorized, the returned {@link Future} will likely
-     * never complete.
+     * Note that if this {@link AlpacaWebsocketInterface} is already authorized, the returned {@link Future} is already
+     * completed.
      *
      * @return a {@link Boolean} {@link Future}
      */
@@ -91,4 +100,72 @@ public interface AlpacaWebsocketInterface {
      * @param automaticallyReconnect <code>true</code> to automatically reconnect, <code>false</code> otherwise
      */
     void setAutomaticallyReconnect(boolean automaticallyReconnect);
+
+    /**
+     * Gets the {@link ReconnectionPolicy}.
+     *
+     * @return the {@link ReconnectionPolicy}
+     */
+    ReconnectionPolicy getReconnectionPolicy();
+
+    /**
+     * Sets the {@link ReconnectionPolicy} used when {@link #doesAutomaticallyReconnect()}.
+     * {@link ReconnectionPolicy#DEFAULT} by default.
+     *
+     * @param reconnectionPolicy the {@link ReconnectionPolicy}
+     */
+    void setReconnectionPolicy(ReconnectionPolicy reconnectionPolicy);
+
+    /**
+     * Gets the {@link AlpacaMetrics} that this websocket records its metrics to.
+     *
+     * @return the {@link AlpacaMetrics}
+     */
+    AlpacaMetrics getMetrics();
+
+    /**
+     * Sets the {@link AlpacaMetrics} that this websocket records its metrics to. {@link NoopAlpacaMetrics} by default.
+     * This should be called before {@link #connect()}.
+     *
+     * @param metrics the {@link AlpacaMetrics}
+     */
+    void setMetrics(AlpacaMetrics metrics);
+
+    /**
+     * Gets the {@link WebsocketFrameJournalWriter} that this websocket records its received frames to.
+     *
+     * @return the {@link WebsocketFrameJournalWriter} or <code>null</code>
+     */
+    WebsocketFrameJournalWriter getFrameJournalWriter();
+
+    /**
+     * Sets the {@link WebsocketFrameJournalWriter} to append every received raw frame to, on the websocket reader
+     * thread before the frame is decoded, so that it can be replayed later with a {@link WebsocketFrameReplayer}.
+     * <code>null</code> by default.
+     *
+     * @param frameJournalWriter the {@link WebsocketFrameJournalWriter} or <code>null</code> to stop recording
+     */
+    void setFrameJournalWriter(WebsocketFrameJournalWriter frameJournalWriter);
+
+    /**
+     * Gets the {@link Executor} that listener callbacks are called on.
+     *
+     * @return the {@link Executor} or <code>null</code> if listener callbacks are called on the websocket reader thread
+     */
+    Executor getListenerExecutor();
+
+    /**
+     * Sets the {@link Executor} that listener callbacks, including those of the {@link AlpacaWebsocketStateListener},
+     * and connection handling are called on (e.g. a virtual thread {@link Executor} from
+     * {@link ListenerExecutors#newVirtualThreadExecutor(String)}), so that listener callbacks may block without
+     * stalling the websocket reader thread. Listener callbacks are still called in order, except that market data
+     * listener callbacks are only called in order per symbol. An exception thrown by a listener callback is logged
+     * instead of failing the websocket connection. <code>null</code> by default, which calls listener callbacks
+     * synchronously on the websocket reader thread. This should be called before {@link #connect()}.
+     *
+     * @param listenerExecutor the {@link Executor} or <code>null</code>
+     *
+     * @see ListenerExecutionMode
+     */
+    void setListenerExecutor(Executor listenerExecutor);
 }
@@ -0,0 +1,37 @@
+package net.jacobpeterson.alpaca.websocket;
+
+/**
+ * {@link AlpacaWebsocketState} defines the connection states of an {@link AlpacaWebsocket}.
+ */
+public enum AlpacaWebsocketState {
+
+    /**
+     * Not connected and not attempting to connect.
+     */
+    DISCONNECTED,
+
+    /**
+     * A websocket connection has been requested, but it isn't open yet.
+     */
+    CONNECTING,
+
+    /**
+     * The websocket connection is open, but it isn't authenticated yet.
+     */
+    CONNECTED,
+
+    /**
+     * The websocket connection is open and authenticated.
+     */
+    AUTHENTICATED,
+
+    /**
+     * The websocket connection was lost unintentionally and a reconnection attempt is scheduled.
+     */
+    RECONNECT_SCHEDULED,
+
+    /**
+     * The websocket connection is being closed intentionally.
+     */
+    CLOSING
+}
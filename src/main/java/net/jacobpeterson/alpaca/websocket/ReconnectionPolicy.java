@@ -0,0 +1,113 @@
+package net.jacobpeterson.alpaca.websocket;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link ReconnectionPolicy} defines how an {@link AlpacaWebsocket} reconnects after it is disconnected
+ * unintentionally: the maximum number of consecutive reconnection attempts and an exponential backoff delay with
+ * random jitter before each attempt. The jitter spreads out the reconnection attempts of multiple websockets that
+ * were disconnected at the same time. This class is immutable.
+ */
+public class ReconnectionPolicy {
+
+    /**
+     * The default {@link ReconnectionPolicy}: up to 10 attempts with a delay starting at 500 milliseconds, doubling
+     * each attempt up to 30 seconds, with up to 50% jitter.
+     */
+    public static final ReconnectionPolicy DEFAULT =
+            new ReconnectionPolicy(10, Duration.ofMillis(500), Duration.ofSeconds(30), 2, 0.5);
+
+    private final int maxAttempts;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final double multiplier;
+    private final double jitter;
+
+    /**
+     * Instantiates a new {@link ReconnectionPolicy}.
+     *
+     * @param maxAttempts  the maximum number of consecutive reconnection attempts
+     * @param initialDelay the {@link Duration} before the first reconnection attempt
+     * @param maxDelay     the maximum {@link Duration} before a reconnection attempt
+     * @param multiplier   the factor by which the delay grows after each attempt (at least <code>1</code>)
+     * @param jitter       the maximum fraction by which a delay is randomly shortened (between <code>0</code> and
+     *                     <code>1</code>)
+     */
+    public ReconnectionPolicy(int maxAttempts, Duration initialDelay, Duration maxDelay, double multiplier,
+            double jitter) {
+        checkArgument(maxAttempts >= 0, "maxAttempts must not be negative!");
+        checkNotNull(initialDelay);
+        checkNotNull(maxDelay);
+        checkArgument(!initialDelay.isNegative(), "initialDelay must not be negative!");
+        checkArgument(maxDelay.compareTo(initialDelay) >= 0, "maxDelay must not be less than initialDelay!");
+        checkArgument(multiplier >= 1, "multiplier must be at least 1!");
+        checkArgument(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1!");
+
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Creates a {@link ReconnectionPolicy} with a fixed delay and no jitter.
+     *
+     * @param maxAttempts the maximum number of consecutive reconnection attempts
+     * @param delay       the {@link Duration} before each reconnection attempt
+     *
+     * @return the {@link ReconnectionPolicy}
+     */
+    public static ReconnectionPolicy fixedDelay(int maxAttempts, Duration delay) {
+        return new ReconnectionPolicy(maxAttempts, delay, delay, 1, 0);
+    }
+
+    /**
+     * Gets the delay in nanoseconds before the given reconnection <code>attempt</code>.
+     *
+     * @param attempt the reconnection attempt (starting at <code>1</code>)
+     *
+     * @return the delay in nanoseconds
+     */
+    public long getDelayNanos(int attempt) {
+        checkArgument(attempt >= 1, "attempt must be at least 1!");
+        final double backoffNanos = Math.min(maxDelay.toNanos(),
+                initialDelay.toNanos() * Math.pow(multiplier, attempt - 1));
+        return (long) (backoffNanos * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    @Override
+    public String toString() {
+        return "ReconnectionPolicy{" +
+                "maxAttempts=" + maxAttempts +
+                ", initialDelay=" + initialDelay +
+                ", maxDelay=" + maxDelay +
+                ", multiplier=" + multiplier +
+                ", jitter=" + jitter +
+                '}';
+    }
+}
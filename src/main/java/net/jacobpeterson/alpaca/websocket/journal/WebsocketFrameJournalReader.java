@@ -0,0 +1,170 @@
+package net.jacobpeterson.alpaca.websocket.journal;
+
+import okio.ByteString;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameJournalWriter.BINARY_FRAME_TYPE;
+import static net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameJournalWriter.HEADER_SIZE;
+import static net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameJournalWriter.SEGMENT_INT;
+import static net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameJournalWriter.TEXT_FRAME_TYPE;
+import static net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameJournalWriter.align;
+
+/**
+ * {@link WebsocketFrameJournalReader} is a forward-only cursor over the frames of a journal written by a
+ * {@link WebsocketFrameJournalWriter}. The segment files that exist when this reader is created are memory-mapped
+ * read-only one at a time. This class is not thread-safe.
+ */
+public class WebsocketFrameJournalReader implements Closeable {
+
+    private final List<Path> segmentPaths;
+    private int segmentPathIndex;
+    private MappedByteBuffer segment;
+    private int position;
+    private int frameType;
+    private int payloadLength;
+    private long receiveNanoTime;
+    private long receiveEpochMillis;
+
+    /**
+     * Instantiates a new {@link WebsocketFrameJournalReader}.
+     *
+     * @param directory the directory {@link Path}
+     * @param name      the journal name
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public WebsocketFrameJournalReader(Path directory, String name) throws IOException {
+        checkNotNull(directory);
+        checkNotNull(name);
+        segmentPaths = WebsocketFrameJournalWriter.listSegments(directory, name);
+        segmentPathIndex = -1;
+    }
+
+    /**
+     * Advances to the next frame.
+     *
+     * @return <code>true</code> if there is a next frame, <code>false</code> if the end of the journal was reached
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public boolean next() throws IOException {
+        if (segment != null) {
+            position += HEADER_SIZE + align(payloadLength);
+        }
+        frameType = 0;
+        while (true) {
+            if (segment != null && position + HEADER_SIZE <= segment.capacity()) {
+                // Pairs with the release store of the frame type by the writer
+                final int recordFrameType = (int) SEGMENT_INT.getAcquire(segment, position + 4);
+                if (recordFrameType == TEXT_FRAME_TYPE || recordFrameType == BINARY_FRAME_TYPE) {
+                    frameType = recordFrameType;
+                    payloadLength = segment.getInt(position);
+                    receiveNanoTime = segment.getLong(position + 8);
+                    receiveEpochMillis = segment.getLong(position + 16);
+                    return true;
+                }
+            }
+            // The rest of the segment is unused, so continue with the next segment
+            if (segmentPathIndex + 1 >= segmentPaths.size()) {
+                segment = null;
+                return false;
+            }
+            segmentPathIndex++;
+            try (FileChannel channel = FileChannel.open(segmentPaths.get(segmentPathIndex), READ)) {
+                segment = channel.map(READ_ONLY, 0, channel.size());
+            }
+            segment.order(LITTLE_ENDIAN);
+            position = 0;
+            payloadLength = 0;
+        }
+    }
+
+    private void checkFrame() {
+        checkState(frameType != 0, "There is no current frame!");
+    }
+
+    /**
+     * Returns <code>true</code> if the current frame is a text frame, <code>false</code> if it is a binary frame.
+     *
+     * @return a boolean
+     */
+    public boolean isText() {
+        checkFrame();
+        return frameType == TEXT_FRAME_TYPE;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the current frame was received. This is only comparable with the
+     * receive nano times of frames recorded by the same JVM.
+     *
+     * @return the receive nano time
+     */
+    public long getReceiveNanoTime() {
+        checkFrame();
+        return receiveNanoTime;
+    }
+
+    /**
+     * Gets the {@link System#currentTimeMillis()} at which the current frame was received.
+     *
+     * @return the receive epoch milliseconds
+     */
+    public long getReceiveEpochMillis() {
+        checkFrame();
+        return receiveEpochMillis;
+    }
+
+    public int getPayloadLength() {
+        checkFrame();
+        return payloadLength;
+    }
+
+    /**
+     * Gets a read-only view of the payload of the current frame in the mapped segment. The view is only valid until
+     * the next call to {@link #next()}.
+     *
+     * @return the payload {@link ByteBuffer}
+     */
+    public ByteBuffer getPayload() {
+        checkFrame();
+        return segment.slice(position + HEADER_SIZE, payloadLength).asReadOnlyBuffer();
+    }
+
+    /**
+     * Decodes the payload of the current frame as a UTF-8 {@link String}.
+     *
+     * @return the text {@link String}
+     */
+    public String getText() {
+        return UTF_8.decode(getPayload()).toString();
+    }
+
+    /**
+     * Copies the payload of the current frame into a {@link ByteString}.
+     *
+     * @return the {@link ByteString}
+     */
+    public ByteString getBytes() {
+        return ByteString.of(getPayload());
+    }
+
+    @Override
+    public void close() {
+        segment = null;
+        frameType = 0;
+        segmentPathIndex = segmentPaths.size();
+    }
+}
@@ -0,0 +1,393 @@
+package net.jacobpeterson.alpaca.websocket.journal;
+
+import com.google.common.base.Utf8;
+import okio.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * {@link WebsocketFrameJournalWriter} appends raw websocket frames to a journal of memory-mapped segment files named
+ * <code>&lt;name&gt;-&lt;segment index&gt;.journal</code> in a directory. Each segment file is created with a fixed
+ * size and mapped once, and a new segment is started when a frame doesn't fit into the current one. A writer never
+ * modifies existing segments: it continues the journal with a new segment.
+ * <p>
+ * Each record is a header of the payload length (<code>int</code>), the frame type (<code>int</code>), the
+ * {@link System#nanoTime()} at which the frame was received (<code>long</code>), and the
+ * {@link System#currentTimeMillis()} at which the frame was received (<code>long</code>), followed by the payload
+ * (UTF-8 for text frames) padded to 8 bytes, all in little-endian byte order. The frame type (never <code>0</code>) is
+ * written last with release semantics, so a record that was only partially written (e.g. because the process crashed)
+ * is never read, and a {@link WebsocketFrameJournalReader} that reads the frame type with acquire semantics sees the
+ * whole record. Records that weren't written to disk by {@link #force()} may still be lost or torn if the OS crashes.
+ * Text frames are encoded directly into the mapped segment and binary frames are copied into it through a reused
+ * scratch buffer, so appending a frame doesn't allocate and costs about as much as a memory copy. The next segment is created, mapped, and
+ * pre-faulted in the background, so neither rolling segments nor faulting in fresh pages stalls the appending thread.
+ * The pages are written to disk by the OS (or on {@link #force()}).
+ * This class is thread-safe, so one writer can be shared by multiple websockets.
+ *
+ * @see WebsocketFrameJournalReader
+ */
+public class WebsocketFrameJournalWriter implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebsocketFrameJournalWriter.class);
+
+    /**
+     * The default segment size: 256 MiB.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+    private static final ExecutorService SEGMENT_PREPARER = createSegmentPreparer();
+    private static final int PAGE_SIZE = 4096;
+
+    private static ExecutorService createSegmentPreparer() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "Websocket Frame Journal Segment Preparer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The {@link VarHandle} to the <code>int</code>s of a segment, which is used to publish the frame type of a record
+     * with release semantics.
+     */
+    static final VarHandle SEGMENT_INT = MethodHandles.byteBufferViewVarHandle(int[].class, LITTLE_ENDIAN);
+
+    static final int HEADER_SIZE = 24;
+    static final int TEXT_FRAME_TYPE = 1;
+    static final int BINARY_FRAME_TYPE = 2;
+    static final String SEGMENT_FILE_EXTENSION = ".journal";
+
+    /**
+     * Lists the segment files of a journal ordered by their segment index.
+     *
+     * @param directory the directory {@link Path}
+     * @param name      the journal name
+     *
+     * @return a {@link List} of segment file {@link Path}s
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    static List<Path> listSegments(Path directory, String name) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        final Pattern segmentPattern = createSegmentPattern(name);
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> segmentPattern.matcher(path.getFileName().toString()).matches())
+                    .sorted((first, second) -> Long.compare(getSegmentIndex(segmentPattern, first),
+                            getSegmentIndex(segmentPattern, second)))
+                    .toList();
+        }
+    }
+
+    private static Pattern createSegmentPattern(String name) {
+        return Pattern.compile(Pattern.quote(name) + "-(\\d+)" + Pattern.quote(SEGMENT_FILE_EXTENSION));
+    }
+
+    private static long getSegmentIndex(Pattern segmentPattern, Path path) {
+        final Matcher matcher = segmentPattern.matcher(path.getFileName().toString());
+        checkArgument(matcher.matches());
+        return Long.parseLong(matcher.group(1));
+    }
+
+    static int align(int length) {
+        return (length + 7) & ~7;
+    }
+
+    private final Path directory;
+    private final String name;
+    private final int segmentSize;
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+    private Future<MappedByteBuffer> nextSegment;
+    private int position;
+    private long frameCount;
+    private boolean closed;
+    private byte[] scratchBuffer;
+
+    /**
+     * Instantiates a new {@link WebsocketFrameJournalWriter} with {@link #DEFAULT_SEGMENT_SIZE}.
+     *
+     * @param directory the directory {@link Path} (created if it doesn't exist)
+     * @param name      the journal name
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public WebsocketFrameJournalWriter(Path directory, String name) throws IOException {
+        this(directory, name, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Instantiates a new {@link WebsocketFrameJournalWriter}.
+     *
+     * @param directory   the directory {@link Path} (created if it doesn't exist)
+     * @param name        the journal name
+     * @param segmentSize the segment file size in bytes
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public WebsocketFrameJournalWriter(Path directory, String name, int segmentSize) throws IOException {
+        checkNotNull(directory);
+        checkNotNull(name);
+        checkArgument(segmentSize >= 4096, "segmentSize must be at least 4096!");
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        scratchBuffer = new byte[4096];
+
+        Files.createDirectories(directory);
+        final List<Path> existingSegments = listSegments(directory, name);
+        segmentIndex = existingSegments.isEmpty() ? 0 : getSegmentIndex(createSegmentPattern(name),
+                existingSegments.get(existingSegments.size() - 1)) + 1;
+        segment = prepareSegment(getSegmentPath(segmentIndex));
+        nextSegment = SEGMENT_PREPARER.submit(() -> prepareSegment(getSegmentPath(segmentIndex + 1)));
+    }
+
+    private Path getSegmentPath(long segmentIndex) {
+        return directory.resolve(String.format("%s-%010d%s", name, segmentIndex, SEGMENT_FILE_EXTENSION));
+    }
+
+    /**
+     * Creates, maps, and pre-faults a new segment file.
+     *
+     * @param segmentPath the segment file {@link Path}
+     *
+     * @return the mapped segment
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private MappedByteBuffer prepareSegment(Path segmentPath) throws IOException {
+        final MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(segmentPath, CREATE_NEW, READ, WRITE)) {
+            segment = channel.map(READ_WRITE, 0, segmentSize);
+        }
+        segment.order(LITTLE_ENDIAN);
+        for (int index = 0; index < segmentSize; index += PAGE_SIZE) {
+            segment.put(index, (byte) 0);
+        }
+        return segment;
+    }
+
+    /**
+     * Switches to the next segment, which is normally already prepared, and starts preparing the one after it.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void rollSegment() throws IOException {
+        MappedByteBuffer preparedSegment;
+        try {
+            preparedSegment = nextSegment.get();
+        } catch (ExecutionException exception) {
+            LOGGER.warn("Could not prepare websocket frame journal segment in the background!", exception.getCause());
+            preparedSegment = prepareSegment(getSegmentPath(segmentIndex + 1));
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IOException(interruptedException);
+        }
+        segment = preparedSegment;
+        segmentIndex++;
+        position = 0;
+        final long preparedSegmentIndex = segmentIndex + 1;
+        nextSegment = SEGMENT_PREPARER.submit(() -> prepareSegment(getSegmentPath(preparedSegmentIndex)));
+        LOGGER.debug("Started websocket frame journal segment: {}", getSegmentPath(segmentIndex));
+    }
+
+    /**
+     * Reserves space for a record in the current segment, rolling the segment if needed.
+     *
+     * @param payloadLength the payload length
+     *
+     * @return <code>true</code> if space was reserved, <code>false</code> if the record is larger than a segment
+     */
+    private boolean reserve(int payloadLength) {
+        final int recordSize = HEADER_SIZE + align(payloadLength);
+        if (recordSize > segmentSize) {
+            LOGGER.warn("Websocket frame of {} bytes is too large for the journal segment size.", payloadLength);
+            return false;
+        }
+        if (position + recordSize > segmentSize) {
+            try {
+                rollSegment();
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the header of the record at the current position, except for the frame type, which is written by
+     * {@link #commit(int, int)}.
+     */
+    private void writeHeader(int payloadLength, long receiveNanoTime) {
+        segment.putInt(position, payloadLength);
+        segment.putLong(position + 8, receiveNanoTime);
+        segment.putLong(position + 16, System.currentTimeMillis());
+    }
+
+    private void commit(int frameType, int payloadLength) {
+        // Publish the record only after its header and payload have been written
+        SEGMENT_INT.setRelease(segment, position + 4, frameType);
+        position += HEADER_SIZE + align(payloadLength);
+        frameCount++;
+    }
+
+    /**
+     * Appends a text frame.
+     *
+     * @param message         the message
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the frame was received
+     */
+    @SuppressWarnings("deprecation")
+    public synchronized void append(String message, long receiveNanoTime) {
+        if (closed) {
+            return;
+        }
+        final int payloadLength = Utf8.encodedLength(message);
+        if (!reserve(payloadLength)) {
+            return;
+        }
+        writeHeader(payloadLength, receiveNanoTime);
+        final MappedByteBuffer segment = this.segment;
+        int index = position + HEADER_SIZE;
+        final int length = message.length();
+        if (payloadLength == length) {
+            // The message is ASCII (as market data messages almost always are), so bulk copy it via the (otherwise
+            // deprecated) 'String.getBytes()' overload that truncates each char to a byte without encoding.
+            final byte[] scratchBuffer = ensureScratchBuffer(length);
+            message.getBytes(0, length, scratchBuffer, 0);
+            segment.put(index, scratchBuffer, 0, length);
+            commit(TEXT_FRAME_TYPE, payloadLength);
+            return;
+        }
+        for (int charIndex = 0; charIndex < length; charIndex++) {
+            final char character = message.charAt(charIndex);
+            if (character < 0x80) {
+                segment.put(index++, (byte) character);
+            } else if (character < 0x800) {
+                segment.put(index++, (byte) (0xC0 | character >>> 6));
+                segment.put(index++, (byte) (0x80 | character & 0x3F));
+            } else if (Character.isHighSurrogate(character)) {
+                final int codePoint = Character.toCodePoint(character, message.charAt(++charIndex));
+                segment.put(index++, (byte) (0xF0 | codePoint >>> 18));
+                segment.put(index++, (byte) (0x80 | codePoint >>> 12 & 0x3F));
+                segment.put(index++, (byte) (0x80 | codePoint >>> 6 & 0x3F));
+                segment.put(index++, (byte) (0x80 | codePoint & 0x3F));
+            } else {
+                segment.put(index++, (byte) (0xE0 | character >>> 12));
+                segment.put(index++, (byte) (0x80 | character >>> 6 & 0x3F));
+                segment.put(index++, (byte) (0x80 | character & 0x3F));
+            }
+        }
+        commit(TEXT_FRAME_TYPE, payloadLength);
+    }
+
+    /**
+     * Appends a binary frame.
+     *
+     * @param message         the message {@link ByteString}
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the frame was received
+     */
+    public synchronized void append(ByteString message, long receiveNanoTime) {
+        if (closed) {
+            return;
+        }
+        final int payloadLength = message.size();
+        if (!reserve(payloadLength)) {
+            return;
+        }
+        writeHeader(payloadLength, receiveNanoTime);
+        // 'ByteString.asByteBuffer()' would allocate a wrapper, so copy via the scratch buffer instead
+        final byte[] scratchBuffer = ensureScratchBuffer(payloadLength);
+        message.copyInto(0, scratchBuffer, 0, payloadLength);
+        segment.put(position + HEADER_SIZE, scratchBuffer, 0, payloadLength);
+        commit(BINARY_FRAME_TYPE, payloadLength);
+    }
+
+    private byte[] ensureScratchBuffer(int length) {
+        if (scratchBuffer.length < length) {
+            scratchBuffer = new byte[Math.max(length, scratchBuffer.length << 1)];
+        }
+        return scratchBuffer;
+    }
+
+    /**
+     * Forces the written frames of the current segment to be written to disk.
+     */
+    public synchronized void force() {
+        if (!closed) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Gets the number of frames appended by this {@link WebsocketFrameJournalWriter}.
+     *
+     * @return the frame count
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Forces the written frames to be written to disk and stops appending frames. Frames appended after this is
+     * called are ignored.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        segment.force();
+        closed = true;
+        segment = null;
+        // Delete the unused, prepared segment
+        try {
+            nextSegment.get();
+            Files.deleteIfExists(getSegmentPath(segmentIndex + 1));
+        } catch (ExecutionException | IOException exception) {
+            LOGGER.warn("Could not delete unused websocket frame journal segment!", exception);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package net.jacobpeterson.alpaca.websocket.journal;
+
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link WebsocketFrameReplayer} replays the frames of a journal written by a {@link WebsocketFrameJournalWriter}
+ * into a {@link WebSocketListener}, such as a
+ * {@link net.jacobpeterson.alpaca.websocket.marketdata.MarketDataWebsocket}, so that they go through the same decode
+ * and dispatch path as live frames. Frames can be replayed at their recorded pace, at a multiple of it, or as fast as
+ * possible (e.g. for decode benchmarks on real traffic). The target should be a websocket that isn't connected and
+ * that doesn't record frames itself.
+ */
+public class WebsocketFrameReplayer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebsocketFrameReplayer.class);
+
+    /**
+     * The replay speed to replay frames as fast as possible.
+     */
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    /**
+     * The replay speed to replay frames at their recorded pace.
+     */
+    public static final double REAL_TIME = 1;
+
+    // Receive nano times are only comparable within a JVM, so fall back to the receive epoch milliseconds when they
+    // disagree by more than this (e.g. when a journal was continued by another process)
+    private static final long MAX_CLOCK_DISAGREEMENT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Path directory;
+    private final String name;
+
+    /**
+     * Instantiates a new {@link WebsocketFrameReplayer}.
+     *
+     * @param directory the journal directory {@link Path}
+     * @param name      the journal name
+     */
+    public WebsocketFrameReplayer(Path directory, String name) {
+        this.directory = checkNotNull(directory);
+        this.name = checkNotNull(name);
+    }
+
+    /**
+     * Replays all frames of the journal into the given {@link WebSocketListener} on the calling thread. This returns
+     * early if the calling thread is interrupted.
+     *
+     * @param target the target {@link WebSocketListener}
+     * @param speed  the replay speed as a multiple of the recorded pace (e.g. {@link #REAL_TIME} or <code>10</code>),
+     *               or {@link #AS_FAST_AS_POSSIBLE}
+     *
+     * @return the number of replayed frames
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public long replay(WebSocketListener target, double speed) throws IOException {
+        checkNotNull(target);
+        checkArgument(speed > 0, "speed must be positive!");
+        final boolean paced = speed != AS_FAST_AS_POSSIBLE;
+        final WebSocket replayWebSocket = new ReplayWebSocket();
+        long frameCount = 0;
+        try (WebsocketFrameJournalReader reader = new WebsocketFrameJournalReader(directory, name)) {
+            long previousReceiveNanoTime = 0;
+            long previousReceiveEpochMillis = 0;
+            long replayNanoTime = System.nanoTime();
+            while (reader.next()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    LOGGER.info("Websocket frame replay was interrupted after {} frames.", frameCount);
+                    break;
+                }
+                if (paced) {
+                    if (frameCount > 0) {
+                        long recordedDelta = reader.getReceiveNanoTime() - previousReceiveNanoTime;
+                        final long wallClockDelta = TimeUnit.MILLISECONDS.toNanos(
+                                reader.getReceiveEpochMillis() - previousReceiveEpochMillis);
+                        if (recordedDelta < 0 ||
+                                Math.abs(recordedDelta - wallClockDelta) > MAX_CLOCK_DISAGREEMENT_NANOS) {
+                            recordedDelta = Math.max(0, wallClockDelta);
+                        }
+                        replayNanoTime += (long) (recordedDelta / speed);
+                        waitUntil(replayNanoTime);
+                    } else {
+                        replayNanoTime = System.nanoTime();
+                    }
+                    previousReceiveNanoTime = reader.getReceiveNanoTime();
+                    previousReceiveEpochMillis = reader.getReceiveEpochMillis();
+                }
+                if (reader.isText()) {
+                    target.onMessage(replayWebSocket, reader.getText());
+                } else {
+                    target.onMessage(replayWebSocket, reader.getBytes());
+                }
+                frameCount++;
+            }
+        }
+        return frameCount;
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remainingNanos;
+        while ((remainingNanos = nanoTime - System.nanoTime()) > 0) {
+            if (remainingNanos > MAX_SPIN_NANOS) {
+                LockSupport.parkNanos(remainingNanos - MAX_SPIN_NANOS);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * {@link ReplayWebSocket} is the {@link WebSocket} passed to the target {@link WebSocketListener}. It doesn't send
+     * anything.
+     */
+    private static final class ReplayWebSocket implements WebSocket {
+
+        private static final Request REQUEST = new Request.Builder().url("http://replay.invalid/").build();
+
+        @NotNull
+        @Override
+        public Request request() {
+            return REQUEST;
+        }
+
+        @Override
+        public long queueSize() {
+            return 0;
+        }
+
+        @Override
+        public boolean send(@NotNull String text) {
+            return false;
+        }
+
+        @Override
+        public boolean send(@NotNull ByteString bytes) {
+            return false;
+        }
+
+        @Override
+        public boolean close(int code, @Nullable String reason) {
+            return false;
+        }
+
+        @Override
+        public void cancel() {}
+    }
+}
@@ -0,0 +1,101 @@
+package net.jacobpeterson.alpaca.websocket.marketdata;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link MarketDataMessageTypeTable} is a precomputed lookup table that maps raw <code>"T"</code> (message type) codes
+ * directly to message type constants without any hashing, reflection, or Gson involvement. Single-character codes
+ * (e.g. <code>"t"</code>, <code>"q"</code>, or <code>"b"</code>) are looked up by indexing an array with the character
+ * and longer codes (e.g. <code>"success"</code> or <code>"subscription"</code>) are looked up by their first character
+ * and then compared.
+ *
+ * @param <T> the 'message type' type
+ */
+public class MarketDataMessageTypeTable<T> {
+
+    private static final int TABLE_SIZE = 128;
+
+    private final Object[] singleCharMessageTypes;
+    private final String[][] multiCharCodes;
+    private final Object[][] multiCharMessageTypes;
+
+    /**
+     * Instantiates a new {@link MarketDataMessageTypeTable}.
+     *
+     * @param messageTypes the message type constants whose {@link Object#toString()} is their raw ASCII code
+     */
+    public MarketDataMessageTypeTable(T[] messageTypes) {
+        singleCharMessageTypes = new Object[TABLE_SIZE];
+        multiCharCodes = new String[TABLE_SIZE][0];
+        multiCharMessageTypes = new Object[TABLE_SIZE][0];
+        for (T messageType : messageTypes) {
+            final String code = messageType.toString();
+            checkArgument(!code.isEmpty() && code.charAt(0) < TABLE_SIZE, "Invalid message type code: %s", code);
+            final char firstChar = code.charAt(0);
+            if (code.length() == 1) {
+                singleCharMessageTypes[firstChar] = messageType;
+            } else {
+                final int length = multiCharCodes[firstChar].length;
+                multiCharCodes[firstChar] = Arrays.copyOf(multiCharCodes[firstChar], length + 1);
+                multiCharCodes[firstChar][length] = code;
+                multiCharMessageTypes[firstChar] = Arrays.copyOf(multiCharMessageTypes[firstChar], length + 1);
+                multiCharMessageTypes[firstChar][length] = messageType;
+            }
+        }
+    }
+
+    /**
+     * Gets the message type of the given raw <code>code</code>.
+     *
+     * @param code the raw message type code
+     *
+     * @return the message type or <code>null</code> if the <code>code</code> is unknown
+     */
+    public T get(String code) {
+        return get(code, 0, code.length());
+    }
+
+    /**
+     * Gets the message type of the raw code in the given {@link CharSequence} region.
+     *
+     * @param text  the {@link CharSequence}
+     * @param start the start index (inclusive)
+     * @param end   the end index (exclusive)
+     *
+     * @return the message type or <code>null</code> if the code is unknown
+     */
+    @SuppressWarnings("unchecked")
+    public T get(CharSequence text, int start, int end) {
+        final int length = end - start;
+        if (length <= 0) {
+            return null;
+        }
+        final char firstChar = text.charAt(start);
+        if (firstChar >= TABLE_SIZE) {
+            return null;
+        } else if (length == 1) {
+            return (T) singleCharMessageTypes[firstChar];
+        }
+        final String[] codes = multiCharCodes[firstChar];
+        for (int index = 0; index < codes.length; index++) {
+            if (regionEquals(codes[index], text, start, length)) {
+                return (T) multiCharMessageTypes[firstChar][index];
+            }
+        }
+        return null;
+    }
+
+    private static boolean regionEquals(String code, CharSequence text, int start, int length) {
+        if (code.length() != length) {
+            return false;
+        }
+        for (int offset = 1; offset < length; offset++) {
+            if (code.charAt(offset) != text.charAt(start + offset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,25 +2,74 @@ package net.jacobpeterson.alpaca.websocket.marketdata;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.model.control.ErrorMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.model.control.SuccessMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.control.SuccessMessageType;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.metrics.MetricsTimer;
+import net.jacobpeterson.alpaca.util.msgpack.MessagePackReader;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
 import net.jacobpeterson.alpaca.websocket.AlpacaWebsocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfillClient;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfiller;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataGapRecovery;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.ConflatingDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.ExecutorDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.MarketDataDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferOverflowPolicy;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferWaitStrategy;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.ShardedDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.cache.MarketDataCache;
+import net.jacobpeterson.alpaca.websocket.marketdata.flyweight.FlyweightMessageDecoder;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetry;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetrySnapshot;
+import net.jacobpeterson.alpaca.websocket.marketdata.tickstore.TickStore;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import okhttp3.WebSocket;
+import okio.ByteString;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
-import static com.google.common.collect.Sets.difference;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.gson.JsonParser.parseReader;
 import static com.google.gson.JsonParser.parseString;
-import static java.util.concurrent.TimeUnit.SECONDS;
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.model.control.SuccessMessageType.AUTHENTICATED;
 import static net.jacobpeterson.alpaca.openapi.marketdata.JSON.getGson;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.MESSAGE_TYPE_TAG;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_DECODE_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_LISTENER_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_TAG;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextIntegerOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextStringOrNull;
+import static net.jacobpeterson.alpaca.util.msgpack.MessagePackUtil.toMessagePack;
+import static net.jacobpeterson.alpaca.util.symbol.SymbolDictionary.NO_ID;
+import static org.msgpack.core.MessagePack.newDefaultUnpacker;
 
 /**
  * {@link MarketDataWebsocket} is an abstract {@link AlpacaWebsocket} implementation for
@@ -35,13 +84,41 @@ public abstract class MarketDataWebsocket<T, S extends MarketDataMessage, L> ext
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MarketDataWebsocket.class);
     private static final Set<String> AUTH_FAILURE_MESSAGES = Set.of("auth failed", "auth timeout", "not authenticated");
+    /**
+     * The error codes (and their messages) with which the server rejects a subscribe or unsubscribe frame.
+     */
+    private static final Set<Integer> SUBSCRIPTION_REJECTION_CODES = Set.of(405, 409, 410);
+    private static final Set<String> SUBSCRIPTION_REJECTION_MESSAGES = Set.of("symbol limit exceeded",
+            "insufficient subscription", "invalid subscribe action for this feed");
+    /**
+     * Whether the optional <code>org.msgpack:msgpack-core</code> dependency is on the classpath.
+     */
+    private static final boolean MESSAGE_PACK_AVAILABLE = isClassPresent("org.msgpack.core.MessagePack");
 
+    protected final boolean traderKeysGiven;
     protected final String authKey;
     protected final String authSecret;
     protected final Class<T> messageTypeClass;
+    protected final MarketDataMessageTypeTable<T> messageTypeTable;
     protected final Class<S> subscriptionsMessageClass;
     protected S subscriptionsMessage;
     protected L listener;
+    protected boolean useStreamingDecoder;
+    protected boolean useMessagePack;
+    protected final SymbolDictionary symbolDictionary;
+    protected FlyweightMessageDecoder flyweightMessageDecoder;
+    protected MarketDataDispatcher<T> dispatcher;
+    protected final SubscriptionBatcher subscriptionBatcher;
+    protected volatile MarketDataTelemetry<T> telemetry;
+    protected volatile MarketDataGapRecovery<T> gapRecovery;
+    protected volatile MarketDataCache marketDataCache;
+    protected volatile TickStore tickStore;
+    private Duration maxGapRecoveryDuration;
+    private long messageReceiveNanoTime;
+    private final Consumer<String> unhandledFlyweightMessageConsumer;
+    private MetricsTimer[] decodeTimers;
+    private MetricsTimer[] listenerTimers;
+    private final List<AlpacaPublisher<MarketDataMessage>> publishers;
 
     /**
      * Instantiates a new {@link MarketDataWebsocket}.
@@ -59,18 +136,76 @@ public abstract class MarketDataWebsocket<T, S extends MarketDataMessage, L> ext
     protected MarketDataWebsocket(OkHttpClient okHttpClient, HttpUrl websocketURL, String websocketMarketDataTypeName,
             String traderKeyID, String traderSecretKey, String brokerAPIKey, String brokerAPISecret,
             Class<T> messageTypeClass, Class<S> subscriptionsMessageClass) {
+        this(okHttpClient, websocketURL, websocketMarketDataTypeName, traderKeyID, traderSecretKey, brokerAPIKey,
+                brokerAPISecret, messageTypeClass, subscriptionsMessageClass, new SymbolDictionary());
+    }
+
+    /**
+     * Instantiates a new {@link MarketDataWebsocket}.
+     *
+     * @param okHttpClient                the {@link OkHttpClient}
+     * @param websocketURL                the websocket {@link HttpUrl}
+     * @param websocketMarketDataTypeName the websocket market data type name {@link String}
+     * @param traderKeyID                 the trader key ID
+     * @param traderSecretKey             the trader secret key
+     * @param brokerAPIKey                the broker API key
+     * @param brokerAPISecret             the broker API secret
+     * @param messageTypeClass            the {@link T} message type {@link Class}
+     * @param subscriptionsMessageClass   the {@link S} subscription message {@link Class}
+     * @param symbolDictionary            the {@link SymbolDictionary}, which may be shared with other websockets
+     */
+    protected MarketDataWebsocket(OkHttpClient okHttpClient, HttpUrl websocketURL, String websocketMarketDataTypeName,
+            String traderKeyID, String traderSecretKey, String brokerAPIKey, String brokerAPISecret,
+            Class<T> messageTypeClass, Class<S> subscriptionsMessageClass, SymbolDictionary symbolDictionary) {
         super(okHttpClient, websocketURL, websocketMarketDataTypeName + " Market Data");
-        final boolean traderKeysGiven = traderKeyID != null && traderSecretKey != null;
+        traderKeysGiven = traderKeyID != null && traderSecretKey != null;
         this.authKey = traderKeysGiven ? traderKeyID : brokerAPIKey;
         this.authSecret = traderKeysGiven ? traderSecretKey : brokerAPISecret;
         this.messageTypeClass = messageTypeClass;
+        messageTypeTable = new MarketDataMessageTypeTable<>(messageTypeClass.getEnumConstants());
         this.subscriptionsMessageClass = subscriptionsMessageClass;
+        this.symbolDictionary = checkNotNull(symbolDictionary);
+        subscriptionBatcher = new SubscriptionBatcher(websocketName, this::sendWebsocketMessage, SCHEDULER);
+        unhandledFlyweightMessageConsumer = messageObject ->
+                handleMessageObject(parseString(messageObject).getAsJsonObject());
+        maxGapRecoveryDuration = MarketDataGapRecovery.DEFAULT_MAX_GAP_DURATION;
+        publishers = new CopyOnWriteArrayList<>();
+        resolveMessageTypeMetrics();
+    }
+
+    /**
+     * Resolves the per-message-type metric handles from the {@link #metrics}.
+     */
+    private void resolveMessageTypeMetrics() {
+        final T[] messageTypes = messageTypeClass.getEnumConstants();
+        decodeTimers = new MetricsTimer[messageTypes.length];
+        listenerTimers = new MetricsTimer[messageTypes.length];
+        for (int index = 0; index < messageTypes.length; index++) {
+            final String messageTypeName = ((Enum<?>) messageTypes[index]).name();
+            decodeTimers[index] = metrics.timer(WEBSOCKET_DECODE_TIME,
+                    WEBSOCKET_TAG, websocketName, MESSAGE_TYPE_TAG, messageTypeName);
+            listenerTimers[index] = metrics.timer(WEBSOCKET_LISTENER_TIME,
+                    WEBSOCKET_TAG, websocketName, MESSAGE_TYPE_TAG, messageTypeName);
+        }
+    }
+
+    @Override
+    protected Request createWebsocketRequest() {
+        final Request websocketRequest = super.createWebsocketRequest();
+        return useMessagePack ? websocketRequest.newBuilder()
+                .header("Content-Type", "application/msgpack")
+                .build() : websocketRequest;
     }
 
     @Override
     protected void cleanupState() {
         super.cleanupState();
         subscriptionsMessage = null;
+        subscriptionBatcher.clear();
+        final MarketDataGapRecovery<T> gapRecovery = this.gapRecovery;
+        if (gapRecovery != null) {
+            gapRecovery.reset();
+        }
     }
 
     @Override
@@ -80,10 +215,22 @@ public abstract class MarketDataWebsocket<T, S extends MarketDataMessage, L> ext
 
     @Override
     protected void onReconnection() {
-        sendAuthenticationMessage();
-        if (waitForAuthorization(5, SECONDS) && subscriptionsMessage != null) {
-            sendSubscriptionMessage(subscriptionsMessage, true);
+        final MarketDataGapRecovery<T> gapRecovery = this.gapRecovery;
+        if (gapRecovery != null) {
+            // Buffer streamed messages until the messages missed during the outage have been backfilled
+            gapRecovery.startBuffering();
         }
+        sendAuthenticationMessage();
+        subscriptionBatcher.requeueInFlightFrames();
+        whenAuthenticated(() -> {
+            if (subscriptionsMessage != null) {
+                subscriptionBatcher.resubscribe(getChannelSubscriptions(subscriptionsMessage));
+            }
+            subscriptionBatcher.flush();
+            if (gapRecovery != null) {
+                gapRecovery.backfill();
+            }
+        });
     }
 
     @Override
@@ -97,68 +244,377 @@ public abstract class MarketDataWebsocket<T, S extends MarketDataMessage, L> ext
         authObject.addProperty("secret", authSecret);
 
         LOGGER.info("{} websocket sending authentication message...", websocketName);
-        sendWebsocketMessage(authObject.toString());
+        sendWebsocketMessage(authObject);
     }
 
     @Override
     public void onMessage(@NotNull WebSocket webSocket, @NotNull String message) { // Text framing
+        messageReceiveNanoTime = System.nanoTime();
+        recordReceivedFrame(message, messageReceiveNanoTime);
         LOGGER.trace("Websocket message received: {}", message);
 
+        if (flyweightMessageDecoder != null) {
+            flyweightMessageDecoder.decode(message, messageReceiveNanoTime, telemetry, marketDataCache, tickStore,
+                    unhandledFlyweightMessageConsumer);
+            return;
+        }
+
+        if (useStreamingDecoder) {
+            try {
+                handleMessagesWithStreamingDecoder(new JsonReader(new StringReader(message)));
+            } catch (IOException ioException) {
+                throw new JsonParseException(ioException);
+            }
+            return;
+        }
+
         // Loop through message array and handle each message according to its type
         for (JsonElement arrayElement : parseString(message).getAsJsonArray()) {
-            final JsonObject messageObject = arrayElement.getAsJsonObject();
-            final T messageType = getGson().fromJson(messageObject.get("T"), messageTypeClass);
-            if (isSuccessMessageType(messageType)) {
-                final SuccessMessage successMessage = getGson().fromJson(messageObject, SuccessMessage.class);
-                if (successMessage.getMessageType() == AUTHENTICATED) {
-                    LOGGER.info("{} websocket authenticated.", websocketName);
-                    authenticated = true;
-                    if (authenticationMessageFuture != null) {
-                        authenticationMessageFuture.complete(true);
+            handleMessageObject(arrayElement.getAsJsonObject());
+        }
+    }
+
+    @Override
+    public void onMessage(@NotNull WebSocket webSocket, @NotNull ByteString bytes) { // Binary framing
+        messageReceiveNanoTime = System.nanoTime();
+        recordReceivedFrame(bytes, messageReceiveNanoTime);
+        LOGGER.trace("Websocket binary message received: {}", bytes);
+
+        // Binary framing is only used for MessagePack encoded messages
+        try (MessagePackReader reader = new MessagePackReader(newDefaultUnpacker(bytes.toByteArray()))) {
+            handleMessagesWithStreamingDecoder(reader);
+        } catch (IOException ioException) {
+            throw new JsonParseException(ioException);
+        }
+    }
+
+    /**
+     * Handles a market data message array in a single pass using the given {@link JsonReader}. Each message is read
+     * directly into its model without building an intermediate JSON tree, except when a message object doesn't start
+     * with its <code>"T"</code> (message type) property.
+     *
+     * @param reader the {@link JsonReader}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void handleMessagesWithStreamingDecoder(JsonReader reader) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginObject();
+            if (reader.hasNext()) {
+                final String firstName = reader.nextName();
+                if (firstName.equals("T")) {
+                    final String messageTypeCode = reader.nextString();
+                    final T messageType = messageTypeTable.get(messageTypeCode);
+                    if (messageType != null) {
+                        handleMessageWithStreamingDecoder(messageType, reader);
+                    } else {
+                        LOGGER.warn("{} websocket received an unknown message type: {}", websocketName,
+                                messageTypeCode);
+                        while (reader.hasNext()) {
+                            reader.nextName();
+                            reader.skipValue();
+                        }
+                    }
+                } else {
+                    // The message type isn't known yet, so fall back to reading this message object as a tree
+                    final JsonObject messageObject = new JsonObject();
+                    messageObject.add(firstName, parseReader(reader));
+                    while (reader.hasNext()) {
+                        messageObject.add(reader.nextName(), parseReader(reader));
                     }
+                    handleMessageObject(messageObject);
                 }
-            } else if (isErrorMessageType(messageType)) {
-                final ErrorMessage errorMessage = getGson().fromJson(messageObject, ErrorMessage.class);
-                if (AUTH_FAILURE_MESSAGES.contains(errorMessage.getMessage()) && authenticationMessageFuture != null) {
-                    authenticated = false;
-                    authenticationMessageFuture.complete(false);
-                    throw new RuntimeException(websocketName + " websocket authentication failed!");
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+    }
+
+    private void handleMessageWithStreamingDecoder(T messageType, JsonReader reader) throws IOException {
+        if (isSuccessMessageType(messageType)) {
+            final SuccessMessage successMessage = new SuccessMessage();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("msg")) {
+                    final String messageTypeValue = nextStringOrNull(reader);
+                    successMessage.setMessageType(messageTypeValue == null ? null :
+                            SuccessMessageType.fromValue(messageTypeValue));
                 } else {
-                    throw new RuntimeException(websocketName + " websocket error! Message: " + errorMessage);
+                    reader.skipValue();
                 }
-            } else if (isSubscriptionMessageType(messageType)) {
-                subscriptionsMessage = getGson().fromJson(messageObject, subscriptionsMessageClass);
-            } else if (listener != null) {
-                callListenerWithMessage(messageType, messageObject);
+            }
+            handleSuccessMessage(successMessage);
+        } else if (isErrorMessageType(messageType)) {
+            final ErrorMessage errorMessage = new ErrorMessage();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "code" -> errorMessage.setCode(nextIntegerOrNull(reader));
+                    case "msg" -> errorMessage.setMessage(nextStringOrNull(reader));
+                    default -> reader.skipValue();
+                }
+            }
+            handleErrorMessage(errorMessage);
+        } else if (isSubscriptionMessageType(messageType)) {
+            subscriptionsMessage = subscriptionsMessageClass.cast(readMessage(messageType, reader));
+            subscriptionBatcher.onSubscriptionMessage();
+        } else if (isConsumingMessages()) {
+            final boolean recordsMetrics = metrics.isEnabled();
+            final long decodeNanoTime = recordsMetrics ? System.nanoTime() : 0;
+            final MarketDataMessage message = readMessage(messageType, reader);
+            if (recordsMetrics) {
+                decodeTimers[((Enum<?>) messageType).ordinal()].record(System.nanoTime() - decodeNanoTime);
+            }
+            dispatchMessage(messageType, message);
+        } else {
+            while (reader.hasNext()) {
+                reader.nextName();
+                reader.skipValue();
+            }
+        }
+    }
+
+    /**
+     * Handles a single market data message {@link JsonObject}.
+     *
+     * @param messageObject the message {@link JsonObject}
+     */
+    private void handleMessageObject(JsonObject messageObject) {
+        final JsonElement messageTypeElement = messageObject.get("T");
+        final T messageType = messageTypeElement == null || !messageTypeElement.isJsonPrimitive() ? null :
+                messageTypeTable.get(messageTypeElement.getAsString());
+        if (messageType == null) {
+            LOGGER.warn("{} websocket received an unknown message type: {}", websocketName, messageObject);
+        } else if (isSuccessMessageType(messageType)) {
+            handleSuccessMessage(getGson().fromJson(messageObject, SuccessMessage.class));
+        } else if (isErrorMessageType(messageType)) {
+            handleErrorMessage(getGson().fromJson(messageObject, ErrorMessage.class));
+        } else if (isSubscriptionMessageType(messageType)) {
+            subscriptionsMessage = getGson().fromJson(messageObject, subscriptionsMessageClass);
+            subscriptionBatcher.onSubscriptionMessage();
+        } else if (isConsumingMessages()) {
+            final boolean recordsMetrics = metrics.isEnabled();
+            final long decodeNanoTime = recordsMetrics ? System.nanoTime() : 0;
+            final MarketDataMessage message = getGson().fromJson(messageObject, getMessageClass(messageType));
+            if (recordsMetrics) {
+                decodeTimers[((Enum<?>) messageType).ordinal()].record(System.nanoTime() - decodeNanoTime);
+            }
+            dispatchMessage(messageType, message);
+        }
+    }
+
+    /**
+     * Drops the given streamed {@link MarketDataMessage} if {@link #isDuplicateMessage(Object, MarketDataMessage)}.
+     * Otherwise, applies it with {@link #applyStreamedMessage(Object, MarketDataMessage)}, updates the
+     * {@link #marketDataCache}, if any, with it and passes it to the {@link #gapRecovery}, if any, and then to
+     * {@link #dispatchMessage(Object, MarketDataMessage, long, boolean)}. Subclasses with their own
+     * decoders (e.g. installed as the {@link #flyweightMessageDecoder}) call this with each decoded
+     * {@link MarketDataMessage} while {@link #isConsumingMessages()}.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     */
+    protected void dispatchMessage(T messageType, MarketDataMessage message) {
+        if (isDuplicateMessage(messageType, message)) {
+            LOGGER.trace("{} websocket dropped a duplicate message: {}", websocketName, message);
+            return;
+        }
+        resolveSymbolID(messageType, message);
+        applyStreamedMessage(messageType, message);
+        final long receiveNanoTime = messageReceiveNanoTime;
+        final MarketDataCache marketDataCache = this.marketDataCache;
+        if (marketDataCache != null) {
+            updateMarketDataCache(marketDataCache, messageType, message, receiveNanoTime);
+        }
+        final MarketDataGapRecovery<T> gapRecovery = this.gapRecovery;
+        if (gapRecovery == null || gapRecovery.onStreamedMessage(messageType, message, receiveNanoTime)) {
+            dispatchMessage(messageType, message, receiveNanoTime, false);
+        }
+    }
+
+    /**
+     * Appends the given {@link MarketDataMessage} to the {@link #tickStore}, if any, and passes it to the
+     * {@link #dispatcher} or, if there is no {@link #dispatcher}, directly to
+     * {@link #callListener(Object, MarketDataMessage, long)}. Backfilled {@link MarketDataMessage}s pass through here
+     * before the streamed {@link MarketDataMessage}s buffered during gap recovery, so the {@link #tickStore} receives
+     * them in order.
+     *
+     * @param messageType     the message type
+     * @param message         the {@link MarketDataMessage}
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the {@link MarketDataMessage} was received
+     * @param backfilled      <code>true</code> if the {@link MarketDataMessage} was backfilled, in which case its
+     *                        exchange-to-receive latency isn't recorded
+     */
+    private void dispatchMessage(T messageType, MarketDataMessage message, long receiveNanoTime, boolean backfilled) {
+        if (backfilled) {
+            resolveSymbolID(messageType, message);
+        }
+        final TickStore tickStore = this.tickStore;
+        if (tickStore != null) {
+            updateTickStore(tickStore, messageType, message);
+        }
+        final MarketDataTelemetry<T> telemetry = this.telemetry;
+        if (telemetry != null && !backfilled) {
+            telemetry.recordMessage(messageType, getMessageTimestamp(messageType, message), receiveNanoTime);
+        }
+        final MarketDataDispatcher<T> dispatcher = this.dispatcher;
+        if (dispatcher != null) {
+            dispatcher.dispatch(messageType, message, receiveNanoTime);
+            if (telemetry != null) {
+                telemetry.recordQueueDepth(dispatcher.getQueueDepth());
+            }
+        } else {
+            callListener(messageType, message, receiveNanoTime);
+        }
+    }
+
+    /**
+     * Sets the symbol ID of the given {@link MarketDataMessage} from the {@link #symbolDictionary} if the decoder
+     * didn't already set it (e.g. for {@link MarketDataMessage}s decoded from a JSON tree or backfilled).
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     */
+    private void resolveSymbolID(T messageType, MarketDataMessage message) {
+        if (message.getSymbolID() == NO_ID) {
+            final String symbol = getMessageSymbol(messageType, message);
+            if (symbol != null) {
+                message.setSymbolID(symbolDictionary.getID(symbol));
+            }
+        }
+    }
+
+    /**
+     * Gets the key that the {@link #dispatcher} shards or conflates the given {@link MarketDataMessage} by, which is
+     * its symbol ID or <code>0</code> if it has no symbol.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     *
+     * @return the key
+     */
+    private int getDispatchKey(T messageType, MarketDataMessage message) {
+        final int symbolID = message.getSymbolID();
+        return symbolID == NO_ID ? 0 : symbolID;
+    }
+
+    /**
+     * Records the receive-to-dispatch latency with the {@link #telemetry}, if any, and calls
+     * {@link #callListenerWithMessage(Object, MarketDataMessage)} while timing it with the {@link #metrics}, then
+     * publishes the {@link MarketDataMessage} to the {@link #publishers}.
+     *
+     * @param messageType     the message type
+     * @param message         the {@link MarketDataMessage}
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the {@link MarketDataMessage} was received
+     */
+    private void callListener(T messageType, MarketDataMessage message, long receiveNanoTime) {
+        final MarketDataTelemetry<T> telemetry = this.telemetry;
+        if (telemetry != null) {
+            telemetry.recordDispatch(receiveNanoTime);
+        }
+        if (metrics.isEnabled()) {
+            final long listenerNanoTime = System.nanoTime();
+            callListenerWithMessage(messageType, message);
+            listenerTimers[((Enum<?>) messageType).ordinal()].record(System.nanoTime() - listenerNanoTime);
+        } else {
+            callListenerWithMessage(messageType, message);
+        }
+        for (AlpacaPublisher<MarketDataMessage> publisher : publishers) {
+            if (publisher.isClosed()) {
+                publishers.remove(publisher);
+            } else {
+                publisher.publish(message);
             }
         }
     }
 
     /**
-     * Sets the websocket stream's subscriptions for a specific message type.
+     * Adds the given {@link AlpacaPublisher} to the publishers that all decoded {@link MarketDataMessage}s of this
+     * websocket are published to, after they are passed to the {@link #listener}. A closed {@link AlpacaPublisher} is
+     * removed when the next {@link MarketDataMessage} is published.
      *
-     * @param previousSubscriptions           the previous subscriptions symbol {@link Set}
+     * @param publisher the {@link AlpacaPublisher}, whose item type must be a supertype of the
+     *                  {@link MarketDataMessage}s of this websocket
+     */
+    @SuppressWarnings("unchecked")
+    protected void addPublisher(AlpacaPublisher<? extends MarketDataMessage> publisher) {
+        publishers.add((AlpacaPublisher<MarketDataMessage>) checkNotNull(publisher));
+    }
+
+    private void handleSuccessMessage(SuccessMessage successMessage) {
+        if (successMessage.getMessageType() == AUTHENTICATED) {
+            LOGGER.info("{} websocket authenticated.", websocketName);
+            completeAuthentication(true);
+        }
+    }
+
+    private void handleErrorMessage(ErrorMessage errorMessage) {
+        if (AUTH_FAILURE_MESSAGES.contains(errorMessage.getMessage())) {
+            completeAuthentication(false);
+            throw new RuntimeException(websocketName + " websocket authentication failed!");
+        } else {
+            // Other errors (e.g. connection limit exceeded or slow client) don't answer an in-flight frame
+            if (SUBSCRIPTION_REJECTION_CODES.contains(errorMessage.getCode()) ||
+                    SUBSCRIPTION_REJECTION_MESSAGES.contains(errorMessage.getMessage())) {
+                subscriptionBatcher.onErrorMessage();
+            }
+            throw new RuntimeException(websocketName + " websocket error! Message: " + errorMessage);
+        }
+    }
+
+    /**
+     * Sets the websocket stream's subscriptions for a specific message type. The changes are sent via the
+     * {@link #subscriptionBatcher}.
+     *
+     * @param previousSubscriptions           the previous (acknowledged) subscriptions symbol {@link Set}
      * @param newSubscriptions                the new subscriptions symbol {@link Set}
      * @param subscriptionUpdateObjectCreator the subscription update object creator {@link Function}
      */
     protected void setSubscriptions(@NotNull Set<String> previousSubscriptions,
             @NotNull Set<String> newSubscriptions, @NotNull Function<Set<String>, S> subscriptionUpdateObjectCreator) {
-        // Unsubscribe from previous subscriptions
-        final Set<String> unsubscribeSet = difference(previousSubscriptions, newSubscriptions);
-        if (!unsubscribeSet.isEmpty()) {
-            sendSubscriptionMessage(subscriptionUpdateObjectCreator.apply(unsubscribeSet), false);
+        // Assign the symbol IDs of the subscribed symbols before their first message is received
+        for (String symbol : newSubscriptions) {
+            if (!symbol.equals("*")) {
+                symbolDictionary.getID(symbol);
+            }
+        }
+        // The channel name is the only non-null property of a subscription update object
+        for (String channel : getChannelSubscriptions(subscriptionUpdateObjectCreator.apply(Set.of())).keySet()) {
+            subscriptionBatcher.setSubscriptions(channel, previousSubscriptions, newSubscriptions);
         }
-        // Subscribe to new subscriptions
-        final Set<String> subscribeSet = difference(newSubscriptions, previousSubscriptions);
-        if (!subscribeSet.isEmpty()) {
-            sendSubscriptionMessage(subscriptionUpdateObjectCreator.apply(subscribeSet), true);
+    }
+
+    /**
+     * Gets the symbols of each channel (e.g. <code>"trades"</code>) of the given subscriptions message.
+     *
+     * @param subscriptionsMessage the {@link S} subscriptions message
+     *
+     * @return a {@link Map} of channel names to symbols
+     */
+    private Map<String, List<String>> getChannelSubscriptions(S subscriptionsMessage) {
+        final Map<String, List<String>> channelSubscriptions = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> property :
+                getGson().toJsonTree(subscriptionsMessage).getAsJsonObject().entrySet()) {
+            if (property.getValue().isJsonArray()) {
+                final List<String> symbols = new ArrayList<>();
+                property.getValue().getAsJsonArray().forEach(symbol -> symbols.add(symbol.getAsString()));
+                channelSubscriptions.put(property.getKey(), symbols);
+            }
         }
+        return channelSubscriptions;
     }
 
-    private void sendSubscriptionMessage(S subscriptionsMessage, boolean subscribe) {
-        final JsonObject subscribeObject = getGson().toJsonTree(subscriptionsMessage).getAsJsonObject();
-        subscribeObject.addProperty("action", subscribe ? "subscribe" : "unsubscribe");
-        sendWebsocketMessage(getGson().toJson(subscribeObject));
+    /**
+     * Sends the given message {@link JsonObject} as MessagePack if {@link #useMessagePack} is <code>true</code>,
+     * otherwise as JSON.
+     *
+     * @param messageObject the message {@link JsonObject}
+     */
+    private void sendWebsocketMessage(JsonObject messageObject) {
+        if (useMessagePack) {
+            sendWebsocketMessage(ByteString.of(toMessagePack(messageObject)));
+        } else {
+            sendWebsocketMessage(getGson().toJson(messageObject));
+        }
     }
 
     /**
@@ -189,10 +645,379 @@ public abstract class MarketDataWebsocket<T, S extends MarketDataMessage, L> ext
     protected abstract boolean isSubscriptionMessageType(T messageType);
 
     /**
-     * Calls the {@link #listener} with a {@link MarketDataMessage} from a {@link JsonObject}.
+     * Gets the {@link MarketDataMessage} {@link Class} to deserialize for the given <code>messageType</code>.
      *
-     * @param messageType   the message type
-     * @param messageObject the message {@link JsonObject}
+     * @param messageType the message type
+     *
+     * @return the {@link MarketDataMessage} {@link Class}
+     */
+    protected abstract Class<? extends MarketDataMessage> getMessageClass(T messageType);
+
+    /**
+     * Reads a {@link MarketDataMessage} of the given <code>messageType</code> from a {@link JsonReader} positioned
+     * after the <code>"T"</code> property of a message object. This should consume all the remaining properties of the
+     * message object, but not the end of the object.
+     *
+     * @param messageType the message type
+     * @param reader      the {@link JsonReader}
+     *
+     * @return the {@link MarketDataMessage}
+     *
+     * @throws IOException thrown for {@link IOException}s
      */
-    protected abstract void callListenerWithMessage(T messageType, JsonObject messageObject);
+    protected abstract MarketDataMessage readMessage(T messageType, JsonReader reader) throws IOException;
+
+    /**
+     * Gets the symbol that the given {@link MarketDataMessage} is for. This is used to shard
+     * {@link MarketDataMessage}s while preserving per-symbol order.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     *
+     * @return the symbol {@link String} or <code>null</code>
+     */
+    protected abstract String getMessageSymbol(T messageType, MarketDataMessage message);
+
+    /**
+     * Gets the <code>"t"</code> timestamp of the given {@link MarketDataMessage}. This is used to measure the
+     * exchange-to-receive latency.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     *
+     * @return the {@link RFC3339Timestamp} or <code>null</code>
+     */
+    protected abstract RFC3339Timestamp getMessageTimestamp(T messageType, MarketDataMessage message);
+
+    /**
+     * Whether {@link MarketDataMessage}s should be decoded and passed to
+     * {@link #callListenerWithMessage(Object, MarketDataMessage)}. Subclasses that consume {@link MarketDataMessage}s
+     * without a {@link #listener} should override this.
+     *
+     * @return a boolean
+     */
+    protected boolean isConsumingMessages() {
+        return listener != null || marketDataCache != null || tickStore != null || !publishers.isEmpty();
+    }
+
+    /**
+     * Whether the given streamed {@link MarketDataMessage} duplicates one that was already dispatched (e.g. because it
+     * was sent again after a reconnect), in which case it is dropped. This is called on the websocket reader thread.
+     * Subclasses with message types that can be deduplicated should override this.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     *
+     * @return <code>true</code> to drop the {@link MarketDataMessage}, <code>false</code> otherwise
+     */
+    protected boolean isDuplicateMessage(T messageType, MarketDataMessage message) {
+        return false;
+    }
+
+    /**
+     * Calls the {@link #listener}, if any, with a {@link MarketDataMessage}.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     */
+    protected abstract void callListenerWithMessage(T messageType, MarketDataMessage message);
+
+    /**
+     * Applies a streamed {@link MarketDataMessage} to state that this websocket maintains from the stream in order
+     * (e.g. local order books). This is called on the websocket reader thread, in stream order, before the
+     * {@link MarketDataMessage} is dispatched, so the state stays complete even when the {@link #dispatcher} drops or
+     * conflates {@link MarketDataMessage}s. Subclasses that maintain such state should override this.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     */
+    protected void applyStreamedMessage(T messageType, MarketDataMessage message) {}
+
+    /**
+     * Updates the given {@link MarketDataCache} with a streamed {@link MarketDataMessage}. This is called on the
+     * websocket reader thread before the {@link MarketDataMessage} is dispatched. Subclasses with cacheable message
+     * types should override this.
+     *
+     * @param marketDataCache the {@link MarketDataCache}
+     * @param messageType     the message type
+     * @param message         the {@link MarketDataMessage}
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the {@link MarketDataMessage} was received
+     */
+    protected void updateMarketDataCache(MarketDataCache marketDataCache, T messageType, MarketDataMessage message,
+            long receiveNanoTime) {}
+
+    /**
+     * Appends a streamed or backfilled {@link MarketDataMessage} to the given {@link TickStore}. This is called on the
+     * websocket reader thread (or the backfill thread during gap recovery) before the {@link MarketDataMessage} is
+     * dispatched. Subclasses with trade or quote message types should override this.
+     *
+     * @param tickStore   the {@link TickStore}
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     */
+    protected void updateTickStore(TickStore tickStore, T messageType, MarketDataMessage message) {}
+
+    /**
+     * Creates the {@link MarketDataBackfiller} used for gap recovery.
+     *
+     * @param backfillClient the {@link MarketDataBackfillClient}
+     *
+     * @return the {@link MarketDataBackfiller} or <code>null</code> if this websocket doesn't support gap recovery
+     */
+    protected MarketDataBackfiller<T> createBackfiller(MarketDataBackfillClient backfillClient) {
+        return null;
+    }
+
+    @Override
+    public void setRingBufferDispatch(int capacity, RingBufferWaitStrategy waitStrategy,
+            RingBufferOverflowPolicy overflowPolicy) {
+        setDispatcher(new RingBufferDispatcher<>(websocketName, capacity, waitStrategy, overflowPolicy,
+                createDispatcherThreadFactory(), this::callListener));
+    }
+
+    @Override
+    public void setShardedDispatch(int laneCount, int laneCapacity, RingBufferWaitStrategy waitStrategy,
+            RingBufferOverflowPolicy overflowPolicy, ThreadFactory threadFactory) {
+        setDispatcher(new ShardedDispatcher<>(websocketName, laneCount, laneCapacity, waitStrategy, overflowPolicy,
+                threadFactory != null ? threadFactory : createDispatcherThreadFactory(),
+                this::getDispatchKey, this::callListener));
+    }
+
+    /**
+     * Enables conflating dispatch of the given message types, which must all be conflatable. This implements the
+     * <code>setConflatingDispatch</code> method of the stock and crypto websocket interfaces.
+     *
+     * @param conflatedMessageTypes     the {@link Set} of message types to conflate
+     * @param passthroughCapacity       the maximum number of pending messages of message types that aren't conflated
+     * @param passthroughOverflowPolicy the {@link RingBufferOverflowPolicy} for messages of message types that aren't
+     *                                  conflated
+     *
+     * @see ConflatingDispatcher
+     */
+    public void setConflatingDispatch(Set<T> conflatedMessageTypes, int passthroughCapacity,
+            RingBufferOverflowPolicy passthroughOverflowPolicy) {
+        checkNotNull(conflatedMessageTypes);
+        for (T messageType : conflatedMessageTypes) {
+            checkArgument(isConflatableMessageType(messageType), "%s messages can't be conflated!",
+                    ((Enum<?>) messageType).name());
+        }
+        setDispatcher(new ConflatingDispatcher<>(websocketName, conflatedMessageTypes, passthroughCapacity,
+                passthroughOverflowPolicy, createDispatcherThreadFactory(),
+                this::getDispatchKey, this::callListener));
+    }
+
+    /**
+     * Whether the given <code>messageType</code> may be conflated, which is only the case if the latest message of a
+     * symbol supersedes all the previous messages of that symbol.
+     *
+     * @param messageType the message type
+     *
+     * @return a boolean
+     */
+    protected boolean isConflatableMessageType(T messageType) {
+        return false;
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} for daemon dispatcher threads named after this websocket.
+     *
+     * @return the {@link ThreadFactory}
+     */
+    private ThreadFactory createDispatcherThreadFactory() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, websocketName + " Dispatcher " + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void setExecutorDispatch(Executor executor) {
+        setDispatcher(new ExecutorDispatcher<>(websocketName, executor, this::getDispatchKey, this::callListener));
+    }
+
+    @Override
+    public void setDirectDispatch() {
+        setDispatcher(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * A non-<code>null</code> <code>listenerExecutor</code> also enables executor dispatch (see
+     * {@link #setExecutorDispatch(Executor)}), and a <code>null</code> <code>listenerExecutor</code> enables direct
+     * dispatch if executor dispatch is enabled.
+     */
+    @Override
+    public void setListenerExecutor(Executor listenerExecutor) {
+        super.setListenerExecutor(listenerExecutor);
+        if (listenerExecutor != null) {
+            setExecutorDispatch(listenerExecutor);
+        } else if (dispatcher instanceof ExecutorDispatcher) {
+            setDirectDispatch();
+        }
+    }
+
+    /**
+     * Sets the {@link #dispatcher} and shuts down the previous one, if any.
+     *
+     * @param dispatcher the {@link MarketDataDispatcher} or <code>null</code> for direct dispatch
+     */
+    protected void setDispatcher(MarketDataDispatcher<T> dispatcher) {
+        final MarketDataDispatcher<T> previousDispatcher = this.dispatcher;
+        this.dispatcher = dispatcher;
+        if (previousDispatcher != null) {
+            previousDispatcher.shutdown();
+        }
+    }
+
+    @Override
+    public MarketDataDispatcher<T> getDispatcher() {
+        return dispatcher;
+    }
+
+    @Override
+    public void setSubscriptionBatching(Duration coalescingWindow, int maxSymbolsPerFrame) {
+        subscriptionBatcher.setCoalescingWindow(coalescingWindow);
+        subscriptionBatcher.setMaxSymbolsPerFrame(maxSymbolsPerFrame);
+    }
+
+    @Override
+    public void flushSubscriptions() {
+        subscriptionBatcher.flush();
+    }
+
+    @Override
+    public int getInFlightSubscriptionFrameCount() {
+        return subscriptionBatcher.getInFlightFrameCount();
+    }
+
+    @Override
+    public boolean usesTelemetry() {
+        return telemetry != null;
+    }
+
+    @Override
+    public void setUseTelemetry(boolean useTelemetry) {
+        if (useTelemetry != usesTelemetry()) {
+            telemetry = useTelemetry ? new MarketDataTelemetry<>(messageTypeClass.getEnumConstants()) : null;
+        }
+    }
+
+    @Override
+    public MarketDataTelemetrySnapshot<T> getTelemetrySnapshot() {
+        final MarketDataTelemetry<T> telemetry = this.telemetry;
+        return telemetry == null ? null : telemetry.snapshot(dispatcher);
+    }
+
+    @Override
+    public boolean usesGapRecovery() {
+        return gapRecovery != null;
+    }
+
+    @Override
+    public void setUseGapRecovery(boolean useGapRecovery) {
+        if (useGapRecovery == usesGapRecovery()) {
+            return;
+        }
+        if (!useGapRecovery) {
+            final MarketDataGapRecovery<T> gapRecovery = this.gapRecovery;
+            this.gapRecovery = null;
+            gapRecovery.reset();
+            return;
+        }
+
+        final MarketDataBackfiller<T> backfiller = createBackfiller(traderKeysGiven ?
+                new MarketDataBackfillClient(okHttpClient, authKey, authSecret, null, null) :
+                new MarketDataBackfillClient(okHttpClient, null, null, authKey, authSecret));
+        if (backfiller == null) {
+            throw new UnsupportedOperationException(websocketName + " websocket doesn't support gap recovery!");
+        }
+        final MarketDataGapRecovery<T> gapRecovery = new MarketDataGapRecovery<>(websocketName,
+                messageTypeClass.getEnumConstants(), backfiller, this::getMessageSymbol, this::getMessageTimestamp,
+                this::dispatchMessage, this::getMetrics);
+        gapRecovery.setMaxGapDuration(maxGapRecoveryDuration);
+        this.gapRecovery = gapRecovery;
+    }
+
+    @Override
+    public void setMaxGapRecoveryDuration(Duration maxGapRecoveryDuration) {
+        checkNotNull(maxGapRecoveryDuration);
+        checkArgument(!maxGapRecoveryDuration.isNegative(), "maxGapRecoveryDuration must not be negative!");
+        final MarketDataGapRecovery<T> gapRecovery = this.gapRecovery;
+        if (gapRecovery != null) {
+            gapRecovery.setMaxGapDuration(maxGapRecoveryDuration);
+        }
+        this.maxGapRecoveryDuration = maxGapRecoveryDuration;
+    }
+
+    @Override
+    public MarketDataCache getMarketDataCache() {
+        return marketDataCache;
+    }
+
+    @Override
+    public void setMarketDataCache(MarketDataCache marketDataCache) {
+        this.marketDataCache = marketDataCache;
+    }
+
+    @Override
+    public TickStore getTickStore() {
+        return tickStore;
+    }
+
+    @Override
+    public void setTickStore(TickStore tickStore) {
+        this.tickStore = tickStore;
+    }
+
+    @Override
+    public void setMetrics(AlpacaMetrics metrics) {
+        super.setMetrics(metrics);
+        resolveMessageTypeMetrics();
+    }
+
+    @Override
+    public SymbolDictionary getSymbolDictionary() {
+        return symbolDictionary;
+    }
+
+    @Override
+    public boolean usesStreamingDecoder() {
+        return useStreamingDecoder;
+    }
+
+    @Override
+    public void setUseStreamingDecoder(boolean useStreamingDecoder) {
+        this.useStreamingDecoder = useStreamingDecoder;
+    }
+
+    @Override
+    public boolean usesMessagePack() {
+        return useMessagePack;
+    }
+
+    @Override
+    public void setUseMessagePack(boolean useMessagePack) {
+        checkState(!useMessagePack || MESSAGE_PACK_AVAILABLE, "MessagePack encoding requires the optional " +
+                "'org.msgpack:msgpack-core' dependency, which isn't on the classpath!");
+        this.useMessagePack = useMessagePack;
+    }
+
+    /**
+     * Checks whether the class with the given name can be loaded, without initializing it.
+     *
+     * @param className the class name
+     *
+     * @return <code>true</code> if the class is on the classpath, <code>false</code> otherwise
+     */
+    private static boolean isClassPresent(String className) {
+        try {
+            Class.forName(className, false, MarketDataWebsocket.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError exception) {
+            return false;
+        }
+    }
 }
@@ -1,8 +1,253 @@
 package net.jacobpeterson.alpaca.websocket.marketdata;
 
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
 import net.jacobpeterson.alpaca.websocket.AlpacaWebsocketInterface;
+import net.jacobpeterson.alpaca.websocket.marketdata.cache.MarketDataCache;
+import net.jacobpeterson.alpaca.websocket.marketdata.tickstore.TickStore;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.ExecutorDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.MarketDataDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferOverflowPolicy;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferWaitStrategy;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.ShardedDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetry;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetrySnapshot;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * {@link MarketDataWebsocketInterface} is an {@link AlpacaWebsocketInterface} for {@link MarketDataWebsocket}.
  */
-public interface MarketDataWebsocketInterface extends AlpacaWebsocketInterface {}
+public interface MarketDataWebsocketInterface extends AlpacaWebsocketInterface {
+
+    /**
+     * Gets the {@link SymbolDictionary} that maps the symbols of this websocket's messages and flyweight messages to
+     * their symbol IDs (e.g. <code>MarketDataMessage.getSymbolID()</code>). Subscribed symbols are added to it when
+     * they are subscribed to.
+     *
+     * @return the {@link SymbolDictionary}
+     */
+    SymbolDictionary getSymbolDictionary();
+
+    /**
+     * Sets how subscription changes are sent. Changes to any subscriptions made within <code>coalescingWindow</code>
+     * after the first change are coalesced into one unsubscribe frame and one subscribe frame, and frames with more
+     * than <code>maxSymbolsPerFrame</code> symbols (across all message types) are split into multiple frames. By
+     * default, changes are sent immediately in frames of unbounded size.
+     *
+     * @param coalescingWindow   the coalescing window {@link Duration} or {@link Duration#ZERO} to send changes
+     *                           immediately
+     * @param maxSymbolsPerFrame the maximum number of symbols per frame
+     */
+    void setSubscriptionBatching(Duration coalescingWindow, int maxSymbolsPerFrame);
+
+    /**
+     * Sends all subscription changes that are waiting for the coalescing window to elapse immediately.
+     *
+     * @see #setSubscriptionBatching(Duration, int)
+     */
+    void flushSubscriptions();
+
+    /**
+     * Gets the number of sent subscription frames that haven't been acknowledged by a <code>"subscription"</code>
+     * message from the server yet.
+     *
+     * @return the in-flight subscription frame count
+     */
+    int getInFlightSubscriptionFrameCount();
+
+    /**
+     * Returns <code>true</code> if this websocket records {@link MarketDataTelemetry}, <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    boolean usesTelemetry();
+
+    /**
+     * Sets whether to record feed lag and backpressure {@link MarketDataTelemetry}: exchange-to-receive and
+     * receive-to-dispatch latency histograms, a dispatch queue depth histogram, and per message type message counts.
+     * Recording is lock-free and allocation-free. Enabling this again after disabling it starts with empty telemetry.
+     * <code>false</code> by default.
+     *
+     * @param useTelemetry <code>true</code> to record telemetry, <code>false</code> otherwise
+     */
+    void setUseTelemetry(boolean useTelemetry);
+
+    /**
+     * Gets a {@link MarketDataTelemetrySnapshot} of this websocket's {@link MarketDataTelemetry}. The message rates of
+     * the snapshot are measured since the previous call to this method.
+     *
+     * @return the {@link MarketDataTelemetrySnapshot} or <code>null</code> if {@link #usesTelemetry()} is
+     * <code>false</code>
+     */
+    MarketDataTelemetrySnapshot<?> getTelemetrySnapshot();
+
+    /**
+     * Returns <code>true</code> if this websocket recovers the messages missed while it was disconnected,
+     * <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    boolean usesGapRecovery();
+
+    /**
+     * Sets whether to recover the trades and minute bars missed while this websocket was disconnected. The timestamp
+     * of the last received message of each symbol is recorded. After this websocket automatically reconnects and
+     * reauthenticates, the missed interval of each subscribed symbol is fetched from the historical Market Data API
+     * endpoints, and the backfilled messages are passed to the listener merged in timestamp order with the messages
+     * streamed in the meantime (which are buffered until the backfill completes), without the duplicates around the
+     * boundaries (identified by trade IDs and bar timestamps). Messages passed to flyweight listeners aren't
+     * recovered. <code>false</code> by default.
+     *
+     * @param useGapRecovery <code>true</code> to recover missed messages, <code>false</code> otherwise
+     *
+     * @throws UnsupportedOperationException thrown if this websocket doesn't support gap recovery
+     * @see #setMaxGapRecoveryDuration(Duration)
+     */
+    void setUseGapRecovery(boolean useGapRecovery);
+
+    /**
+     * Sets the maximum {@link Duration} of a gap that is recovered. Only the most recent
+     * <code>maxGapRecoveryDuration</code> of a longer gap is recovered. One hour by default.
+     *
+     * @param maxGapRecoveryDuration the maximum gap recovery {@link Duration}
+     */
+    void setMaxGapRecoveryDuration(Duration maxGapRecoveryDuration);
+
+    /**
+     * Gets the {@link MarketDataCache} that this websocket populates.
+     *
+     * @return the {@link MarketDataCache} or <code>null</code>
+     */
+    MarketDataCache getMarketDataCache();
+
+    /**
+     * Sets the {@link MarketDataCache} to populate with the latest quote, trade, minute bar, and daily bar of each
+     * symbol streamed by this websocket, including the messages passed to flyweight listeners. The cache is updated on
+     * the websocket reader thread before messages are dispatched, so it is populated even if no listener is set. The
+     * same {@link MarketDataCache} can be set on multiple websockets. <code>null</code> by default.
+     *
+     * @param marketDataCache the {@link MarketDataCache} or <code>null</code> to stop populating a cache
+     */
+    void setMarketDataCache(MarketDataCache marketDataCache);
+
+    /**
+     * Gets the {@link TickStore} that this websocket appends trades and quotes to.
+     *
+     * @return the {@link TickStore} or <code>null</code>
+     */
+    TickStore getTickStore();
+
+    /**
+     * Sets the {@link TickStore} to append the trades and quotes streamed by this websocket to, including the messages
+     * passed to flyweight listeners and the messages backfilled during gap recovery. Ticks are appended before
+     * messages are dispatched, so the store is populated even if no listener is set. The same {@link TickStore} can be
+     * set on multiple websockets. <code>null</code> by default.
+     *
+     * @param tickStore the {@link TickStore} or <code>null</code> to stop appending ticks
+     */
+    void setTickStore(TickStore tickStore);
+
+    /**
+     * Returns <code>true</code> if this websocket decodes messages with the single-pass streaming decoder,
+     * <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    boolean usesStreamingDecoder();
+
+    /**
+     * Sets whether to decode messages with a single-pass streaming decoder that reads each message directly into its
+     * model, instead of parsing the whole message into a JSON tree and then deserializing it. <code>false</code> by
+     * default.
+     *
+     * @param useStreamingDecoder <code>true</code> to use the streaming decoder, <code>false</code> otherwise
+     */
+    void setUseStreamingDecoder(boolean useStreamingDecoder);
+
+    /**
+     * Returns <code>true</code> if this websocket negotiates MessagePack encoded messages, <code>false</code>
+     * otherwise.
+     *
+     * @return a boolean
+     */
+    boolean usesMessagePack();
+
+    /**
+     * Sets whether to negotiate <a href="https://msgpack.org">MessagePack</a> encoded (binary framed) messages instead
+     * of JSON encoded (text framed) messages. MessagePack messages are always decoded with the single-pass streaming
+     * decoder. This takes effect on the next {@link #connect()}. <code>false</code> by default. MessagePack is an
+     * optional dependency of this library, so <code>org.msgpack:msgpack-core</code> must be on the classpath to use it.
+     *
+     * @param useMessagePack <code>true</code> to use MessagePack, <code>false</code> otherwise
+     *
+     * @throws IllegalStateException thrown if <code>useMessagePack</code> is <code>true</code> and
+     *                               <code>org.msgpack:msgpack-core</code> isn't on the classpath
+     */
+    void setUseMessagePack(boolean useMessagePack);
+
+    /**
+     * Enables ring buffer dispatch. Decoded messages are published into a bounded, preallocated, lock-free ring buffer
+     * by the websocket reader thread and passed to the listener on a dedicated daemon thread, so that slow listener
+     * code doesn't stall socket reads. Flyweight listeners are still called on the websocket reader thread. This
+     * replaces (and shuts down) the current {@link MarketDataDispatcher}.
+     *
+     * @param capacity       the ring buffer capacity (rounded up to the next power of two)
+     * @param waitStrategy   the {@link RingBufferWaitStrategy}
+     * @param overflowPolicy the {@link RingBufferOverflowPolicy}
+     *
+     * @see RingBufferDispatcher
+     */
+    void setRingBufferDispatch(int capacity, RingBufferWaitStrategy waitStrategy,
+            RingBufferOverflowPolicy overflowPolicy);
+
+    /**
+     * Enables sharded dispatch. Decoded messages are sharded by symbol across <code>laneCount</code> lanes, each with
+     * its own ring buffer and listener thread. Messages for the same symbol are always passed to the listener in order
+     * on the same lane, while messages for different symbols are passed to the listener in parallel, so the listener
+     * must be thread-safe. Flyweight listeners are still called on the websocket reader thread. This replaces (and
+     * shuts down) the current {@link MarketDataDispatcher}. Use {@link ShardedDispatcher#getLaneQueueDepths()} via
+     * {@link #getDispatcher()} to monitor the queue depth of each lane.
+     *
+     * @param laneCount      the number of lanes
+     * @param laneCapacity   the ring buffer capacity of each lane (rounded up to the next power of two)
+     * @param waitStrategy   the {@link RingBufferWaitStrategy} of each lane
+     * @param overflowPolicy the {@link RingBufferOverflowPolicy} of each lane
+     * @param threadFactory  the {@link ThreadFactory} used to create the lane threads or <code>null</code> to use
+     *                       daemon threads
+     *
+     * @see ShardedDispatcher
+     */
+    void setShardedDispatch(int laneCount, int laneCapacity, RingBufferWaitStrategy waitStrategy,
+            RingBufferOverflowPolicy overflowPolicy, ThreadFactory threadFactory);
+
+    /**
+     * Enables executor dispatch. Decoded messages are passed to the listener on the given {@link Executor} (e.g. one
+     * that runs each task on a virtual thread), so the listener may block without stalling socket reads. Messages for
+     * the same symbol are always passed to the listener in order, while messages for different symbols are passed to
+     * the listener in parallel, so the listener must be thread-safe. Pending messages aren't bounded. Flyweight
+     * listeners are still called on the websocket reader thread. This replaces (and shuts down) the current
+     * {@link MarketDataDispatcher}, but doesn't shut down the given {@link Executor}. This is enabled by
+     * {@link #setListenerExecutor(Executor)}.
+     *
+     * @param executor the {@link Executor}
+     *
+     * @see ExecutorDispatcher
+     */
+    void setExecutorDispatch(Executor executor);
+
+    /**
+     * Enables direct dispatch, which is the default. Decoded messages are passed to the listener synchronously on the
+     * websocket reader thread. This shuts down the current {@link MarketDataDispatcher}, if any.
+     */
+    void setDirectDispatch();
+
+    /**
+     * Gets the current {@link MarketDataDispatcher}.
+     *
+     * @return the {@link MarketDataDispatcher} or <code>null</code> for direct dispatch
+     */
+    MarketDataDispatcher<?> getDispatcher();
+}
@@ -0,0 +1,354 @@
+package net.jacobpeterson.alpaca.websocket.marketdata;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * {@link SubscriptionBatcher} coalesces subscription changes of all channels (e.g. <code>"trades"</code> and
+ * <code>"quotes"</code>) that are made within a coalescing window into combined subscribe and unsubscribe frames,
+ * splits frames with more than a maximum number of symbols into multiple frames, and tracks the frames that haven't
+ * been acknowledged by a <code>"subscription"</code> message from the server yet. This class is thread-safe.
+ */
+public class SubscriptionBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionBatcher.class);
+
+    private final String websocketName;
+    private final Consumer<JsonObject> frameSender;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Set<String>> pendingSubscribes;
+    private final Map<String, Set<String>> pendingUnsubscribes;
+    private final Deque<SubscriptionFrame> inFlightFrames;
+    private Duration coalescingWindow;
+    private int maxSymbolsPerFrame;
+    private boolean flushScheduled;
+
+    /**
+     * Instantiates a new {@link SubscriptionBatcher} that sends subscription changes immediately in a single frame of
+     * unbounded size.
+     *
+     * @param websocketName the websocket name used for logging
+     * @param frameSender   the {@link Consumer} that sends a subscription frame {@link JsonObject}
+     * @param scheduler     the {@link ScheduledExecutorService} that flushes at the end of a coalescing window
+     */
+    public SubscriptionBatcher(String websocketName, Consumer<JsonObject> frameSender,
+            ScheduledExecutorService scheduler) {
+        this.websocketName = websocketName;
+        this.frameSender = checkNotNull(frameSender);
+        this.scheduler = checkNotNull(scheduler);
+        pendingSubscribes = new LinkedHashMap<>();
+        pendingUnsubscribes = new LinkedHashMap<>();
+        inFlightFrames = new ArrayDeque<>();
+        coalescingWindow = Duration.ZERO;
+        maxSymbolsPerFrame = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sets the subscriptions of the given <code>channel</code>. The changes are computed against the given
+     * <code>acknowledgedSubscriptions</code> with all in-flight and pending changes applied, so repeated calls within
+     * the coalescing window or before acknowledgement don't send redundant changes.
+     *
+     * @param channel                   the channel name (e.g. <code>"trades"</code>)
+     * @param acknowledgedSubscriptions the symbols of the <code>channel</code> in the last <code>"subscription"</code>
+     *                                  message from the server
+     * @param newSubscriptions          the new symbols of the <code>channel</code>
+     */
+    public synchronized void setSubscriptions(String channel, Set<String> acknowledgedSubscriptions,
+            Set<String> newSubscriptions) {
+        final Set<String> currentSubscriptions = getCurrentSubscriptions(channel, acknowledgedSubscriptions);
+        for (String symbol : currentSubscriptions) {
+            if (!newSubscriptions.contains(symbol)) {
+                addPendingChange(channel, symbol, false);
+            }
+        }
+        for (String symbol : newSubscriptions) {
+            if (!currentSubscriptions.contains(symbol)) {
+                addPendingChange(channel, symbol, true);
+            }
+        }
+
+        if (pendingSubscribes.isEmpty() && pendingUnsubscribes.isEmpty()) {
+            return;
+        }
+        if (coalescingWindow.isZero()) {
+            flush();
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.schedule(this::flushScheduled, coalescingWindow.toNanos(), NANOSECONDS);
+        }
+    }
+
+    /**
+     * Sends all the given subscriptions in subscribe frames immediately, regardless of any pending changes. This is
+     * used to resubscribe after a reconnection.
+     *
+     * @param channelSymbols the {@link Map} of channel names to symbols
+     */
+    public synchronized void resubscribe(Map<String, ? extends Collection<String>> channelSymbols) {
+        sendFrames(channelSymbols, true, null);
+    }
+
+    /**
+     * Sends all pending subscription changes immediately, unsubscribe frames first. A change is only removed from the
+     * pending changes once the frame containing it has been sent, so the changes of a frame that fails to send are
+     * still pending for the next {@link #flush()}.
+     */
+    public synchronized void flush() {
+        sendFrames(copyOf(pendingUnsubscribes), false, pendingUnsubscribes);
+        sendFrames(copyOf(pendingSubscribes), true, pendingSubscribes);
+    }
+
+    private synchronized void flushScheduled() {
+        flushScheduled = false;
+        try {
+            flush();
+        } catch (Exception exception) {
+            LOGGER.error("{} websocket could not send coalesced subscription changes!", websocketName, exception);
+        }
+    }
+
+    /**
+     * Called when a <code>"subscription"</code> message is received, which acknowledges the oldest in-flight frame.
+     */
+    public synchronized void onSubscriptionMessage() {
+        final SubscriptionFrame frame = inFlightFrames.poll();
+        if (frame != null && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("{} websocket {} frame acknowledged in {} microseconds.", websocketName,
+                    frame.subscribe ? "subscribe" : "unsubscribe", (System.nanoTime() - frame.sentNanoTime) / 1000);
+        }
+    }
+
+    /**
+     * Called when an error message that rejects a subscription frame (e.g. <code>"symbol limit exceeded"</code>) is
+     * received, which rejects the oldest in-flight frame, if any. Other error messages must not be passed here since
+     * they don't answer a frame.
+     */
+    public synchronized void onErrorMessage() {
+        final SubscriptionFrame frame = inFlightFrames.poll();
+        if (frame != null) {
+            LOGGER.warn("{} websocket {} frame was rejected.", websocketName,
+                    frame.subscribe ? "subscribe" : "unsubscribe");
+        }
+    }
+
+    /**
+     * Moves all in-flight frames, which can no longer be acknowledged after a disconnection, back to the pending
+     * changes so that they are sent again on the next {@link #flush()}.
+     */
+    public synchronized void requeueInFlightFrames() {
+        final Map<String, Set<String>> pendingSubscribes = copyOf(this.pendingSubscribes);
+        final Map<String, Set<String>> pendingUnsubscribes = copyOf(this.pendingUnsubscribes);
+        this.pendingSubscribes.clear();
+        this.pendingUnsubscribes.clear();
+        for (SubscriptionFrame frame : inFlightFrames) {
+            addPendingChanges(frame.channelSymbols, frame.subscribe);
+        }
+        inFlightFrames.clear();
+        addPendingChanges(pendingUnsubscribes, false);
+        addPendingChanges(pendingSubscribes, true);
+    }
+
+    /**
+     * Clears all in-flight frames and pending changes.
+     */
+    public synchronized void clear() {
+        inFlightFrames.clear();
+        pendingSubscribes.clear();
+        pendingUnsubscribes.clear();
+    }
+
+    /**
+     * Gets the number of sent frames that haven't been acknowledged by the server yet.
+     *
+     * @return the in-flight frame count
+     */
+    public synchronized int getInFlightFrameCount() {
+        return inFlightFrames.size();
+    }
+
+    /**
+     * Gets the number of symbol changes that are waiting for the coalescing window to elapse.
+     *
+     * @return the pending symbol change count
+     */
+    public synchronized int getPendingChangeCount() {
+        return countSymbols(pendingSubscribes) + countSymbols(pendingUnsubscribes);
+    }
+
+    public synchronized Duration getCoalescingWindow() {
+        return coalescingWindow;
+    }
+
+    /**
+     * Sets the coalescing window. Subscription changes made within this window after the first change are sent
+     * together. {@link Duration#ZERO} sends changes immediately.
+     *
+     * @param coalescingWindow the coalescing window {@link Duration}
+     */
+    public synchronized void setCoalescingWindow(Duration coalescingWindow) {
+        checkNotNull(coalescingWindow);
+        checkArgument(!coalescingWindow.isNegative(), "coalescingWindow must not be negative!");
+        this.coalescingWindow = coalescingWindow;
+    }
+
+    public synchronized int getMaxSymbolsPerFrame() {
+        return maxSymbolsPerFrame;
+    }
+
+    /**
+     * Sets the maximum number of symbols (across all channels) in a single frame.
+     *
+     * @param maxSymbolsPerFrame the maximum number of symbols per frame
+     */
+    public synchronized void setMaxSymbolsPerFrame(int maxSymbolsPerFrame) {
+        checkArgument(maxSymbolsPerFrame > 0, "maxSymbolsPerFrame must be greater than 0!");
+        this.maxSymbolsPerFrame = maxSymbolsPerFrame;
+    }
+
+    /**
+     * Gets the current subscriptions of the given <code>channel</code>, which are the acknowledged subscriptions with
+     * all in-flight frames and pending changes applied in order.
+     */
+    private Set<String> getCurrentSubscriptions(String channel, Set<String> acknowledgedSubscriptions) {
+        final Set<String> subscriptions = new HashSet<>(acknowledgedSubscriptions);
+        for (SubscriptionFrame frame : inFlightFrames) {
+            final Set<String> symbols = frame.channelSymbols.get(channel);
+            if (symbols != null) {
+                if (frame.subscribe) {
+                    subscriptions.addAll(symbols);
+                } else {
+                    subscriptions.removeAll(symbols);
+                }
+            }
+        }
+        subscriptions.removeAll(pendingUnsubscribes.getOrDefault(channel, Set.of()));
+        subscriptions.addAll(pendingSubscribes.getOrDefault(channel, Set.of()));
+        return subscriptions;
+    }
+
+    private void addPendingChanges(Map<String, Set<String>> channelSymbols, boolean subscribe) {
+        for (Map.Entry<String, Set<String>> channelSymbolsEntry : channelSymbols.entrySet()) {
+            for (String symbol : channelSymbolsEntry.getValue()) {
+                addPendingChange(channelSymbolsEntry.getKey(), symbol, subscribe);
+            }
+        }
+    }
+
+    /**
+     * Adds a pending change, which cancels an opposite pending change of the same symbol instead, if any.
+     */
+    private void addPendingChange(String channel, String symbol, boolean subscribe) {
+        final Map<String, Set<String>> oppositeChanges = subscribe ? pendingUnsubscribes : pendingSubscribes;
+        final Set<String> oppositeSymbols = oppositeChanges.get(channel);
+        if (oppositeSymbols != null && oppositeSymbols.remove(symbol)) {
+            if (oppositeSymbols.isEmpty()) {
+                oppositeChanges.remove(channel);
+            }
+            return;
+        }
+        (subscribe ? pendingSubscribes : pendingUnsubscribes)
+                .computeIfAbsent(channel, key -> new LinkedHashSet<>())
+                .add(symbol);
+    }
+
+    /**
+     * Sends the given channel symbols in as few frames as possible with at most {@link #maxSymbolsPerFrame} symbols
+     * each and adds them to the {@link #inFlightFrames}. The symbols of each sent frame are removed from the given
+     * <code>pendingChanges</code>, if not <code>null</code>.
+     */
+    private void sendFrames(Map<String, ? extends Collection<String>> channelSymbols, boolean subscribe,
+            Map<String, Set<String>> pendingChanges) {
+        Map<String, Set<String>> frameChannelSymbols = new LinkedHashMap<>();
+        int frameSymbolCount = 0;
+        for (Map.Entry<String, ? extends Collection<String>> channelSymbolsEntry : channelSymbols.entrySet()) {
+            final Iterator<String> symbolIterator = channelSymbolsEntry.getValue().iterator();
+            while (symbolIterator.hasNext()) {
+                if (frameSymbolCount == maxSymbolsPerFrame) {
+                    sendFrame(frameChannelSymbols, subscribe, pendingChanges);
+                    frameChannelSymbols = new LinkedHashMap<>();
+                    frameSymbolCount = 0;
+                }
+                frameChannelSymbols.computeIfAbsent(channelSymbolsEntry.getKey(), key -> new LinkedHashSet<>())
+                        .add(symbolIterator.next());
+                frameSymbolCount++;
+            }
+        }
+        if (frameSymbolCount > 0) {
+            sendFrame(frameChannelSymbols, subscribe, pendingChanges);
+        }
+    }
+
+    private void sendFrame(Map<String, Set<String>> channelSymbols, boolean subscribe,
+            Map<String, Set<String>> pendingChanges) {
+        final JsonObject frameObject = new JsonObject();
+        for (Map.Entry<String, Set<String>> channelSymbolsEntry : channelSymbols.entrySet()) {
+            final JsonArray symbolsArray = new JsonArray(channelSymbolsEntry.getValue().size());
+            channelSymbolsEntry.getValue().forEach(symbolsArray::add);
+            frameObject.add(channelSymbolsEntry.getKey(), symbolsArray);
+        }
+        frameObject.addProperty("action", subscribe ? "subscribe" : "unsubscribe");
+        frameSender.accept(frameObject);
+        inFlightFrames.add(new SubscriptionFrame(subscribe, channelSymbols, System.nanoTime()));
+
+        if (pendingChanges != null) {
+            for (Map.Entry<String, Set<String>> channelSymbolsEntry : channelSymbols.entrySet()) {
+                final Set<String> pendingSymbols = pendingChanges.get(channelSymbolsEntry.getKey());
+                if (pendingSymbols != null) {
+                    pendingSymbols.removeAll(channelSymbolsEntry.getValue());
+                    if (pendingSymbols.isEmpty()) {
+                        pendingChanges.remove(channelSymbolsEntry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    private static Map<String, Set<String>> copyOf(Map<String, Set<String>> channelSymbols) {
+        final Map<String, Set<String>> copy = new LinkedHashMap<>();
+        channelSymbols.forEach((channel, symbols) -> copy.put(channel, new LinkedHashSet<>(symbols)));
+        return copy;
+    }
+
+    private static int countSymbols(Map<String, Set<String>> channelSymbols) {
+        int symbolCount = 0;
+        for (Set<String> symbols : channelSymbols.values()) {
+            symbolCount += symbols.size();
+        }
+        return symbolCount;
+    }
+
+    /**
+     * {@link SubscriptionFrame} is a sent subscribe or unsubscribe frame.
+     */
+    private static class SubscriptionFrame {
+
+        private final boolean subscribe;
+        private final Map<String, Set<String>> channelSymbols;
+        private final long sentNanoTime;
+
+        private SubscriptionFrame(boolean subscribe, Map<String, Set<String>> channelSymbols, long sentNanoTime) {
+            this.subscribe = subscribe;
+            this.channelSymbols = channelSymbols;
+            this.sentNanoTime = sentNanoTime;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.backfill;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.gson.JsonParser.parseReader;
+import static net.jacobpeterson.alpaca.openapi.marketdata.JSON.getGson;
+import static net.jacobpeterson.alpaca.util.apikey.APIKeyUtil.createBrokerAPIAuthKey;
+
+/**
+ * {@link MarketDataBackfillClient} requests historical market data from the
+ * <a href="https://docs.alpaca.markets/reference/stocktrades-1">Market Data API</a> historical endpoints and decodes
+ * it directly into the same {@link MarketDataMessage} models that the market data websockets pass to their listeners.
+ * The historical endpoints use the same single-letter property names as the websocket messages, so backfilled
+ * messages are indistinguishable from streamed ones. This class is thread-safe.
+ */
+public class MarketDataBackfillClient {
+
+    private static final int PAGE_LIMIT = 10_000;
+
+    private final OkHttpClient okHttpClient;
+    private final HttpUrl baseURL;
+    private final Headers authHeaders;
+
+    /**
+     * Instantiates a new {@link MarketDataBackfillClient}.
+     *
+     * @param okHttpClient    the {@link OkHttpClient}
+     * @param traderKeyID     the Trader key ID
+     * @param traderSecretKey the Trader secret key
+     * @param brokerAPIKey    the Broker API key
+     * @param brokerAPISecret the Broker API secret
+     */
+    public MarketDataBackfillClient(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret) {
+        checkArgument((traderKeyID != null && traderSecretKey != null) ^
+                        (brokerAPIKey != null && brokerAPISecret != null),
+                "You must specify a (trader key ID and secret key) or an (broker API key and secret)!");
+        this.okHttpClient = checkNotNull(okHttpClient);
+
+        final boolean traderKeysGiven = traderKeyID != null && traderSecretKey != null;
+        baseURL = new HttpUrl.Builder()
+                .scheme("https")
+                .host(traderKeysGiven ? "data.alpaca.markets" : "data.sandbox.alpaca.markets")
+                .build();
+        authHeaders = traderKeysGiven ?
+                Headers.of("APCA-API-KEY-ID", traderKeyID, "APCA-API-SECRET-KEY", traderSecretKey) :
+                Headers.of("Authorization", "Basic " + createBrokerAPIAuthKey(brokerAPIKey, brokerAPISecret));
+    }
+
+    /**
+     * Gets all the historical messages of a single <code>symbol</code> from a multi-symbol historical endpoint (e.g.
+     * <code>v2/stocks/trades</code>), following <code>next_page_token</code> until every page has been read. Messages
+     * are requested in ascending timestamp order.
+     *
+     * @param path                 the endpoint path segments (e.g. <code>"v2/stocks/trades"</code>)
+     * @param queryParameters      the query parameters other than <code>symbols</code>, <code>limit</code>,
+     *                             <code>sort</code>, and <code>page_token</code> (e.g. <code>start</code>)
+     * @param symbol               the symbol
+     * @param messagesPropertyName the name of the response property that maps symbols to their messages (e.g.
+     *                             <code>"trades"</code>)
+     * @param messageClass         the {@link MarketDataMessage} {@link Class} to decode each message into
+     * @param <M>                  the {@link MarketDataMessage} type
+     *
+     * @return a {@link List} of {@link M} messages
+     *
+     * @throws IOException thrown for {@link IOException}s or unsuccessful responses
+     */
+    public <M extends MarketDataMessage> List<M> getMessages(String path, Map<String, String> queryParameters,
+            String symbol, String messagesPropertyName, Class<M> messageClass) throws IOException {
+        final List<M> messages = new ArrayList<>();
+        String pageToken = null;
+        do {
+            final HttpUrl.Builder urlBuilder = baseURL.newBuilder()
+                    .addPathSegments(path)
+                    .addQueryParameter("symbols", symbol)
+                    .addQueryParameter("limit", String.valueOf(PAGE_LIMIT))
+                    .addQueryParameter("sort", "asc");
+            queryParameters.forEach(urlBuilder::addQueryParameter);
+            if (pageToken != null) {
+                urlBuilder.addQueryParameter("page_token", pageToken);
+            }
+            final Request request = new Request.Builder()
+                    .url(urlBuilder.build())
+                    .headers(authHeaders)
+                    .get()
+                    .build();
+
+            try (Response response = okHttpClient.newCall(request).execute()) {
+                final ResponseBody responseBody = response.body();
+                if (!response.isSuccessful()) {
+                    throw new IOException("Market data backfill request failed! Code: " + response.code() +
+                            ", Body: " + responseBody.string());
+                }
+
+                final JsonObject responseObject = parseReader(responseBody.charStream()).getAsJsonObject();
+                final JsonElement symbolsElement = responseObject.get(messagesPropertyName);
+                if (symbolsElement != null && symbolsElement.isJsonObject()) {
+                    final JsonElement messagesElement = symbolsElement.getAsJsonObject().get(symbol);
+                    if (messagesElement != null && messagesElement.isJsonArray()) {
+                        for (JsonElement messageElement : messagesElement.getAsJsonArray()) {
+                            // Historical messages don't contain their symbol, so add it as the websocket would
+                            final JsonObject messageObject = messageElement.getAsJsonObject();
+                            messageObject.addProperty("S", symbol);
+                            messages.add(getGson().fromJson(messageObject, messageClass));
+                        }
+                    }
+                }
+
+                final JsonElement nextPageTokenElement = responseObject.get("next_page_token");
+                pageToken = nextPageTokenElement == null || nextPageTokenElement.isJsonNull() ? null :
+                        nextPageTokenElement.getAsString();
+            }
+        } while (pageToken != null);
+        return messages;
+    }
+}
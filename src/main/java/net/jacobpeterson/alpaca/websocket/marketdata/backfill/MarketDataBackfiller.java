@@ -0,0 +1,62 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.backfill;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link MarketDataBackfiller} fetches the historical {@link MarketDataMessage}s of the message types of a market
+ * data websocket that can be backfilled by {@link MarketDataGapRecovery}.
+ *
+ * @param <T> the 'message type' type
+ */
+public interface MarketDataBackfiller<T> {
+
+    /**
+     * Whether {@link MarketDataMessage}s of the given <code>messageType</code> can be backfilled.
+     *
+     * @param messageType the message type
+     *
+     * @return a boolean
+     */
+    boolean isBackfillable(T messageType);
+
+    /**
+     * Gets the currently subscribed symbols of the given backfillable <code>messageType</code>.
+     *
+     * @param messageType the message type
+     *
+     * @return a {@link Set} of {@link String} symbols
+     */
+    Set<String> getSubscribedSymbols(T messageType);
+
+    /**
+     * Fetches the historical {@link MarketDataMessage}s of the given backfillable <code>messageType</code> and
+     * <code>symbol</code> from <code>start</code> (inclusive) until now, in ascending timestamp order. This blocks
+     * while the messages are requested.
+     *
+     * @param messageType the message type
+     * @param symbol      the symbol
+     * @param start       the start {@link RFC3339Timestamp}
+     *
+     * @return a {@link List} of {@link MarketDataMessage}s
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    List<? extends MarketDataMessage> fetch(T messageType, String symbol, RFC3339Timestamp start) throws IOException;
+
+    /**
+     * Gets the key that identifies the given {@link MarketDataMessage} among the {@link MarketDataMessage}s of the
+     * same <code>messageType</code> and symbol (e.g. the trade ID), which is used to remove duplicates between
+     * streamed and backfilled {@link MarketDataMessage}s.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     *
+     * @return the key {@link Object}
+     */
+    Object getDeduplicationKey(T messageType, MarketDataMessage message);
+}
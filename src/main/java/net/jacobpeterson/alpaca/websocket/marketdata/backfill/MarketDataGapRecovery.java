@@ -0,0 +1,454 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.backfill;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_BACKFILLED_MESSAGES;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_BACKFILL_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_TAG;
+
+/**
+ * {@link MarketDataGapRecovery} recovers the {@link MarketDataMessage}s that a market data websocket missed while it
+ * was disconnected. It records the timestamp of the last {@link MarketDataMessage} passed to the listener for each
+ * backfillable message type and symbol. When the websocket reconnects, streamed {@link MarketDataMessage}s are
+ * buffered, the missed interval of each subscribed symbol is fetched with a {@link MarketDataBackfiller}, and then the
+ * backfilled and buffered {@link MarketDataMessage}s are passed to the listener in timestamp order, without the
+ * duplicates around the boundaries between streamed and backfilled {@link MarketDataMessage}s.
+ * <p>
+ * The last received state of each symbol is only modified by the websocket reader thread while not buffering and by
+ * the backfill thread while buffering, so recording a streamed {@link MarketDataMessage} doesn't lock.
+ *
+ * @param <T> the 'message type' type
+ */
+public class MarketDataGapRecovery<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MarketDataGapRecovery.class);
+
+    /**
+     * The default maximum {@link Duration} of a gap that is backfilled.
+     */
+    public static final Duration DEFAULT_MAX_GAP_DURATION = Duration.ofHours(1);
+
+    /**
+     * The {@link Duration} before the last backfilled timestamp within which backfilled {@link MarketDataMessage}s
+     * are remembered so that the same {@link MarketDataMessage}s streamed after the backfill can be removed.
+     */
+    private static final long BOUNDARY_WINDOW_NANOS = SECONDS.toNanos(5);
+
+    private final String websocketName;
+    private final MarketDataBackfiller<T> backfiller;
+    private final BiFunction<T, MarketDataMessage, String> symbolGetter;
+    private final BiFunction<T, MarketDataMessage, RFC3339Timestamp> timestampGetter;
+    private final MessageSink<T> messageSink;
+    private final Supplier<AlpacaMetrics> metricsSupplier;
+    private final T[] messageTypes;
+    private final Map<String, SymbolState>[] symbolStates;
+    private final ThreadPoolExecutor backfillExecutor;
+    private final Object bufferLock;
+    private final List<TimestampedMessage<T>> buffer;
+    private volatile boolean buffering;
+    private long generation;
+    private Future<?> backfillFuture;
+    private volatile Duration maxGapDuration;
+
+    /**
+     * Instantiates a new {@link MarketDataGapRecovery}.
+     *
+     * @param websocketName   the websocket name
+     * @param messageTypes    all the message types
+     * @param backfiller      the {@link MarketDataBackfiller}
+     * @param symbolGetter    the {@link BiFunction} that gets the symbol of a {@link MarketDataMessage}
+     * @param timestampGetter the {@link BiFunction} that gets the {@link RFC3339Timestamp} of a
+     *                        {@link MarketDataMessage}
+     * @param messageSink     the {@link MessageSink} that passes {@link MarketDataMessage}s on to the listener
+     * @param metricsSupplier the {@link Supplier} of the websocket's {@link AlpacaMetrics}
+     */
+    @SuppressWarnings("unchecked")
+    public MarketDataGapRecovery(String websocketName, T[] messageTypes, MarketDataBackfiller<T> backfiller,
+            BiFunction<T, MarketDataMessage, String> symbolGetter,
+            BiFunction<T, MarketDataMessage, RFC3339Timestamp> timestampGetter, MessageSink<T> messageSink,
+            Supplier<AlpacaMetrics> metricsSupplier) {
+        this.websocketName = websocketName;
+        this.messageTypes = messageTypes;
+        this.backfiller = checkNotNull(backfiller);
+        this.symbolGetter = checkNotNull(symbolGetter);
+        this.timestampGetter = checkNotNull(timestampGetter);
+        this.messageSink = checkNotNull(messageSink);
+        this.metricsSupplier = checkNotNull(metricsSupplier);
+
+        symbolStates = new Map[messageTypes.length];
+        for (int index = 0; index < messageTypes.length; index++) {
+            if (backfiller.isBackfillable(messageTypes[index])) {
+                symbolStates[index] = new ConcurrentHashMap<>();
+            }
+        }
+        // Backfill requests block, so they run on a dedicated thread that is only kept alive while it's needed
+        backfillExecutor = new ThreadPoolExecutor(1, 1, 30, SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, websocketName + " Gap Recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        backfillExecutor.allowCoreThreadTimeOut(true);
+        bufferLock = new Object();
+        buffer = new ArrayList<>();
+        maxGapDuration = DEFAULT_MAX_GAP_DURATION;
+    }
+
+    /**
+     * Handles a streamed {@link MarketDataMessage}. This buffers the {@link MarketDataMessage} while a backfill is in
+     * progress, removes it if it was already backfilled, and otherwise records it as the last received
+     * {@link MarketDataMessage} of its symbol.
+     *
+     * @param messageType     the message type
+     * @param message         the {@link MarketDataMessage}
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the {@link MarketDataMessage} was received
+     *
+     * @return <code>true</code> if the {@link MarketDataMessage} should be passed to the listener now,
+     * <code>false</code> if it was buffered or removed
+     */
+    public boolean onStreamedMessage(T messageType, MarketDataMessage message, long receiveNanoTime) {
+        if (buffering) {
+            synchronized (bufferLock) {
+                if (buffering) {
+                    buffer.add(new TimestampedMessage<>(messageType, message, false, receiveNanoTime,
+                            getTimestampNanos(messageType, message)));
+                    return false;
+                }
+            }
+        }
+
+        final Map<String, SymbolState> messageTypeSymbolStates = symbolStates[((Enum<?>) messageType).ordinal()];
+        if (messageTypeSymbolStates == null) {
+            return true;
+        }
+        final String symbol = symbolGetter.apply(messageType, message);
+        final RFC3339Timestamp timestamp = timestampGetter.apply(messageType, message);
+        if (symbol == null || timestamp == null) {
+            return true;
+        }
+        final SymbolState symbolState = messageTypeSymbolStates.computeIfAbsent(symbol, key -> new SymbolState());
+        final long timestampNanos = timestamp.getEpochNanos();
+        if (symbolState.boundaryKeys != null) {
+            if (timestampNanos > symbolState.boundaryTimestampNanos) {
+                symbolState.boundaryKeys = null;
+            } else if (symbolState.boundaryKeys.contains(backfiller.getDeduplicationKey(messageType, message))) {
+                return false;
+            }
+        }
+        symbolState.record(timestampNanos, message);
+        return true;
+    }
+
+    /**
+     * Starts buffering streamed {@link MarketDataMessage}s. This should be called when the websocket reconnects,
+     * before it resubscribes. Any backfill in progress is abandoned and must be started again with
+     * {@link #backfill()}.
+     */
+    public void startBuffering() {
+        synchronized (bufferLock) {
+            generation++;
+            buffering = true;
+            cancelBackfill();
+        }
+    }
+
+    /**
+     * Asynchronously backfills the gap of each subscribed symbol since its last received {@link MarketDataMessage}
+     * and then passes the backfilled and buffered {@link MarketDataMessage}s to the listener. This should be called
+     * after the websocket has reauthenticated and resubscribed.
+     */
+    public void backfill() {
+        synchronized (bufferLock) {
+            if (!buffering) {
+                return;
+            }
+            final long backfillGeneration = generation;
+            cancelBackfill();
+            backfillFuture = backfillExecutor.submit(() -> runBackfill(backfillGeneration));
+        }
+    }
+
+    /**
+     * Stops any backfill in progress, discards the buffered {@link MarketDataMessage}s, and forgets the last received
+     * {@link MarketDataMessage} of every symbol. This should be called when the websocket is disconnected
+     * intentionally.
+     */
+    public void reset() {
+        synchronized (bufferLock) {
+            generation++;
+            buffering = false;
+            buffer.clear();
+            cancelBackfill();
+            for (Map<String, SymbolState> messageTypeSymbolStates : symbolStates) {
+                if (messageTypeSymbolStates != null) {
+                    messageTypeSymbolStates.clear();
+                }
+            }
+        }
+    }
+
+    private void cancelBackfill() {
+        if (backfillFuture != null) {
+            backfillFuture.cancel(true);
+            backfillFuture = null;
+        }
+    }
+
+    private void runBackfill(long backfillGeneration) {
+        final long startNanoTime = System.nanoTime();
+        final long nowEpochNanos = MILLISECONDS.toNanos(System.currentTimeMillis());
+        final long minimumStartEpochNanos = nowEpochNanos - maxGapDuration.toNanos();
+
+        final List<TimestampedMessage<T>> backfilledMessages = new ArrayList<>();
+        for (int index = 0; index < messageTypes.length; index++) {
+            final Map<String, SymbolState> messageTypeSymbolStates = symbolStates[index];
+            if (messageTypeSymbolStates == null) {
+                continue;
+            }
+            final T messageType = messageTypes[index];
+            final Set<String> subscribedSymbols = backfiller.getSubscribedSymbols(messageType);
+            for (Map.Entry<String, SymbolState> symbolStateEntry : messageTypeSymbolStates.entrySet()) {
+                final String symbol = symbolStateEntry.getKey();
+                final SymbolState symbolState = symbolStateEntry.getValue();
+                if (!subscribedSymbols.contains(symbol)) {
+                    continue;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                final List<? extends MarketDataMessage> fetchedMessages;
+                try {
+                    fetchedMessages = backfiller.fetch(messageType, symbol, RFC3339Timestamp.ofEpochNanos(
+                            Math.max(symbolState.lastTimestampNanos, minimumStartEpochNanos)));
+                } catch (Exception exception) {
+                    LOGGER.error("{} websocket could not backfill {} {} messages!", websocketName, symbol,
+                            messageType, exception);
+                    continue;
+                }
+
+                // Remove the messages that were already received before the connection was lost
+                final Set<Object> lastKeys = new HashSet<>();
+                for (MarketDataMessage lastMessage : symbolState.lastMessages) {
+                    lastKeys.add(backfiller.getDeduplicationKey(messageType, lastMessage));
+                }
+                for (MarketDataMessage fetchedMessage : fetchedMessages) {
+                    final long timestampNanos = getTimestampNanos(messageType, fetchedMessage);
+                    if (timestampNanos > symbolState.lastTimestampNanos ||
+                            (timestampNanos == symbolState.lastTimestampNanos &&
+                                    !lastKeys.contains(backfiller.getDeduplicationKey(messageType, fetchedMessage)))) {
+                        backfilledMessages.add(new TimestampedMessage<>(messageType, fetchedMessage, true, 0,
+                                timestampNanos));
+                    }
+                }
+            }
+        }
+
+        synchronized (bufferLock) {
+            if (backfillGeneration != generation) {
+                return; // The websocket reconnected or was reset again, so this backfill is stale
+            }
+            passMessages(backfilledMessages);
+            buffering = false;
+            backfillFuture = null;
+        }
+
+        final AlpacaMetrics metrics = metricsSupplier.get();
+        metrics.timer(WEBSOCKET_BACKFILL_TIME, WEBSOCKET_TAG, websocketName).record(System.nanoTime() - startNanoTime);
+        metrics.counter(WEBSOCKET_BACKFILLED_MESSAGES, WEBSOCKET_TAG, websocketName)
+                .increment(backfilledMessages.size());
+        LOGGER.info("{} websocket backfilled {} messages.", websocketName, backfilledMessages.size());
+    }
+
+    /**
+     * Merges the given backfilled {@link TimestampedMessage}s with the {@link #buffer}, removes the duplicates, and
+     * passes them to the {@link #messageSink} in timestamp order. This must be called while holding the
+     * {@link #bufferLock}.
+     *
+     * @param backfilledMessages the backfilled {@link TimestampedMessage}s
+     */
+    private void passMessages(List<TimestampedMessage<T>> backfilledMessages) {
+        final Set<List<Object>> backfilledKeys = new HashSet<>();
+        final List<TimestampedMessage<T>> mergedMessages =
+                new ArrayList<>(backfilledMessages.size() + buffer.size());
+        for (TimestampedMessage<T> backfilledMessage : backfilledMessages) {
+            backfilledKeys.add(getMessageKey(backfilledMessage));
+            mergedMessages.add(backfilledMessage);
+        }
+        for (TimestampedMessage<T> bufferedMessage : buffer) {
+            if (symbolStates[((Enum<?>) bufferedMessage.messageType).ordinal()] == null ||
+                    !backfilledKeys.contains(getMessageKey(bufferedMessage))) {
+                mergedMessages.add(bufferedMessage);
+            }
+        }
+        buffer.clear();
+        // This sort is stable, so the order of messages with equal timestamps is kept
+        mergedMessages.sort(comparingLong(timestampedMessage -> timestampedMessage.timestampNanos));
+
+        for (TimestampedMessage<T> mergedMessage : mergedMessages) {
+            final SymbolState symbolState = getSymbolState(mergedMessage);
+            if (symbolState != null) {
+                symbolState.record(mergedMessage.timestampNanos, mergedMessage.message);
+            }
+            messageSink.accept(mergedMessage.messageType, mergedMessage.message,
+                    mergedMessage.backfilled ? System.nanoTime() : mergedMessage.receiveNanoTime,
+                    mergedMessage.backfilled);
+        }
+
+        // Remember the backfilled messages near the end of each backfill to remove them if they're streamed again
+        for (TimestampedMessage<T> backfilledMessage : backfilledMessages) {
+            final SymbolState symbolState = getSymbolState(backfilledMessage);
+            symbolState.boundaryKeys = null;
+            symbolState.boundaryTimestampNanos = Long.MIN_VALUE;
+        }
+        for (TimestampedMessage<T> backfilledMessage : backfilledMessages) {
+            final SymbolState symbolState = getSymbolState(backfilledMessage);
+            symbolState.boundaryTimestampNanos =
+                    Math.max(symbolState.boundaryTimestampNanos, backfilledMessage.timestampNanos);
+        }
+        for (TimestampedMessage<T> backfilledMessage : backfilledMessages) {
+            final SymbolState symbolState = getSymbolState(backfilledMessage);
+            if (backfilledMessage.timestampNanos >= symbolState.boundaryTimestampNanos - BOUNDARY_WINDOW_NANOS) {
+                if (symbolState.boundaryKeys == null) {
+                    symbolState.boundaryKeys = new HashSet<>();
+                }
+                symbolState.boundaryKeys.add(backfiller.getDeduplicationKey(backfilledMessage.messageType,
+                        backfilledMessage.message));
+            }
+        }
+    }
+
+    private List<Object> getMessageKey(TimestampedMessage<T> timestampedMessage) {
+        return Arrays.asList(timestampedMessage.messageType,
+                symbolGetter.apply(timestampedMessage.messageType, timestampedMessage.message),
+                backfiller.getDeduplicationKey(timestampedMessage.messageType, timestampedMessage.message));
+    }
+
+    private SymbolState getSymbolState(TimestampedMessage<T> timestampedMessage) {
+        final Map<String, SymbolState> messageTypeSymbolStates =
+                symbolStates[((Enum<?>) timestampedMessage.messageType).ordinal()];
+        if (messageTypeSymbolStates == null) {
+            return null;
+        }
+        final String symbol = symbolGetter.apply(timestampedMessage.messageType, timestampedMessage.message);
+        return symbol == null ? null : messageTypeSymbolStates.computeIfAbsent(symbol, key -> new SymbolState());
+    }
+
+    private long getTimestampNanos(T messageType, MarketDataMessage message) {
+        final RFC3339Timestamp timestamp = timestampGetter.apply(messageType, message);
+        // Messages without a timestamp are ordered after all the others
+        return timestamp == null ? Long.MAX_VALUE : timestamp.getEpochNanos();
+    }
+
+    /**
+     * Returns <code>true</code> if streamed {@link MarketDataMessage}s are being buffered for a backfill,
+     * <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    public boolean isBuffering() {
+        return buffering;
+    }
+
+    public Duration getMaxGapDuration() {
+        return maxGapDuration;
+    }
+
+    /**
+     * Sets the maximum {@link Duration} of a gap that is backfilled. Only the most recent
+     * <code>maxGapDuration</code> of a longer gap is backfilled.
+     *
+     * @param maxGapDuration the maximum gap {@link Duration}
+     */
+    public void setMaxGapDuration(Duration maxGapDuration) {
+        checkNotNull(maxGapDuration);
+        checkArgument(!maxGapDuration.isNegative(), "maxGapDuration must not be negative!");
+        this.maxGapDuration = maxGapDuration;
+    }
+
+    /**
+     * {@link MessageSink} passes {@link MarketDataMessage}s on to the listener of a market data websocket.
+     *
+     * @param <T> the 'message type' type
+     */
+    @FunctionalInterface
+    public interface MessageSink<T> {
+
+        /**
+         * Passes the given {@link MarketDataMessage} on to the listener.
+         *
+         * @param messageType     the message type
+         * @param message         the {@link MarketDataMessage}
+         * @param receiveNanoTime the {@link System#nanoTime()} at which the {@link MarketDataMessage} was received
+         * @param backfilled      <code>true</code> if the {@link MarketDataMessage} was backfilled,
+         *                        <code>false</code> if it was streamed
+         */
+        void accept(T messageType, MarketDataMessage message, long receiveNanoTime, boolean backfilled);
+    }
+
+    /**
+     * {@link SymbolState} holds the last received {@link MarketDataMessage}s of a message type and symbol.
+     */
+    private static final class SymbolState {
+
+        private long lastTimestampNanos = Long.MIN_VALUE;
+        private final List<MarketDataMessage> lastMessages = new ArrayList<>(1);
+        private long boundaryTimestampNanos;
+        private Set<Object> boundaryKeys;
+
+        private void record(long timestampNanos, MarketDataMessage message) {
+            if (timestampNanos > lastTimestampNanos) {
+                lastTimestampNanos = timestampNanos;
+                lastMessages.clear();
+                lastMessages.add(message);
+            } else if (timestampNanos == lastTimestampNanos) {
+                lastMessages.add(message);
+            }
+        }
+    }
+
+    /**
+     * {@link TimestampedMessage} is a buffered or backfilled {@link MarketDataMessage} with its timestamp.
+     *
+     * @param <T> the 'message type' type
+     */
+    private static final class TimestampedMessage<T> {
+
+        private final T messageType;
+        private final MarketDataMessage message;
+        private final boolean backfilled;
+        private final long receiveNanoTime;
+        private final long timestampNanos;
+
+        private TimestampedMessage(T messageType, MarketDataMessage message, boolean backfilled,
+                long receiveNanoTime, long timestampNanos) {
+            this.messageType = messageType;
+            this.message = message;
+            this.backfilled = backfilled;
+            this.receiveNanoTime = receiveNanoTime;
+            this.timestampNanos = timestampNanos;
+        }
+    }
+}
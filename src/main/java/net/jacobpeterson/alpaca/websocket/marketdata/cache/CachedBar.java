@@ -0,0 +1,99 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.cache;
+
+/**
+ * {@link CachedBar} is a mutable, primitive-backed holder of the latest bar of a symbol in a {@link MarketDataCache}.
+ * Readers should reuse a {@link CachedBar} across reads to avoid allocating.
+ */
+public class CachedBar {
+
+    double open;
+    double high;
+    double low;
+    double close;
+    double volume;
+    long tradeCount;
+    double vwap;
+    long timestampEpochNanos;
+    long receiveNanoTime;
+    long updateCount;
+
+    void copyFrom(CachedBar other) {
+        open = other.open;
+        high = other.high;
+        low = other.low;
+        close = other.close;
+        volume = other.volume;
+        tradeCount = other.tradeCount;
+        vwap = other.vwap;
+        timestampEpochNanos = other.timestampEpochNanos;
+        receiveNanoTime = other.receiveNanoTime;
+        updateCount = other.updateCount;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    public double getVWAP() {
+        return vwap;
+    }
+
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which this bar was received.
+     *
+     * @return the receive {@link System#nanoTime()}
+     */
+    public long getReceiveNanoTime() {
+        return receiveNanoTime;
+    }
+
+    /**
+     * Gets the number of bars that have been cached for the symbol. This can be compared between reads to detect
+     * whether the bar changed.
+     *
+     * @return the update count
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedBar{" +
+                "open=" + open +
+                ", high=" + high +
+                ", low=" + low +
+                ", close=" + close +
+                ", volume=" + volume +
+                ", tradeCount=" + tradeCount +
+                ", vwap=" + vwap +
+                ", timestampEpochNanos=" + timestampEpochNanos +
+                ", receiveNanoTime=" + receiveNanoTime +
+                ", updateCount=" + updateCount +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.cache;
+
+/**
+ * {@link CachedQuote} is a mutable, primitive-backed holder of the latest quote of a symbol in a
+ * {@link MarketDataCache}. Readers should reuse a {@link CachedQuote} across reads to avoid allocating. Exchange
+ * characters are <code>'\0'</code> for crypto quotes.
+ */
+public class CachedQuote {
+
+    double bidPrice;
+    double bidSize;
+    char bidExchange;
+    double askPrice;
+    double askSize;
+    char askExchange;
+    long timestampEpochNanos;
+    long receiveNanoTime;
+    long updateCount;
+
+    void copyFrom(CachedQuote other) {
+        bidPrice = other.bidPrice;
+        bidSize = other.bidSize;
+        bidExchange = other.bidExchange;
+        askPrice = other.askPrice;
+        askSize = other.askSize;
+        askExchange = other.askExchange;
+        timestampEpochNanos = other.timestampEpochNanos;
+        receiveNanoTime = other.receiveNanoTime;
+        updateCount = other.updateCount;
+    }
+
+    public double getBidPrice() {
+        return bidPrice;
+    }
+
+    public double getBidSize() {
+        return bidSize;
+    }
+
+    public char getBidExchange() {
+        return bidExchange;
+    }
+
+    public double getAskPrice() {
+        return askPrice;
+    }
+
+    public double getAskSize() {
+        return askSize;
+    }
+
+    public char getAskExchange() {
+        return askExchange;
+    }
+
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which this quote was received.
+     *
+     * @return the receive {@link System#nanoTime()}
+     */
+    public long getReceiveNanoTime() {
+        return receiveNanoTime;
+    }
+
+    /**
+     * Gets the number of quotes that have been cached for the symbol. This can be compared between reads to detect
+     * whether the quote changed.
+     *
+     * @return the update count
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedQuote{" +
+                "bidPrice=" + bidPrice +
+                ", bidSize=" + bidSize +
+                ", bidExchange=" + bidExchange +
+                ", askPrice=" + askPrice +
+                ", askSize=" + askSize +
+                ", askExchange=" + askExchange +
+                ", timestampEpochNanos=" + timestampEpochNanos +
+                ", receiveNanoTime=" + receiveNanoTime +
+                ", updateCount=" + updateCount +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.cache;
+
+/**
+ * {@link CachedTrade} is a mutable, primitive-backed holder of the latest trade of a symbol in a
+ * {@link MarketDataCache}. Readers should reuse a {@link CachedTrade} across reads to avoid allocating. The exchange
+ * character is <code>'\0'</code> for crypto trades.
+ */
+public class CachedTrade {
+
+    double price;
+    double size;
+    long tradeID;
+    char exchange;
+    long timestampEpochNanos;
+    long receiveNanoTime;
+    long updateCount;
+
+    void copyFrom(CachedTrade other) {
+        price = other.price;
+        size = other.size;
+        tradeID = other.tradeID;
+        exchange = other.exchange;
+        timestampEpochNanos = other.timestampEpochNanos;
+        receiveNanoTime = other.receiveNanoTime;
+        updateCount = other.updateCount;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getSize() {
+        return size;
+    }
+
+    public long getTradeID() {
+        return tradeID;
+    }
+
+    public char getExchange() {
+        return exchange;
+    }
+
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which this trade was received.
+     *
+     * @return the receive {@link System#nanoTime()}
+     */
+    public long getReceiveNanoTime() {
+        return receiveNanoTime;
+    }
+
+    /**
+     * Gets the number of trades that have been cached for the symbol. This can be compared between reads to detect
+     * whether the trade changed.
+     *
+     * @return the update count
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedTrade{" +
+                "price=" + price +
+                ", size=" + size +
+                ", tradeID=" + tradeID +
+                ", exchange=" + exchange +
+                ", timestampEpochNanos=" + timestampEpochNanos +
+                ", receiveNanoTime=" + receiveNanoTime +
+                ", updateCount=" + updateCount +
+                '}';
+    }
+}
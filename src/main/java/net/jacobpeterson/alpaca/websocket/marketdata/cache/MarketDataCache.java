@@ -0,0 +1,196 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.cache;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link MarketDataCache} is a top-of-book cache of the latest quote, trade, minute bar, and daily bar of each symbol,
+ * populated by the decode path of the market data websockets that it is set on (including flyweight decoding). One
+ * {@link MarketDataCache} can be shared by multiple websockets (e.g. stock and crypto). Many threads can poll it
+ * concurrently without contention or allocation by reusing {@link CachedQuote}, {@link CachedTrade}, and
+ * {@link CachedBar} holders, optionally holding on to the {@link MarketDataCacheEntry} of a symbol to skip the symbol
+ * lookup. This class is thread-safe.
+ *
+ * @see MarketDataCacheEntry
+ */
+public class MarketDataCache {
+
+    private final ConcurrentHashMap<String, MarketDataCacheEntry> entries;
+
+    /**
+     * Instantiates a new {@link MarketDataCache}.
+     */
+    public MarketDataCache() {
+        entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the {@link MarketDataCacheEntry} of the given <code>symbol</code>.
+     *
+     * @param symbol the symbol
+     *
+     * @return the {@link MarketDataCacheEntry} or <code>null</code> if nothing has been cached for the
+     * <code>symbol</code> yet
+     */
+    public MarketDataCacheEntry getEntry(String symbol) {
+        return entries.get(symbol);
+    }
+
+    /**
+     * Gets the {@link MarketDataCacheEntry} of the given <code>symbol</code>, creating an empty one if nothing has
+     * been cached for the <code>symbol</code> yet. The returned {@link MarketDataCacheEntry} is updated for as long as
+     * this {@link MarketDataCache} isn't {@link #clear()}ed.
+     *
+     * @param symbol the symbol
+     *
+     * @return the {@link MarketDataCacheEntry}
+     */
+    public MarketDataCacheEntry getOrCreateEntry(String symbol) {
+        final MarketDataCacheEntry entry = entries.get(symbol);
+        return entry != null ? entry : entries.computeIfAbsent(symbol, MarketDataCacheEntry::new);
+    }
+
+    /**
+     * Copies the latest quote of the given <code>symbol</code> into the given {@link CachedQuote}.
+     *
+     * @param symbol the symbol
+     * @param into   the {@link CachedQuote} to copy into
+     *
+     * @return <code>true</code> if a quote has been cached, <code>false</code> otherwise
+     */
+    public boolean getQuote(String symbol, CachedQuote into) {
+        final MarketDataCacheEntry entry = entries.get(symbol);
+        return entry != null && entry.readQuote(into);
+    }
+
+    /**
+     * Copies the latest trade of the given <code>symbol</code> into the given {@link CachedTrade}.
+     *
+     * @param symbol the symbol
+     * @param into   the {@link CachedTrade} to copy into
+     *
+     * @return <code>true</code> if a trade has been cached, <code>false</code> otherwise
+     */
+    public boolean getTrade(String symbol, CachedTrade into) {
+        final MarketDataCacheEntry entry = entries.get(symbol);
+        return entry != null && entry.readTrade(into);
+    }
+
+    /**
+     * Copies the latest minute bar of the given <code>symbol</code> into the given {@link CachedBar}.
+     *
+     * @param symbol the symbol
+     * @param into   the {@link CachedBar} to copy into
+     *
+     * @return <code>true</code> if a minute bar has been cached, <code>false</code> otherwise
+     */
+    public boolean getMinuteBar(String symbol, CachedBar into) {
+        final MarketDataCacheEntry entry = entries.get(symbol);
+        return entry != null && entry.readMinuteBar(into);
+    }
+
+    /**
+     * Copies the latest daily bar of the given <code>symbol</code> into the given {@link CachedBar}.
+     *
+     * @param symbol the symbol
+     * @param into   the {@link CachedBar} to copy into
+     *
+     * @return <code>true</code> if a daily bar has been cached, <code>false</code> otherwise
+     */
+    public boolean getDailyBar(String symbol, CachedBar into) {
+        final MarketDataCacheEntry entry = entries.get(symbol);
+        return entry != null && entry.readDailyBar(into);
+    }
+
+    /**
+     * Caches a quote. This is called by the market data websockets.
+     *
+     * @param symbol              the symbol
+     * @param bidPrice            the bid price
+     * @param bidSize             the bid size
+     * @param bidExchange         the bid exchange character or <code>'\0'</code>
+     * @param askPrice            the ask price
+     * @param askSize             the ask size
+     * @param askExchange         the ask exchange character or <code>'\0'</code>
+     * @param timestampEpochNanos the quote timestamp epoch nanoseconds
+     * @param receiveNanoTime     the {@link System#nanoTime()} at which the quote was received
+     */
+    public void updateQuote(String symbol, double bidPrice, double bidSize, char bidExchange, double askPrice,
+            double askSize, char askExchange, long timestampEpochNanos, long receiveNanoTime) {
+        getOrCreateEntry(symbol).updateQuote(bidPrice, bidSize, bidExchange, askPrice, askSize, askExchange,
+                timestampEpochNanos, receiveNanoTime);
+    }
+
+    /**
+     * Caches a trade. This is called by the market data websockets.
+     *
+     * @param symbol              the symbol
+     * @param price               the price
+     * @param size                the size
+     * @param tradeID             the trade ID
+     * @param exchange            the exchange character or <code>'\0'</code>
+     * @param timestampEpochNanos the trade timestamp epoch nanoseconds
+     * @param receiveNanoTime     the {@link System#nanoTime()} at which the trade was received
+     */
+    public void updateTrade(String symbol, double price, double size, long tradeID, char exchange,
+            long timestampEpochNanos, long receiveNanoTime) {
+        getOrCreateEntry(symbol).updateTrade(price, size, tradeID, exchange, timestampEpochNanos, receiveNanoTime);
+    }
+
+    /**
+     * Caches a minute bar. This is called by the market data websockets.
+     *
+     * @param symbol              the symbol
+     * @param open                the open price
+     * @param high                the high price
+     * @param low                 the low price
+     * @param close               the close price
+     * @param volume              the volume
+     * @param tradeCount          the trade count
+     * @param vwap                the VWAP
+     * @param timestampEpochNanos the bar timestamp epoch nanoseconds
+     * @param receiveNanoTime     the {@link System#nanoTime()} at which the bar was received
+     */
+    public void updateMinuteBar(String symbol, double open, double high, double low, double close, double volume,
+            long tradeCount, double vwap, long timestampEpochNanos, long receiveNanoTime) {
+        getOrCreateEntry(symbol).updateMinuteBar(open, high, low, close, volume, tradeCount, vwap,
+                timestampEpochNanos, receiveNanoTime);
+    }
+
+    /**
+     * Caches a daily bar. This is called by the market data websockets.
+     *
+     * @param symbol              the symbol
+     * @param open                the open price
+     * @param high                the high price
+     * @param low                 the low price
+     * @param close               the close price
+     * @param volume              the volume
+     * @param tradeCount          the trade count
+     * @param vwap                the VWAP
+     * @param timestampEpochNanos the bar timestamp epoch nanoseconds
+     * @param receiveNanoTime     the {@link System#nanoTime()} at which the bar was received
+     */
+    public void updateDailyBar(String symbol, double open, double high, double low, double close, double volume,
+            long tradeCount, double vwap, long timestampEpochNanos, long receiveNanoTime) {
+        getOrCreateEntry(symbol).updateDailyBar(open, high, low, close, volume, tradeCount, vwap,
+                timestampEpochNanos, receiveNanoTime);
+    }
+
+    /**
+     * Gets an unmodifiable view of the cached symbols.
+     *
+     * @return a {@link Set} of {@link String} symbols
+     */
+    public Set<String> getSymbols() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Removes all {@link MarketDataCacheEntry}s.
+     */
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,232 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.cache;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * {@link MarketDataCacheEntry} holds the latest quote, trade, minute bar, and daily bar of a symbol in a
+ * {@link MarketDataCache}. Each of them is guarded by its own {@link StampedLock} used as a sequence lock: writers
+ * take the write lock, which is never held by readers, and readers copy the fields with optimistic reads and retry if
+ * a write happened concurrently. So readers never block writers or each other, never see a partially written record,
+ * and don't allocate. An update is ignored if its timestamp is older than the cached record, so the cache isn't
+ * rolled back by delayed or backfilled messages.
+ */
+public class MarketDataCacheEntry {
+
+    private final String symbol;
+    private final StampedLock quoteLock;
+    private final CachedQuote quote;
+    private final StampedLock tradeLock;
+    private final CachedTrade trade;
+    private final StampedLock minuteBarLock;
+    private final CachedBar minuteBar;
+    private final StampedLock dailyBarLock;
+    private final CachedBar dailyBar;
+
+    /**
+     * Instantiates a new {@link MarketDataCacheEntry}.
+     *
+     * @param symbol the symbol
+     */
+    MarketDataCacheEntry(String symbol) {
+        this.symbol = symbol;
+        quoteLock = new StampedLock();
+        quote = new CachedQuote();
+        tradeLock = new StampedLock();
+        trade = new CachedTrade();
+        minuteBarLock = new StampedLock();
+        minuteBar = new CachedBar();
+        dailyBarLock = new StampedLock();
+        dailyBar = new CachedBar();
+    }
+
+    void updateQuote(double bidPrice, double bidSize, char bidExchange, double askPrice, double askSize,
+            char askExchange, long timestampEpochNanos, long receiveNanoTime) {
+        final long stamp = quoteLock.writeLock();
+        try {
+            if (quote.updateCount != 0 && timestampEpochNanos < quote.timestampEpochNanos) {
+                return;
+            }
+            quote.bidPrice = bidPrice;
+            quote.bidSize = bidSize;
+            quote.bidExchange = bidExchange;
+            quote.askPrice = askPrice;
+            quote.askSize = askSize;
+            quote.askExchange = askExchange;
+            quote.timestampEpochNanos = timestampEpochNanos;
+            quote.receiveNanoTime = receiveNanoTime;
+            quote.updateCount++;
+        } finally {
+            quoteLock.unlockWrite(stamp);
+        }
+    }
+
+    void updateTrade(double price, double size, long tradeID, char exchange, long timestampEpochNanos,
+            long receiveNanoTime) {
+        final long stamp = tradeLock.writeLock();
+        try {
+            if (trade.updateCount != 0 && timestampEpochNanos < trade.timestampEpochNanos) {
+                return;
+            }
+            trade.price = price;
+            trade.size = size;
+            trade.tradeID = tradeID;
+            trade.exchange = exchange;
+            trade.timestampEpochNanos = timestampEpochNanos;
+            trade.receiveNanoTime = receiveNanoTime;
+            trade.updateCount++;
+        } finally {
+            tradeLock.unlockWrite(stamp);
+        }
+    }
+
+    void updateMinuteBar(double open, double high, double low, double close, double volume, long tradeCount,
+            double vwap, long timestampEpochNanos, long receiveNanoTime) {
+        updateBar(minuteBarLock, minuteBar, open, high, low, close, volume, tradeCount, vwap, timestampEpochNanos,
+                receiveNanoTime);
+    }
+
+    void updateDailyBar(double open, double high, double low, double close, double volume, long tradeCount,
+            double vwap, long timestampEpochNanos, long receiveNanoTime) {
+        updateBar(dailyBarLock, dailyBar, open, high, low, close, volume, tradeCount, vwap, timestampEpochNanos,
+                receiveNanoTime);
+    }
+
+    private static void updateBar(StampedLock lock, CachedBar bar, double open, double high, double low,
+            double close, double volume, long tradeCount, double vwap, long timestampEpochNanos,
+            long receiveNanoTime) {
+        final long stamp = lock.writeLock();
+        try {
+            if (bar.updateCount != 0 && timestampEpochNanos < bar.timestampEpochNanos) {
+                return;
+            }
+            bar.open = open;
+            bar.high = high;
+            bar.low = low;
+            bar.close = close;
+            bar.volume = volume;
+            bar.tradeCount = tradeCount;
+            bar.vwap = vwap;
+            bar.timestampEpochNanos = timestampEpochNanos;
+            bar.receiveNanoTime = receiveNanoTime;
+            bar.updateCount++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copies the latest quote into the given {@link CachedQuote}.
+     *
+     * @param into the {@link CachedQuote} to copy into
+     *
+     * @return <code>true</code> if a quote has been cached, <code>false</code> otherwise
+     */
+    public boolean readQuote(CachedQuote into) {
+        while (true) {
+            final long stamp = quoteLock.tryOptimisticRead();
+            into.copyFrom(quote);
+            if (quoteLock.validate(stamp)) {
+                return into.updateCount != 0;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Copies the latest trade into the given {@link CachedTrade}.
+     *
+     * @param into the {@link CachedTrade} to copy into
+     *
+     * @return <code>true</code> if a trade has been cached, <code>false</code> otherwise
+     */
+    public boolean readTrade(CachedTrade into) {
+        while (true) {
+            final long stamp = tradeLock.tryOptimisticRead();
+            into.copyFrom(trade);
+            if (tradeLock.validate(stamp)) {
+                return into.updateCount != 0;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Copies the latest minute bar into the given {@link CachedBar}.
+     *
+     * @param into the {@link CachedBar} to copy into
+     *
+     * @return <code>true</code> if a minute bar has been cached, <code>false</code> otherwise
+     */
+    public boolean readMinuteBar(CachedBar into) {
+        return readBar(minuteBarLock, minuteBar, into);
+    }
+
+    /**
+     * Copies the latest daily bar into the given {@link CachedBar}.
+     *
+     * @param into the {@link CachedBar} to copy into
+     *
+     * @return <code>true</code> if a daily bar has been cached, <code>false</code> otherwise
+     */
+    public boolean readDailyBar(CachedBar into) {
+        return readBar(dailyBarLock, dailyBar, into);
+    }
+
+    private static boolean readBar(StampedLock lock, CachedBar bar, CachedBar into) {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            into.copyFrom(bar);
+            if (lock.validate(stamp)) {
+                return into.updateCount != 0;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets the mid-price of the latest quote.
+     *
+     * @return the mid-price or {@link Double#NaN} if no quote has been cached
+     */
+    public double getMidPrice() {
+        while (true) {
+            final long stamp = quoteLock.tryOptimisticRead();
+            final double midPrice = quote.updateCount == 0 ? Double.NaN : (quote.bidPrice + quote.askPrice) / 2;
+            if (quoteLock.validate(stamp)) {
+                return midPrice;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets the price of the latest trade.
+     *
+     * @return the last trade price or {@link Double#NaN} if no trade has been cached
+     */
+    public double getLastTradePrice() {
+        while (true) {
+            final long stamp = tradeLock.tryOptimisticRead();
+            final double price = trade.updateCount == 0 ? Double.NaN : trade.price;
+            if (tradeLock.validate(stamp)) {
+                return price;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    @Override
+    public String toString() {
+        final CachedQuote quote = new CachedQuote();
+        final CachedTrade trade = new CachedTrade();
+        return "MarketDataCacheEntry{" +
+                "symbol='" + symbol + '\'' +
+                ", quote=" + (readQuote(quote) ? quote : null) +
+                ", trade=" + (readTrade(trade) ? trade : null) +
+                '}';
+    }
+}
@@ -0,0 +1,321 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.ToIntBiFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link ConflatingDispatcher} is a {@link MarketDataDispatcher} for slow listeners that only need the latest
+ * {@link MarketDataMessage} of each symbol (e.g. dashboards and risk monitors). {@link MarketDataMessage}s are passed
+ * to the listener on a dedicated thread. While the listener is busy, a {@link MarketDataMessage} of a conflated
+ * message type overwrites the pending {@link MarketDataMessage} of the same message type and conflation key (e.g. a
+ * symbol ID), if any, so the listener only receives the latest {@link MarketDataMessage} of each pending key, in the
+ * order that the keys became pending. The memory usage and listener load of conflated message types are therefore
+ * bounded by the number of keys, regardless of the message rate. {@link MarketDataMessage}s of other message types
+ * are passed through in order via a bounded ring of preallocated entries, which are reused once the listener has
+ * taken their {@link MarketDataMessage}.
+ * <br>
+ * The message type must be an {@link Enum}. There must be only one thread calling
+ * {@link #dispatch(Object, MarketDataMessage, long)} at a time, which is always the case for the websocket reader
+ * thread.
+ *
+ * @param <T> the 'message type' type
+ */
+public class ConflatingDispatcher<T> implements MarketDataDispatcher<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConflatingDispatcher.class);
+    private static final int INITIAL_SLOT_CAPACITY = 64;
+
+    private final String name;
+    private final Set<T> conflatedMessageTypes;
+    private final int passthroughCapacity;
+    private final RingBufferOverflowPolicy passthroughOverflowPolicy;
+    private final ToIntBiFunction<T, MarketDataMessage> conflationKeyFunction;
+    private final MarketDataListenerCaller<T> listenerCaller;
+    private final ConflationSlot[][] conflationSlots;
+    private final PassthroughEntry[] passthroughEntries;
+    private final ArrayDeque<Object> pendingEntries;
+    private int passthroughHead;
+    private int pendingPassthroughCount;
+    private long conflatedMessageCount;
+    private long droppedMessageCount;
+    private boolean listenerWaiting;
+    private boolean dispatcherWaiting;
+    private volatile boolean running;
+
+    /**
+     * {@link ConflationSlot} holds the pending {@link MarketDataMessage} of a message type and conflation key.
+     */
+    private static final class ConflationSlot {
+
+        Object messageType;
+        MarketDataMessage message;
+        long receiveNanoTime;
+    }
+
+    /**
+     * {@link PassthroughEntry} holds a pending {@link MarketDataMessage} of a message type that isn't conflated.
+     */
+    private static final class PassthroughEntry {
+
+        Object messageType;
+        MarketDataMessage message;
+        long receiveNanoTime;
+    }
+
+    /**
+     * Instantiates a new {@link ConflatingDispatcher} and starts its listener thread.
+     *
+     * @param name                      the name used for logging
+     * @param conflatedMessageTypes     the {@link Set} of message types to conflate
+     * @param passthroughCapacity       the maximum number of pending {@link MarketDataMessage}s of message types that
+     *                                  aren't conflated
+     * @param passthroughOverflowPolicy the {@link RingBufferOverflowPolicy} used when a {@link MarketDataMessage} of a
+     *                                  message type that isn't conflated is dispatched while
+     *                                  <code>passthroughCapacity</code> is reached
+     * @param threadFactory             the {@link ThreadFactory} used to create the listener thread
+     * @param conflationKeyFunction     the {@link ToIntBiFunction} that gets the non-negative conflation key (e.g. a
+     *                                  symbol ID) of a {@link MarketDataMessage} of a conflated message type
+     * @param listenerCaller            the {@link MarketDataListenerCaller}
+     */
+    public ConflatingDispatcher(String name, Set<T> conflatedMessageTypes, int passthroughCapacity,
+            RingBufferOverflowPolicy passthroughOverflowPolicy, ThreadFactory threadFactory,
+            ToIntBiFunction<T, MarketDataMessage> conflationKeyFunction, MarketDataListenerCaller<T> listenerCaller) {
+        checkNotNull(conflatedMessageTypes);
+        checkArgument(passthroughCapacity > 0 && passthroughCapacity <= 1 << 30,
+                "passthroughCapacity must be between 1 and 2^30!");
+        checkNotNull(passthroughOverflowPolicy);
+        checkNotNull(threadFactory);
+        checkNotNull(conflationKeyFunction);
+        checkNotNull(listenerCaller);
+
+        this.name = name;
+        this.conflatedMessageTypes = Collections.unmodifiableSet(new LinkedHashSet<>(conflatedMessageTypes));
+        this.passthroughCapacity = passthroughCapacity;
+        this.passthroughOverflowPolicy = passthroughOverflowPolicy;
+        this.conflationKeyFunction = conflationKeyFunction;
+        this.listenerCaller = listenerCaller;
+        int maxOrdinal = -1;
+        for (T messageType : this.conflatedMessageTypes) {
+            maxOrdinal = Math.max(maxOrdinal, ((Enum<?>) messageType).ordinal());
+        }
+        conflationSlots = new ConflationSlot[maxOrdinal + 1][];
+        for (T messageType : this.conflatedMessageTypes) {
+            conflationSlots[((Enum<?>) messageType).ordinal()] = new ConflationSlot[INITIAL_SLOT_CAPACITY];
+        }
+        passthroughEntries = new PassthroughEntry[passthroughCapacity];
+        for (int index = 0; index < passthroughCapacity; index++) {
+            passthroughEntries[index] = new PassthroughEntry();
+        }
+        pendingEntries = new ArrayDeque<>();
+
+        running = true;
+        threadFactory.newThread(this::runListenerLoop).start();
+    }
+
+    @Override
+    public void dispatch(T messageType, MarketDataMessage message, long receiveNanoTime) {
+        if (!running) {
+            throw new IllegalStateException(name + " dispatcher is shut down!");
+        }
+
+        final int ordinal = ((Enum<?>) messageType).ordinal();
+        if (ordinal < conflationSlots.length && conflationSlots[ordinal] != null) {
+            final int conflationKey = conflationKeyFunction.applyAsInt(messageType, message);
+            checkArgument(conflationKey >= 0, "The conflation key must be non-negative!");
+            synchronized (this) {
+                final ConflationSlot slot = getConflationSlot(ordinal, conflationKey);
+                if (slot.message != null) {
+                    conflatedMessageCount++;
+                } else {
+                    slot.messageType = messageType;
+                    pendingEntries.addLast(slot);
+                }
+                slot.message = message;
+                slot.receiveNanoTime = receiveNanoTime;
+                notifyListener();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            while (pendingPassthroughCount >= passthroughCapacity) {
+                switch (passthroughOverflowPolicy) {
+                    case BLOCK:
+                        dispatcherWaiting = true;
+                        try {
+                            wait();
+                        } catch (InterruptedException interruptedException) {
+                            Thread.currentThread().interrupt();
+                            throw new RuntimeException(name + " dispatcher was interrupted!", interruptedException);
+                        } finally {
+                            dispatcherWaiting = false;
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        removeOldestPassthroughEntry();
+                        droppedMessageCount++;
+                        break;
+                    case FAIL:
+                        droppedMessageCount++;
+                        throw new RuntimeException(name + " dispatcher passthrough queue is full!");
+                    default:
+                        throw new UnsupportedOperationException();
+                }
+            }
+            int index = passthroughHead + pendingPassthroughCount;
+            if (index >= passthroughCapacity) {
+                index -= passthroughCapacity;
+            }
+            final PassthroughEntry entry = passthroughEntries[index];
+            entry.messageType = messageType;
+            entry.message = message;
+            entry.receiveNanoTime = receiveNanoTime;
+            pendingEntries.addLast(entry);
+            pendingPassthroughCount++;
+            notifyListener();
+        }
+    }
+
+    private ConflationSlot getConflationSlot(int ordinal, int conflationKey) {
+        ConflationSlot[] slots = conflationSlots[ordinal];
+        if (conflationKey >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(conflationKey + 1, slots.length * 2));
+            conflationSlots[ordinal] = slots;
+        }
+        ConflationSlot slot = slots[conflationKey];
+        if (slot == null) {
+            slot = new ConflationSlot();
+            slots[conflationKey] = slot;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the oldest pending {@link PassthroughEntry}, which is the one at the {@link #passthroughHead} since
+     * {@link PassthroughEntry}s are taken in order, and releases it for reuse.
+     */
+    private void removeOldestPassthroughEntry() {
+        pendingEntries.removeFirstOccurrence(passthroughEntries[passthroughHead]);
+        releaseOldestPassthroughEntry();
+    }
+
+    private void releaseOldestPassthroughEntry() {
+        final PassthroughEntry entry = passthroughEntries[passthroughHead];
+        entry.messageType = null;
+        entry.message = null;
+        if (++passthroughHead == passthroughCapacity) {
+            passthroughHead = 0;
+        }
+        pendingPassthroughCount--;
+    }
+
+    private void notifyListener() {
+        if (listenerWaiting) {
+            notifyAll();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runListenerLoop() {
+        while (true) {
+            final T messageType;
+            final MarketDataMessage message;
+            final long receiveNanoTime;
+            synchronized (this) {
+                Object entry;
+                while ((entry = pendingEntries.pollFirst()) == null) {
+                    if (!running) {
+                        return;
+                    }
+                    listenerWaiting = true;
+                    try {
+                        wait();
+                    } catch (InterruptedException ignored) {
+                        // Only shutdown() stops the listener thread
+                    } finally {
+                        listenerWaiting = false;
+                    }
+                }
+
+                if (entry instanceof ConflationSlot) {
+                    final ConflationSlot slot = (ConflationSlot) entry;
+                    messageType = (T) slot.messageType;
+                    message = slot.message;
+                    receiveNanoTime = slot.receiveNanoTime;
+                    slot.message = null;
+                } else {
+                    final PassthroughEntry passthroughEntry = (PassthroughEntry) entry;
+                    messageType = (T) passthroughEntry.messageType;
+                    message = passthroughEntry.message;
+                    receiveNanoTime = passthroughEntry.receiveNanoTime;
+                    releaseOldestPassthroughEntry();
+                    if (dispatcherWaiting) {
+                        notifyAll();
+                    }
+                }
+            }
+
+            try {
+                listenerCaller.callListener(messageType, message, receiveNanoTime);
+            } catch (Exception exception) {
+                LOGGER.error("{} dispatcher listener threw an exception!", name, exception);
+            }
+        }
+    }
+
+    @Override
+    public synchronized int getQueueDepth() {
+        return pendingEntries.size();
+    }
+
+    @Override
+    public synchronized long getDroppedMessageCount() {
+        return droppedMessageCount;
+    }
+
+    /**
+     * Gets the number of {@link MarketDataMessage}s that were overwritten by a newer {@link MarketDataMessage} of the
+     * same message type and conflation key before they were passed to the listener.
+     *
+     * @return the conflated message count
+     */
+    @Override
+    public synchronized long getConflatedMessageCount() {
+        return conflatedMessageCount;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        running = false;
+        notifyAll();
+    }
+
+    /**
+     * Gets the conflated message types.
+     *
+     * @return an unmodifiable {@link Set} of message types
+     */
+    public Set<T> getConflatedMessageTypes() {
+        return conflatedMessageTypes;
+    }
+
+    public int getPassthroughCapacity() {
+        return passthroughCapacity;
+    }
+
+    public RingBufferOverflowPolicy getPassthroughOverflowPolicy() {
+        return passthroughOverflowPolicy;
+    }
+}
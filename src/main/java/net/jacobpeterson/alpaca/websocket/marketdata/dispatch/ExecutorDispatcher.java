@@ -0,0 +1,135 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntBiFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.newSequentialExecutor;
+
+/**
+ * {@link ExecutorDispatcher} is a {@link MarketDataDispatcher} that passes {@link MarketDataMessage}s to the listener
+ * on an {@link Executor} (e.g. one that runs each task on a virtual thread), so the listener may block without
+ * stalling the websocket reader thread. {@link MarketDataMessage}s with the same ordering key (e.g. a symbol ID) are
+ * passed to the listener in order via a sequential {@link Executor} per ordering key, while
+ * {@link MarketDataMessage}s with different ordering keys may be passed to the listener in parallel, so the listener
+ * must be thread-safe. Unlike the ring buffer based {@link MarketDataDispatcher}s, pending {@link MarketDataMessage}s
+ * aren't bounded, so use {@link #getQueueDepth()} to monitor a listener that falls behind.
+ * <br>
+ * There must be only one thread calling {@link #dispatch(Object, MarketDataMessage, long)} at a time, which is always
+ * the case for the websocket reader thread.
+ *
+ * @param <T> the 'message type' type
+ */
+public class ExecutorDispatcher<T> implements MarketDataDispatcher<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorDispatcher.class);
+    private static final int INITIAL_LANE_CAPACITY = 64;
+
+    private final String name;
+    private final Executor executor;
+    private final ToIntBiFunction<T, MarketDataMessage> orderingKeyFunction;
+    private final MarketDataListenerCaller<T> listenerCaller;
+    private final AtomicInteger queueDepth;
+    private final AtomicLong droppedMessageCount;
+    private Executor[] lanes;
+    private volatile boolean running;
+
+    /**
+     * Instantiates a new {@link ExecutorDispatcher}.
+     *
+     * @param name                the name used for logging
+     * @param executor            the {@link Executor} that the listener is called on
+     * @param orderingKeyFunction the {@link ToIntBiFunction} that gets the non-negative ordering key (e.g. a symbol
+     *                            ID) of a {@link MarketDataMessage}
+     * @param listenerCaller      the {@link MarketDataListenerCaller}
+     */
+    public ExecutorDispatcher(String name, Executor executor,
+            ToIntBiFunction<T, MarketDataMessage> orderingKeyFunction, MarketDataListenerCaller<T> listenerCaller) {
+        checkNotNull(executor);
+        checkNotNull(orderingKeyFunction);
+        checkNotNull(listenerCaller);
+
+        this.name = name;
+        this.executor = executor;
+        this.orderingKeyFunction = orderingKeyFunction;
+        this.listenerCaller = listenerCaller;
+        queueDepth = new AtomicInteger();
+        droppedMessageCount = new AtomicLong();
+        lanes = new Executor[INITIAL_LANE_CAPACITY];
+        running = true;
+    }
+
+    @Override
+    public void dispatch(T messageType, MarketDataMessage message, long receiveNanoTime) {
+        if (!running) {
+            throw new IllegalStateException(name + " dispatcher is shut down!");
+        }
+
+        final int orderingKey = orderingKeyFunction.applyAsInt(messageType, message);
+        checkArgument(orderingKey >= 0, "The ordering key must be non-negative!");
+        queueDepth.incrementAndGet();
+        try {
+            getLane(orderingKey).execute(() -> {
+                queueDepth.decrementAndGet();
+                try {
+                    listenerCaller.callListener(messageType, message, receiveNanoTime);
+                } catch (Exception exception) {
+                    LOGGER.error("{} dispatcher listener threw an exception!", name, exception);
+                }
+            });
+        } catch (RejectedExecutionException rejectedExecutionException) {
+            queueDepth.decrementAndGet();
+            droppedMessageCount.incrementAndGet();
+            LOGGER.error("{} dispatcher executor rejected a message!", name, rejectedExecutionException);
+        }
+    }
+
+    private Executor getLane(int orderingKey) {
+        if (orderingKey >= lanes.length) {
+            lanes = Arrays.copyOf(lanes, Math.max(orderingKey + 1, lanes.length * 2));
+        }
+        Executor lane = lanes[orderingKey];
+        if (lane == null) {
+            lane = newSequentialExecutor(executor);
+            lanes[orderingKey] = lane;
+        }
+        return lane;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Gets the number of {@link MarketDataMessage}s that were dropped because the {@link Executor} rejected them (e.g.
+     * because it was shut down).
+     *
+     * @return the dropped message count
+     */
+    @Override
+    public long getDroppedMessageCount() {
+        return droppedMessageCount.get();
+    }
+
+    /**
+     * Shuts down this {@link ExecutorDispatcher}. This doesn't shut down the {@link Executor}, which may be shared.
+     */
+    @Override
+    public void shutdown() {
+        running = false;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+}
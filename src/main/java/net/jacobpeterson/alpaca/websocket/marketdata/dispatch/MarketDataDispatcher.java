@@ -0,0 +1,53 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+
+/**
+ * {@link MarketDataDispatcher} defines an interface for dispatching decoded {@link MarketDataMessage}s from the
+ * websocket reader thread to a listener.
+ *
+ * @param <T> the 'message type' type
+ */
+public interface MarketDataDispatcher<T> {
+
+    /**
+     * Dispatches the given {@link MarketDataMessage} to the listener. This is called on the websocket reader thread.
+     *
+     * @param messageType     the message type
+     * @param message         the {@link MarketDataMessage}
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the {@link MarketDataMessage} was received
+     */
+    void dispatch(T messageType, MarketDataMessage message, long receiveNanoTime);
+
+    /**
+     * Gets the number of dispatched {@link MarketDataMessage}s that have not yet been passed to the listener.
+     *
+     * @return the queue depth
+     */
+    int getQueueDepth();
+
+    /**
+     * Gets the number of {@link MarketDataMessage}s that were dropped because of an overflow.
+     *
+     * @return the dropped message count
+     */
+    long getDroppedMessageCount();
+
+    /**
+     * Gets the number of {@link MarketDataMessage}s that were replaced by a newer {@link MarketDataMessage} before they
+     * were passed to the listener. This is always <code>0</code> unless this {@link MarketDataDispatcher} conflates.
+     *
+     * @return the conflated message count
+     *
+     * @see ConflatingDispatcher
+     */
+    default long getConflatedMessageCount() {
+        return 0;
+    }
+
+    /**
+     * Shuts down this {@link MarketDataDispatcher}. {@link MarketDataMessage}s that were already dispatched are still
+     * passed to the listener, but no more {@link MarketDataMessage}s may be dispatched.
+     */
+    void shutdown();
+}
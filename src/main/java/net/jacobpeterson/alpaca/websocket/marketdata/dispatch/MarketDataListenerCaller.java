@@ -0,0 +1,22 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+
+/**
+ * {@link MarketDataListenerCaller} defines a functional interface that passes a dispatched {@link MarketDataMessage} to
+ * the listener.
+ *
+ * @param <T> the 'message type' type
+ */
+@FunctionalInterface
+public interface MarketDataListenerCaller<T> {
+
+    /**
+     * Passes the given {@link MarketDataMessage} to the listener.
+     *
+     * @param messageType     the message type
+     * @param message         the {@link MarketDataMessage}
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the {@link MarketDataMessage} was received
+     */
+    void callListener(T messageType, MarketDataMessage message, long receiveNanoTime);
+}
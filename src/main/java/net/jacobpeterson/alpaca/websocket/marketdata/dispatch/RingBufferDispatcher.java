@@ -0,0 +1,205 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link RingBufferDispatcher} is a {@link MarketDataDispatcher} that publishes {@link MarketDataMessage}s into a
+ * bounded, preallocated, lock-free ring buffer and passes them to the listener on a dedicated thread. This decouples
+ * the websocket reader thread from slow listener code. There must be only one thread calling
+ * {@link #dispatch(Object, MarketDataMessage, long)} at a time, which is always the case for the websocket reader
+ * thread.
+ *
+ * @param <T> the 'message type' type
+ */
+public class RingBufferDispatcher<T> implements MarketDataDispatcher<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RingBufferDispatcher.class);
+    private static final long PARK_NANOS = 50_000;
+    private static final VarHandle MESSAGES_ELEMENT = MethodHandles.arrayElementVarHandle(MarketDataMessage[].class);
+
+    private final String name;
+    private final RingBufferWaitStrategy waitStrategy;
+    private final RingBufferOverflowPolicy overflowPolicy;
+    private final MarketDataListenerCaller<T> listenerCaller;
+    private final int capacity;
+    private final int mask;
+    private final Object[] messageTypes;
+    private final MarketDataMessage[] messages;
+    private final long[] receiveNanoTimes;
+    private final AtomicLong headSequence;
+    private final AtomicLong tailSequence;
+    private final AtomicLong droppedMessageCount;
+    private final Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Instantiates a new {@link RingBufferDispatcher} and starts its listener thread.
+     *
+     * @param name           the name used for logging
+     * @param capacity       the ring buffer capacity (rounded up to the next power of two)
+     * @param waitStrategy   the {@link RingBufferWaitStrategy}
+     * @param overflowPolicy the {@link RingBufferOverflowPolicy}
+     * @param threadFactory  the {@link ThreadFactory} used to create the listener thread
+     * @param listenerCaller the {@link MarketDataListenerCaller}
+     */
+    public RingBufferDispatcher(String name, int capacity, RingBufferWaitStrategy waitStrategy,
+            RingBufferOverflowPolicy overflowPolicy, ThreadFactory threadFactory,
+            MarketDataListenerCaller<T> listenerCaller) {
+        checkArgument(capacity > 0 && capacity <= 1 << 30, "capacity must be between 1 and 2^30!");
+        checkNotNull(waitStrategy);
+        checkNotNull(overflowPolicy);
+        checkNotNull(threadFactory);
+        checkNotNull(listenerCaller);
+
+        this.name = name;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.listenerCaller = listenerCaller;
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = this.capacity - 1;
+        messageTypes = new Object[this.capacity];
+        messages = new MarketDataMessage[this.capacity];
+        receiveNanoTimes = new long[this.capacity];
+        headSequence = new AtomicLong();
+        tailSequence = new AtomicLong();
+        droppedMessageCount = new AtomicLong();
+
+        running = true;
+        thread = threadFactory.newThread(this::runListenerLoop);
+        thread.start();
+    }
+
+    @Override
+    public void dispatch(T messageType, MarketDataMessage message, long receiveNanoTime) {
+        if (!running) {
+            throw new IllegalStateException(name + " dispatcher is shut down!");
+        }
+
+        final long sequence = tailSequence.get();
+        while (sequence - headSequence.get() >= capacity) {
+            switch (overflowPolicy) {
+                case BLOCK:
+                    waitOnce();
+                    break;
+                case DROP_OLDEST:
+                    final long oldestSequence = headSequence.get();
+                    if (sequence - oldestSequence >= capacity &&
+                            headSequence.compareAndSet(oldestSequence, oldestSequence + 1)) {
+                        droppedMessageCount.incrementAndGet();
+                    }
+                    break;
+                case FAIL:
+                    droppedMessageCount.incrementAndGet();
+                    throw new RuntimeException(name + " dispatcher ring buffer is full!");
+                default:
+                    throw new UnsupportedOperationException();
+            }
+        }
+
+        final int index = (int) sequence & mask;
+        messageTypes[index] = messageType;
+        messages[index] = message;
+        receiveNanoTimes[index] = receiveNanoTime;
+        // Publish the slot to the listener thread
+        tailSequence.lazySet(sequence + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runListenerLoop() {
+        while (true) {
+            final long sequence = headSequence.get();
+            if (sequence == tailSequence.get()) {
+                if (!running) {
+                    return;
+                }
+                waitOnce();
+                continue;
+            }
+
+            final int index = (int) sequence & mask;
+            final T messageType = (T) messageTypes[index];
+            final MarketDataMessage message = messages[index];
+            final long receiveNanoTime = receiveNanoTimes[index];
+            // Release the message reference so that consumed messages aren't retained by the ring buffer until the
+            // slot is reused
+            if (overflowPolicy == RingBufferOverflowPolicy.DROP_OLDEST) {
+                // The producer may have dropped this slot while it was being read
+                if (!headSequence.compareAndSet(sequence, sequence + 1)) {
+                    continue;
+                }
+                // The slot now belongs to the producer, which may already have written a new message into it, so
+                // only clear the slot if it still holds the message that was read
+                MESSAGES_ELEMENT.compareAndSet(messages, index, message, null);
+            } else {
+                messages[index] = null;
+                headSequence.lazySet(sequence + 1);
+            }
+
+            try {
+                listenerCaller.callListener(messageType, message, receiveNanoTime);
+            } catch (Exception exception) {
+                LOGGER.error("{} dispatcher listener threw an exception!", name, exception);
+            }
+        }
+    }
+
+    private void waitOnce() {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                Thread.onSpinWait();
+                break;
+            case YIELD:
+                Thread.yield();
+                break;
+            case PARK:
+                LockSupport.parkNanos(this, PARK_NANOS);
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return (int) Math.max(0, tailSequence.get() - headSequence.get());
+    }
+
+    @Override
+    public long getDroppedMessageCount() {
+        return droppedMessageCount.get();
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Gets the ring buffer capacity.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public RingBufferWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public RingBufferOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
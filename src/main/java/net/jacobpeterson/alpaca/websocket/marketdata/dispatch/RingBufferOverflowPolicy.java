@@ -0,0 +1,23 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+/**
+ * {@link RingBufferOverflowPolicy} defines what a {@link RingBufferDispatcher} does when a message is dispatched while
+ * its ring buffer is full.
+ */
+public enum RingBufferOverflowPolicy {
+
+    /**
+     * Blocks the websocket reader thread until the listener thread frees a slot.
+     */
+    BLOCK,
+
+    /**
+     * Drops the oldest message that hasn't been passed to the listener yet to make room for the new message.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Throws an exception on the websocket reader thread, which causes the websocket to fail and reconnect.
+     */
+    FAIL
+}
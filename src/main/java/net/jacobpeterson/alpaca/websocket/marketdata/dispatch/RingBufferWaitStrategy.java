@@ -0,0 +1,23 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+/**
+ * {@link RingBufferWaitStrategy} defines how a {@link RingBufferDispatcher} thread waits for the ring buffer to become
+ * non-empty (or non-full when using {@link RingBufferOverflowPolicy#BLOCK}).
+ */
+public enum RingBufferWaitStrategy {
+
+    /**
+     * Spins in a tight loop. This has the lowest latency, but fully occupies a CPU core.
+     */
+    BUSY_SPIN,
+
+    /**
+     * Calls {@link Thread#yield()} in a loop. This has low latency and lets other threads run on the CPU core.
+     */
+    YIELD,
+
+    /**
+     * Parks the thread for a short time in a loop. This has the highest latency, but uses little CPU time when idle.
+     */
+    PARK
+}
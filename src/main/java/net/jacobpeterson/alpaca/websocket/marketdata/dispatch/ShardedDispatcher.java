@@ -0,0 +1,135 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.ToIntBiFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link ShardedDispatcher} is a {@link MarketDataDispatcher} that shards {@link MarketDataMessage}s by a shard key
+ * (e.g. a symbol ID) across multiple lanes, each of which is a {@link RingBufferDispatcher} with its own listener
+ * thread. {@link MarketDataMessage}s with the same shard key are always passed to the listener in order on the same
+ * lane, while {@link MarketDataMessage}s with different shard keys may be passed to the listener in parallel, so the
+ * listener must be thread-safe.
+ *
+ * @param <T> the 'message type' type
+ */
+public class ShardedDispatcher<T> implements MarketDataDispatcher<T> {
+
+    private final ToIntBiFunction<T, MarketDataMessage> shardKeyFunction;
+    private final RingBufferDispatcher<T>[] lanes;
+
+    /**
+     * Instantiates a new {@link ShardedDispatcher} and starts its lane threads.
+     *
+     * @param name             the name used for logging
+     * @param laneCount        the number of lanes
+     * @param laneCapacity     the ring buffer capacity of each lane (rounded up to the next power of two)
+     * @param waitStrategy     the {@link RingBufferWaitStrategy} of each lane
+     * @param overflowPolicy   the {@link RingBufferOverflowPolicy} of each lane
+     * @param threadFactory    the {@link ThreadFactory} used to create the lane threads
+     * @param shardKeyFunction the {@link ToIntBiFunction} that gets the shard key of a {@link MarketDataMessage}
+     * @param listenerCaller   the {@link MarketDataListenerCaller}
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedDispatcher(String name, int laneCount, int laneCapacity, RingBufferWaitStrategy waitStrategy,
+            RingBufferOverflowPolicy overflowPolicy, ThreadFactory threadFactory,
+            ToIntBiFunction<T, MarketDataMessage> shardKeyFunction, MarketDataListenerCaller<T> listenerCaller) {
+        checkArgument(laneCount > 0, "laneCount must be greater than 0!");
+        checkNotNull(shardKeyFunction);
+
+        this.shardKeyFunction = shardKeyFunction;
+        lanes = new RingBufferDispatcher[laneCount];
+        for (int lane = 0; lane < laneCount; lane++) {
+            lanes[lane] = new RingBufferDispatcher<>(name + " lane " + lane, laneCapacity, waitStrategy,
+                    overflowPolicy, threadFactory, listenerCaller);
+        }
+    }
+
+    @Override
+    public void dispatch(T messageType, MarketDataMessage message, long receiveNanoTime) {
+        lanes[getLane(messageType, message)].dispatch(messageType, message, receiveNanoTime);
+    }
+
+    /**
+     * Gets the lane index for the given {@link MarketDataMessage}.
+     *
+     * @param messageType the message type
+     * @param message     the {@link MarketDataMessage}
+     *
+     * @return the lane index
+     */
+    public int getLane(T messageType, MarketDataMessage message) {
+        return Math.floorMod(shardKeyFunction.applyAsInt(messageType, message), lanes.length);
+    }
+
+    /**
+     * Gets the number of lanes.
+     *
+     * @return the lane count
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Gets the queue depth of the given lane.
+     *
+     * @param lane the lane index
+     *
+     * @return the queue depth
+     *
+     * @see MarketDataDispatcher#getQueueDepth()
+     */
+    public int getLaneQueueDepth(int lane) {
+        return lanes[lane].getQueueDepth();
+    }
+
+    /**
+     * Gets the queue depth of every lane.
+     *
+     * @return an array of queue depths indexed by lane
+     *
+     * @see MarketDataDispatcher#getQueueDepth()
+     */
+    public int[] getLaneQueueDepths() {
+        final int[] queueDepths = new int[lanes.length];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            queueDepths[lane] = lanes[lane].getQueueDepth();
+        }
+        return queueDepths;
+    }
+
+    /**
+     * Gets the total queue depth of all lanes.
+     *
+     * @return the queue depth
+     */
+    @Override
+    public int getQueueDepth() {
+        int queueDepth = 0;
+        for (RingBufferDispatcher<T> lane : lanes) {
+            queueDepth += lane.getQueueDepth();
+        }
+        return queueDepth;
+    }
+
+    @Override
+    public long getDroppedMessageCount() {
+        long droppedMessageCount = 0;
+        for (RingBufferDispatcher<T> lane : lanes) {
+            droppedMessageCount += lane.getDroppedMessageCount();
+        }
+        return droppedMessageCount;
+    }
+
+    @Override
+    public void shutdown() {
+        for (RingBufferDispatcher<T> lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
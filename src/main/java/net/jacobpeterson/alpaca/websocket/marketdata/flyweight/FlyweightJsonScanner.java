@@ -0,0 +1,408 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.flyweight;
+
+import com.google.gson.JsonParseException;
+import net.jacobpeterson.alpaca.util.time.RFC3339Util;
+
+/**
+ * {@link FlyweightJsonScanner} is a minimal, reusable JSON scanner that reads primitive values directly from a JSON
+ * {@link String} without allocating. String values are exposed as index bounds into the scanned {@link String}
+ * instead of as new {@link String}s.
+ */
+public class FlyweightJsonScanner {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private String text;
+    private int position;
+    private int stringStart;
+    private int stringEnd;
+    private boolean stringEscaped;
+
+    /**
+     * Resets this {@link FlyweightJsonScanner} to scan the given JSON <code>text</code> from the start.
+     *
+     * @param text the JSON text {@link String}
+     */
+    public void reset(String text) {
+        this.text = text;
+        position = 0;
+    }
+
+    /**
+     * Gets the scanned JSON text {@link String}.
+     *
+     * @return the text {@link String}
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the current position, which is the index of the next character to scan.
+     *
+     * @return the position
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Sets the current position.
+     *
+     * @param position the position
+     */
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    /**
+     * Consumes the start of a JSON array.
+     */
+    public void beginArray() {
+        expect('[');
+    }
+
+    /**
+     * Consumes the end of a JSON array.
+     */
+    public void endArray() {
+        expect(']');
+    }
+
+    /**
+     * Consumes the start of a JSON object.
+     */
+    public void beginObject() {
+        expect('{');
+    }
+
+    /**
+     * Consumes the end of a JSON object.
+     */
+    public void endObject() {
+        expect('}');
+    }
+
+    /**
+     * Returns <code>true</code> if the current array or object has another element, consuming any separating comma
+     * and leaving the position at the start of the next element.
+     *
+     * @return a boolean
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == ',') {
+            position++;
+            skipWhitespace();
+        }
+        if (position >= text.length()) {
+            throw syntaxError("Unexpected end of input");
+        }
+        final char nextChar = text.charAt(position);
+        return nextChar != ']' && nextChar != '}';
+    }
+
+    /**
+     * Consumes an object property name and its following colon. The name bounds are available via
+     * {@link #getStringStart()} and {@link #getStringEnd()}.
+     */
+    public void nextName() {
+        nextString();
+        expect(':');
+    }
+
+    /**
+     * Returns <code>true</code> if the last scanned string equals the given <code>value</code>.
+     *
+     * @param value the value {@link String}
+     *
+     * @return a boolean
+     */
+    public boolean stringEquals(String value) {
+        return !stringEscaped && stringEnd - stringStart == value.length() &&
+                text.regionMatches(stringStart, value, 0, value.length());
+    }
+
+    /**
+     * Consumes a string value. Its bounds are available via {@link #getStringStart()} and {@link #getStringEnd()}.
+     */
+    public void nextString() {
+        expect('"');
+        stringStart = position;
+        stringEscaped = false;
+        while (true) {
+            if (position >= text.length()) {
+                throw syntaxError("Unterminated string");
+            }
+            final char nextChar = text.charAt(position++);
+            if (nextChar == '"') {
+                break;
+            } else if (nextChar == '\\') {
+                stringEscaped = true;
+                position++;
+            }
+        }
+        stringEnd = position - 1;
+    }
+
+    /**
+     * Gets the last scanned string value as a new {@link String}, unescaping it if necessary. This allocates.
+     *
+     * @return the {@link String}
+     */
+    public String getString() {
+        return stringEscaped ? unescape(text, stringStart, stringEnd) : text.substring(stringStart, stringEnd);
+    }
+
+    /**
+     * Unescapes the JSON string contents in the given region of the given <code>text</code>, which excludes the
+     * surrounding quotes. This allocates.
+     *
+     * @param text  the JSON text {@link String}
+     * @param start the start index (inclusive)
+     * @param end   the end index (exclusive)
+     *
+     * @return the unescaped {@link String}
+     */
+    public static String unescape(String text, int start, int end) {
+        final StringBuilder builder = new StringBuilder(end - start);
+        for (int index = start; index < end; index++) {
+            char nextChar = text.charAt(index);
+            if (nextChar == '\\') {
+                nextChar = text.charAt(++index);
+                switch (nextChar) {
+                    case 'b' -> builder.append('\b');
+                    case 'f' -> builder.append('\f');
+                    case 'n' -> builder.append('\n');
+                    case 'r' -> builder.append('\r');
+                    case 't' -> builder.append('\t');
+                    case 'u' -> {
+                        builder.append((char) Integer.parseInt(text, index + 1, index + 5, 16));
+                        index += 4;
+                    }
+                    default -> builder.append(nextChar);
+                }
+            } else {
+                builder.append(nextChar);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Consumes a <code>null</code> literal if it is the next value.
+     *
+     * @return <code>true</code> if a <code>null</code> literal was consumed, <code>false</code> otherwise
+     */
+    public boolean nextNullIfPresent() {
+        skipWhitespace();
+        if (text.startsWith("null", position)) {
+            position += 4;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Consumes a string value and returns its first character.
+     *
+     * @return the first character or <code>'\0'</code> if the value is <code>null</code> or empty
+     */
+    public char nextChar() {
+        if (nextNullIfPresent()) {
+            return '\0';
+        }
+        nextString();
+        return stringEnd > stringStart ? text.charAt(stringStart) : '\0';
+    }
+
+    /**
+     * Consumes a number value as a <code>double</code>. Numbers with at most 15 significant digits and a small decimal
+     * exponent are converted exactly without allocating.
+     *
+     * @return the <code>double</code> or {@link Double#NaN} if the value is <code>null</code>
+     */
+    public double nextDouble() {
+        if (nextNullIfPresent()) {
+            return Double.NaN;
+        }
+        final int start = position;
+        final boolean negative = consumeIfPresent('-');
+        long mantissa = 0;
+        int exponent = 0;
+        boolean exact = true;
+        int digitCount = 0;
+        for (char nextChar; position < text.length() && (nextChar = text.charAt(position)) >= '0' &&
+                nextChar <= '9'; position++) {
+            mantissa = mantissa * 10 + (nextChar - '0');
+            exact &= mantissa < MAX_EXACT_MANTISSA;
+            digitCount++;
+        }
+        if (consumeIfPresent('.')) {
+            for (char nextChar; position < text.length() && (nextChar = text.charAt(position)) >= '0' &&
+                    nextChar <= '9'; position++) {
+                mantissa = mantissa * 10 + (nextChar - '0');
+                exact &= mantissa < MAX_EXACT_MANTISSA;
+                exponent--;
+                digitCount++;
+            }
+        }
+        if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+            position++;
+            final boolean negativeExponent = consumeIfPresent('-');
+            if (!negativeExponent) {
+                consumeIfPresent('+');
+            }
+            int explicitExponent = 0;
+            for (char nextChar; position < text.length() && (nextChar = text.charAt(position)) >= '0' &&
+                    nextChar <= '9'; position++) {
+                explicitExponent = Math.min(explicitExponent * 10 + (nextChar - '0'), 10_000);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (digitCount == 0) {
+            throw syntaxError("Expected a number");
+        }
+        if (exact && exponent >= -22 && exponent <= 22) {
+            final double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] :
+                    mantissa * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(text.substring(start, position));
+    }
+
+    /**
+     * Consumes an integral number value as a <code>long</code>.
+     *
+     * @return the <code>long</code> or <code>0</code> if the value is <code>null</code>
+     */
+    public long nextLong() {
+        if (nextNullIfPresent()) {
+            return 0;
+        }
+        final boolean negative = consumeIfPresent('-');
+        final int start = position;
+        long value = 0;
+        for (char nextChar; position < text.length() && (nextChar = text.charAt(position)) >= '0' &&
+                nextChar <= '9'; position++) {
+            value = Math.addExact(Math.multiplyExact(value, 10), nextChar - '0');
+        }
+        if (position == start) {
+            throw syntaxError("Expected an integer");
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Consumes an RFC-3339 timestamp string value as epoch nanoseconds.
+     *
+     * @return the epoch nanoseconds or {@link Long#MIN_VALUE} if the value is <code>null</code>
+     */
+    public long nextEpochNanos() {
+        if (nextNullIfPresent()) {
+            return Long.MIN_VALUE;
+        }
+        nextString();
+        return RFC3339Util.parseEpochNanos(text, stringStart, stringEnd);
+    }
+
+    /**
+     * Consumes the next value of any type, including nested arrays and objects.
+     */
+    public void skipValue() {
+        skipWhitespace();
+        int depth = 0;
+        do {
+            if (position >= text.length()) {
+                throw syntaxError("Unexpected end of input");
+            }
+            final char nextChar = text.charAt(position);
+            switch (nextChar) {
+                case '"':
+                    nextString();
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    position++;
+                    break;
+                case '}':
+                case ']':
+                    depth--;
+                    position++;
+                    break;
+                default:
+                    position++;
+                    // Consume the rest of a literal or number
+                    while (depth == 0 && position < text.length() && isLiteralChar(text.charAt(position))) {
+                        position++;
+                    }
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Gets the start index (inclusive) of the last scanned string.
+     *
+     * @return the start index
+     */
+    public int getStringStart() {
+        return stringStart;
+    }
+
+    /**
+     * Gets the end index (exclusive) of the last scanned string.
+     *
+     * @return the end index
+     */
+    public int getStringEnd() {
+        return stringEnd;
+    }
+
+    /**
+     * Returns <code>true</code> if the last scanned string contains escape sequences, <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    public boolean isStringEscaped() {
+        return stringEscaped;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length()) {
+            final char nextChar = text.charAt(position);
+            if (nextChar != ' ' && nextChar != '\n' && nextChar != '\r' && nextChar != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private boolean consumeIfPresent(char expected) {
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        skipWhitespace();
+        if (!consumeIfPresent(expected)) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    private static boolean isLiteralChar(char nextChar) {
+        return nextChar != ',' && nextChar != '}' && nextChar != ']' && nextChar != ' ' && nextChar != '\n' &&
+                nextChar != '\r' && nextChar != '\t';
+    }
+
+    private JsonParseException syntaxError(String message) {
+        return new JsonParseException(message + " at position " + position + "!");
+    }
+}
@@ -0,0 +1,142 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.flyweight;
+
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.websocket.marketdata.cache.MarketDataCache;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetry;
+import net.jacobpeterson.alpaca.websocket.marketdata.tickstore.TickStore;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link FlyweightMessageDecoder} is an abstract decoder that decodes high-frequency market data messages into
+ * reusable, mutable, primitive-backed views using a {@link FlyweightJsonScanner}. Once all symbols have been seen, the
+ * decoding of handled message types doesn't allocate. A {@link FlyweightMessageDecoder} is not thread-safe and its
+ * views are only valid for the duration of a listener callback.
+ */
+public abstract class FlyweightMessageDecoder {
+
+    protected final FlyweightJsonScanner scanner;
+    protected final SymbolDictionary symbolDictionary;
+    protected MarketDataCache cache;
+    protected TickStore tickStore;
+    protected long receiveNanoTime;
+    private MarketDataTelemetry<?> telemetry;
+
+    /**
+     * Instantiates a new {@link FlyweightMessageDecoder}.
+     *
+     * @param symbolDictionary the {@link SymbolDictionary}
+     */
+    protected FlyweightMessageDecoder(SymbolDictionary symbolDictionary) {
+        this.symbolDictionary = symbolDictionary;
+        scanner = new FlyweightJsonScanner();
+    }
+
+    /**
+     * Decodes the given market data message array. Message objects that aren't handled by
+     * {@link #decodeMessage(char)} are passed to the given <code>unhandledMessageConsumer</code> as JSON object
+     * {@link String}s.
+     *
+     * @param message                  the message array JSON {@link String}
+     * @param receiveNanoTime          the {@link System#nanoTime()} at which the <code>message</code> was received
+     * @param telemetry                the {@link MarketDataTelemetry} to record decoded messages with or
+     *                                 <code>null</code>
+     * @param cache                    the {@link MarketDataCache} to update with decoded messages or
+     *                                 <code>null</code>
+     * @param unhandledMessageConsumer the unhandled message object {@link Consumer}
+     */
+    public void decode(String message, long receiveNanoTime, MarketDataTelemetry<?> telemetry, MarketDataCache cache,
+            Consumer<String> unhandledMessageConsumer) {
+        decode(message, receiveNanoTime, telemetry, cache, null, unhandledMessageConsumer);
+    }
+
+    /**
+     * Decodes the given market data message array. Message objects that aren't handled by
+     * {@link #decodeMessage(char)} are passed to the given <code>unhandledMessageConsumer</code> as JSON object
+     * {@link String}s.
+     *
+     * @param message                  the message array JSON {@link String}
+     * @param receiveNanoTime          the {@link System#nanoTime()} at which the <code>message</code> was received
+     * @param telemetry                the {@link MarketDataTelemetry} to record decoded messages with or
+     *                                 <code>null</code>
+     * @param cache                    the {@link MarketDataCache} to update with decoded messages or
+     *                                 <code>null</code>
+     * @param tickStore                the {@link TickStore} to append decoded trades and quotes to or
+     *                                 <code>null</code>
+     * @param unhandledMessageConsumer the unhandled message object {@link Consumer}
+     */
+    public void decode(String message, long receiveNanoTime, MarketDataTelemetry<?> telemetry, MarketDataCache cache,
+            TickStore tickStore, Consumer<String> unhandledMessageConsumer) {
+        this.receiveNanoTime = receiveNanoTime;
+        this.telemetry = telemetry;
+        this.cache = cache;
+        this.tickStore = tickStore;
+        scanner.reset(message);
+        scanner.beginArray();
+        while (scanner.hasNext()) {
+            final int objectStart = scanner.getPosition();
+            final char messageType = findMessageType();
+            scanner.setPosition(objectStart);
+            if (!decodeMessage(messageType)) {
+                scanner.setPosition(objectStart);
+                scanner.skipValue();
+                unhandledMessageConsumer.accept(message.substring(objectStart, scanner.getPosition()));
+            }
+        }
+        scanner.endArray();
+    }
+
+    /**
+     * Finds the single-character <code>"T"</code> (message type) property value of the message object at the current
+     * position.
+     *
+     * @return the message type character or <code>'\0'</code> if it isn't a single character
+     */
+    private char findMessageType() {
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            scanner.nextName();
+            if (scanner.stringEquals("T")) {
+                scanner.nextString();
+                return scanner.getStringEnd() - scanner.getStringStart() == 1 ?
+                        scanner.getText().charAt(scanner.getStringStart()) : '\0';
+            }
+            scanner.skipValue();
+        }
+        return '\0';
+    }
+
+    /**
+     * Gets the symbol ID of the last scanned string value using the {@link #symbolDictionary}.
+     *
+     * @return the symbol ID
+     */
+    protected int getScannedSymbolID() {
+        return scanner.isStringEscaped() ? symbolDictionary.getID(scanner.getString()) :
+                symbolDictionary.getID(scanner.getText(), scanner.getStringStart(), scanner.getStringEnd());
+    }
+
+    /**
+     * Records a decoded message with the {@link MarketDataTelemetry}, if any. This should be called directly before
+     * the listener is called with the decoded message.
+     *
+     * @param messageType         the message type character
+     * @param timestampEpochNanos the message timestamp epoch nanoseconds
+     */
+    protected void recordDecodedMessage(char messageType, long timestampEpochNanos) {
+        if (telemetry != null) {
+            telemetry.recordFlyweightMessage(messageType, timestampEpochNanos, receiveNanoTime);
+        }
+    }
+
+    /**
+     * Decodes the message object at the current position of the {@link #scanner}, consuming the entire object, updates
+     * the {@link #cache} with it, if any, and calls the listener with it.
+     *
+     * @param messageType the message type character
+     *
+     * @return <code>true</code> if the message was decoded, <code>false</code> if the message type isn't handled
+     * (without consuming anything)
+     */
+    protected abstract boolean decodeMessage(char messageType);
+}
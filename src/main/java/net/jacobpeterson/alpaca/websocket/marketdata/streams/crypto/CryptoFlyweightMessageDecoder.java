@@ -0,0 +1,114 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
+
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.websocket.marketdata.flyweight.FlyweightMessageDecoder;
+
+/**
+ * {@link CryptoFlyweightMessageDecoder} is a {@link FlyweightMessageDecoder} for crypto trade and quote messages.
+ */
+public class CryptoFlyweightMessageDecoder extends FlyweightMessageDecoder {
+
+    private final CryptoMarketDataFlyweightListener listener;
+    private final CryptoTradeFlyweight trade;
+    private final CryptoQuoteFlyweight quote;
+
+    /**
+     * Instantiates a new {@link CryptoFlyweightMessageDecoder}.
+     *
+     * @param symbolDictionary the {@link SymbolDictionary}
+     * @param listener         the {@link CryptoMarketDataFlyweightListener}
+     */
+    public CryptoFlyweightMessageDecoder(SymbolDictionary symbolDictionary,
+            CryptoMarketDataFlyweightListener listener) {
+        super(symbolDictionary);
+        this.listener = listener;
+        trade = new CryptoTradeFlyweight();
+        quote = new CryptoQuoteFlyweight();
+    }
+
+    @Override
+    protected boolean decodeMessage(char messageType) {
+        switch (messageType) {
+            case 't':
+                decodeTrade();
+                if (cache != null && trade.symbol != null) {
+                    cache.updateTrade(trade.symbol, trade.price, trade.size, trade.tradeID, '\0',
+                            trade.timestampEpochNanos, receiveNanoTime);
+                }
+                if (tickStore != null && trade.symbol != null) {
+                    tickStore.appendTrade(trade.symbol, trade.timestampEpochNanos, trade.price, trade.size, '\0',
+                            null);
+                }
+                recordDecodedMessage(messageType, trade.timestampEpochNanos);
+                listener.onTrade(trade);
+                return true;
+            case 'q':
+                decodeQuote();
+                if (cache != null && quote.symbol != null) {
+                    cache.updateQuote(quote.symbol, quote.bidPrice, quote.bidSize, '\0', quote.askPrice,
+                            quote.askSize, '\0', quote.timestampEpochNanos, receiveNanoTime);
+                }
+                if (tickStore != null && quote.symbol != null) {
+                    tickStore.appendQuote(quote.symbol, quote.timestampEpochNanos, quote.bidPrice, quote.bidSize,
+                            '\0', quote.askPrice, quote.askSize, '\0', null);
+                }
+                recordDecodedMessage(messageType, quote.timestampEpochNanos);
+                listener.onQuote(quote);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void decodeTrade() {
+        trade.clear();
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            scanner.nextName();
+            if (scanner.stringEquals("S")) {
+                scanner.nextString();
+                trade.symbolID = getScannedSymbolID();
+                trade.symbol = symbolDictionary.getSymbol(trade.symbolID);
+            } else if (scanner.stringEquals("i")) {
+                trade.tradeID = scanner.nextLong();
+            } else if (scanner.stringEquals("p")) {
+                trade.price = scanner.nextDouble();
+            } else if (scanner.stringEquals("s")) {
+                trade.size = scanner.nextDouble();
+            } else if (scanner.stringEquals("t")) {
+                trade.timestampEpochNanos = scanner.nextEpochNanos();
+            } else if (scanner.stringEquals("tks")) {
+                trade.takerSide = scanner.nextChar();
+            } else {
+                scanner.skipValue();
+            }
+        }
+        scanner.endObject();
+    }
+
+    private void decodeQuote() {
+        quote.clear();
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            scanner.nextName();
+            if (scanner.stringEquals("S")) {
+                scanner.nextString();
+                quote.symbolID = getScannedSymbolID();
+                quote.symbol = symbolDictionary.getSymbol(quote.symbolID);
+            } else if (scanner.stringEquals("ap")) {
+                quote.askPrice = scanner.nextDouble();
+            } else if (scanner.stringEquals("as")) {
+                quote.askSize = scanner.nextDouble();
+            } else if (scanner.stringEquals("bp")) {
+                quote.bidPrice = scanner.nextDouble();
+            } else if (scanner.stringEquals("bs")) {
+                quote.bidSize = scanner.nextDouble();
+            } else if (scanner.stringEquals("t")) {
+                quote.timestampEpochNanos = scanner.nextEpochNanos();
+            } else {
+                scanner.skipValue();
+            }
+        }
+        scanner.endObject();
+    }
+}
@@ -0,0 +1,94 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.bar.CryptoBarMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.trade.CryptoTradeMessage;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfillClient;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfiller;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType.MINUTE_BARS;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType.TRADES;
+
+/**
+ * {@link CryptoMarketDataBackfiller} is a {@link MarketDataBackfiller} for {@link CryptoMarketDataWebsocket} trades
+ * and minute bars.
+ */
+public class CryptoMarketDataBackfiller implements MarketDataBackfiller<CryptoMarketDataMessageType> {
+
+    private final MarketDataBackfillClient backfillClient;
+    private final CryptoMarketDataWebsocketInterface cryptoMarketDataWebsocket;
+
+    /**
+     * Instantiates a new {@link CryptoMarketDataBackfiller}.
+     *
+     * @param backfillClient            the {@link MarketDataBackfillClient}
+     * @param cryptoMarketDataWebsocket the {@link CryptoMarketDataWebsocketInterface} to get subscriptions from
+     */
+    public CryptoMarketDataBackfiller(MarketDataBackfillClient backfillClient,
+            CryptoMarketDataWebsocketInterface cryptoMarketDataWebsocket) {
+        this.backfillClient = backfillClient;
+        this.cryptoMarketDataWebsocket = cryptoMarketDataWebsocket;
+    }
+
+    @Override
+    public boolean isBackfillable(CryptoMarketDataMessageType messageType) {
+        return messageType == TRADES || messageType == MINUTE_BARS;
+    }
+
+    @Override
+    public Set<String> getSubscribedSymbols(CryptoMarketDataMessageType messageType) {
+        switch (messageType) {
+            case TRADES:
+                return cryptoMarketDataWebsocket.getTradeSubscriptions();
+            case MINUTE_BARS:
+                return cryptoMarketDataWebsocket.getMinuteBarSubscriptions();
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public List<? extends MarketDataMessage> fetch(CryptoMarketDataMessageType messageType, String symbol,
+            RFC3339Timestamp start) throws IOException {
+        switch (messageType) {
+            case TRADES:
+                final List<CryptoTradeMessage> trades = backfillClient.getMessages("v1beta3/crypto/us/trades",
+                        Map.of("start", start.toString()),
+                        symbol, "trades", CryptoTradeMessage.class);
+                trades.forEach(trade -> trade.setMessageType(TRADES));
+                return trades;
+            case MINUTE_BARS:
+                // Only request completed bars since the bar of the current minute is streamed when it completes
+                final List<CryptoBarMessage> bars = backfillClient.getMessages("v1beta3/crypto/us/bars",
+                        Map.of("start", start.toString(),
+                                "end", Instant.now().truncatedTo(MINUTES).minusNanos(1).toString(),
+                                "timeframe", "1Min"),
+                        symbol, "bars", CryptoBarMessage.class);
+                bars.forEach(bar -> bar.setMessageType(MINUTE_BARS));
+                return bars;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public Object getDeduplicationKey(CryptoMarketDataMessageType messageType, MarketDataMessage message) {
+        switch (messageType) {
+            case TRADES:
+                return ((CryptoTradeMessage) message).getTradeID();
+            case MINUTE_BARS:
+                return ((CryptoBarMessage) message).getRfc3339Timestamp();
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+}
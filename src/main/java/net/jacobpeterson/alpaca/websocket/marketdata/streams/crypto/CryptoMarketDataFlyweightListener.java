@@ -0,0 +1,23 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
+
+/**
+ * {@link CryptoMarketDataFlyweightListener} defines an allocation-free listener interface for
+ * {@link CryptoMarketDataWebsocketInterface} trade and quote messages. The given flyweight instances are reused for
+ * every message, so they are only valid for the duration of the callback.
+ */
+public interface CryptoMarketDataFlyweightListener {
+
+    /**
+     * Called when a trade is received.
+     *
+     * @param trade the {@link CryptoTradeFlyweight}
+     */
+    void onTrade(CryptoTradeFlyweight trade);
+
+    /**
+     * Called when a quote is received.
+     *
+     * @param quote the {@link CryptoQuoteFlyweight}
+     */
+    void onQuote(CryptoQuoteFlyweight quote);
+}
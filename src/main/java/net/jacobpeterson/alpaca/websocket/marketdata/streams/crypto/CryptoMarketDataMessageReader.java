@@ -0,0 +1,187 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
+
+import com.google.gson.stream.JsonReader;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.bar.CryptoBarMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.control.CryptoSubscriptionsMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.orderbook.CryptoOrderBookEntry;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.orderbook.CryptoOrderBookMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.quote.CryptoQuoteMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.trade.CryptoTradeMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.trade.CryptoTradeTakerSide;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.google.gson.stream.JsonToken.NULL;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextBooleanOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextDoubleOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextLongOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextRFC3339TimestampOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextStringOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextStringSetOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextSymbolOrNull;
+
+/**
+ * {@link CryptoMarketDataMessageReader} reads {@link CryptoMarketDataMessage}s directly from a {@link JsonReader}
+ * without building an intermediate JSON tree. Each <code>read</code> method consumes the remaining properties of a
+ * message object whose <code>"T"</code> property has already been read, but does not consume the end of the object.
+ */
+public final class CryptoMarketDataMessageReader {
+
+    /**
+     * Reads a {@link CryptoMarketDataMessage} of the given {@link CryptoMarketDataMessageType}.
+     *
+     * @param messageType      the {@link CryptoMarketDataMessageType}
+     * @param reader           the {@link JsonReader}
+     * @param symbolDictionary the {@link SymbolDictionary} that symbols are resolved against
+     *
+     * @return the {@link CryptoMarketDataMessage}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static CryptoMarketDataMessage read(CryptoMarketDataMessageType messageType, JsonReader reader,
+            SymbolDictionary symbolDictionary) throws IOException {
+        final CryptoMarketDataMessage message;
+        switch (messageType) {
+            case TRADES:
+                message = readTrade(reader, symbolDictionary);
+                break;
+            case QUOTES:
+                message = readQuote(reader, symbolDictionary);
+                break;
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                message = readBar(reader, symbolDictionary);
+                break;
+            case ORDER_BOOKS:
+                message = readOrderBook(reader, symbolDictionary);
+                break;
+            case SUBSCRIPTION:
+                message = readSubscriptions(reader);
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+        message.setMessageType(messageType);
+        return message;
+    }
+
+    private static CryptoTradeMessage readTrade(JsonReader reader, SymbolDictionary symbolDictionary)
+            throws IOException {
+        final CryptoTradeMessage trade = new CryptoTradeMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> trade.setSymbol(nextSymbolOrNull(reader, symbolDictionary, trade));
+                case "i" -> trade.setTradeID(nextLongOrNull(reader));
+                case "p" -> trade.setPrice(nextDoubleOrNull(reader));
+                case "s" -> trade.setSize(nextDoubleOrNull(reader));
+                case "t" -> trade.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "tks" -> {
+                    final String takerSide = nextStringOrNull(reader);
+                    trade.setTakerSide(takerSide == null ? null : CryptoTradeTakerSide.fromValue(takerSide));
+                }
+                default -> reader.skipValue();
+            }
+        }
+        return trade;
+    }
+
+    private static CryptoQuoteMessage readQuote(JsonReader reader, SymbolDictionary symbolDictionary)
+            throws IOException {
+        final CryptoQuoteMessage quote = new CryptoQuoteMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> quote.setSymbol(nextSymbolOrNull(reader, symbolDictionary, quote));
+                case "ap" -> quote.setAskPrice(nextDoubleOrNull(reader));
+                case "as" -> quote.setAskSize(nextDoubleOrNull(reader));
+                case "bp" -> quote.setBidPrice(nextDoubleOrNull(reader));
+                case "bs" -> quote.setBidSize(nextDoubleOrNull(reader));
+                case "t" -> quote.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return quote;
+    }
+
+    private static CryptoBarMessage readBar(JsonReader reader, SymbolDictionary symbolDictionary) throws IOException {
+        final CryptoBarMessage bar = new CryptoBarMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> bar.setSymbol(nextSymbolOrNull(reader, symbolDictionary, bar));
+                case "o" -> bar.setOpen(nextDoubleOrNull(reader));
+                case "h" -> bar.setHigh(nextDoubleOrNull(reader));
+                case "l" -> bar.setLow(nextDoubleOrNull(reader));
+                case "c" -> bar.setClose(nextDoubleOrNull(reader));
+                case "t" -> bar.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "v" -> bar.setVolume(nextLongOrNull(reader));
+                case "n" -> bar.setTradeCount(nextLongOrNull(reader));
+                case "vw" -> bar.setVwap(nextDoubleOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return bar;
+    }
+
+    private static CryptoOrderBookMessage readOrderBook(JsonReader reader, SymbolDictionary symbolDictionary)
+            throws IOException {
+        final CryptoOrderBookMessage orderBook = new CryptoOrderBookMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> orderBook.setSymbol(nextSymbolOrNull(reader, symbolDictionary, orderBook));
+                case "a" -> orderBook.setAsks(readOrderBookEntries(reader));
+                case "b" -> orderBook.setBids(readOrderBookEntries(reader));
+                case "t" -> orderBook.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "r" -> orderBook.setReset(nextBooleanOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return orderBook;
+    }
+
+    private static Set<CryptoOrderBookEntry> readOrderBookEntries(JsonReader reader) throws IOException {
+        if (reader.peek() == NULL) {
+            reader.nextNull();
+            return null;
+        }
+        final Set<CryptoOrderBookEntry> entries = new LinkedHashSet<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            final CryptoOrderBookEntry entry = new CryptoOrderBookEntry();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "p" -> entry.setPrice(nextDoubleOrNull(reader));
+                    case "s" -> entry.setSize(nextDoubleOrNull(reader));
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            entries.add(entry);
+        }
+        reader.endArray();
+        return entries;
+    }
+
+    private static CryptoSubscriptionsMessage readSubscriptions(JsonReader reader) throws IOException {
+        final CryptoSubscriptionsMessage subscriptions = new CryptoSubscriptionsMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "trades" -> subscriptions.setTrades(nextStringSetOrNull(reader));
+                case "quotes" -> subscriptions.setQuotes(nextStringSetOrNull(reader));
+                case "bars" -> subscriptions.setMinuteBars(nextStringSetOrNull(reader));
+                case "dailyBars" -> subscriptions.setDailyBars(nextStringSetOrNull(reader));
+                case "updatedBars" -> subscriptions.setUpdatedBars(nextStringSetOrNull(reader));
+                case "orderbooks" -> subscriptions.setOrderBooks(nextStringSetOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return subscriptions;
+    }
+
+    private CryptoMarketDataMessageReader() {}
+}
@@ -1,22 +1,38 @@
 package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.bar.CryptoBarMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.control.CryptoSubscriptionsMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.orderbook.CryptoOrderBookMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.quote.CryptoQuoteMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.trade.CryptoTradeMessage;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
 import net.jacobpeterson.alpaca.websocket.marketdata.MarketDataWebsocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfillClient;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfiller;
+import net.jacobpeterson.alpaca.websocket.marketdata.cache.MarketDataCache;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.orderbook.CryptoOrderBook;
+import net.jacobpeterson.alpaca.websocket.marketdata.tickstore.TickStore;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType.ERROR;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType.MINUTE_BARS;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType.ORDER_BOOKS;
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType.SUBSCRIPTION;
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType.SUCCESS;
-import static net.jacobpeterson.alpaca.openapi.marketdata.JSON.getGson;
 
 /**
  * {@link CryptoMarketDataWebsocket} is an implementation for {@link CryptoMarketDataWebsocketInterface}.
@@ -25,6 +41,8 @@ public class CryptoMarketDataWebsocket
         extends MarketDataWebsocket<CryptoMarketDataMessageType, CryptoSubscriptionsMessage, CryptoMarketDataListener>
         implements CryptoMarketDataWebsocketInterface {
 
+    private volatile Map<String, CryptoOrderBook> orderBooks;
+
     /**
      * Instantiates a new {@link CryptoMarketDataWebsocket}.
      *
@@ -36,13 +54,45 @@ public class CryptoMarketDataWebsocket
      */
     public CryptoMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
             String brokerAPIKey, String brokerAPISecret) {
-        super(okHttpClient, new HttpUrl.Builder()
-                        .scheme("https")
-                        .host("stream.data.alpaca.markets")
+        this(okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, null);
+    }
+
+    /**
+     * Instantiates a new {@link CryptoMarketDataWebsocket}.
+     *
+     * @param okHttpClient     the {@link OkHttpClient}
+     * @param traderKeyID      the trader key ID
+     * @param traderSecretKey  the trader secret key
+     * @param brokerAPIKey     the broker API key
+     * @param brokerAPISecret  the broker API secret
+     * @param websocketBaseURL the websocket base {@link HttpUrl} that overrides the Alpaca stream host (e.g. a local
+     *                         stand-in server) or <code>null</code> for the default
+     */
+    public CryptoMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, HttpUrl websocketBaseURL) {
+        this(okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, new SymbolDictionary(),
+                websocketBaseURL);
+    }
+
+    /**
+     * Instantiates a new {@link CryptoMarketDataWebsocket}.
+     *
+     * @param okHttpClient     the {@link OkHttpClient}
+     * @param traderKeyID      the trader key ID
+     * @param traderSecretKey  the trader secret key
+     * @param brokerAPIKey     the broker API key
+     * @param brokerAPISecret  the broker API secret
+     * @param symbolDictionary the {@link SymbolDictionary}, which may be shared with other websockets
+     * @param websocketBaseURL the websocket base {@link HttpUrl} that overrides the Alpaca stream host (e.g. a local
+     *                         stand-in server) or <code>null</code> for the default
+     */
+    public CryptoMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, SymbolDictionary symbolDictionary, HttpUrl websocketBaseURL) {
+        super(okHttpClient, newWebsocketURLBuilder(websocketBaseURL, "stream.data.alpaca.markets")
                         .addPathSegments("v1beta3/crypto/us")
                         .build(),
                 "Crypto", traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret,
-                CryptoMarketDataMessageType.class, CryptoSubscriptionsMessage.class);
+                CryptoMarketDataMessageType.class, CryptoSubscriptionsMessage.class, symbolDictionary);
     }
 
     @Override
@@ -61,36 +111,258 @@ public class CryptoMarketDataWebsocket
     }
 
     @Override
-    protected void callListenerWithMessage(CryptoMarketDataMessageType messageType, JsonObject messageObject) {
+    protected boolean isConflatableMessageType(CryptoMarketDataMessageType messageType) {
+        switch (messageType) {
+            case TRADES:
+            case QUOTES:
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                return true;
+            default: // Order book messages are incremental updates
+                return false;
+        }
+    }
+
+    @Override
+    protected Class<? extends MarketDataMessage> getMessageClass(CryptoMarketDataMessageType messageType) {
         switch (messageType) {
             case TRADES:
-                listener.onTrade(getGson().fromJson(messageObject, CryptoTradeMessage.class));
+                return CryptoTradeMessage.class;
+            case QUOTES:
+                return CryptoQuoteMessage.class;
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                return CryptoBarMessage.class;
+            case ORDER_BOOKS:
+                return CryptoOrderBookMessage.class;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    protected MarketDataMessage readMessage(CryptoMarketDataMessageType messageType, JsonReader reader)
+            throws IOException {
+        return CryptoMarketDataMessageReader.read(messageType, reader, symbolDictionary);
+    }
+
+    @Override
+    protected String getMessageSymbol(CryptoMarketDataMessageType messageType, MarketDataMessage message) {
+        switch (messageType) {
+            case TRADES:
+                return ((CryptoTradeMessage) message).getSymbol();
+            case QUOTES:
+                return ((CryptoQuoteMessage) message).getSymbol();
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                return ((CryptoBarMessage) message).getSymbol();
+            case ORDER_BOOKS:
+                return ((CryptoOrderBookMessage) message).getSymbol();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    protected RFC3339Timestamp getMessageTimestamp(CryptoMarketDataMessageType messageType,
+            MarketDataMessage message) {
+        switch (messageType) {
+            case TRADES:
+                return ((CryptoTradeMessage) message).getRfc3339Timestamp();
+            case QUOTES:
+                return ((CryptoQuoteMessage) message).getRfc3339Timestamp();
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                return ((CryptoBarMessage) message).getRfc3339Timestamp();
+            case ORDER_BOOKS:
+                return ((CryptoOrderBookMessage) message).getRfc3339Timestamp();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    protected void cleanupState() {
+        super.cleanupState();
+        final Map<String, CryptoOrderBook> orderBooks = this.orderBooks;
+        if (orderBooks != null) {
+            // Clear the removed books too, so that readers holding on to them don't keep reading a stale book
+            for (CryptoOrderBook orderBook : orderBooks.values()) {
+                orderBook.clear();
+            }
+            orderBooks.clear();
+        }
+    }
+
+    @Override
+    protected boolean isConsumingMessages() {
+        return super.isConsumingMessages() || orderBooks != null;
+    }
+
+    @Override
+    protected void applyStreamedMessage(CryptoMarketDataMessageType messageType, MarketDataMessage message) {
+        if (messageType == ORDER_BOOKS) {
+            final Map<String, CryptoOrderBook> orderBooks = this.orderBooks;
+            if (orderBooks != null) {
+                final CryptoOrderBookMessage orderBookMessage = (CryptoOrderBookMessage) message;
+                if (orderBookMessage.getSymbol() != null) {
+                    orderBooks.computeIfAbsent(orderBookMessage.getSymbol(), CryptoOrderBook::new)
+                            .apply(orderBookMessage);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void callListenerWithMessage(CryptoMarketDataMessageType messageType, MarketDataMessage message) {
+        if (listener == null) {
+            return;
+        }
+
+        switch (messageType) {
+            case TRADES:
+                listener.onTrade((CryptoTradeMessage) message);
                 break;
             case QUOTES:
-                listener.onQuote(getGson().fromJson(messageObject, CryptoQuoteMessage.class));
+                listener.onQuote((CryptoQuoteMessage) message);
                 break;
             case MINUTE_BARS:
-                listener.onMinuteBar(getGson().fromJson(messageObject, CryptoBarMessage.class));
+                listener.onMinuteBar((CryptoBarMessage) message);
                 break;
             case DAILY_BARS:
-                listener.onDailyBar(getGson().fromJson(messageObject, CryptoBarMessage.class));
+                listener.onDailyBar((CryptoBarMessage) message);
                 break;
             case UPDATED_BARS:
-                listener.onUpdatedBar(getGson().fromJson(messageObject, CryptoBarMessage.class));
+                listener.onUpdatedBar((CryptoBarMessage) message);
                 break;
             case ORDER_BOOKS:
-                listener.onOrderBook(getGson().fromJson(messageObject, CryptoOrderBookMessage.class));
+                listener.onOrderBook((CryptoOrderBookMessage) message);
                 break;
             default:
                 throw new UnsupportedOperationException();
         }
     }
 
+    @Override
+    protected void updateTickStore(TickStore tickStore, CryptoMarketDataMessageType messageType,
+            MarketDataMessage message) {
+        switch (messageType) {
+            case TRADES:
+                tickStore.appendTrade((CryptoTradeMessage) message);
+                break;
+            case QUOTES:
+                tickStore.appendQuote((CryptoQuoteMessage) message);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    protected void updateMarketDataCache(MarketDataCache marketDataCache, CryptoMarketDataMessageType messageType,
+            MarketDataMessage message, long receiveNanoTime) {
+        switch (messageType) {
+            case TRADES:
+                final CryptoTradeMessage trade = (CryptoTradeMessage) message;
+                if (trade.getSymbol() != null && trade.getRfc3339Timestamp() != null) {
+                    marketDataCache.updateTrade(trade.getSymbol(),
+                            trade.getPrice() == null ? Double.NaN : trade.getPrice(),
+                            trade.getSize() == null ? 0 : trade.getSize(),
+                            trade.getTradeID() == null ? 0 : trade.getTradeID(),
+                            '\0', trade.getTimestampEpochNanos(), receiveNanoTime);
+                }
+                break;
+            case QUOTES:
+                final CryptoQuoteMessage quote = (CryptoQuoteMessage) message;
+                if (quote.getSymbol() != null && quote.getRfc3339Timestamp() != null) {
+                    marketDataCache.updateQuote(quote.getSymbol(),
+                            quote.getBidPrice() == null ? Double.NaN : quote.getBidPrice(),
+                            quote.getBidSize() == null ? 0 : quote.getBidSize(), '\0',
+                            quote.getAskPrice() == null ? Double.NaN : quote.getAskPrice(),
+                            quote.getAskSize() == null ? 0 : quote.getAskSize(), '\0',
+                            quote.getTimestampEpochNanos(), receiveNanoTime);
+                }
+                break;
+            case MINUTE_BARS:
+            case DAILY_BARS:
+                final CryptoBarMessage bar = (CryptoBarMessage) message;
+                if (bar.getSymbol() == null || bar.getRfc3339Timestamp() == null) {
+                    break;
+                }
+                final double open = bar.getOpen() == null ? Double.NaN : bar.getOpen();
+                final double high = bar.getHigh() == null ? Double.NaN : bar.getHigh();
+                final double low = bar.getLow() == null ? Double.NaN : bar.getLow();
+                final double close = bar.getClose() == null ? Double.NaN : bar.getClose();
+                final double volume = bar.getVolume() == null ? 0 : bar.getVolume();
+                final long tradeCount = bar.getTradeCount() == null ? 0 : bar.getTradeCount();
+                final double vwap = bar.getVwap() == null ? Double.NaN : bar.getVwap();
+                if (messageType == MINUTE_BARS) {
+                    marketDataCache.updateMinuteBar(bar.getSymbol(), open, high, low, close, volume, tradeCount,
+                            vwap, bar.getTimestampEpochNanos(), receiveNanoTime);
+                } else {
+                    marketDataCache.updateDailyBar(bar.getSymbol(), open, high, low, close, volume, tradeCount,
+                            vwap, bar.getTimestampEpochNanos(), receiveNanoTime);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    protected MarketDataBackfiller<CryptoMarketDataMessageType> createBackfiller(
+            MarketDataBackfillClient backfillClient) {
+        return new CryptoMarketDataBackfiller(backfillClient, this);
+    }
+
+    @Override
+    public boolean usesOrderBooks() {
+        return orderBooks != null;
+    }
+
+    @Override
+    public void setUseOrderBooks(boolean useOrderBooks) {
+        if (useOrderBooks != usesOrderBooks()) {
+            orderBooks = useOrderBooks ? new ConcurrentHashMap<>() : null;
+        }
+    }
+
+    @Override
+    public CryptoOrderBook getOrderBook(String symbol) {
+        final Map<String, CryptoOrderBook> orderBooks = this.orderBooks;
+        return orderBooks == null ? null : orderBooks.get(symbol);
+    }
+
+    @Override
+    public Map<String, CryptoOrderBook> getOrderBooks() {
+        final Map<String, CryptoOrderBook> orderBooks = this.orderBooks;
+        return orderBooks == null ? Map.of() : Collections.unmodifiableMap(orderBooks);
+    }
+
     @Override
     public void setListener(CryptoMarketDataListener listener) {
         this.listener = listener;
     }
 
+    @Override
+    public AlpacaPublisher<CryptoMarketDataMessage> createPublisher(int bufferCapacity,
+            PublisherOverflowPolicy overflowPolicy) {
+        final AlpacaPublisher<CryptoMarketDataMessage> publisher =
+                new AlpacaPublisher<>(websocketName, bufferCapacity, overflowPolicy);
+        addPublisher(publisher);
+        return publisher;
+    }
+
+    @Override
+    public void setFlyweightListener(CryptoMarketDataFlyweightListener flyweightListener) {
+        flyweightMessageDecoder = flyweightListener == null ? null :
+                new CryptoFlyweightMessageDecoder(symbolDictionary, flyweightListener);
+    }
+
     @Override
     public void setTradeSubscriptions(Set<String> symbols) {
         symbols = symbols == null ? Set.of() : symbols;
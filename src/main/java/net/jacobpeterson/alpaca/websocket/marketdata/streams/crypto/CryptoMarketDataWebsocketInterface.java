@@ -1,8 +1,18 @@
 package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
 
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.orderbook.CryptoOrderBookMessage;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
 import net.jacobpeterson.alpaca.websocket.marketdata.MarketDataWebsocketInterface;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.ConflatingDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.MarketDataDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferOverflowPolicy;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.orderbook.CryptoOrderBook;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetrySnapshot;
 
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -18,6 +28,34 @@ public interface CryptoMarketDataWebsocketInterface extends MarketDataWebsocketI
      */
     void setListener(CryptoMarketDataListener listener);
 
+    /**
+     * Creates a new {@link AlpacaPublisher} view of this stream, which is a {@link java.util.concurrent.Flow.Publisher}
+     * of all decoded {@link CryptoMarketDataMessage}s of the subscribed symbols and channels. Each subscriber has its
+     * own buffer of up to <code>bufferCapacity</code> messages and only receives as many messages as it has requested,
+     * so any number of subscribers and publishers share this one websocket connection. Messages are published after
+     * they are passed to the {@link CryptoMarketDataListener}, if any. Subscriptions are still set on this stream. Call
+     * {@link AlpacaPublisher#close()} to complete the subscribers and detach the {@link AlpacaPublisher} from this
+     * stream.
+     *
+     * @param bufferCapacity the maximum number of buffered messages of each subscriber
+     * @param overflowPolicy the {@link PublisherOverflowPolicy} used when a subscriber's buffer is full
+     *
+     * @return the {@link AlpacaPublisher}
+     */
+    AlpacaPublisher<CryptoMarketDataMessage> createPublisher(int bufferCapacity,
+            PublisherOverflowPolicy overflowPolicy);
+
+    /**
+     * Sets the {@link CryptoMarketDataFlyweightListener}. While set, trade and quote messages are decoded into
+     * reusable, primitive-backed flyweights and passed to it instead of to the {@link CryptoMarketDataListener},
+     * without allocating per message in the steady state. All other messages are still passed to the
+     * {@link CryptoMarketDataListener}. This only applies to JSON (text framed) messages, not MessagePack messages.
+     *
+     * @param flyweightListener the {@link CryptoMarketDataFlyweightListener} or <code>null</code> to disable
+     *                          flyweight decoding
+     */
+    void setFlyweightListener(CryptoMarketDataFlyweightListener flyweightListener);
+
     /**
      * Subscribes the given <code>symbols</code> to {@link CryptoMarketDataMessageType#TRADES}. This will remove all
      * previous {@link CryptoMarketDataMessageType#QUOTES} subscriptions.
@@ -113,4 +151,69 @@ public interface CryptoMarketDataWebsocketInterface extends MarketDataWebsocketI
      * @return a {@link Set} of {@link String} symbols
      */
     Set<String> getOrderBookSubscriptions();
+
+    /**
+     * Returns <code>true</code> if this websocket maintains a local {@link CryptoOrderBook} for each symbol,
+     * <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    boolean usesOrderBooks();
+
+    /**
+     * Sets whether to maintain a local {@link CryptoOrderBook} for each symbol subscribed to
+     * {@link CryptoMarketDataMessageType#ORDER_BOOKS} by applying each received {@link CryptoOrderBookMessage} on the
+     * websocket reader thread before it is dispatched, so the {@link CryptoOrderBook} is already up-to-date when
+     * {@link CryptoMarketDataListener#onOrderBook(CryptoOrderBookMessage)} is called and stays complete even if the
+     * {@link MarketDataDispatcher} drops or conflates {@link CryptoOrderBookMessage}s. With asynchronous dispatch, the
+     * {@link CryptoOrderBook} may already include later {@link CryptoOrderBookMessage}s than the one passed to the
+     * listener. {@link CryptoOrderBook}s can be read from any thread and are cleared and removed when this websocket
+     * disconnects. <code>false</code> by default.
+     *
+     * @param useOrderBooks <code>true</code> to maintain {@link CryptoOrderBook}s, <code>false</code> otherwise
+     */
+    void setUseOrderBooks(boolean useOrderBooks);
+
+    /**
+     * Gets the {@link CryptoOrderBook} of the given <code>symbol</code>.
+     *
+     * @param symbol the symbol
+     *
+     * @return the {@link CryptoOrderBook} or <code>null</code> if {@link #usesOrderBooks()} is <code>false</code> or
+     * no {@link CryptoOrderBookMessage} has been received for the <code>symbol</code> yet
+     */
+    CryptoOrderBook getOrderBook(String symbol);
+
+    /**
+     * Gets an unmodifiable view of the {@link CryptoOrderBook}s keyed by symbol.
+     *
+     * @return a {@link Map} of {@link String} symbols to {@link CryptoOrderBook}s
+     */
+    Map<String, CryptoOrderBook> getOrderBooks();
+
+    /**
+     * Enables conflating dispatch for slow listeners that only need the latest message of each symbol, such as
+     * dashboards and risk monitors. Decoded messages are passed to the {@link CryptoMarketDataListener} on a dedicated daemon
+     * thread. While the listener is busy, a message of one of the <code>conflatedMessageTypes</code> overwrites the
+     * pending message of the same type and symbol, if any, so the listener only receives the latest message of each
+     * pending symbol. The memory usage and listener load are therefore bounded by the number of symbols, regardless of
+     * the feed rate. Messages of other types are passed through in order. Flyweight listeners are still called on the
+     * websocket reader thread and are never conflated. This replaces (and shuts down) the current
+     * {@link MarketDataDispatcher}. Use {@link MarketDataDispatcher#getConflatedMessageCount()} via
+     * {@link #getDispatcher()} or {@link MarketDataTelemetrySnapshot#getConflatedMessageCount()} to monitor how many
+     * messages were conflated.
+     * <br>
+     * {@link CryptoMarketDataMessageType#ORDER_BOOKS} can't be conflated since order book messages are
+     * incremental updates.
+     *
+     * @param conflatedMessageTypes     the {@link Set} of {@link CryptoMarketDataMessageType}s to conflate (e.g.
+     *                                  {@link CryptoMarketDataMessageType#QUOTES})
+     * @param passthroughCapacity       the maximum number of pending messages of the other message types
+     * @param passthroughOverflowPolicy the {@link RingBufferOverflowPolicy} used when a message of the other message
+     *                                  types is dispatched while <code>passthroughCapacity</code> is reached
+     *
+     * @see ConflatingDispatcher
+     */
+    void setConflatingDispatch(Set<CryptoMarketDataMessageType> conflatedMessageTypes, int passthroughCapacity,
+            RingBufferOverflowPolicy passthroughOverflowPolicy);
 }
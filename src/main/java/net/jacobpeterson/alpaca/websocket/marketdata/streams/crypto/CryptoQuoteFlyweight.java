@@ -0,0 +1,108 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.quote.CryptoQuoteMessage;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+
+/**
+ * {@link CryptoQuoteFlyweight} is a reusable, mutable, primitive-backed view of a {@link CryptoQuoteMessage}. An
+ * instance is only valid for the duration of a
+ * {@link CryptoMarketDataFlyweightListener#onQuote(CryptoQuoteFlyweight)} callback, so copy any needed values instead
+ * of retaining the instance.
+ */
+public class CryptoQuoteFlyweight {
+
+    int symbolID;
+    String symbol;
+    double askPrice;
+    double askSize;
+    double bidPrice;
+    double bidSize;
+    long timestampEpochNanos;
+
+    CryptoQuoteFlyweight() {}
+
+    /**
+     * Gets the {@link SymbolDictionary} ID of the symbol.
+     *
+     * @return the symbol ID
+     */
+    public int getSymbolID() {
+        return symbolID;
+    }
+
+    /**
+     * Gets the symbol. This is the interned {@link String} from the {@link SymbolDictionary}.
+     *
+     * @return the symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the ask price.
+     *
+     * @return the ask price or {@link Double#NaN} if absent
+     */
+    public double getAskPrice() {
+        return askPrice;
+    }
+
+    /**
+     * Gets the ask size.
+     *
+     * @return the ask size or {@link Double#NaN} if absent
+     */
+    public double getAskSize() {
+        return askSize;
+    }
+
+    /**
+     * Gets the bid price.
+     *
+     * @return the bid price or {@link Double#NaN} if absent
+     */
+    public double getBidPrice() {
+        return bidPrice;
+    }
+
+    /**
+     * Gets the bid size.
+     *
+     * @return the bid size or {@link Double#NaN} if absent
+     */
+    public double getBidSize() {
+        return bidSize;
+    }
+
+    /**
+     * Gets the timestamp as epoch nanoseconds.
+     *
+     * @return the timestamp epoch nanoseconds or {@link Long#MIN_VALUE} if absent
+     */
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    void clear() {
+        symbolID = SymbolDictionary.NO_ID;
+        symbol = null;
+        askPrice = Double.NaN;
+        askSize = Double.NaN;
+        bidPrice = Double.NaN;
+        bidSize = Double.NaN;
+        timestampEpochNanos = Long.MIN_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoQuoteFlyweight{" +
+                "symbol=" + symbol +
+                ", askPrice=" + askPrice +
+                ", askSize=" + askSize +
+                ", bidPrice=" + bidPrice +
+                ", bidSize=" + bidSize +
+                ", timestampEpochNanos=" + timestampEpochNanos +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.trade.CryptoTradeMessage;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+
+/**
+ * {@link CryptoTradeFlyweight} is a reusable, mutable, primitive-backed view of a {@link CryptoTradeMessage}. An
+ * instance is only valid for the duration of a
+ * {@link CryptoMarketDataFlyweightListener#onTrade(CryptoTradeFlyweight)} callback, so copy any needed values instead
+ * of retaining the instance.
+ */
+public class CryptoTradeFlyweight {
+
+    int symbolID;
+    String symbol;
+    long tradeID;
+    double price;
+    double size;
+    long timestampEpochNanos;
+    char takerSide;
+
+    CryptoTradeFlyweight() {}
+
+    /**
+     * Gets the {@link SymbolDictionary} ID of the symbol.
+     *
+     * @return the symbol ID
+     */
+    public int getSymbolID() {
+        return symbolID;
+    }
+
+    /**
+     * Gets the symbol. This is the interned {@link String} from the {@link SymbolDictionary}.
+     *
+     * @return the symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the trade ID.
+     *
+     * @return the trade ID
+     */
+    public long getTradeID() {
+        return tradeID;
+    }
+
+    /**
+     * Gets the trade price.
+     *
+     * @return the trade price or {@link Double#NaN} if absent
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Gets the trade size.
+     *
+     * @return the trade size or {@link Double#NaN} if absent
+     */
+    public double getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the timestamp as epoch nanoseconds.
+     *
+     * @return the timestamp epoch nanoseconds or {@link Long#MIN_VALUE} if absent
+     */
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    /**
+     * Gets the taker side: <code>'B'</code> for buy or <code>'S'</code> for sell.
+     *
+     * @return the taker side or <code>'\0'</code> if absent
+     */
+    public char getTakerSide() {
+        return takerSide;
+    }
+
+    void clear() {
+        symbolID = SymbolDictionary.NO_ID;
+        symbol = null;
+        tradeID = 0;
+        price = Double.NaN;
+        size = Double.NaN;
+        timestampEpochNanos = Long.MIN_VALUE;
+        takerSide = '\0';
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoTradeFlyweight{" +
+                "symbol=" + symbol +
+                ", tradeID=" + tradeID +
+                ", price=" + price +
+                ", size=" + size +
+                ", timestampEpochNanos=" + timestampEpochNanos +
+                ", takerSide=" + takerSide +
+                '}';
+    }
+}
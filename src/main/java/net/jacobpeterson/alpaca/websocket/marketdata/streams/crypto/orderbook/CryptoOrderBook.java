@@ -0,0 +1,406 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.orderbook;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.orderbook.CryptoOrderBookEntry;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.orderbook.CryptoOrderBookMessage;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link CryptoOrderBook} is a local level 2 order book of a crypto symbol that is maintained from
+ * {@link CryptoOrderBookMessage}s. A {@link CryptoOrderBookMessage} with {@link CryptoOrderBookMessage#getReset()}
+ * replaces the whole book, and any other {@link CryptoOrderBookMessage} updates individual price levels, where a size
+ * of <code>0</code> deletes the price level.
+ * <p>
+ * Each side is stored as primitive price and size arrays sorted so that the best price level is last, which makes the
+ * best bid and ask <code>O(1)</code> and keeps the updates near the top of the book cheap. A {@link CryptoOrderBook}
+ * must only be updated by one thread at a time, but it can be read from any thread. Reads use optimistic
+ * {@link StampedLock} reads and retry if an update happened concurrently, so readers never block the updating thread
+ * and always see the book as of a whole {@link CryptoOrderBookMessage}.
+ */
+public class CryptoOrderBook {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String symbol;
+    private final StampedLock lock;
+    private final PriceLevels bids;
+    private final PriceLevels asks;
+    private long timestampEpochNanos;
+    private long updateCount;
+
+    /**
+     * Instantiates a new {@link CryptoOrderBook}.
+     *
+     * @param symbol the symbol
+     */
+    public CryptoOrderBook(String symbol) {
+        this.symbol = symbol;
+        lock = new StampedLock();
+        bids = new PriceLevels(true);
+        asks = new PriceLevels(false);
+        timestampEpochNanos = Long.MIN_VALUE;
+    }
+
+    /**
+     * Applies the given {@link CryptoOrderBookMessage} to this {@link CryptoOrderBook}. This must not be called
+     * concurrently.
+     *
+     * @param orderBookMessage the {@link CryptoOrderBookMessage}
+     */
+    public void apply(CryptoOrderBookMessage orderBookMessage) {
+        final long stamp = lock.writeLock(); // Readers never hold the lock, so this never blocks
+        try {
+            if (Boolean.TRUE.equals(orderBookMessage.getReset())) {
+                bids.clear();
+                asks.clear();
+            }
+            applyEntries(bids, orderBookMessage.getBids());
+            applyEntries(asks, orderBookMessage.getAsks());
+            final RFC3339Timestamp timestamp = orderBookMessage.getRfc3339Timestamp();
+            if (timestamp != null) {
+                timestampEpochNanos = timestamp.getEpochNanos();
+            }
+            updateCount++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static void applyEntries(PriceLevels priceLevels, Set<CryptoOrderBookEntry> entries) {
+        if (entries == null) {
+            return;
+        }
+        for (CryptoOrderBookEntry entry : entries) {
+            if (entry.getPrice() != null && entry.getSize() != null) {
+                priceLevels.update(entry.getPrice(), entry.getSize());
+            }
+        }
+    }
+
+    /**
+     * Removes all price levels, which counts as an update. This must not be called concurrently with
+     * {@link #apply(CryptoOrderBookMessage)}.
+     */
+    public void clear() {
+        final long stamp = lock.writeLock();
+        try {
+            bids.clear();
+            asks.clear();
+            timestampEpochNanos = Long.MIN_VALUE;
+            updateCount++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the best (highest) bid price.
+     *
+     * @return the best bid price or {@link Double#NaN} if there are no bids
+     */
+    public double getBestBidPrice() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final double price = bids.getBestPrice();
+            if (lock.validate(stamp)) {
+                return price;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets the size of the best bid.
+     *
+     * @return the best bid size or {@link Double#NaN} if there are no bids
+     */
+    public double getBestBidSize() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final double size = bids.getBestSize();
+            if (lock.validate(stamp)) {
+                return size;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets the best (lowest) ask price.
+     *
+     * @return the best ask price or {@link Double#NaN} if there are no asks
+     */
+    public double getBestAskPrice() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final double price = asks.getBestPrice();
+            if (lock.validate(stamp)) {
+                return price;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets the size of the best ask.
+     *
+     * @return the best ask size or {@link Double#NaN} if there are no asks
+     */
+    public double getBestAskSize() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final double size = asks.getBestSize();
+            if (lock.validate(stamp)) {
+                return size;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets the mid-price between the best bid and the best ask, consistently read from the same book state.
+     *
+     * @return the mid-price or {@link Double#NaN} if either side is empty
+     */
+    public double getMidPrice() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final double midPrice = (bids.getBestPrice() + asks.getBestPrice()) / 2;
+            if (lock.validate(stamp)) {
+                return midPrice;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets the spread between the best ask and the best bid, consistently read from the same book state.
+     *
+     * @return the spread or {@link Double#NaN} if either side is empty
+     */
+    public double getSpread() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final double spread = asks.getBestPrice() - bids.getBestPrice();
+            if (lock.validate(stamp)) {
+                return spread;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Copies up to <code>prices.length</code> bid price levels, best first, into the given arrays without allocating.
+     *
+     * @param prices the price array
+     * @param sizes  the size array, at least as long as <code>prices</code>
+     *
+     * @return the number of copied price levels
+     */
+    public int copyBids(double[] prices, double[] sizes) {
+        return copyLevels(bids, prices, sizes);
+    }
+
+    /**
+     * Copies up to <code>prices.length</code> ask price levels, best first, into the given arrays without allocating.
+     *
+     * @param prices the price array
+     * @param sizes  the size array, at least as long as <code>prices</code>
+     *
+     * @return the number of copied price levels
+     */
+    public int copyAsks(double[] prices, double[] sizes) {
+        return copyLevels(asks, prices, sizes);
+    }
+
+    private int copyLevels(PriceLevels priceLevels, double[] prices, double[] sizes) {
+        checkArgument(sizes.length >= prices.length, "sizes must be at least as long as prices!");
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final int count = priceLevels.copy(prices, sizes, prices.length);
+            if (lock.validate(stamp)) {
+                return count;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets a consistent {@link CryptoOrderBookSnapshot} of up to <code>depth</code> price levels of each side.
+     *
+     * @param depth the maximum number of price levels of each side
+     *
+     * @return the {@link CryptoOrderBookSnapshot}
+     */
+    public CryptoOrderBookSnapshot getSnapshot(int depth) {
+        checkArgument(depth >= 0, "depth must not be negative!");
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final int bidDepth = Math.min(depth, bids.getCount());
+            final int askDepth = Math.min(depth, asks.getCount());
+            final double[] bidPrices = new double[bidDepth];
+            final double[] bidSizes = new double[bidDepth];
+            final double[] askPrices = new double[askDepth];
+            final double[] askSizes = new double[askDepth];
+            final int bidCount = bids.copy(bidPrices, bidSizes, bidDepth);
+            final int askCount = asks.copy(askPrices, askSizes, askDepth);
+            final long timestampEpochNanos = this.timestampEpochNanos;
+            final long updateCount = this.updateCount;
+            if (lock.validate(stamp) && bidCount == bidDepth && askCount == askDepth) {
+                return new CryptoOrderBookSnapshot(symbol,
+                        timestampEpochNanos == Long.MIN_VALUE ? null :
+                                RFC3339Timestamp.ofEpochNanos(timestampEpochNanos),
+                        updateCount, bidPrices, bidSizes, askPrices, askSizes);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets a consistent {@link CryptoOrderBookSnapshot} of all price levels.
+     *
+     * @return the {@link CryptoOrderBookSnapshot}
+     */
+    public CryptoOrderBookSnapshot getSnapshot() {
+        return getSnapshot(Integer.MAX_VALUE);
+    }
+
+    public int getBidDepth() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final int count = bids.getCount();
+            if (lock.validate(stamp)) {
+                return count;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public int getAskDepth() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final int count = asks.getCount();
+            if (lock.validate(stamp)) {
+                return count;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the number of updates to this {@link CryptoOrderBook}, which are the applied
+     * {@link CryptoOrderBookMessage}s and the calls to {@link #clear()}. A reader can compare update counts to tell
+     * whether the {@link CryptoOrderBook} changed.
+     *
+     * @return the update count
+     */
+    public long getUpdateCount() {
+        while (true) {
+            final long stamp = lock.tryOptimisticRead();
+            final long updateCount = this.updateCount;
+            if (lock.validate(stamp)) {
+                return updateCount;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoOrderBook{" +
+                "symbol='" + symbol + '\'' +
+                ", bestBid=" + getBestBidPrice() +
+                ", bestAsk=" + getBestAskPrice() +
+                '}';
+    }
+
+    /**
+     * {@link PriceLevels} is one side of a {@link CryptoOrderBook}. Prices are stored as keys that are sorted in
+     * ascending order with the best price last: the price itself for bids and the negated price for asks. The reads
+     * of this class may observe an inconsistent state during a concurrent update, so they must never throw and their
+     * results must be validated by the caller.
+     */
+    private static final class PriceLevels {
+
+        private final boolean isBidSide;
+        private double[] keys;
+        private double[] sizes;
+        private int count;
+
+        private PriceLevels(boolean isBidSide) {
+            this.isBidSide = isBidSide;
+            keys = new double[INITIAL_CAPACITY];
+            sizes = new double[INITIAL_CAPACITY];
+        }
+
+        private void update(double price, double size) {
+            final double key = isBidSide ? price : -price;
+            final int index = Arrays.binarySearch(keys, 0, count, key);
+            if (index >= 0) {
+                if (size == 0) {
+                    System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+                    System.arraycopy(sizes, index + 1, sizes, index, count - index - 1);
+                    count--;
+                } else {
+                    sizes[index] = size;
+                }
+            } else if (size != 0) {
+                final int insertionIndex = -index - 1;
+                if (count == keys.length) {
+                    keys = Arrays.copyOf(keys, count * 2);
+                    sizes = Arrays.copyOf(sizes, count * 2);
+                }
+                System.arraycopy(keys, insertionIndex, keys, insertionIndex + 1, count - insertionIndex);
+                System.arraycopy(sizes, insertionIndex, sizes, insertionIndex + 1, count - insertionIndex);
+                keys[insertionIndex] = key;
+                sizes[insertionIndex] = size;
+                count++;
+            }
+        }
+
+        private void clear() {
+            count = 0;
+        }
+
+        private int getCount() {
+            return count;
+        }
+
+        private double getBestPrice() {
+            final double[] keys = this.keys;
+            final int index = Math.min(count, keys.length) - 1;
+            if (index < 0) {
+                return Double.NaN;
+            }
+            return isBidSide ? keys[index] : -keys[index];
+        }
+
+        private double getBestSize() {
+            final double[] sizes = this.sizes;
+            final int index = Math.min(count, sizes.length) - 1;
+            return index < 0 ? Double.NaN : sizes[index];
+        }
+
+        private int copy(double[] prices, double[] sizes, int depth) {
+            final double[] keys = this.keys;
+            final double[] levelSizes = this.sizes;
+            final int available = Math.min(Math.min(this.count, keys.length), levelSizes.length);
+            final int count = Math.min(Math.min(available, depth), Math.min(prices.length, sizes.length));
+            for (int level = 0; level < count; level++) {
+                final int index = available - 1 - level;
+                prices[level] = isBidSide ? keys[index] : -keys[index];
+                sizes[level] = levelSizes[index];
+            }
+            return count;
+        }
+    }
+}
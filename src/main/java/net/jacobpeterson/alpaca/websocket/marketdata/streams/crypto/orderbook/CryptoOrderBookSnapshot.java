@@ -0,0 +1,119 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.orderbook;
+
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+
+import java.util.Arrays;
+
+/**
+ * {@link CryptoOrderBookSnapshot} is an immutable snapshot of the price levels of a {@link CryptoOrderBook}. Levels
+ * are indexed from the best price level (<code>0</code>) outwards.
+ */
+public class CryptoOrderBookSnapshot {
+
+    private final String symbol;
+    private final RFC3339Timestamp timestamp;
+    private final long updateCount;
+    private final double[] bidPrices;
+    private final double[] bidSizes;
+    private final double[] askPrices;
+    private final double[] askSizes;
+
+    /**
+     * Instantiates a new {@link CryptoOrderBookSnapshot}.
+     *
+     * @param symbol      the symbol
+     * @param timestamp   the {@link RFC3339Timestamp} of the last applied update or <code>null</code>
+     * @param updateCount the number of applied updates
+     * @param bidPrices   the bid prices, best first
+     * @param bidSizes    the bid sizes, best first
+     * @param askPrices   the ask prices, best first
+     * @param askSizes    the ask sizes, best first
+     */
+    public CryptoOrderBookSnapshot(String symbol, RFC3339Timestamp timestamp, long updateCount, double[] bidPrices,
+            double[] bidSizes, double[] askPrices, double[] askSizes) {
+        this.symbol = symbol;
+        this.timestamp = timestamp;
+        this.updateCount = updateCount;
+        this.bidPrices = bidPrices;
+        this.bidSizes = bidSizes;
+        this.askPrices = askPrices;
+        this.askSizes = askSizes;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public RFC3339Timestamp getTimestamp() {
+        return timestamp;
+    }
+
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    public int getBidDepth() {
+        return bidPrices.length;
+    }
+
+    public int getAskDepth() {
+        return askPrices.length;
+    }
+
+    /**
+     * Gets the bid price of the given <code>level</code>.
+     *
+     * @param level the level (<code>0</code> is the best bid)
+     *
+     * @return the bid price
+     */
+    public double getBidPrice(int level) {
+        return bidPrices[level];
+    }
+
+    /**
+     * Gets the bid size of the given <code>level</code>.
+     *
+     * @param level the level (<code>0</code> is the best bid)
+     *
+     * @return the bid size
+     */
+    public double getBidSize(int level) {
+        return bidSizes[level];
+    }
+
+    /**
+     * Gets the ask price of the given <code>level</code>.
+     *
+     * @param level the level (<code>0</code> is the best ask)
+     *
+     * @return the ask price
+     */
+    public double getAskPrice(int level) {
+        return askPrices[level];
+    }
+
+    /**
+     * Gets the ask size of the given <code>level</code>.
+     *
+     * @param level the level (<code>0</code> is the best ask)
+     *
+     * @return the ask size
+     */
+    public double getAskSize(int level) {
+        return askSizes[level];
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoOrderBookSnapshot{" +
+                "symbol='" + symbol + '\'' +
+                ", timestamp=" + timestamp +
+                ", updateCount=" + updateCount +
+                ", bidPrices=" + Arrays.toString(bidPrices) +
+                ", bidSizes=" + Arrays.toString(bidSizes) +
+                ", askPrices=" + Arrays.toString(askPrices) +
+                ", askSizes=" + Arrays.toString(askSizes) +
+                '}';
+    }
+}
@@ -0,0 +1,128 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.news;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.news.NewsMessage;
+import net.jacobpeterson.alpaca.websocket.marketdata.flyweight.FlyweightJsonScanner;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link LazyNewsMessage} is a {@link NewsMessage} whose potentially large HTML <code>content</code> is kept undecoded
+ * until {@link #getContent()} is first called, so consumers that only filter on the headline or symbols never pay for
+ * decoding it. The undecoded content is a region of the received websocket frame: the escaped characters of a JSON
+ * text frame or the UTF-8 bytes of a MessagePack binary frame. The frame is shared, not copied, so it is retained until
+ * the content is decoded or this {@link LazyNewsMessage} is discarded.
+ * <br>
+ * The content is decoded before Java serialization, but reflective serializers (e.g. Gson) read the
+ * <code>content</code> field directly, so call {@link #getContent()} before passing a {@link LazyNewsMessage} to them.
+ */
+public class LazyNewsMessage extends NewsMessage {
+
+    private static final long serialVersionUID = 1L;
+
+    // Either a JSON text frame String or a MessagePack binary frame byte array
+    private transient Object rawContentFrame;
+    private transient int rawContentStart;
+    private transient int rawContentEnd;
+    private transient boolean rawContentEscaped;
+
+    /**
+     * Sets the undecoded content to the given region of a JSON text frame.
+     *
+     * @param frame   the JSON text frame {@link String}
+     * @param start   the start index (inclusive) of the string contents, excluding the quotes
+     * @param end     the end index (exclusive) of the string contents, excluding the quotes
+     * @param escaped <code>true</code> if the region contains escape sequences
+     */
+    synchronized void setRawContent(String frame, int start, int end, boolean escaped) {
+        rawContentFrame = frame;
+        rawContentStart = start;
+        rawContentEnd = end;
+        rawContentEscaped = escaped;
+    }
+
+    /**
+     * Sets the undecoded content to the given UTF-8 region of a MessagePack binary frame.
+     *
+     * @param frame  the MessagePack binary frame byte array
+     * @param offset the offset of the UTF-8 bytes
+     * @param length the length of the UTF-8 bytes
+     */
+    synchronized void setRawContent(byte[] frame, int offset, int length) {
+        rawContentFrame = frame;
+        rawContentStart = offset;
+        rawContentEnd = offset + length;
+        rawContentEscaped = false;
+    }
+
+    /**
+     * Whether the content has been decoded (or was never present in undecoded form).
+     *
+     * @return a boolean
+     */
+    public synchronized boolean isContentDecoded() {
+        return rawContentFrame == null;
+    }
+
+    /**
+     * Gets the content, decoding it on the first call.
+     *
+     * @return the content {@link String} or <code>null</code>
+     */
+    @Override
+    public synchronized String getContent() {
+        final Object rawContentFrame = this.rawContentFrame;
+        if (rawContentFrame != null) {
+            final String content;
+            if (rawContentFrame instanceof String) {
+                final String frame = (String) rawContentFrame;
+                content = rawContentEscaped ? FlyweightJsonScanner.unescape(frame, rawContentStart, rawContentEnd) :
+                        frame.substring(rawContentStart, rawContentEnd);
+            } else {
+                content = new String((byte[]) rawContentFrame, rawContentStart, rawContentEnd - rawContentStart,
+                        UTF_8);
+            }
+            super.setContent(content);
+            this.rawContentFrame = null;
+        }
+        return super.getContent();
+    }
+
+    @Override
+    public synchronized void setContent(String content) {
+        rawContentFrame = null;
+        super.setContent(content);
+    }
+
+    @Override
+    public LazyNewsMessage withContent(String content) {
+        setContent(content);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        getContent();
+        return super.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        getContent();
+        return super.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        getContent();
+        if (other instanceof LazyNewsMessage) {
+            ((LazyNewsMessage) other).getContent();
+        }
+        return super.equals(other);
+    }
+
+    private Object writeReplace() {
+        // The content field of the superclass is serialized directly, so decode it first
+        getContent();
+        return this;
+    }
+}
@@ -0,0 +1,106 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.news;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessageType;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.util.time.RFC3339Util;
+import net.jacobpeterson.alpaca.websocket.marketdata.flyweight.FlyweightMessageDecoder;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * {@link LazyNewsMessageDecoder} is a {@link FlyweightMessageDecoder} that decodes news messages of JSON text frames
+ * into {@link LazyNewsMessage}s. The ID, headline, symbols, timestamps, and other short properties are decoded eagerly,
+ * while the <code>content</code> is only located in the frame, so decoding it is deferred to
+ * {@link LazyNewsMessage#getContent()}. Symbols are resolved against the {@link SymbolDictionary}, so known symbols
+ * aren't allocated again.
+ */
+public class LazyNewsMessageDecoder extends FlyweightMessageDecoder {
+
+    private final Consumer<LazyNewsMessage> newsConsumer;
+
+    /**
+     * Instantiates a new {@link LazyNewsMessageDecoder}.
+     *
+     * @param symbolDictionary the {@link SymbolDictionary}
+     * @param newsConsumer     the {@link Consumer} of decoded {@link LazyNewsMessage}s
+     */
+    public LazyNewsMessageDecoder(SymbolDictionary symbolDictionary, Consumer<LazyNewsMessage> newsConsumer) {
+        super(symbolDictionary);
+        this.newsConsumer = newsConsumer;
+    }
+
+    @Override
+    protected boolean decodeMessage(char messageType) {
+        if (messageType != 'n') {
+            return false;
+        }
+        newsConsumer.accept(decodeNews());
+        return true;
+    }
+
+    private LazyNewsMessage decodeNews() {
+        final LazyNewsMessage news = new LazyNewsMessage();
+        news.setMessageType(NewsMarketDataMessageType.NEWS);
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            scanner.nextName();
+            if (scanner.stringEquals("id")) {
+                news.setId(scanner.nextNullIfPresent() ? null : scanner.nextLong());
+            } else if (scanner.stringEquals("headline")) {
+                news.setHeadline(nextStringOrNull());
+            } else if (scanner.stringEquals("content")) {
+                if (scanner.nextNullIfPresent()) {
+                    news.setContent(null);
+                } else {
+                    scanner.nextString();
+                    news.setRawContent(scanner.getText(), scanner.getStringStart(), scanner.getStringEnd(),
+                            scanner.isStringEscaped());
+                }
+            } else if (scanner.stringEquals("symbols")) {
+                news.setSymbols(nextSymbolsOrNull());
+            } else if (scanner.stringEquals("created_at")) {
+                final String createdAt = nextStringOrNull();
+                news.setCreatedAt(createdAt == null ? null : RFC3339Util.parseOffsetDateTime(createdAt));
+            } else if (scanner.stringEquals("updated_at")) {
+                final String updatedAt = nextStringOrNull();
+                news.setUpdatedAt(updatedAt == null ? null : RFC3339Util.parseOffsetDateTime(updatedAt));
+            } else if (scanner.stringEquals("summary")) {
+                news.setSummary(nextStringOrNull());
+            } else if (scanner.stringEquals("author")) {
+                news.setAuthor(nextStringOrNull());
+            } else if (scanner.stringEquals("source")) {
+                news.setSource(nextStringOrNull());
+            } else if (scanner.stringEquals("url")) {
+                news.setUrl(nextStringOrNull());
+            } else {
+                scanner.skipValue();
+            }
+        }
+        scanner.endObject();
+        return news;
+    }
+
+    private String nextStringOrNull() {
+        if (scanner.nextNullIfPresent()) {
+            return null;
+        }
+        scanner.nextString();
+        return scanner.getString();
+    }
+
+    private Set<String> nextSymbolsOrNull() {
+        if (scanner.nextNullIfPresent()) {
+            return null;
+        }
+        final Set<String> symbols = new LinkedHashSet<>();
+        scanner.beginArray();
+        while (scanner.hasNext()) {
+            scanner.nextString();
+            symbols.add(symbolDictionary.getSymbol(getScannedSymbolID()));
+        }
+        scanner.endArray();
+        return symbols;
+    }
+}
@@ -0,0 +1,54 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.news;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link NewsDeduplicationWindow} remembers the version of the most recently seen news articles by article ID, so that
+ * a story that is received again (e.g. after a reconnect) can be dropped while genuine updates of it pass through. The
+ * window holds at most <code>size</code> articles and forgets the least recently received article first.
+ */
+final class NewsDeduplicationWindow {
+
+    private final int size;
+    private final LinkedHashMap<Long, Long> versionsOfIDs;
+
+    /**
+     * Instantiates a new {@link NewsDeduplicationWindow}.
+     *
+     * @param size the maximum number of remembered articles
+     */
+    NewsDeduplicationWindow(int size) {
+        this.size = size;
+        versionsOfIDs = new LinkedHashMap<>(Math.min(size, 1024) * 4 / 3 + 1) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > NewsDeduplicationWindow.this.size;
+            }
+        };
+    }
+
+    /**
+     * Records the given article and returns whether it is a duplicate, which it is if an article with the same ID and
+     * the same or a newer version is in this window.
+     *
+     * @param id                the article ID
+     * @param versionEpochNanos the article version, which is its last update epoch nanoseconds
+     *
+     * @return <code>true</code> if the article is a duplicate, <code>false</code> otherwise
+     */
+    synchronized boolean isDuplicate(long id, long versionEpochNanos) {
+        final Long seenVersionEpochNanos = versionsOfIDs.get(id);
+        if (seenVersionEpochNanos != null && versionEpochNanos <= seenVersionEpochNanos) {
+            return true;
+        }
+        // Re-insert so an updated article is forgotten last
+        versionsOfIDs.remove(id);
+        versionsOfIDs.put(id, versionEpochNanos);
+        return false;
+    }
+
+    int getSize() {
+        return size;
+    }
+}
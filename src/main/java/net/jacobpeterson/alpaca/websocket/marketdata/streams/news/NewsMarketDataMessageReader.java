@@ -0,0 +1,114 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.news;
+
+import com.google.gson.stream.JsonReader;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.control.NewsSubscriptionsMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.news.NewsMessage;
+import net.jacobpeterson.alpaca.util.msgpack.MessagePackReader;
+import org.msgpack.core.buffer.MessageBuffer;
+
+import java.io.IOException;
+
+import static com.google.gson.stream.JsonToken.NULL;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextLongOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextOffsetDateTimeOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextStringOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextStringSetOrNull;
+
+/**
+ * {@link NewsMarketDataMessageReader} reads {@link NewsMarketDataMessage}s directly from a {@link JsonReader} without
+ * building an intermediate JSON tree. Each <code>read</code> method consumes the remaining properties of a message
+ * object whose <code>"T"</code> property has already been read, but does not consume the end of the object.
+ */
+public final class NewsMarketDataMessageReader {
+
+    /**
+     * Reads a {@link NewsMarketDataMessage} of the given {@link NewsMarketDataMessageType}.
+     *
+     * @param messageType the {@link NewsMarketDataMessageType}
+     * @param reader      the {@link JsonReader}
+     *
+     * @return the {@link NewsMarketDataMessage}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static NewsMarketDataMessage read(NewsMarketDataMessageType messageType, JsonReader reader)
+            throws IOException {
+        return read(messageType, reader, false);
+    }
+
+    /**
+     * Reads a {@link NewsMarketDataMessage} of the given {@link NewsMarketDataMessageType}.
+     *
+     * @param messageType the {@link NewsMarketDataMessageType}
+     * @param reader      the {@link JsonReader}
+     * @param lazyContent <code>true</code> to read {@link NewsMessage}s as {@link LazyNewsMessage}s, whose content is
+     *                    left undecoded if the <code>reader</code> is a {@link MessagePackReader}
+     *
+     * @return the {@link NewsMarketDataMessage}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static NewsMarketDataMessage read(NewsMarketDataMessageType messageType, JsonReader reader,
+            boolean lazyContent) throws IOException {
+        final NewsMarketDataMessage message;
+        switch (messageType) {
+            case NEWS:
+                message = readNews(reader, lazyContent);
+                break;
+            case SUBSCRIPTION:
+                message = readSubscriptions(reader);
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+        message.setMessageType(messageType);
+        return message;
+    }
+
+    private static NewsMessage readNews(JsonReader reader, boolean lazyContent) throws IOException {
+        final NewsMessage news = lazyContent ? new LazyNewsMessage() : new NewsMessage();
+        final boolean readsRawContent = lazyContent && reader instanceof MessagePackReader;
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (readsRawContent && name.equals("content") && reader.peek() != NULL) {
+                final MessageBuffer content = ((MessagePackReader) reader).nextStringPayloadReference();
+                if (content.hasArray()) {
+                    ((LazyNewsMessage) news).setRawContent(content.array(), content.arrayOffset(), content.size());
+                } else {
+                    ((LazyNewsMessage) news).setRawContent(content.toByteArray(), 0, content.size());
+                }
+                continue;
+            }
+            switch (name) {
+                case "id" -> news.setId(nextLongOrNull(reader));
+                case "source" -> news.setSource(nextStringOrNull(reader));
+                case "headline" -> news.setHeadline(nextStringOrNull(reader));
+                case "author" -> news.setAuthor(nextStringOrNull(reader));
+                case "summary" -> news.setSummary(nextStringOrNull(reader));
+                case "content" -> news.setContent(nextStringOrNull(reader));
+                case "url" -> news.setUrl(nextStringOrNull(reader));
+                case "symbols" -> news.setSymbols(nextStringSetOrNull(reader));
+                case "created_at" -> news.setCreatedAt(nextOffsetDateTimeOrNull(reader));
+                case "updated_at" -> news.setUpdatedAt(nextOffsetDateTimeOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return news;
+    }
+
+    private static NewsSubscriptionsMessage readSubscriptions(JsonReader reader) throws IOException {
+        final NewsSubscriptionsMessage subscriptions = new NewsSubscriptionsMessage();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("news")) {
+                subscriptions.setNews(nextStringSetOrNull(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        return subscriptions;
+    }
+
+    private NewsMarketDataMessageReader() {}
+}
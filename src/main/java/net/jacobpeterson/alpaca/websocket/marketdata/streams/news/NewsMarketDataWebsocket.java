@@ -1,19 +1,28 @@
 package net.jacobpeterson.alpaca.websocket.marketdata.streams.news;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessageType;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.control.NewsSubscriptionsMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.news.NewsMessage;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
 import net.jacobpeterson.alpaca.websocket.marketdata.MarketDataWebsocket;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 
+import java.io.IOException;
+import java.time.OffsetDateTime;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessageType.ERROR;
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessageType.SUBSCRIPTION;
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessageType.SUCCESS;
-import static net.jacobpeterson.alpaca.openapi.marketdata.JSON.getGson;
 
 /**
  * {@link NewsMarketDataWebsocket} is an implementation for {@link NewsMarketDataWebsocketInterface}.
@@ -22,6 +31,10 @@ public class NewsMarketDataWebsocket
         extends MarketDataWebsocket<NewsMarketDataMessageType, NewsSubscriptionsMessage, NewsMarketDataListener>
         implements NewsMarketDataWebsocketInterface {
 
+    private volatile boolean useLazyContentDecoding;
+    private volatile NewsDeduplicationWindow deduplicationWindow;
+    private final AtomicLong duplicateNewsCount;
+
     /**
      * Instantiates a new {@link NewsMarketDataWebsocket}.
      *
@@ -33,13 +46,46 @@ public class NewsMarketDataWebsocket
      */
     public NewsMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
             String brokerAPIKey, String brokerAPISecret) {
-        super(okHttpClient, new HttpUrl.Builder()
-                        .scheme("https")
-                        .host("stream.data.alpaca.markets")
+        this(okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, null);
+    }
+
+    /**
+     * Instantiates a new {@link NewsMarketDataWebsocket}.
+     *
+     * @param okHttpClient     the {@link OkHttpClient}
+     * @param traderKeyID      the trader key ID
+     * @param traderSecretKey  the trader secret key
+     * @param brokerAPIKey     the broker API key
+     * @param brokerAPISecret  the broker API secret
+     * @param websocketBaseURL the websocket base {@link HttpUrl} that overrides the Alpaca stream host (e.g. a local
+     *                         stand-in server) or <code>null</code> for the default
+     */
+    public NewsMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, HttpUrl websocketBaseURL) {
+        this(okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, new SymbolDictionary(),
+                websocketBaseURL);
+    }
+
+    /**
+     * Instantiates a new {@link NewsMarketDataWebsocket}.
+     *
+     * @param okHttpClient     the {@link OkHttpClient}
+     * @param traderKeyID      the trader key ID
+     * @param traderSecretKey  the trader secret key
+     * @param brokerAPIKey     the broker API key
+     * @param brokerAPISecret  the broker API secret
+     * @param symbolDictionary the {@link SymbolDictionary}, which may be shared with other websockets
+     * @param websocketBaseURL the websocket base {@link HttpUrl} that overrides the Alpaca stream host (e.g. a local
+     *                         stand-in server) or <code>null</code> for the default
+     */
+    public NewsMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, SymbolDictionary symbolDictionary, HttpUrl websocketBaseURL) {
+        super(okHttpClient, newWebsocketURLBuilder(websocketBaseURL, "stream.data.alpaca.markets")
                         .addPathSegments("v1beta1/news")
                         .build(),
                 "News", traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret,
-                NewsMarketDataMessageType.class, NewsSubscriptionsMessage.class);
+                NewsMarketDataMessageType.class, NewsSubscriptionsMessage.class, symbolDictionary);
+        duplicateNewsCount = new AtomicLong();
     }
 
     @Override
@@ -58,9 +104,68 @@ public class NewsMarketDataWebsocket
     }
 
     @Override
-    protected void callListenerWithMessage(NewsMarketDataMessageType messageType, JsonObject messageObject) {
+    protected Class<? extends MarketDataMessage> getMessageClass(NewsMarketDataMessageType messageType) {
         if (messageType == NewsMarketDataMessageType.NEWS) {
-            listener.onNews(getGson().fromJson(messageObject, NewsMessage.class));
+            return NewsMessage.class;
+        } else {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    protected MarketDataMessage readMessage(NewsMarketDataMessageType messageType, JsonReader reader)
+            throws IOException {
+        return NewsMarketDataMessageReader.read(messageType, reader, useLazyContentDecoding);
+    }
+
+    @Override
+    protected String getMessageSymbol(NewsMarketDataMessageType messageType, MarketDataMessage message) {
+        if (messageType == NewsMarketDataMessageType.NEWS) {
+            // Shard news by its first symbol since a news message may be for multiple symbols
+            final Set<String> symbols = ((NewsMessage) message).getSymbols();
+            return symbols == null || symbols.isEmpty() ? null : symbols.iterator().next();
+        }
+        return null;
+    }
+
+    @Override
+    protected RFC3339Timestamp getMessageTimestamp(NewsMarketDataMessageType messageType, MarketDataMessage message) {
+        if (messageType == NewsMarketDataMessageType.NEWS) {
+            final NewsMessage news = (NewsMessage) message;
+            final OffsetDateTime timestamp = news.getUpdatedAt() != null ? news.getUpdatedAt() : news.getCreatedAt();
+            return timestamp == null ? null : RFC3339Timestamp.of(timestamp);
+        }
+        return null;
+    }
+
+    @Override
+    protected boolean isDuplicateMessage(NewsMarketDataMessageType messageType, MarketDataMessage message) {
+        final NewsDeduplicationWindow deduplicationWindow = this.deduplicationWindow;
+        if (deduplicationWindow == null || messageType != NewsMarketDataMessageType.NEWS) {
+            return false;
+        }
+        final NewsMessage news = (NewsMessage) message;
+        if (news.getId() == null) {
+            return false;
+        }
+        final OffsetDateTime version = news.getUpdatedAt() != null ? news.getUpdatedAt() : news.getCreatedAt();
+        final long versionEpochNanos = version == null ? Long.MIN_VALUE :
+                version.toEpochSecond() * 1_000_000_000L + version.getNano();
+        if (deduplicationWindow.isDuplicate(news.getId(), versionEpochNanos)) {
+            duplicateNewsCount.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void callListenerWithMessage(NewsMarketDataMessageType messageType, MarketDataMessage message) {
+        if (listener == null) {
+            return;
+        }
+
+        if (messageType == NewsMarketDataMessageType.NEWS) {
+            listener.onNews((NewsMessage) message);
         } else {
             throw new UnsupportedOperationException();
         }
@@ -71,6 +176,48 @@ public class NewsMarketDataWebsocket
         this.listener = listener;
     }
 
+    @Override
+    public AlpacaPublisher<NewsMarketDataMessage> createPublisher(int bufferCapacity,
+            PublisherOverflowPolicy overflowPolicy) {
+        final AlpacaPublisher<NewsMarketDataMessage> publisher =
+                new AlpacaPublisher<>(websocketName, bufferCapacity, overflowPolicy);
+        addPublisher(publisher);
+        return publisher;
+    }
+
+    @Override
+    public boolean usesLazyContentDecoding() {
+        return useLazyContentDecoding;
+    }
+
+    @Override
+    public void setUseLazyContentDecoding(boolean useLazyContentDecoding) {
+        this.useLazyContentDecoding = useLazyContentDecoding;
+        flyweightMessageDecoder = useLazyContentDecoding ? new LazyNewsMessageDecoder(symbolDictionary, news -> {
+            if (isConsumingMessages()) {
+                dispatchMessage(NewsMarketDataMessageType.NEWS, news);
+            }
+        }) : null;
+    }
+
+    @Override
+    public int getDeduplicationWindowSize() {
+        final NewsDeduplicationWindow deduplicationWindow = this.deduplicationWindow;
+        return deduplicationWindow == null ? 0 : deduplicationWindow.getSize();
+    }
+
+    @Override
+    public void setDeduplicationWindowSize(int deduplicationWindowSize) {
+        checkArgument(deduplicationWindowSize >= 0, "deduplicationWindowSize must not be negative!");
+        deduplicationWindow = deduplicationWindowSize == 0 ? null :
+                new NewsDeduplicationWindow(deduplicationWindowSize);
+    }
+
+    @Override
+    public long getDuplicateNewsCount() {
+        return duplicateNewsCount.get();
+    }
+
     @Override
     public void setNewsSubscriptions(Set<String> symbols) {
         symbols = symbols == null ? Set.of() : symbols;
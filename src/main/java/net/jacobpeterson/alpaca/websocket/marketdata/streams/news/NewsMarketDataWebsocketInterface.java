@@ -1,6 +1,9 @@
 package net.jacobpeterson.alpaca.websocket.marketdata.streams.news;
 
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.news.model.NewsMarketDataMessageType;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
 import net.jacobpeterson.alpaca.websocket.marketdata.MarketDataWebsocketInterface;
 
 import java.util.Set;
@@ -18,6 +21,64 @@ public interface NewsMarketDataWebsocketInterface extends MarketDataWebsocketInt
      */
     void setListener(NewsMarketDataListener listener);
 
+    /**
+     * Creates a new {@link AlpacaPublisher} view of this stream, which is a {@link java.util.concurrent.Flow.Publisher}
+     * of all decoded {@link NewsMarketDataMessage}s of the subscribed symbols and channels. Each subscriber has its own
+     * buffer of up to <code>bufferCapacity</code> messages and only receives as many messages as it has requested, so
+     * any number of subscribers and publishers share this one websocket connection. Messages are published after they
+     * are passed to the {@link NewsMarketDataListener}, if any. Subscriptions are still set on this stream. Call {@link
+     * AlpacaPublisher#close()} to complete the subscribers and detach the {@link AlpacaPublisher} from this stream.
+     *
+     * @param bufferCapacity the maximum number of buffered messages of each subscriber
+     * @param overflowPolicy the {@link PublisherOverflowPolicy} used when a subscriber's buffer is full
+     *
+     * @return the {@link AlpacaPublisher}
+     */
+    AlpacaPublisher<NewsMarketDataMessage> createPublisher(int bufferCapacity, PublisherOverflowPolicy overflowPolicy);
+
+    /**
+     * Returns <code>true</code> if this websocket decodes the content of news lazily, <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    boolean usesLazyContentDecoding();
+
+    /**
+     * Sets whether to decode news as {@link LazyNewsMessage}s, whose ID, headline, symbols, and timestamps are decoded
+     * eagerly, but whose potentially large HTML content is kept undecoded in the received frame until
+     * {@link LazyNewsMessage#getContent()} is called. This cuts allocation during news bursts for consumers that only
+     * filter on symbols or headlines. JSON text frames are then decoded with a {@link LazyNewsMessageDecoder} and
+     * MessagePack binary frames with the streaming decoder. <code>false</code> by default.
+     *
+     * @param useLazyContentDecoding <code>true</code> to decode news content lazily, <code>false</code> otherwise
+     */
+    void setUseLazyContentDecoding(boolean useLazyContentDecoding);
+
+    /**
+     * Gets the number of news articles in the deduplication window.
+     *
+     * @return the deduplication window size or <code>0</code> if deduplication is disabled
+     */
+    int getDeduplicationWindowSize();
+
+    /**
+     * Sets the number of recently received news articles to deduplicate by article ID. A news message is dropped
+     * before it is dispatched if an article with the same ID and the same or a newer <code>updated_at</code> is in the
+     * window (e.g. when the same story arrives again after a reconnect), while genuine updates of an article pass
+     * through. The window forgets the least recently received article first. This resets the window.
+     * <code>0</code> (disabled) by default.
+     *
+     * @param deduplicationWindowSize the number of articles or <code>0</code> to disable deduplication
+     */
+    void setDeduplicationWindowSize(int deduplicationWindowSize);
+
+    /**
+     * Gets the number of news messages that were dropped as duplicates.
+     *
+     * @return the duplicate news count
+     */
+    long getDuplicateNewsCount();
+
     /**
      * Subscribes the given <code>symbols</code> to {@link NewsMarketDataMessageType#NEWS}. This will remove all
      * previous {@link NewsMarketDataMessageType#NEWS} subscriptions.
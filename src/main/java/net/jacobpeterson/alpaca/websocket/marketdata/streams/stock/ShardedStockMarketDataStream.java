@@ -0,0 +1,1010 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
+
+import net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.bar.StockBarMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.limituplimitdownband.StockLimitUpLimitDownBandMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.quote.StockQuoteMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecancelerror.StockTradeCancelErrorMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecorrection.StockTradeCorrectionMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradingstatus.StockTradingStatusMessage;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.websocket.AlpacaWebsocketStateListener;
+import net.jacobpeterson.alpaca.websocket.ReconnectionPolicy;
+import net.jacobpeterson.alpaca.websocket.journal.WebsocketFrameJournalWriter;
+import net.jacobpeterson.alpaca.websocket.marketdata.cache.MarketDataCache;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.MarketDataDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferOverflowPolicy;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferWaitStrategy;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetrySnapshot;
+import net.jacobpeterson.alpaca.websocket.marketdata.tickstore.TickStore;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.DAILY_BARS;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.LIMIT_UP_LIMIT_DOWN_BANDS;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.MINUTE_BARS;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.QUOTES;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.TRADES;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.TRADING_STATUSES;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.UPDATED_BARS;
+
+/**
+ * {@link ShardedStockMarketDataStream} is a {@link StockMarketDataWebsocketInterface} that spreads its symbol
+ * subscriptions across multiple underlying {@link StockMarketDataWebsocket} shards, each of which has its own
+ * connection and reader thread and reconnects (and resubscribes) independently. This requires an Alpaca subscription
+ * plan that allows multiple concurrent market data connections.
+ * <br>
+ * Symbols are assigned to shards stickily: a newly subscribed symbol is assigned to the shard with the fewest assigned
+ * symbols and stays on that shard for all message types until it is no longer subscribed to any message type, so
+ * adding or removing symbols never moves the subscriptions of other symbols. Because all messages of a symbol are
+ * received by the same shard, per-symbol message order is preserved, but the listeners are called from multiple
+ * threads, so they must be thread-safe. Note that a wildcard ("*") subscription is assigned to a single shard like any
+ * other symbol.
+ * <br>
+ * All shards share one {@link SymbolDictionary}, so flyweight symbol IDs are consistent across shards.
+ */
+public class ShardedStockMarketDataStream implements StockMarketDataWebsocketInterface {
+
+    /**
+     * The number of <code>long</code>s between the message counts of two shards, which spans two 64-byte cache lines
+     * to also defeat adjacent cache line prefetching.
+     */
+    private static final int COUNTER_STRIDE = 16;
+
+    private final StockMarketDataWebsocket[] shards;
+    private final SymbolDictionary symbolDictionary;
+    private final Map<StockMarketDataMessageType, Set<String>> requestedSubscriptions;
+    private final Map<String, Integer> symbolShards;
+    private final int[] shardSymbolCounts;
+    /**
+     * The message count of each shard, which is incremented by the reader thread of the shard. The counts are
+     * {@link #COUNTER_STRIDE} elements apart (and the first one is offset by {@link #COUNTER_STRIDE} from the array
+     * header) so that each is on its own cache line and the reader threads don't falsely share cache lines.
+     */
+    private final AtomicLongArray shardMessageCounts;
+    private final long[] sampledShardMessageCounts;
+    private long sampleNanoTime;
+    private volatile StockMarketDataListener listener;
+    private volatile StockMarketDataFlyweightListener flyweightListener;
+
+    /**
+     * Instantiates a new {@link ShardedStockMarketDataStream}.
+     *
+     * @param okHttpClient                  the {@link OkHttpClient}
+     * @param traderKeyID                   the trader key ID
+     * @param traderSecretKey               the trader secret key
+     * @param brokerAPIKey                  the broker API key
+     * @param brokerAPISecret               the broker API secret
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param shardCount                    the number of shards (websocket connections)
+     */
+    public ShardedStockMarketDataStream(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            int shardCount) {
+        this(okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, marketDataWebsocketSourceType,
+                shardCount, null);
+    }
+
+    /**
+     * Instantiates a new {@link ShardedStockMarketDataStream}.
+     *
+     * @param okHttpClient                  the {@link OkHttpClient}
+     * @param traderKeyID                   the trader key ID
+     * @param traderSecretKey               the trader secret key
+     * @param brokerAPIKey                  the broker API key
+     * @param brokerAPISecret               the broker API secret
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param shardCount                    the number of shards (websocket connections)
+     * @param websocketBaseURL              the websocket base {@link HttpUrl} of all shards or <code>null</code> for
+     *                                      the default
+     */
+    public ShardedStockMarketDataStream(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            int shardCount, HttpUrl websocketBaseURL) {
+        this(okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, marketDataWebsocketSourceType,
+                shardCount, new SymbolDictionary(), websocketBaseURL);
+    }
+
+    /**
+     * Instantiates a new {@link ShardedStockMarketDataStream}.
+     *
+     * @param okHttpClient                  the {@link OkHttpClient}
+     * @param traderKeyID                   the trader key ID
+     * @param traderSecretKey               the trader secret key
+     * @param brokerAPIKey                  the broker API key
+     * @param brokerAPISecret               the broker API secret
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param shardCount                    the number of shards (websocket connections)
+     * @param symbolDictionary              the {@link SymbolDictionary} of all shards, which may be shared with other
+     *                                      websockets
+     * @param websocketBaseURL              the websocket base {@link HttpUrl} of all shards or <code>null</code> for
+     *                                      the default
+     */
+    public ShardedStockMarketDataStream(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            int shardCount, SymbolDictionary symbolDictionary, HttpUrl websocketBaseURL) {
+        checkArgument(shardCount > 0, "shardCount must be greater than 0!");
+
+        this.symbolDictionary = checkNotNull(symbolDictionary);
+        shards = new StockMarketDataWebsocket[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards[shard] = new StockMarketDataWebsocket(okHttpClient, traderKeyID, traderSecretKey,
+                    brokerAPIKey, brokerAPISecret, marketDataWebsocketSourceType, "Stock Shard " + shard,
+                    symbolDictionary, websocketBaseURL);
+        }
+        requestedSubscriptions = new EnumMap<>(StockMarketDataMessageType.class);
+        symbolShards = new HashMap<>();
+        shardSymbolCounts = new int[shardCount];
+        shardMessageCounts = new AtomicLongArray((shardCount + 2) * COUNTER_STRIDE);
+        sampledShardMessageCounts = new long[shardCount];
+        sampleNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Gets the underlying {@link StockMarketDataWebsocketInterface} of the given shard, e.g. to monitor its
+     * connection state or {@link MarketDataDispatcher}. Don't change its listeners or subscriptions directly.
+     *
+     * @param shard the shard index
+     *
+     * @return the {@link StockMarketDataWebsocketInterface}
+     */
+    public StockMarketDataWebsocketInterface getShard(int shard) {
+        return shards[shard];
+    }
+
+    /**
+     * Gets the shard index that the given <code>symbol</code> is currently assigned to.
+     *
+     * @param symbol the symbol
+     *
+     * @return the shard index or <code>-1</code> if the <code>symbol</code> isn't subscribed
+     */
+    public synchronized int getSymbolShard(String symbol) {
+        final Integer shard = symbolShards.get(symbol);
+        return shard == null ? -1 : shard;
+    }
+
+    /**
+     * Gets the number of symbols assigned to each shard.
+     *
+     * @return an array of symbol counts indexed by shard
+     */
+    public synchronized int[] getShardSymbolCounts() {
+        return shardSymbolCounts.clone();
+    }
+
+    /**
+     * Gets the total number of messages that have been passed to the listeners by the given shard.
+     *
+     * @param shard the shard index
+     *
+     * @return the message count
+     */
+    public long getShardMessageCount(int shard) {
+        checkArgument(shard >= 0 && shard < shards.length, "shard is out of range!");
+        return shardMessageCounts.get(counterIndex(shard));
+    }
+
+    /**
+     * Gets the total number of messages that have been passed to the listeners by each shard.
+     *
+     * @return an array of message counts indexed by shard
+     */
+    public long[] getShardMessageCounts() {
+        final long[] messageCounts = new long[shards.length];
+        for (int shard = 0; shard < shards.length; shard++) {
+            messageCounts[shard] = shardMessageCounts.get(counterIndex(shard));
+        }
+        return messageCounts;
+    }
+
+    /**
+     * Gets the total number of messages that have been passed to the listeners by all shards.
+     *
+     * @return the message count
+     */
+    public long getMessageCount() {
+        long messageCount = 0;
+        for (int shard = 0; shard < shards.length; shard++) {
+            messageCount += shardMessageCounts.get(counterIndex(shard));
+        }
+        return messageCount;
+    }
+
+    /**
+     * Samples the throughput of each shard in messages per second since the previous call to this method (or since
+     * instantiation). The aggregate throughput is the sum of the returned rates.
+     *
+     * @return an array of messages per second indexed by shard
+     */
+    public synchronized double[] sampleShardMessageRates() {
+        final long nanoTime = System.nanoTime();
+        final double elapsedSeconds = Math.max(nanoTime - sampleNanoTime, 1) / 1_000_000_000d;
+        sampleNanoTime = nanoTime;
+        final double[] messageRates = new double[shards.length];
+        for (int shard = 0; shard < shards.length; shard++) {
+            final long messageCount = shardMessageCounts.get(counterIndex(shard));
+            messageRates[shard] = (messageCount - sampledShardMessageCounts[shard]) / elapsedSeconds;
+            sampledShardMessageCounts[shard] = messageCount;
+        }
+        return messageRates;
+    }
+
+    @Override
+    public void connect() {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.connect();
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.disconnect();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if all shards are connected, <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    @Override
+    public boolean isConnected() {
+        for (StockMarketDataWebsocket shard : shards) {
+            if (!shard.isConnected()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> if all shards are authenticated, <code>false</code> otherwise.
+     *
+     * @return a boolean
+     */
+    @Override
+    public boolean isAuthenticated() {
+        for (StockMarketDataWebsocket shard : shards) {
+            if (!shard.isAuthenticated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a {@link Boolean} {@link CompletableFuture} that completes when the authorization futures of all shards
+     * have completed. Its value is <code>true</code> if all shards authenticated successfully.
+     *
+     * @return a {@link Boolean} {@link CompletableFuture}
+     */
+    @Override
+    public CompletableFuture<Boolean> getAuthorizationFuture() {
+        CompletableFuture<Boolean> authorizationFuture = CompletableFuture.completedFuture(true);
+        for (StockMarketDataWebsocket shard : shards) {
+            authorizationFuture = authorizationFuture.thenCombine(shard.getAuthorizationFuture(), Boolean::logicalAnd);
+        }
+        return authorizationFuture;
+    }
+
+    /**
+     * Sets the {@link AlpacaWebsocketStateListener} of every shard.
+     *
+     * @param alpacaWebsocketStateListener the {@link AlpacaWebsocketStateListener}
+     */
+    @Override
+    public void setAlpacaWebsocketStateListener(AlpacaWebsocketStateListener alpacaWebsocketStateListener) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setAlpacaWebsocketStateListener(alpacaWebsocketStateListener);
+        }
+    }
+
+    @Override
+    public boolean doesAutomaticallyReconnect() {
+        return shards[0].doesAutomaticallyReconnect();
+    }
+
+    @Override
+    public void setAutomaticallyReconnect(boolean automaticallyReconnect) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setAutomaticallyReconnect(automaticallyReconnect);
+        }
+    }
+
+    @Override
+    public ReconnectionPolicy getReconnectionPolicy() {
+        return shards[0].getReconnectionPolicy();
+    }
+
+    @Override
+    public void setReconnectionPolicy(ReconnectionPolicy reconnectionPolicy) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setReconnectionPolicy(reconnectionPolicy);
+        }
+    }
+
+    /**
+     * Gets the {@link AlpacaMetrics} that is shared by all shards. Each shard tags its metrics with its own websocket
+     * name, so the metrics of the whole stream are the sum over these tags.
+     *
+     * @return the {@link AlpacaMetrics}
+     */
+    @Override
+    public AlpacaMetrics getMetrics() {
+        return shards[0].getMetrics();
+    }
+
+    /**
+     * Sets the {@link AlpacaMetrics} of every shard. The metrics of each shard are tagged with its websocket name
+     * (e.g. <code>"Stock Shard 0 Market Data"</code>).
+     *
+     * @param metrics the {@link AlpacaMetrics}
+     */
+    @Override
+    public void setMetrics(AlpacaMetrics metrics) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setMetrics(metrics);
+        }
+    }
+
+    @Override
+    public WebsocketFrameJournalWriter getFrameJournalWriter() {
+        return shards[0].getFrameJournalWriter();
+    }
+
+    /**
+     * Sets the {@link WebsocketFrameJournalWriter} of all shards, so the frames of all shards are recorded to the same
+     * journal.
+     *
+     * @param frameJournalWriter the {@link WebsocketFrameJournalWriter} or <code>null</code> to stop recording
+     */
+    @Override
+    public void setFrameJournalWriter(WebsocketFrameJournalWriter frameJournalWriter) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setFrameJournalWriter(frameJournalWriter);
+        }
+    }
+
+    @Override
+    public Executor getListenerExecutor() {
+        return shards[0].getListenerExecutor();
+    }
+
+    /**
+     * Sets the listener {@link Executor} of all shards. Listener callbacks of the same symbol are still called in
+     * order, since each symbol is streamed by a single shard.
+     *
+     * @param listenerExecutor the {@link Executor} or <code>null</code>
+     *
+     * @see StockMarketDataWebsocketInterface#setListenerExecutor(Executor)
+     */
+    @Override
+    public void setListenerExecutor(Executor listenerExecutor) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setListenerExecutor(listenerExecutor);
+        }
+    }
+
+    @Override
+    public SymbolDictionary getSymbolDictionary() {
+        return symbolDictionary;
+    }
+
+    /**
+     * Sets the subscription batching of every shard.
+     *
+     * @see StockMarketDataWebsocketInterface#setSubscriptionBatching(Duration, int)
+     */
+    @Override
+    public void setSubscriptionBatching(Duration coalescingWindow, int maxSymbolsPerFrame) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setSubscriptionBatching(coalescingWindow, maxSymbolsPerFrame);
+        }
+    }
+
+    @Override
+    public void flushSubscriptions() {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.flushSubscriptions();
+        }
+    }
+
+    /**
+     * Gets the total number of in-flight subscription frames of all shards.
+     *
+     * @return the in-flight subscription frame count
+     */
+    @Override
+    public int getInFlightSubscriptionFrameCount() {
+        int inFlightSubscriptionFrameCount = 0;
+        for (StockMarketDataWebsocket shard : shards) {
+            inFlightSubscriptionFrameCount += shard.getInFlightSubscriptionFrameCount();
+        }
+        return inFlightSubscriptionFrameCount;
+    }
+
+    @Override
+    public boolean usesTelemetry() {
+        return shards[0].usesTelemetry();
+    }
+
+    @Override
+    public void setUseTelemetry(boolean useTelemetry) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setUseTelemetry(useTelemetry);
+        }
+    }
+
+    /**
+     * Gets a {@link MarketDataTelemetrySnapshot} of all shards, which is the
+     * {@link MarketDataTelemetrySnapshot#merge(MarketDataTelemetrySnapshot)} of the snapshots of every shard that uses
+     * telemetry. Use {@link #getShard(int)} to get the {@link MarketDataTelemetrySnapshot} of a single shard.
+     *
+     * @return the {@link MarketDataTelemetrySnapshot} or <code>null</code> if no shard uses telemetry
+     */
+    @Override
+    public MarketDataTelemetrySnapshot<StockMarketDataMessageType> getTelemetrySnapshot() {
+        MarketDataTelemetrySnapshot<StockMarketDataMessageType> telemetrySnapshot = null;
+        for (StockMarketDataWebsocket shard : shards) {
+            final MarketDataTelemetrySnapshot<StockMarketDataMessageType> shardTelemetrySnapshot =
+                    shard.getTelemetrySnapshot();
+            if (shardTelemetrySnapshot != null) {
+                telemetrySnapshot = telemetrySnapshot == null ? shardTelemetrySnapshot :
+                        telemetrySnapshot.merge(shardTelemetrySnapshot);
+            }
+        }
+        return telemetrySnapshot;
+    }
+
+    @Override
+    public boolean usesGapRecovery() {
+        return shards[0].usesGapRecovery();
+    }
+
+    @Override
+    public void setUseGapRecovery(boolean useGapRecovery) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setUseGapRecovery(useGapRecovery);
+        }
+    }
+
+    @Override
+    public void setMaxGapRecoveryDuration(Duration maxGapRecoveryDuration) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setMaxGapRecoveryDuration(maxGapRecoveryDuration);
+        }
+    }
+
+    @Override
+    public MarketDataCache getMarketDataCache() {
+        return shards[0].getMarketDataCache();
+    }
+
+    @Override
+    public void setMarketDataCache(MarketDataCache marketDataCache) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setMarketDataCache(marketDataCache);
+        }
+    }
+
+    @Override
+    public TickStore getTickStore() {
+        return shards[0].getTickStore();
+    }
+
+    @Override
+    public void setTickStore(TickStore tickStore) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setTickStore(tickStore);
+        }
+    }
+
+    @Override
+    public boolean usesStreamingDecoder() {
+        return shards[0].usesStreamingDecoder();
+    }
+
+    @Override
+    public void setUseStreamingDecoder(boolean useStreamingDecoder) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setUseStreamingDecoder(useStreamingDecoder);
+        }
+    }
+
+    @Override
+    public boolean usesMessagePack() {
+        return shards[0].usesMessagePack();
+    }
+
+    @Override
+    public void setUseMessagePack(boolean useMessagePack) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setUseMessagePack(useMessagePack);
+        }
+    }
+
+    /**
+     * Enables ring buffer dispatch on every shard, each with its own ring buffer of the given <code>capacity</code>.
+     *
+     * @see StockMarketDataWebsocketInterface#setRingBufferDispatch(int, RingBufferWaitStrategy,
+     * RingBufferOverflowPolicy)
+     */
+    @Override
+    public void setRingBufferDispatch(int capacity, RingBufferWaitStrategy waitStrategy,
+            RingBufferOverflowPolicy overflowPolicy) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setRingBufferDispatch(capacity, waitStrategy, overflowPolicy);
+        }
+    }
+
+    /**
+     * Enables sharded dispatch on every shard, each with its own <code>laneCount</code> lanes.
+     *
+     * @see StockMarketDataWebsocketInterface#setShardedDispatch(int, int, RingBufferWaitStrategy,
+     * RingBufferOverflowPolicy, ThreadFactory)
+     */
+    @Override
+    public void setShardedDispatch(int laneCount, int laneCapacity, RingBufferWaitStrategy waitStrategy,
+            RingBufferOverflowPolicy overflowPolicy, ThreadFactory threadFactory) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setShardedDispatch(laneCount, laneCapacity, waitStrategy, overflowPolicy, threadFactory);
+        }
+    }
+
+    /**
+     * Enables conflating dispatch on every shard, each with its own listener thread. Each symbol is streamed by a single
+     * shard, so its messages are still conflated by a single {@link MarketDataDispatcher}.
+     *
+     * @see StockMarketDataWebsocketInterface#setConflatingDispatch(Set, int, RingBufferOverflowPolicy)
+     */
+    @Override
+    public void setConflatingDispatch(Set<StockMarketDataMessageType> conflatedMessageTypes, int passthroughCapacity,
+            RingBufferOverflowPolicy passthroughOverflowPolicy) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setConflatingDispatch(conflatedMessageTypes, passthroughCapacity, passthroughOverflowPolicy);
+        }
+    }
+
+    @Override
+    public void setExecutorDispatch(Executor executor) {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setExecutorDispatch(executor);
+        }
+    }
+
+    @Override
+    public void setDirectDispatch() {
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.setDirectDispatch();
+        }
+    }
+
+    /**
+     * Gets a view of the {@link MarketDataDispatcher}s of all shards, whose queue depth and message counts are the
+     * sums over the shards and whose {@link MarketDataDispatcher#shutdown()} shuts down every shard's
+     * {@link MarketDataDispatcher}. Messages can't be dispatched to the view. Use {@link #getShard(int)} to get the
+     * {@link MarketDataDispatcher} of a single shard.
+     *
+     * @return the {@link MarketDataDispatcher} or <code>null</code> if every shard uses direct dispatch
+     */
+    @Override
+    public MarketDataDispatcher<StockMarketDataMessageType> getDispatcher() {
+        final List<MarketDataDispatcher<StockMarketDataMessageType>> dispatchers = new ArrayList<>();
+        for (StockMarketDataWebsocket shard : shards) {
+            final MarketDataDispatcher<StockMarketDataMessageType> dispatcher = shard.getDispatcher();
+            if (dispatcher != null) {
+                dispatchers.add(dispatcher);
+            }
+        }
+        return dispatchers.isEmpty() ? null : new ShardDispatchers(dispatchers);
+    }
+
+    @Override
+    public void setListener(StockMarketDataListener listener) {
+        this.listener = listener;
+        for (int shard = 0; shard < shards.length; shard++) {
+            shards[shard].setListener(listener == null ? null : new ShardListener(shard));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The returned {@link AlpacaPublisher} publishes the messages of all shards, so messages of different symbols may
+     * be published concurrently by different shards, but messages of the same symbol are published in order.
+     */
+    @Override
+    public AlpacaPublisher<StockMarketDataMessage> createPublisher(int bufferCapacity,
+            PublisherOverflowPolicy overflowPolicy) {
+        final AlpacaPublisher<StockMarketDataMessage> publisher =
+                new AlpacaPublisher<>("Sharded Stock Market Data", bufferCapacity, overflowPolicy);
+        for (StockMarketDataWebsocket shard : shards) {
+            shard.addShardPublisher(publisher);
+        }
+        return publisher;
+    }
+
+    @Override
+    public void setFlyweightListener(StockMarketDataFlyweightListener flyweightListener) {
+        this.flyweightListener = flyweightListener;
+        for (int shard = 0; shard < shards.length; shard++) {
+            shards[shard].setFlyweightListener(flyweightListener == null ? null : new ShardFlyweightListener(shard));
+        }
+    }
+
+    @Override
+    public void setTradeSubscriptions(Set<String> symbols) {
+        setShardedSubscriptions(TRADES, symbols, StockMarketDataWebsocket::setTradeSubscriptions);
+    }
+
+    @Override
+    public Set<String> getTradeSubscriptions() {
+        return getShardedSubscriptions(StockMarketDataWebsocket::getTradeSubscriptions);
+    }
+
+    @Override
+    public void setQuoteSubscriptions(Set<String> symbols) {
+        setShardedSubscriptions(QUOTES, symbols, StockMarketDataWebsocket::setQuoteSubscriptions);
+    }
+
+    @Override
+    public Set<String> getQuoteSubscriptions() {
+        return getShardedSubscriptions(StockMarketDataWebsocket::getQuoteSubscriptions);
+    }
+
+    @Override
+    public void setMinuteBarSubscriptions(Set<String> symbols) {
+        setShardedSubscriptions(MINUTE_BARS, symbols, StockMarketDataWebsocket::setMinuteBarSubscriptions);
+    }
+
+    @Override
+    public Set<String> getMinuteBarSubscriptions() {
+        return getShardedSubscriptions(StockMarketDataWebsocket::getMinuteBarSubscriptions);
+    }
+
+    @Override
+    public void setDailyBarSubscriptions(Set<String> symbols) {
+        setShardedSubscriptions(DAILY_BARS, symbols, StockMarketDataWebsocket::setDailyBarSubscriptions);
+    }
+
+    @Override
+    public Set<String> getDailyBarSubscriptions() {
+        return getShardedSubscriptions(StockMarketDataWebsocket::getDailyBarSubscriptions);
+    }
+
+    @Override
+    public void setUpdatedBarSubscriptions(Set<String> symbols) {
+        setShardedSubscriptions(UPDATED_BARS, symbols, StockMarketDataWebsocket::setUpdatedBarSubscriptions);
+    }
+
+    @Override
+    public Set<String> getUpdatedBarSubscriptions() {
+        return getShardedSubscriptions(StockMarketDataWebsocket::getUpdatedBarSubscriptions);
+    }
+
+    @Override
+    public void setLimitUpLimitDownBandSubscriptions(Set<String> symbols) {
+        setShardedSubscriptions(LIMIT_UP_LIMIT_DOWN_BANDS, symbols,
+                StockMarketDataWebsocket::setLimitUpLimitDownBandSubscriptions);
+    }
+
+    @Override
+    public Set<String> getLimitUpLimitDownBandSubscriptions() {
+        return getShardedSubscriptions(StockMarketDataWebsocket::getLimitUpLimitDownBandSubscriptions);
+    }
+
+    @Override
+    public void setTradingStatuseSubscriptions(Set<String> symbols) {
+        setShardedSubscriptions(TRADING_STATUSES, symbols, StockMarketDataWebsocket::setTradingStatuseSubscriptions);
+    }
+
+    @Override
+    public Set<String> getTradingStatuseSubscriptions() {
+        return getShardedSubscriptions(StockMarketDataWebsocket::getTradingStatuseSubscriptions);
+    }
+
+    /**
+     * Sets the subscriptions of a specific message type by assigning each symbol to a shard and setting the
+     * subscriptions of each shard to its assigned symbols. Symbols that are no longer subscribed to any message type
+     * are unassigned.
+     *
+     * @param messageType              the {@link StockMarketDataMessageType}
+     * @param symbols                  the {@link Set} of symbols or <code>null</code>
+     * @param shardSubscriptionsSetter the {@link BiConsumer} that sets the subscriptions of a shard
+     */
+    private synchronized void setShardedSubscriptions(StockMarketDataMessageType messageType, Set<String> symbols,
+            BiConsumer<StockMarketDataWebsocket, Set<String>> shardSubscriptionsSetter) {
+        final Set<String> newSubscriptions = symbols == null ? Set.of() : Set.copyOf(symbols);
+        final Set<String> previousSubscriptions = requestedSubscriptions.getOrDefault(messageType, Set.of());
+        requestedSubscriptions.put(messageType, newSubscriptions);
+
+        // Unassign symbols first so that their shards can be reused by newly assigned symbols
+        for (String symbol : previousSubscriptions) {
+            if (!newSubscriptions.contains(symbol) && !isSymbolRequested(symbol)) {
+                unassignSymbol(symbol);
+            }
+        }
+
+        final List<Set<String>> shardSubscriptions = new ArrayList<>(shards.length);
+        for (int shard = 0; shard < shards.length; shard++) {
+            shardSubscriptions.add(new HashSet<>());
+        }
+        for (String symbol : newSubscriptions) {
+            shardSubscriptions.get(assignSymbol(symbol)).add(symbol);
+        }
+        for (int shard = 0; shard < shards.length; shard++) {
+            shardSubscriptionsSetter.accept(shards[shard], shardSubscriptions.get(shard));
+        }
+    }
+
+    /**
+     * Gets the union of the current subscriptions of every shard.
+     *
+     * @param shardSubscriptionsGetter the {@link Function} that gets the subscriptions of a shard
+     *
+     * @return a {@link Set} of {@link String} symbols
+     */
+    private Set<String> getShardedSubscriptions(
+            Function<StockMarketDataWebsocket, Set<String>> shardSubscriptionsGetter) {
+        final Set<String> subscriptions = new HashSet<>();
+        for (StockMarketDataWebsocket shard : shards) {
+            final Set<String> shardSubscriptions = shardSubscriptionsGetter.apply(shard);
+            if (shardSubscriptions != null) {
+                subscriptions.addAll(shardSubscriptions);
+            }
+        }
+        return subscriptions;
+    }
+
+    /**
+     * Gets the shard that the given <code>symbol</code> is assigned to, assigning it to the shard with the fewest
+     * assigned symbols if it isn't assigned yet.
+     *
+     * @param symbol the symbol
+     *
+     * @return the shard index
+     */
+    private int assignSymbol(String symbol) {
+        final Integer assignedShard = symbolShards.get(symbol);
+        if (assignedShard != null) {
+            return assignedShard;
+        }
+        int leastLoadedShard = 0;
+        for (int shard = 1; shard < shards.length; shard++) {
+            if (shardSymbolCounts[shard] < shardSymbolCounts[leastLoadedShard]) {
+                leastLoadedShard = shard;
+            }
+        }
+        symbolShards.put(symbol, leastLoadedShard);
+        shardSymbolCounts[leastLoadedShard]++;
+        return leastLoadedShard;
+    }
+
+    private void unassignSymbol(String symbol) {
+        final Integer assignedShard = symbolShards.remove(symbol);
+        if (assignedShard != null) {
+            shardSymbolCounts[assignedShard]--;
+        }
+    }
+
+    private boolean isSymbolRequested(String symbol) {
+        for (Set<String> subscriptions : requestedSubscriptions.values()) {
+            if (subscriptions.contains(symbol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int counterIndex(int shard) {
+        return (shard + 1) * COUNTER_STRIDE;
+    }
+
+    /**
+     * {@link ShardDispatchers} is a read-only {@link MarketDataDispatcher} view of the {@link MarketDataDispatcher}s of
+     * all shards.
+     */
+    private static class ShardDispatchers implements MarketDataDispatcher<StockMarketDataMessageType> {
+
+        private final List<MarketDataDispatcher<StockMarketDataMessageType>> dispatchers;
+
+        private ShardDispatchers(List<MarketDataDispatcher<StockMarketDataMessageType>> dispatchers) {
+            this.dispatchers = dispatchers;
+        }
+
+        @Override
+        public void dispatch(StockMarketDataMessageType messageType, MarketDataMessage message, long receiveNanoTime) {
+            throw new UnsupportedOperationException("Messages can only be dispatched by the shards!");
+        }
+
+        @Override
+        public int getQueueDepth() {
+            int queueDepth = 0;
+            for (MarketDataDispatcher<StockMarketDataMessageType> dispatcher : dispatchers) {
+                queueDepth += dispatcher.getQueueDepth();
+            }
+            return queueDepth;
+        }
+
+        @Override
+        public long getDroppedMessageCount() {
+            long droppedMessageCount = 0;
+            for (MarketDataDispatcher<StockMarketDataMessageType> dispatcher : dispatchers) {
+                droppedMessageCount += dispatcher.getDroppedMessageCount();
+            }
+            return droppedMessageCount;
+        }
+
+        @Override
+        public long getConflatedMessageCount() {
+            long conflatedMessageCount = 0;
+            for (MarketDataDispatcher<StockMarketDataMessageType> dispatcher : dispatchers) {
+                conflatedMessageCount += dispatcher.getConflatedMessageCount();
+            }
+            return conflatedMessageCount;
+        }
+
+        @Override
+        public void shutdown() {
+            for (MarketDataDispatcher<StockMarketDataMessageType> dispatcher : dispatchers) {
+                dispatcher.shutdown();
+            }
+        }
+    }
+
+    /**
+     * {@link ShardListener} is a {@link StockMarketDataListener} that counts the messages of a shard and passes them
+     * to the {@link #listener}.
+     */
+    private class ShardListener implements StockMarketDataListener {
+
+        private final int shard;
+
+        private ShardListener(int shard) {
+            this.shard = shard;
+        }
+
+        private StockMarketDataListener countMessage() {
+            shardMessageCounts.incrementAndGet(counterIndex(shard));
+            return listener;
+        }
+
+        @Override
+        public void onTrade(StockTradeMessage trade) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onTrade(trade);
+            }
+        }
+
+        @Override
+        public void onQuote(StockQuoteMessage quote) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onQuote(quote);
+            }
+        }
+
+        @Override
+        public void onMinuteBar(StockBarMessage bar) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onMinuteBar(bar);
+            }
+        }
+
+        @Override
+        public void onDailyBar(StockBarMessage bar) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onDailyBar(bar);
+            }
+        }
+
+        @Override
+        public void onUpdatedBar(StockBarMessage bar) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onUpdatedBar(bar);
+            }
+        }
+
+        @Override
+        public void onTradeCorrection(StockTradeCorrectionMessage tradeCorrection) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onTradeCorrection(tradeCorrection);
+            }
+        }
+
+        @Override
+        public void onTradeCancelError(StockTradeCancelErrorMessage tradeCancelError) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onTradeCancelError(tradeCancelError);
+            }
+        }
+
+        @Override
+        public void onLimitUpLimitDownBand(StockLimitUpLimitDownBandMessage limitUpLimitDownBand) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onLimitUpLimitDownBand(limitUpLimitDownBand);
+            }
+        }
+
+        @Override
+        public void onTradingStatus(StockTradingStatusMessage tradingStatus) {
+            final StockMarketDataListener listener = countMessage();
+            if (listener != null) {
+                listener.onTradingStatus(tradingStatus);
+            }
+        }
+    }
+
+    /**
+     * {@link ShardFlyweightListener} is a {@link StockMarketDataFlyweightListener} that counts the messages of a shard
+     * and passes them to the {@link #flyweightListener}.
+     */
+    private class ShardFlyweightListener implements StockMarketDataFlyweightListener {
+
+        private final int shard;
+
+        private ShardFlyweightListener(int shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public void onTrade(StockTradeFlyweight trade) {
+            shardMessageCounts.incrementAndGet(counterIndex(shard));
+            final StockMarketDataFlyweightListener listener = flyweightListener;
+            if (listener != null) {
+                listener.onTrade(trade);
+            }
+        }
+
+        @Override
+        public void onQuote(StockQuoteFlyweight quote) {
+            shardMessageCounts.incrementAndGet(counterIndex(shard));
+            final StockMarketDataFlyweightListener listener = flyweightListener;
+            if (listener != null) {
+                listener.onQuote(quote);
+            }
+        }
+    }
+}
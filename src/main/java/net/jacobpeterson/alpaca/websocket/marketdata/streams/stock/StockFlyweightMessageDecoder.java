@@ -0,0 +1,122 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
+
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.websocket.marketdata.flyweight.FlyweightMessageDecoder;
+
+/**
+ * {@link StockFlyweightMessageDecoder} is a {@link FlyweightMessageDecoder} for stock trade and quote messages.
+ */
+public class StockFlyweightMessageDecoder extends FlyweightMessageDecoder {
+
+    private final StockMarketDataFlyweightListener listener;
+    private final StockTradeFlyweight trade;
+    private final StockQuoteFlyweight quote;
+
+    /**
+     * Instantiates a new {@link StockFlyweightMessageDecoder}.
+     *
+     * @param symbolDictionary the {@link SymbolDictionary}
+     * @param listener         the {@link StockMarketDataFlyweightListener}
+     */
+    public StockFlyweightMessageDecoder(SymbolDictionary symbolDictionary, StockMarketDataFlyweightListener listener) {
+        super(symbolDictionary);
+        this.listener = listener;
+        trade = new StockTradeFlyweight();
+        quote = new StockQuoteFlyweight();
+    }
+
+    @Override
+    protected boolean decodeMessage(char messageType) {
+        switch (messageType) {
+            case 't':
+                decodeTrade();
+                if (cache != null && trade.symbol != null) {
+                    cache.updateTrade(trade.symbol, trade.price, trade.size, trade.tradeID, trade.exchange,
+                            trade.timestampEpochNanos, receiveNanoTime);
+                }
+                if (tickStore != null && trade.symbol != null) {
+                    tickStore.appendTrade(trade.symbol, trade.timestampEpochNanos, trade.price, trade.size,
+                            trade.exchange, null);
+                }
+                recordDecodedMessage(messageType, trade.timestampEpochNanos);
+                listener.onTrade(trade);
+                return true;
+            case 'q':
+                decodeQuote();
+                if (cache != null && quote.symbol != null) {
+                    cache.updateQuote(quote.symbol, quote.bidPrice, quote.bidSize, quote.bidExchange,
+                            quote.askPrice, quote.askSize, quote.askExchange, quote.timestampEpochNanos,
+                            receiveNanoTime);
+                }
+                if (tickStore != null && quote.symbol != null) {
+                    tickStore.appendQuote(quote.symbol, quote.timestampEpochNanos, quote.bidPrice, quote.bidSize,
+                            quote.bidExchange, quote.askPrice, quote.askSize, quote.askExchange, null);
+                }
+                recordDecodedMessage(messageType, quote.timestampEpochNanos);
+                listener.onQuote(quote);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void decodeTrade() {
+        trade.clear();
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            scanner.nextName();
+            if (scanner.stringEquals("S")) {
+                scanner.nextString();
+                trade.symbolID = getScannedSymbolID();
+                trade.symbol = symbolDictionary.getSymbol(trade.symbolID);
+            } else if (scanner.stringEquals("i")) {
+                trade.tradeID = scanner.nextLong();
+            } else if (scanner.stringEquals("x")) {
+                trade.exchange = scanner.nextChar();
+            } else if (scanner.stringEquals("p")) {
+                trade.price = scanner.nextDouble();
+            } else if (scanner.stringEquals("s")) {
+                trade.size = scanner.nextLong();
+            } else if (scanner.stringEquals("t")) {
+                trade.timestampEpochNanos = scanner.nextEpochNanos();
+            } else if (scanner.stringEquals("z")) {
+                trade.tape = scanner.nextChar();
+            } else {
+                scanner.skipValue();
+            }
+        }
+        scanner.endObject();
+    }
+
+    private void decodeQuote() {
+        quote.clear();
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            scanner.nextName();
+            if (scanner.stringEquals("S")) {
+                scanner.nextString();
+                quote.symbolID = getScannedSymbolID();
+                quote.symbol = symbolDictionary.getSymbol(quote.symbolID);
+            } else if (scanner.stringEquals("ax")) {
+                quote.askExchange = scanner.nextChar();
+            } else if (scanner.stringEquals("ap")) {
+                quote.askPrice = scanner.nextDouble();
+            } else if (scanner.stringEquals("as")) {
+                quote.askSize = scanner.nextLong();
+            } else if (scanner.stringEquals("bx")) {
+                quote.bidExchange = scanner.nextChar();
+            } else if (scanner.stringEquals("bp")) {
+                quote.bidPrice = scanner.nextDouble();
+            } else if (scanner.stringEquals("bs")) {
+                quote.bidSize = scanner.nextLong();
+            } else if (scanner.stringEquals("t")) {
+                quote.timestampEpochNanos = scanner.nextEpochNanos();
+            } else if (scanner.stringEquals("z")) {
+                quote.tape = scanner.nextChar();
+            } else {
+                scanner.skipValue();
+            }
+        }
+        scanner.endObject();
+    }
+}
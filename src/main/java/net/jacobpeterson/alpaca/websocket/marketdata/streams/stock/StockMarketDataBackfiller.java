@@ -0,0 +1,104 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
+
+import net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.bar.StockBarMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfillClient;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfiller;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.MINUTE_BARS;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.TRADES;
+
+/**
+ * {@link StockMarketDataBackfiller} is a {@link MarketDataBackfiller} for {@link StockMarketDataWebsocket} trades and
+ * minute bars.
+ */
+public class StockMarketDataBackfiller implements MarketDataBackfiller<StockMarketDataMessageType> {
+
+    private final MarketDataBackfillClient backfillClient;
+    private final MarketDataWebsocketSourceType marketDataWebsocketSourceType;
+    private final StockMarketDataWebsocketInterface stockMarketDataWebsocket;
+
+    /**
+     * Instantiates a new {@link StockMarketDataBackfiller}.
+     *
+     * @param backfillClient                the {@link MarketDataBackfillClient}
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType} used as the historical feed
+     * @param stockMarketDataWebsocket      the {@link StockMarketDataWebsocketInterface} to get subscriptions from
+     */
+    public StockMarketDataBackfiller(MarketDataBackfillClient backfillClient,
+            MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            StockMarketDataWebsocketInterface stockMarketDataWebsocket) {
+        this.backfillClient = backfillClient;
+        this.marketDataWebsocketSourceType = marketDataWebsocketSourceType;
+        this.stockMarketDataWebsocket = stockMarketDataWebsocket;
+    }
+
+    @Override
+    public boolean isBackfillable(StockMarketDataMessageType messageType) {
+        return messageType == TRADES || messageType == MINUTE_BARS;
+    }
+
+    @Override
+    public Set<String> getSubscribedSymbols(StockMarketDataMessageType messageType) {
+        switch (messageType) {
+            case TRADES:
+                return stockMarketDataWebsocket.getTradeSubscriptions();
+            case MINUTE_BARS:
+                return stockMarketDataWebsocket.getMinuteBarSubscriptions();
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public List<? extends MarketDataMessage> fetch(StockMarketDataMessageType messageType, String symbol,
+            RFC3339Timestamp start) throws IOException {
+        switch (messageType) {
+            case TRADES:
+                final List<StockTradeMessage> trades = backfillClient.getMessages("v2/stocks/trades",
+                        Map.of("start", start.toString(),
+                                "feed", marketDataWebsocketSourceType.toString()),
+                        symbol, "trades", StockTradeMessage.class);
+                trades.forEach(trade -> trade.setMessageType(TRADES));
+                return trades;
+            case MINUTE_BARS:
+                // Only request completed bars since the bar of the current minute is streamed when it completes
+                final List<StockBarMessage> bars = backfillClient.getMessages("v2/stocks/bars",
+                        Map.of("start", start.toString(),
+                                "end", Instant.now().truncatedTo(MINUTES).minusNanos(1).toString(),
+                                "timeframe", "1Min",
+                                "adjustment", "raw",
+                                "feed", marketDataWebsocketSourceType.toString()),
+                        symbol, "bars", StockBarMessage.class);
+                bars.forEach(bar -> bar.setMessageType(MINUTE_BARS));
+                return bars;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public Object getDeduplicationKey(StockMarketDataMessageType messageType, MarketDataMessage message) {
+        switch (messageType) {
+            case TRADES:
+                // Trade IDs are only unique per exchange
+                final StockTradeMessage trade = (StockTradeMessage) message;
+                return trade.getExchange() + ":" + trade.getTradeID();
+            case MINUTE_BARS:
+                return ((StockBarMessage) message).getRfc3339Timestamp();
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+}
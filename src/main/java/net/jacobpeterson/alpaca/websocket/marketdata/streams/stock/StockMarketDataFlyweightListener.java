@@ -0,0 +1,23 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
+
+/**
+ * {@link StockMarketDataFlyweightListener} defines an allocation-free listener interface for
+ * {@link StockMarketDataWebsocketInterface} trade and quote messages. The given flyweight instances are reused for
+ * every message, so they are only valid for the duration of the callback.
+ */
+public interface StockMarketDataFlyweightListener {
+
+    /**
+     * Called when a trade is received.
+     *
+     * @param trade the {@link StockTradeFlyweight}
+     */
+    void onTrade(StockTradeFlyweight trade);
+
+    /**
+     * Called when a quote is received.
+     *
+     * @param quote the {@link StockQuoteFlyweight}
+     */
+    void onQuote(StockQuoteFlyweight quote);
+}
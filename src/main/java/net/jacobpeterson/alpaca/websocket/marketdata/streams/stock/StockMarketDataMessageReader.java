@@ -0,0 +1,240 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
+
+import com.google.gson.stream.JsonReader;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.bar.StockBarMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.control.StockSubscriptionsMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.limituplimitdownband.StockLimitUpLimitDownBandMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.quote.StockQuoteMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecancelerror.StockTradeCancelErrorAction;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecancelerror.StockTradeCancelErrorMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecorrection.StockTradeCorrectionMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradingstatus.StockTradingStatusMessage;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+
+import java.io.IOException;
+
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextDoubleOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextIntegerOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextLongOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextRFC3339TimestampOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextStringOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextStringSetOrNull;
+import static net.jacobpeterson.alpaca.util.gson.JsonReaderUtil.nextSymbolOrNull;
+
+/**
+ * {@link StockMarketDataMessageReader} reads {@link StockMarketDataMessage}s directly from a {@link JsonReader}
+ * without building an intermediate JSON tree. Each <code>read</code> method consumes the remaining properties of a
+ * message object whose <code>"T"</code> property has already been read, but does not consume the end of the object.
+ */
+public final class StockMarketDataMessageReader {
+
+    /**
+     * Reads a {@link StockMarketDataMessage} of the given {@link StockMarketDataMessageType}.
+     *
+     * @param messageType      the {@link StockMarketDataMessageType}
+     * @param reader           the {@link JsonReader}
+     * @param symbolDictionary the {@link SymbolDictionary} that symbols are resolved against
+     *
+     * @return the {@link StockMarketDataMessage}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static StockMarketDataMessage read(StockMarketDataMessageType messageType, JsonReader reader,
+            SymbolDictionary symbolDictionary) throws IOException {
+        final StockMarketDataMessage message;
+        switch (messageType) {
+            case TRADES:
+                message = readTrade(reader, symbolDictionary);
+                break;
+            case QUOTES:
+                message = readQuote(reader, symbolDictionary);
+                break;
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                message = readBar(reader, symbolDictionary);
+                break;
+            case TRADE_CORRECTIONS:
+                message = readTradeCorrection(reader, symbolDictionary);
+                break;
+            case TRADE_CANCEL_ERRORS:
+                message = readTradeCancelError(reader, symbolDictionary);
+                break;
+            case LIMIT_UP_LIMIT_DOWN_BANDS:
+                message = readLimitUpLimitDownBand(reader, symbolDictionary);
+                break;
+            case TRADING_STATUSES:
+                message = readTradingStatus(reader, symbolDictionary);
+                break;
+            case SUBSCRIPTION:
+                message = readSubscriptions(reader);
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+        message.setMessageType(messageType);
+        return message;
+    }
+
+    private static StockTradeMessage readTrade(JsonReader reader, SymbolDictionary symbolDictionary)
+            throws IOException {
+        final StockTradeMessage trade = new StockTradeMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> trade.setSymbol(nextSymbolOrNull(reader, symbolDictionary, trade));
+                case "i" -> trade.setTradeID(nextLongOrNull(reader));
+                case "x" -> trade.setExchange(nextStringOrNull(reader));
+                case "p" -> trade.setPrice(nextDoubleOrNull(reader));
+                case "s" -> trade.setSize(nextIntegerOrNull(reader));
+                case "c" -> trade.setConditions(nextStringSetOrNull(reader));
+                case "t" -> trade.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "z" -> trade.setTape(nextStringOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return trade;
+    }
+
+    private static StockQuoteMessage readQuote(JsonReader reader, SymbolDictionary symbolDictionary)
+            throws IOException {
+        final StockQuoteMessage quote = new StockQuoteMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> quote.setSymbol(nextSymbolOrNull(reader, symbolDictionary, quote));
+                case "ax" -> quote.setAskExchange(nextStringOrNull(reader));
+                case "ap" -> quote.setAskPrice(nextDoubleOrNull(reader));
+                case "as" -> quote.setAskSize(nextIntegerOrNull(reader));
+                case "bx" -> quote.setBidExchange(nextStringOrNull(reader));
+                case "bp" -> quote.setBidPrice(nextDoubleOrNull(reader));
+                case "bs" -> quote.setBidSize(nextIntegerOrNull(reader));
+                case "c" -> quote.setConditions(nextStringSetOrNull(reader));
+                case "t" -> quote.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "z" -> quote.setTape(nextStringOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return quote;
+    }
+
+    private static StockBarMessage readBar(JsonReader reader, SymbolDictionary symbolDictionary) throws IOException {
+        final StockBarMessage bar = new StockBarMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> bar.setSymbol(nextSymbolOrNull(reader, symbolDictionary, bar));
+                case "o" -> bar.setOpen(nextDoubleOrNull(reader));
+                case "h" -> bar.setHigh(nextDoubleOrNull(reader));
+                case "l" -> bar.setLow(nextDoubleOrNull(reader));
+                case "c" -> bar.setClose(nextDoubleOrNull(reader));
+                case "t" -> bar.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "v" -> bar.setVolume(nextLongOrNull(reader));
+                case "n" -> bar.setTradeCount(nextLongOrNull(reader));
+                case "vw" -> bar.setVwap(nextDoubleOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return bar;
+    }
+
+    private static StockTradeCorrectionMessage readTradeCorrection(JsonReader reader, SymbolDictionary symbolDictionary)
+            throws IOException {
+        final StockTradeCorrectionMessage tradeCorrection = new StockTradeCorrectionMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> tradeCorrection.setSymbol(nextSymbolOrNull(reader, symbolDictionary, tradeCorrection));
+                case "x" -> tradeCorrection.setExchange(nextStringOrNull(reader));
+                case "oi" -> tradeCorrection.setOriginalTradeID(nextIntegerOrNull(reader));
+                case "op" -> tradeCorrection.setOriginalPrice(nextDoubleOrNull(reader));
+                case "os" -> tradeCorrection.setOriginalSize(nextIntegerOrNull(reader));
+                case "oc" -> tradeCorrection.setOriginalConditions(nextStringSetOrNull(reader));
+                case "ci" -> tradeCorrection.setCorrectedTradeID(nextIntegerOrNull(reader));
+                case "cp" -> tradeCorrection.setCorrectedPrice(nextDoubleOrNull(reader));
+                case "cs" -> tradeCorrection.setCorrectedSize(nextIntegerOrNull(reader));
+                case "cc" -> tradeCorrection.setCorrectedConditions(nextStringSetOrNull(reader));
+                case "t" -> tradeCorrection.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "z" -> tradeCorrection.setTape(nextStringOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return tradeCorrection;
+    }
+
+    private static StockTradeCancelErrorMessage readTradeCancelError(JsonReader reader,
+            SymbolDictionary symbolDictionary) throws IOException {
+        final StockTradeCancelErrorMessage tradeCancelError = new StockTradeCancelErrorMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> tradeCancelError.setSymbol(nextSymbolOrNull(reader, symbolDictionary, tradeCancelError));
+                case "i" -> tradeCancelError.setTradeID(nextLongOrNull(reader));
+                case "x" -> tradeCancelError.setExchange(nextStringOrNull(reader));
+                case "p" -> tradeCancelError.setPrice(nextDoubleOrNull(reader));
+                case "s" -> tradeCancelError.setSize(nextIntegerOrNull(reader));
+                case "a" -> {
+                    final String action = nextStringOrNull(reader);
+                    tradeCancelError.setAction(action == null ? null : StockTradeCancelErrorAction.fromValue(action));
+                }
+                case "t" -> tradeCancelError.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "z" -> tradeCancelError.setTape(nextStringOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return tradeCancelError;
+    }
+
+    private static StockLimitUpLimitDownBandMessage readLimitUpLimitDownBand(JsonReader reader,
+            SymbolDictionary symbolDictionary) throws IOException {
+        final StockLimitUpLimitDownBandMessage limitUpLimitDownBand = new StockLimitUpLimitDownBandMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> limitUpLimitDownBand.setSymbol(nextSymbolOrNull(reader, symbolDictionary,
+                        limitUpLimitDownBand));
+                case "u" -> limitUpLimitDownBand.setLimitUpPrice(nextDoubleOrNull(reader));
+                case "d" -> limitUpLimitDownBand.setLimitDownPrice(nextDoubleOrNull(reader));
+                case "i" -> limitUpLimitDownBand.setIndicator(nextStringOrNull(reader));
+                case "t" -> limitUpLimitDownBand.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "z" -> limitUpLimitDownBand.setTape(nextStringOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return limitUpLimitDownBand;
+    }
+
+    private static StockTradingStatusMessage readTradingStatus(JsonReader reader, SymbolDictionary symbolDictionary)
+            throws IOException {
+        final StockTradingStatusMessage tradingStatus = new StockTradingStatusMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "S" -> tradingStatus.setSymbol(nextSymbolOrNull(reader, symbolDictionary, tradingStatus));
+                case "sc" -> tradingStatus.setStatusCode(nextStringOrNull(reader));
+                case "sm" -> tradingStatus.setStatusMessage(nextStringOrNull(reader));
+                case "rc" -> tradingStatus.setReasonCode(nextStringOrNull(reader));
+                case "rm" -> tradingStatus.setReasonMessage(nextStringOrNull(reader));
+                case "t" -> tradingStatus.setRfc3339Timestamp(nextRFC3339TimestampOrNull(reader));
+                case "z" -> tradingStatus.setTape(nextStringOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return tradingStatus;
+    }
+
+    private static StockSubscriptionsMessage readSubscriptions(JsonReader reader) throws IOException {
+        final StockSubscriptionsMessage subscriptions = new StockSubscriptionsMessage();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "trades" -> subscriptions.setTrades(nextStringSetOrNull(reader));
+                case "quotes" -> subscriptions.setQuotes(nextStringSetOrNull(reader));
+                case "bars" -> subscriptions.setMinuteBars(nextStringSetOrNull(reader));
+                case "dailyBars" -> subscriptions.setDailyBars(nextStringSetOrNull(reader));
+                case "updatedBars" -> subscriptions.setUpdatedBars(nextStringSetOrNull(reader));
+                case "lulds" -> subscriptions.setLimitUpLimitDownBands(nextStringSetOrNull(reader));
+                case "statuses" -> subscriptions.setTradingStatuses(nextStringSetOrNull(reader));
+                default -> reader.skipValue();
+            }
+        }
+        return subscriptions;
+    }
+
+    private StockMarketDataMessageReader() {}
+}
@@ -1,7 +1,9 @@
 package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.bar.StockBarMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.control.StockSubscriptionsMessage;
@@ -11,16 +13,25 @@ import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.t
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecancelerror.StockTradeCancelErrorMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecorrection.StockTradeCorrectionMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradingstatus.StockTradingStatusMessage;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
 import net.jacobpeterson.alpaca.websocket.marketdata.MarketDataWebsocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfillClient;
+import net.jacobpeterson.alpaca.websocket.marketdata.backfill.MarketDataBackfiller;
+import net.jacobpeterson.alpaca.websocket.marketdata.cache.MarketDataCache;
+import net.jacobpeterson.alpaca.websocket.marketdata.tickstore.TickStore;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 
+import java.io.IOException;
 import java.util.Set;
 
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.ERROR;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.MINUTE_BARS;
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.SUBSCRIPTION;
 import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.SUCCESS;
-import static net.jacobpeterson.alpaca.openapi.marketdata.JSON.getGson;
 
 /**
  * {@link StockMarketDataWebsocket} is an implementation for {@link StockMarketDataWebsocketInterface}.
@@ -29,11 +40,12 @@ public class StockMarketDataWebsocket
         extends MarketDataWebsocket<StockMarketDataMessageType, StockSubscriptionsMessage, StockMarketDataListener>
         implements StockMarketDataWebsocketInterface {
 
-    private static HttpUrl createWebsocketURL(boolean isSandbox,
+    private final MarketDataWebsocketSourceType marketDataWebsocketSourceType;
+
+    private static HttpUrl createWebsocketURL(HttpUrl websocketBaseURL, boolean isSandbox,
             MarketDataWebsocketSourceType marketDataWebsocketSourceType) {
-        return new HttpUrl.Builder()
-                .scheme("https")
-                .host(isSandbox ? "stream.data.sandbox.alpaca.markets" : "stream.data.alpaca.markets")
+        return newWebsocketURLBuilder(websocketBaseURL,
+                isSandbox ? "stream.data.sandbox.alpaca.markets" : "stream.data.alpaca.markets")
                 .addPathSegment("v2")
                 .addPathSegment(marketDataWebsocketSourceType.toString())
                 .build();
@@ -51,10 +63,51 @@ public class StockMarketDataWebsocket
      */
     public StockMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
             String brokerAPIKey, String brokerAPISecret, MarketDataWebsocketSourceType marketDataWebsocketSourceType) {
-        super(okHttpClient,
-                createWebsocketURL(brokerAPIKey != null && brokerAPISecret != null, marketDataWebsocketSourceType),
-                "Stock", traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret,
-                StockMarketDataMessageType.class, StockSubscriptionsMessage.class);
+        this(okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, marketDataWebsocketSourceType,
+                "Stock", new SymbolDictionary());
+    }
+
+    /**
+     * Instantiates a new {@link StockMarketDataWebsocket}.
+     *
+     * @param okHttpClient                  the {@link OkHttpClient}
+     * @param traderKeyID                   the trader key ID
+     * @param traderSecretKey               the trader secret key
+     * @param brokerAPIKey                  the broker API key
+     * @param brokerAPISecret               the broker API secret
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param websocketMarketDataTypeName   the websocket market data type name {@link String} used for logging
+     * @param symbolDictionary              the {@link SymbolDictionary}, which may be shared with other websockets
+     */
+    public StockMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            String websocketMarketDataTypeName, SymbolDictionary symbolDictionary) {
+        this(okHttpClient, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret, marketDataWebsocketSourceType,
+                websocketMarketDataTypeName, symbolDictionary, null);
+    }
+
+    /**
+     * Instantiates a new {@link StockMarketDataWebsocket}.
+     *
+     * @param okHttpClient                  the {@link OkHttpClient}
+     * @param traderKeyID                   the trader key ID
+     * @param traderSecretKey               the trader secret key
+     * @param brokerAPIKey                  the broker API key
+     * @param brokerAPISecret               the broker API secret
+     * @param marketDataWebsocketSourceType the {@link MarketDataWebsocketSourceType}
+     * @param websocketMarketDataTypeName   the websocket market data type name {@link String} used for logging
+     * @param symbolDictionary              the {@link SymbolDictionary}, which may be shared with other websockets
+     * @param websocketBaseURL              the websocket base {@link HttpUrl} that overrides the Alpaca stream host
+     *                                      (e.g. a local stand-in server) or <code>null</code> for the default
+     */
+    public StockMarketDataWebsocket(OkHttpClient okHttpClient, String traderKeyID, String traderSecretKey,
+            String brokerAPIKey, String brokerAPISecret, MarketDataWebsocketSourceType marketDataWebsocketSourceType,
+            String websocketMarketDataTypeName, SymbolDictionary symbolDictionary, HttpUrl websocketBaseURL) {
+        super(okHttpClient, createWebsocketURL(websocketBaseURL, brokerAPIKey != null && brokerAPISecret != null,
+                        marketDataWebsocketSourceType),
+                websocketMarketDataTypeName, traderKeyID, traderSecretKey, brokerAPIKey, brokerAPISecret,
+                StockMarketDataMessageType.class, StockSubscriptionsMessage.class, symbolDictionary);
+        this.marketDataWebsocketSourceType = marketDataWebsocketSourceType;
     }
 
     @Override
@@ -73,54 +126,248 @@ public class StockMarketDataWebsocket
     }
 
     @Override
-    protected void callListenerWithMessage(StockMarketDataMessageType messageType, JsonObject messageObject) {
+    protected boolean isConflatableMessageType(StockMarketDataMessageType messageType) {
+        switch (messageType) {
+            case TRADES:
+            case QUOTES:
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+            case LIMIT_UP_LIMIT_DOWN_BANDS:
+            case TRADING_STATUSES:
+                return true;
+            default: // Trade corrections and cancel errors refer to specific previous trades
+                return false;
+        }
+    }
+
+    @Override
+    protected Class<? extends MarketDataMessage> getMessageClass(StockMarketDataMessageType messageType) {
         switch (messageType) {
             case TRADES:
-                listener.onTrade(getGson().fromJson(messageObject,
-                        StockTradeMessage.class));
+                return StockTradeMessage.class;
+            case QUOTES:
+                return StockQuoteMessage.class;
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                return StockBarMessage.class;
+            case TRADE_CORRECTIONS:
+                return StockTradeCorrectionMessage.class;
+            case TRADE_CANCEL_ERRORS:
+                return StockTradeCancelErrorMessage.class;
+            case LIMIT_UP_LIMIT_DOWN_BANDS:
+                return StockLimitUpLimitDownBandMessage.class;
+            case TRADING_STATUSES:
+                return StockTradingStatusMessage.class;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    protected MarketDataMessage readMessage(StockMarketDataMessageType messageType, JsonReader reader)
+            throws IOException {
+        return StockMarketDataMessageReader.read(messageType, reader, symbolDictionary);
+    }
+
+    @Override
+    protected String getMessageSymbol(StockMarketDataMessageType messageType, MarketDataMessage message) {
+        switch (messageType) {
+            case TRADES:
+                return ((StockTradeMessage) message).getSymbol();
+            case QUOTES:
+                return ((StockQuoteMessage) message).getSymbol();
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                return ((StockBarMessage) message).getSymbol();
+            case TRADE_CORRECTIONS:
+                return ((StockTradeCorrectionMessage) message).getSymbol();
+            case TRADE_CANCEL_ERRORS:
+                return ((StockTradeCancelErrorMessage) message).getSymbol();
+            case LIMIT_UP_LIMIT_DOWN_BANDS:
+                return ((StockLimitUpLimitDownBandMessage) message).getSymbol();
+            case TRADING_STATUSES:
+                return ((StockTradingStatusMessage) message).getSymbol();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    protected RFC3339Timestamp getMessageTimestamp(StockMarketDataMessageType messageType,
+            MarketDataMessage message) {
+        switch (messageType) {
+            case TRADES:
+                return ((StockTradeMessage) message).getRfc3339Timestamp();
+            case QUOTES:
+                return ((StockQuoteMessage) message).getRfc3339Timestamp();
+            case MINUTE_BARS:
+            case DAILY_BARS:
+            case UPDATED_BARS:
+                return ((StockBarMessage) message).getRfc3339Timestamp();
+            case TRADE_CORRECTIONS:
+                return ((StockTradeCorrectionMessage) message).getRfc3339Timestamp();
+            case TRADE_CANCEL_ERRORS:
+                return ((StockTradeCancelErrorMessage) message).getRfc3339Timestamp();
+            case LIMIT_UP_LIMIT_DOWN_BANDS:
+                return ((StockLimitUpLimitDownBandMessage) message).getRfc3339Timestamp();
+            case TRADING_STATUSES:
+                return ((StockTradingStatusMessage) message).getRfc3339Timestamp();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    protected void callListenerWithMessage(StockMarketDataMessageType messageType, MarketDataMessage message) {
+        if (listener == null) {
+            return;
+        }
+
+        switch (messageType) {
+            case TRADES:
+                listener.onTrade((StockTradeMessage) message);
                 break;
             case QUOTES:
-                listener.onQuote(getGson().fromJson(messageObject,
-                        StockQuoteMessage.class));
+                listener.onQuote((StockQuoteMessage) message);
                 break;
             case MINUTE_BARS:
-                listener.onMinuteBar(getGson().fromJson(messageObject,
-                        StockBarMessage.class));
+                listener.onMinuteBar((StockBarMessage) message);
                 break;
             case DAILY_BARS:
-                listener.onDailyBar(getGson().fromJson(messageObject,
-                        StockBarMessage.class));
+                listener.onDailyBar((StockBarMessage) message);
                 break;
             case UPDATED_BARS:
-                listener.onUpdatedBar(getGson().fromJson(messageObject,
-                        StockBarMessage.class));
+                listener.onUpdatedBar((StockBarMessage) message);
                 break;
             case TRADE_CORRECTIONS:
-                listener.onTradeCorrection(getGson().fromJson(messageObject,
-                        StockTradeCorrectionMessage.class));
+                listener.onTradeCorrection((StockTradeCorrectionMessage) message);
                 break;
             case TRADE_CANCEL_ERRORS:
-                listener.onTradeCancelError(getGson().fromJson(messageObject,
-                        StockTradeCancelErrorMessage.class));
+                listener.onTradeCancelError((StockTradeCancelErrorMessage) message);
                 break;
             case LIMIT_UP_LIMIT_DOWN_BANDS:
-                listener.onLimitUpLimitDownBand(getGson().fromJson(messageObject,
-                        StockLimitUpLimitDownBandMessage.class));
+                listener.onLimitUpLimitDownBand((StockLimitUpLimitDownBandMessage) message);
                 break;
             case TRADING_STATUSES:
-                listener.onTradingStatus(getGson().fromJson(messageObject,
-                        StockTradingStatusMessage.class));
+                listener.onTradingStatus((StockTradingStatusMessage) message);
                 break;
             default:
                 throw new UnsupportedOperationException();
         }
     }
 
+    @Override
+    protected void updateTickStore(TickStore tickStore, StockMarketDataMessageType messageType,
+            MarketDataMessage message) {
+        switch (messageType) {
+            case TRADES:
+                tickStore.appendTrade((StockTradeMessage) message);
+                break;
+            case QUOTES:
+                tickStore.appendQuote((StockQuoteMessage) message);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    protected void updateMarketDataCache(MarketDataCache marketDataCache, StockMarketDataMessageType messageType,
+            MarketDataMessage message, long receiveNanoTime) {
+        switch (messageType) {
+            case TRADES:
+                final StockTradeMessage trade = (StockTradeMessage) message;
+                if (trade.getSymbol() != null && trade.getRfc3339Timestamp() != null) {
+                    marketDataCache.updateTrade(trade.getSymbol(),
+                            trade.getPrice() == null ? Double.NaN : trade.getPrice(),
+                            trade.getSize() == null ? 0 : trade.getSize(),
+                            trade.getTradeID() == null ? 0 : trade.getTradeID(),
+                            toExchangeChar(trade.getExchange()),
+                            trade.getTimestampEpochNanos(), receiveNanoTime);
+                }
+                break;
+            case QUOTES:
+                final StockQuoteMessage quote = (StockQuoteMessage) message;
+                if (quote.getSymbol() != null && quote.getRfc3339Timestamp() != null) {
+                    marketDataCache.updateQuote(quote.getSymbol(),
+                            quote.getBidPrice() == null ? Double.NaN : quote.getBidPrice(),
+                            quote.getBidSize() == null ? 0 : quote.getBidSize(),
+                            toExchangeChar(quote.getBidExchange()),
+                            quote.getAskPrice() == null ? Double.NaN : quote.getAskPrice(),
+                            quote.getAskSize() == null ? 0 : quote.getAskSize(),
+                            toExchangeChar(quote.getAskExchange()),
+                            quote.getTimestampEpochNanos(), receiveNanoTime);
+                }
+                break;
+            case MINUTE_BARS:
+            case DAILY_BARS:
+                final StockBarMessage bar = (StockBarMessage) message;
+                if (bar.getSymbol() == null || bar.getRfc3339Timestamp() == null) {
+                    break;
+                }
+                final double open = bar.getOpen() == null ? Double.NaN : bar.getOpen();
+                final double high = bar.getHigh() == null ? Double.NaN : bar.getHigh();
+                final double low = bar.getLow() == null ? Double.NaN : bar.getLow();
+                final double close = bar.getClose() == null ? Double.NaN : bar.getClose();
+                final double volume = bar.getVolume() == null ? 0 : bar.getVolume();
+                final long tradeCount = bar.getTradeCount() == null ? 0 : bar.getTradeCount();
+                final double vwap = bar.getVwap() == null ? Double.NaN : bar.getVwap();
+                if (messageType == MINUTE_BARS) {
+                    marketDataCache.updateMinuteBar(bar.getSymbol(), open, high, low, close, volume, tradeCount,
+                            vwap, bar.getTimestampEpochNanos(), receiveNanoTime);
+                } else {
+                    marketDataCache.updateDailyBar(bar.getSymbol(), open, high, low, close, volume, tradeCount,
+                            vwap, bar.getTimestampEpochNanos(), receiveNanoTime);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static char toExchangeChar(String exchange) {
+        return exchange == null || exchange.isEmpty() ? '\0' : exchange.charAt(0);
+    }
+
+    @Override
+    protected MarketDataBackfiller<StockMarketDataMessageType> createBackfiller(
+            MarketDataBackfillClient backfillClient) {
+        return new StockMarketDataBackfiller(backfillClient, marketDataWebsocketSourceType, this);
+    }
+
     @Override
     public void setListener(StockMarketDataListener listener) {
         this.listener = listener;
     }
 
+    @Override
+    public AlpacaPublisher<StockMarketDataMessage> createPublisher(int bufferCapacity,
+            PublisherOverflowPolicy overflowPolicy) {
+        final AlpacaPublisher<StockMarketDataMessage> publisher =
+                new AlpacaPublisher<>(websocketName, bufferCapacity, overflowPolicy);
+        addPublisher(publisher);
+        return publisher;
+    }
+
+    /**
+     * Adds the given {@link AlpacaPublisher} of a {@link ShardedStockMarketDataStream} to the publishers of this
+     * websocket.
+     *
+     * @param publisher the {@link AlpacaPublisher}
+     */
+    void addShardPublisher(AlpacaPublisher<StockMarketDataMessage> publisher) {
+        addPublisher(publisher);
+    }
+
+    @Override
+    public void setFlyweightListener(StockMarketDataFlyweightListener flyweightListener) {
+        flyweightMessageDecoder = flyweightListener == null ? null :
+                new StockFlyweightMessageDecoder(symbolDictionary, flyweightListener);
+    }
+
     @Override
     public void setTradeSubscriptions(Set<String> symbols) {
         symbols = symbols == null ? Set.of() : symbols;
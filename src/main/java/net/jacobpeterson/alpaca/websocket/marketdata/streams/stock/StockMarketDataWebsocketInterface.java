@@ -1,7 +1,14 @@
 package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
 
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessage;
 import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
 import net.jacobpeterson.alpaca.websocket.marketdata.MarketDataWebsocketInterface;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.ConflatingDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.MarketDataDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferOverflowPolicy;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetrySnapshot;
 
 import java.util.Set;
 
@@ -18,6 +25,33 @@ public interface StockMarketDataWebsocketInterface extends MarketDataWebsocketIn
      */
     void setListener(StockMarketDataListener listener);
 
+    /**
+     * Creates a new {@link AlpacaPublisher} view of this stream, which is a {@link java.util.concurrent.Flow.Publisher}
+     * of all decoded {@link StockMarketDataMessage}s of the subscribed symbols and channels. Each subscriber has its
+     * own buffer of up to <code>bufferCapacity</code> messages and only receives as many messages as it has requested,
+     * so any number of subscribers and publishers share this one websocket connection. Messages are published after
+     * they are passed to the {@link StockMarketDataListener}, if any. Subscriptions are still set on this stream. Call
+     * {@link AlpacaPublisher#close()} to complete the subscribers and detach the {@link AlpacaPublisher} from this
+     * stream.
+     *
+     * @param bufferCapacity the maximum number of buffered messages of each subscriber
+     * @param overflowPolicy the {@link PublisherOverflowPolicy} used when a subscriber's buffer is full
+     *
+     * @return the {@link AlpacaPublisher}
+     */
+    AlpacaPublisher<StockMarketDataMessage> createPublisher(int bufferCapacity, PublisherOverflowPolicy overflowPolicy);
+
+    /**
+     * Sets the {@link StockMarketDataFlyweightListener}. While set, trade and quote messages are decoded into
+     * reusable, primitive-backed flyweights and passed to it instead of to the {@link StockMarketDataListener},
+     * without allocating per message in the steady state. All other messages are still passed to the
+     * {@link StockMarketDataListener}. This only applies to JSON (text framed) messages, not MessagePack messages.
+     *
+     * @param flyweightListener the {@link StockMarketDataFlyweightListener} or <code>null</code> to disable
+     *                          flyweight decoding
+     */
+    void setFlyweightListener(StockMarketDataFlyweightListener flyweightListener);
+
     /**
      * Subscribes the given <code>symbols</code> to {@link StockMarketDataMessageType#TRADES}. This will remove all
      * previous {@link StockMarketDataMessageType#TRADES} subscriptions.
@@ -133,4 +167,31 @@ public interface StockMarketDataWebsocketInterface extends MarketDataWebsocketIn
      * @return a {@link Set} of {@link String} symbols
      */
     Set<String> getTradingStatuseSubscriptions();
+
+    /**
+     * Enables conflating dispatch for slow listeners that only need the latest message of each symbol, such as
+     * dashboards and risk monitors. Decoded messages are passed to the {@link StockMarketDataListener} on a dedicated daemon
+     * thread. While the listener is busy, a message of one of the <code>conflatedMessageTypes</code> overwrites the
+     * pending message of the same type and symbol, if any, so the listener only receives the latest message of each
+     * pending symbol. The memory usage and listener load are therefore bounded by the number of symbols, regardless of
+     * the feed rate. Messages of other types are passed through in order. Flyweight listeners are still called on the
+     * websocket reader thread and are never conflated. This replaces (and shuts down) the current
+     * {@link MarketDataDispatcher}. Use {@link MarketDataDispatcher#getConflatedMessageCount()} via
+     * {@link #getDispatcher()} or {@link MarketDataTelemetrySnapshot#getConflatedMessageCount()} to monitor how many
+     * messages were conflated.
+     * <br>
+     * {@link StockMarketDataMessageType#TRADE_CORRECTIONS} and
+     * {@link StockMarketDataMessageType#TRADE_CANCEL_ERRORS} can't be conflated since they refer to specific previous
+     * trades.
+     *
+     * @param conflatedMessageTypes     the {@link Set} of {@link StockMarketDataMessageType}s to conflate (e.g.
+     *                                  {@link StockMarketDataMessageType#QUOTES})
+     * @param passthroughCapacity       the maximum number of pending messages of the other message types
+     * @param passthroughOverflowPolicy the {@link RingBufferOverflowPolicy} used when a message of the other message
+     *                                  types is dispatched while <code>passthroughCapacity</code> is reached
+     *
+     * @see ConflatingDispatcher
+     */
+    void setConflatingDispatch(Set<StockMarketDataMessageType> conflatedMessageTypes, int passthroughCapacity,
+            RingBufferOverflowPolicy passthroughOverflowPolicy);
 }
@@ -0,0 +1,143 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.quote.StockQuoteMessage;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+
+/**
+ * {@link StockQuoteFlyweight} is a reusable, mutable, primitive-backed view of a {@link StockQuoteMessage}. An instance
+ * is only valid for the duration of a {@link StockMarketDataFlyweightListener#onQuote(StockQuoteFlyweight)} callback,
+ * so copy any needed values instead of retaining the instance.
+ */
+public class StockQuoteFlyweight {
+
+    int symbolID;
+    String symbol;
+    char askExchange;
+    double askPrice;
+    long askSize;
+    char bidExchange;
+    double bidPrice;
+    long bidSize;
+    long timestampEpochNanos;
+    char tape;
+
+    StockQuoteFlyweight() {}
+
+    /**
+     * Gets the {@link SymbolDictionary} ID of the symbol.
+     *
+     * @return the symbol ID
+     */
+    public int getSymbolID() {
+        return symbolID;
+    }
+
+    /**
+     * Gets the symbol. This is the interned {@link String} from the {@link SymbolDictionary}.
+     *
+     * @return the symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the ask exchange code.
+     *
+     * @return the ask exchange code or <code>'\0'</code> if absent
+     */
+    public char getAskExchange() {
+        return askExchange;
+    }
+
+    /**
+     * Gets the ask price.
+     *
+     * @return the ask price or {@link Double#NaN} if absent
+     */
+    public double getAskPrice() {
+        return askPrice;
+    }
+
+    /**
+     * Gets the ask size.
+     *
+     * @return the ask size
+     */
+    public long getAskSize() {
+        return askSize;
+    }
+
+    /**
+     * Gets the bid exchange code.
+     *
+     * @return the bid exchange code or <code>'\0'</code> if absent
+     */
+    public char getBidExchange() {
+        return bidExchange;
+    }
+
+    /**
+     * Gets the bid price.
+     *
+     * @return the bid price or {@link Double#NaN} if absent
+     */
+    public double getBidPrice() {
+        return bidPrice;
+    }
+
+    /**
+     * Gets the bid size.
+     *
+     * @return the bid size
+     */
+    public long getBidSize() {
+        return bidSize;
+    }
+
+    /**
+     * Gets the timestamp as epoch nanoseconds.
+     *
+     * @return the timestamp epoch nanoseconds or {@link Long#MIN_VALUE} if absent
+     */
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    /**
+     * Gets the tape.
+     *
+     * @return the tape or <code>'\0'</code> if absent
+     */
+    public char getTape() {
+        return tape;
+    }
+
+    void clear() {
+        symbolID = SymbolDictionary.NO_ID;
+        symbol = null;
+        askExchange = '\0';
+        askPrice = Double.NaN;
+        askSize = 0;
+        bidExchange = '\0';
+        bidPrice = Double.NaN;
+        bidSize = 0;
+        timestampEpochNanos = Long.MIN_VALUE;
+        tape = '\0';
+    }
+
+    @Override
+    public String toString() {
+        return "StockQuoteFlyweight{" +
+                "symbol=" + symbol +
+                ", askExchange=" + askExchange +
+                ", askPrice=" + askPrice +
+                ", askSize=" + askSize +
+                ", bidExchange=" + bidExchange +
+                ", bidPrice=" + bidPrice +
+                ", bidSize=" + bidSize +
+                ", timestampEpochNanos=" + timestampEpochNanos +
+                ", tape=" + tape +
+                '}';
+    }
+}
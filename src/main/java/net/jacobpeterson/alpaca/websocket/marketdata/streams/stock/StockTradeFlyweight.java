@@ -0,0 +1,119 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+
+/**
+ * {@link StockTradeFlyweight} is a reusable, mutable, primitive-backed view of a {@link StockTradeMessage}. An instance
+ * is only valid for the duration of a {@link StockMarketDataFlyweightListener#onTrade(StockTradeFlyweight)} callback,
+ * so copy any needed values instead of retaining the instance.
+ */
+public class StockTradeFlyweight {
+
+    int symbolID;
+    String symbol;
+    long tradeID;
+    char exchange;
+    double price;
+    long size;
+    long timestampEpochNanos;
+    char tape;
+
+    StockTradeFlyweight() {}
+
+    /**
+     * Gets the {@link SymbolDictionary} ID of the symbol.
+     *
+     * @return the symbol ID
+     */
+    public int getSymbolID() {
+        return symbolID;
+    }
+
+    /**
+     * Gets the symbol. This is the interned {@link String} from the {@link SymbolDictionary}.
+     *
+     * @return the symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the trade ID.
+     *
+     * @return the trade ID
+     */
+    public long getTradeID() {
+        return tradeID;
+    }
+
+    /**
+     * Gets the exchange code where the trade occurred.
+     *
+     * @return the exchange code or <code>'\0'</code> if absent
+     */
+    public char getExchange() {
+        return exchange;
+    }
+
+    /**
+     * Gets the trade price.
+     *
+     * @return the trade price or {@link Double#NaN} if absent
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Gets the trade size.
+     *
+     * @return the trade size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the timestamp as epoch nanoseconds.
+     *
+     * @return the timestamp epoch nanoseconds or {@link Long#MIN_VALUE} if absent
+     */
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    /**
+     * Gets the tape.
+     *
+     * @return the tape or <code>'\0'</code> if absent
+     */
+    public char getTape() {
+        return tape;
+    }
+
+    void clear() {
+        symbolID = SymbolDictionary.NO_ID;
+        symbol = null;
+        tradeID = 0;
+        exchange = '\0';
+        price = Double.NaN;
+        size = 0;
+        timestampEpochNanos = Long.MIN_VALUE;
+        tape = '\0';
+    }
+
+    @Override
+    public String toString() {
+        return "StockTradeFlyweight{" +
+                "symbol=" + symbol +
+                ", tradeID=" + tradeID +
+                ", exchange=" + exchange +
+                ", price=" + price +
+                ", size=" + size +
+                ", timestampEpochNanos=" + timestampEpochNanos +
+                ", tape=" + tape +
+                '}';
+    }
+}
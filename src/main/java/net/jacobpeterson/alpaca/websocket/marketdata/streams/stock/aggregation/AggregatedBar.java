@@ -0,0 +1,101 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.aggregation;
+
+/**
+ * {@link AggregatedBar} is a reusable, mutable, primitive-backed bar of a {@link StockBarAggregator}. An instance is
+ * only valid for the duration of an {@link AggregatedBarListener} callback, so copy any needed values instead of
+ * retaining the instance.
+ */
+public class AggregatedBar {
+
+    String symbol;
+    BarTimeframe timeframe;
+    long startEpochNanos;
+    long endEpochNanos;
+    double open;
+    double high;
+    double low;
+    double close;
+    long volume;
+    long tradeCount;
+    double vwap;
+
+    AggregatedBar() {}
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public BarTimeframe getTimeframe() {
+        return timeframe;
+    }
+
+    /**
+     * Gets the start epoch nanoseconds. For {@link BarTimeframeType#TIME} bars, this is the inclusive start of the
+     * interval. Otherwise, this is the timestamp of the first trade.
+     *
+     * @return the start epoch nanoseconds
+     */
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    /**
+     * Gets the end epoch nanoseconds. For {@link BarTimeframeType#TIME} bars, this is the exclusive end of the
+     * interval. Otherwise, this is the timestamp of the last trade.
+     *
+     * @return the end epoch nanoseconds
+     */
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    /**
+     * Gets the volume-weighted average price.
+     *
+     * @return the VWAP or {@link Double#NaN} if the {@link #getVolume()} is <code>0</code>
+     */
+    public double getVWAP() {
+        return vwap;
+    }
+
+    @Override
+    public String toString() {
+        return "AggregatedBar{" +
+                "symbol=" + symbol +
+                ", timeframe=" + timeframe +
+                ", startEpochNanos=" + startEpochNanos +
+                ", endEpochNanos=" + endEpochNanos +
+                ", open=" + open +
+                ", high=" + high +
+                ", low=" + low +
+                ", close=" + close +
+                ", volume=" + volume +
+                ", tradeCount=" + tradeCount +
+                ", vwap=" + vwap +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.aggregation;
+
+/**
+ * {@link AggregatedBarListener} defines a listener interface for the bars of a {@link StockBarAggregator}. The given
+ * {@link AggregatedBar} instance is reused, so it is only valid for the duration of the callback.
+ */
+public interface AggregatedBarListener {
+
+    /**
+     * Called when a bar closes.
+     *
+     * @param bar the {@link AggregatedBar}
+     */
+    void onBar(AggregatedBar bar);
+
+    /**
+     * Called when a previously closed bar is revised due to a trade correction, a trade cancel/error, or (for
+     * {@link BarTimeframeType#TIME} bars) a late trade.
+     *
+     * @param bar the revised {@link AggregatedBar}
+     */
+    void onBarCorrection(AggregatedBar bar);
+}
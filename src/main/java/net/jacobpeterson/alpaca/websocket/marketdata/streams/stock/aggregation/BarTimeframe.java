@@ -0,0 +1,104 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.aggregation;
+
+import java.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link BarTimeframe} is an immutable bar timeframe of a {@link BarTimeframeType} and an amount: nanoseconds for
+ * {@link BarTimeframeType#TIME}, trades for {@link BarTimeframeType#TICK}, and shares for
+ * {@link BarTimeframeType#VOLUME}.
+ */
+public final class BarTimeframe {
+
+    /**
+     * Creates a {@link BarTimeframeType#TIME} {@link BarTimeframe}.
+     *
+     * @param duration the bar {@link Duration} (e.g. 5 seconds)
+     *
+     * @return the {@link BarTimeframe}
+     */
+    public static BarTimeframe ofTime(Duration duration) {
+        checkNotNull(duration);
+        checkArgument(!duration.isNegative() && !duration.isZero(), "duration must be positive!");
+        return new BarTimeframe(BarTimeframeType.TIME, duration.toNanos());
+    }
+
+    /**
+     * Creates a {@link BarTimeframeType#TICK} {@link BarTimeframe}.
+     *
+     * @param tradeCount the number of trades per bar
+     *
+     * @return the {@link BarTimeframe}
+     */
+    public static BarTimeframe ofTicks(long tradeCount) {
+        checkArgument(tradeCount > 0, "tradeCount must be positive!");
+        return new BarTimeframe(BarTimeframeType.TICK, tradeCount);
+    }
+
+    /**
+     * Creates a {@link BarTimeframeType#VOLUME} {@link BarTimeframe}.
+     *
+     * @param volume the volume threshold per bar
+     *
+     * @return the {@link BarTimeframe}
+     */
+    public static BarTimeframe ofVolume(long volume) {
+        checkArgument(volume > 0, "volume must be positive!");
+        return new BarTimeframe(BarTimeframeType.VOLUME, volume);
+    }
+
+    private final BarTimeframeType type;
+    private final long amount;
+
+    private BarTimeframe(BarTimeframeType type, long amount) {
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public BarTimeframeType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the amount: nanoseconds for {@link BarTimeframeType#TIME}, trades for {@link BarTimeframeType#TICK}, and
+     * shares for {@link BarTimeframeType#VOLUME}.
+     *
+     * @return the amount
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BarTimeframe)) {
+            return false;
+        }
+        final BarTimeframe that = (BarTimeframe) o;
+        return type == that.type && amount == that.amount;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + Long.hashCode(amount);
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case TIME:
+                return Duration.ofNanos(amount).toString();
+            case TICK:
+                return amount + "T";
+            case VOLUME:
+                return amount + "V";
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+}
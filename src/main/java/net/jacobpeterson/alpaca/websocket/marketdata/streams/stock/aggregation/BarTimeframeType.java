@@ -0,0 +1,24 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.aggregation;
+
+/**
+ * {@link BarTimeframeType} defines what closes a bar of a {@link BarTimeframe}.
+ */
+public enum BarTimeframeType {
+
+    /**
+     * Bars span fixed time intervals aligned to the Unix epoch (e.g. 5-second bars start at :00, :05, :10, and so on)
+     * and close when a trade of a later interval is received or when time is advanced past their end.
+     */
+    TIME,
+
+    /**
+     * Bars close after a fixed number of trades.
+     */
+    TICK,
+
+    /**
+     * Bars close once their volume reaches a threshold. The trade that reaches the threshold is included in the bar
+     * (it isn't split), so bar volumes may exceed the threshold.
+     */
+    VOLUME
+}
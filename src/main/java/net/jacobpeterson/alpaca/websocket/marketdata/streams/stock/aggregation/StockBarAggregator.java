@@ -0,0 +1,600 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.aggregation;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecancelerror.StockTradeCancelErrorMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.tradecorrection.StockTradeCorrectionMessage;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataFlyweightListener;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataListenerAdapter;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockQuoteFlyweight;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockTradeFlyweight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link StockBarAggregator} incrementally aggregates stock trades into bars of custom {@link BarTimeframe}s (e.g.
+ * 5-second, 15-second, and 5-minute bars, or tick and volume bars) per symbol, and passes them to an
+ * {@link AggregatedBarListener} when they close. It can be set directly as the listener and/or the flyweight listener
+ * of a {@link net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataWebsocketInterface}, or its
+ * <code>on*</code> methods can be called from another listener.
+ * <p>
+ * The recent trades of each symbol (up to the maximum number of retained trades) are kept in primitive ring buffers
+ * along with the trade ranges of the most recently closed bars, so trade corrections and trade cancels/errors are
+ * applied retroactively: the affected open bar is recomputed and an affected closed bar is recomputed and passed to
+ * {@link AggregatedBarListener#onBarCorrection(AggregatedBar)}. Corrections and cancels of trades that are no longer
+ * retained are ignored. Once the ring buffers of a symbol have grown to their steady-state size, aggregating a trade
+ * doesn't allocate.
+ * <p>
+ * {@link BarTimeframeType#TIME} bars close when a trade of a later interval is received for the same symbol, so call
+ * {@link #advanceTime(long)} periodically to close bars of symbols that stop trading. This class is thread-safe: the
+ * state of each symbol is guarded by its own monitor, under which {@link AggregatedBarListener} is called.
+ */
+public class StockBarAggregator extends StockMarketDataListenerAdapter implements StockMarketDataFlyweightListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockBarAggregator.class);
+
+    /**
+     * The default maximum number of trades retained per symbol for applying trade corrections and cancels/errors.
+     */
+    public static final int DEFAULT_MAX_RETAINED_TRADES = 4096;
+
+    private static final int INITIAL_RETAINED_TRADES = 64;
+    private static final int RETAINED_BARS = 16;
+
+    private final List<BarTimeframe> timeframes;
+    private final AggregatedBarListener listener;
+    private final int maxRetainedTrades;
+    private final ConcurrentHashMap<String, SymbolState> symbolStates;
+
+    /**
+     * Instantiates a new {@link StockBarAggregator} with {@link #DEFAULT_MAX_RETAINED_TRADES}.
+     *
+     * @param timeframes the {@link BarTimeframe}s to aggregate for every symbol
+     * @param listener   the {@link AggregatedBarListener}
+     */
+    public StockBarAggregator(List<BarTimeframe> timeframes, AggregatedBarListener listener) {
+        this(timeframes, listener, DEFAULT_MAX_RETAINED_TRADES);
+    }
+
+    /**
+     * Instantiates a new {@link StockBarAggregator}.
+     *
+     * @param timeframes        the {@link BarTimeframe}s to aggregate for every symbol
+     * @param listener          the {@link AggregatedBarListener}
+     * @param maxRetainedTrades the maximum number of trades retained per symbol for applying trade corrections and
+     *                          cancels/errors (rounded up to a power of two)
+     */
+    public StockBarAggregator(List<BarTimeframe> timeframes, AggregatedBarListener listener, int maxRetainedTrades) {
+        checkNotNull(timeframes);
+        checkArgument(!timeframes.isEmpty(), "timeframes must not be empty!");
+        checkArgument(timeframes.stream().distinct().count() == timeframes.size(), "timeframes must be distinct!");
+        checkNotNull(listener);
+        checkArgument(maxRetainedTrades > 0 && maxRetainedTrades <= 1 << 30,
+                "maxRetainedTrades must be positive and at most 2^30!");
+        this.timeframes = List.copyOf(timeframes);
+        this.listener = listener;
+        this.maxRetainedTrades = Math.max(INITIAL_RETAINED_TRADES, Integer.highestOneBit(maxRetainedTrades - 1) << 1);
+        symbolStates = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onTrade(StockTradeMessage trade) {
+        if (trade.getSymbol() == null || trade.getPrice() == null || trade.getSize() == null ||
+                trade.getRfc3339Timestamp() == null) {
+            return;
+        }
+        onTrade(trade.getSymbol(), trade.getTradeID() == null ? 0 : trade.getTradeID(),
+                toExchangeChar(trade.getExchange()), trade.getPrice(), trade.getSize(),
+                trade.getTimestampEpochNanos());
+    }
+
+    @Override
+    public void onTrade(StockTradeFlyweight trade) {
+        if (trade.getSymbol() != null) {
+            onTrade(trade.getSymbol(), trade.getTradeID(), trade.getExchange(), trade.getPrice(), trade.getSize(),
+                    trade.getTimestampEpochNanos());
+        }
+    }
+
+    @Override
+    public void onQuote(StockQuoteFlyweight quote) {}
+
+    @Override
+    public void onTradeCorrection(StockTradeCorrectionMessage tradeCorrection) {
+        if (tradeCorrection.getSymbol() == null || tradeCorrection.getOriginalTradeID() == null ||
+                tradeCorrection.getCorrectedPrice() == null || tradeCorrection.getCorrectedSize() == null) {
+            return;
+        }
+        correctTrade(tradeCorrection.getSymbol(), tradeCorrection.getOriginalTradeID(),
+                toExchangeChar(tradeCorrection.getExchange()),
+                tradeCorrection.getCorrectedTradeID() == null ? tradeCorrection.getOriginalTradeID() :
+                        tradeCorrection.getCorrectedTradeID(),
+                tradeCorrection.getCorrectedPrice(), tradeCorrection.getCorrectedSize());
+    }
+
+    @Override
+    public void onTradeCancelError(StockTradeCancelErrorMessage tradeCancelError) {
+        if (tradeCancelError.getSymbol() != null && tradeCancelError.getTradeID() != null) {
+            cancelTrade(tradeCancelError.getSymbol(), tradeCancelError.getTradeID(),
+                    toExchangeChar(tradeCancelError.getExchange()));
+        }
+    }
+
+    /**
+     * Aggregates a trade.
+     *
+     * @param symbol              the symbol
+     * @param tradeID             the trade ID
+     * @param exchange            the exchange code or <code>'\0'</code>
+     * @param price               the price
+     * @param size                the size
+     * @param timestampEpochNanos the trade timestamp epoch nanoseconds
+     */
+    public void onTrade(String symbol, long tradeID, char exchange, double price, long size,
+            long timestampEpochNanos) {
+        final SymbolState state = getOrCreateSymbolState(symbol);
+        synchronized (state) {
+            state.addTrade(tradeID, exchange, price, size, timestampEpochNanos);
+        }
+    }
+
+    /**
+     * Corrects a retained trade and revises the bars that contain it.
+     *
+     * @param symbol           the symbol
+     * @param originalTradeID  the original trade ID
+     * @param exchange         the exchange code or <code>'\0'</code> to match any exchange
+     * @param correctedTradeID the corrected trade ID
+     * @param correctedPrice   the corrected price
+     * @param correctedSize    the corrected size
+     */
+    public void correctTrade(String symbol, long originalTradeID, char exchange, long correctedTradeID,
+            double correctedPrice, long correctedSize) {
+        final SymbolState state = symbolStates.get(symbol);
+        if (state != null) {
+            synchronized (state) {
+                state.reviseTrade(originalTradeID, exchange, false, correctedTradeID, correctedPrice,
+                        correctedSize);
+            }
+        }
+    }
+
+    /**
+     * Cancels a retained trade and revises the bars that contain it.
+     *
+     * @param symbol   the symbol
+     * @param tradeID  the trade ID
+     * @param exchange the exchange code or <code>'\0'</code> to match any exchange
+     */
+    public void cancelTrade(String symbol, long tradeID, char exchange) {
+        final SymbolState state = symbolStates.get(symbol);
+        if (state != null) {
+            synchronized (state) {
+                state.reviseTrade(tradeID, exchange, true, tradeID, 0, 0);
+            }
+        }
+    }
+
+    /**
+     * Closes the open {@link BarTimeframeType#TIME} bars of all symbols whose intervals end at or before the given
+     * time.
+     *
+     * @param epochNanos the current epoch nanoseconds (e.g. from the wall clock or the latest message timestamp)
+     */
+    public void advanceTime(long epochNanos) {
+        for (SymbolState state : symbolStates.values()) {
+            synchronized (state) {
+                state.advanceTime(epochNanos);
+            }
+        }
+    }
+
+    /**
+     * Discards the state of all symbols without closing their open bars.
+     */
+    public void clear() {
+        symbolStates.clear();
+    }
+
+    public List<BarTimeframe> getTimeframes() {
+        return timeframes;
+    }
+
+    /**
+     * Gets an unmodifiable view of the symbols that have been aggregated.
+     *
+     * @return a {@link Set} of {@link String} symbols
+     */
+    public Set<String> getSymbols() {
+        return Collections.unmodifiableSet(symbolStates.keySet());
+    }
+
+    private SymbolState getOrCreateSymbolState(String symbol) {
+        final SymbolState state = symbolStates.get(symbol);
+        return state != null ? state : symbolStates.computeIfAbsent(symbol, SymbolState::new);
+    }
+
+    private static char toExchangeChar(String exchange) {
+        return exchange == null || exchange.isEmpty() ? '\0' : exchange.charAt(0);
+    }
+
+    /**
+     * {@link BarAccumulator} accumulates the trades of a bar.
+     */
+    private static final class BarAccumulator {
+
+        double open;
+        double high;
+        double low;
+        double close;
+        long openEpochNanos;
+        long closeEpochNanos;
+        long volume;
+        long tradeCount;
+        double notional;
+
+        void reset() {
+            open = high = low = close = Double.NaN;
+            openEpochNanos = closeEpochNanos = 0;
+            volume = tradeCount = 0;
+            notional = 0;
+        }
+
+        void add(double price, long size, long timestampEpochNanos) {
+            if (tradeCount == 0) {
+                open = high = low = close = price;
+                openEpochNanos = closeEpochNanos = timestampEpochNanos;
+            } else {
+                if (timestampEpochNanos < openEpochNanos) {
+                    open = price;
+                    openEpochNanos = timestampEpochNanos;
+                }
+                if (timestampEpochNanos >= closeEpochNanos) {
+                    close = price;
+                    closeEpochNanos = timestampEpochNanos;
+                }
+                high = Math.max(high, price);
+                low = Math.min(low, price);
+            }
+            volume += size;
+            tradeCount++;
+            notional += price * size;
+        }
+
+        void copyTo(AggregatedBar bar) {
+            bar.open = open;
+            bar.high = high;
+            bar.low = low;
+            bar.close = close;
+            bar.volume = volume;
+            bar.tradeCount = tradeCount;
+            bar.vwap = volume == 0 ? Double.NaN : notional / volume;
+        }
+    }
+
+    /**
+     * {@link BarState} holds the open bar and the most recently closed bars of a {@link BarTimeframe} of a symbol.
+     */
+    private static final class BarState {
+
+        final BarTimeframe timeframe;
+        final boolean time;
+        final long amount;
+        final BarAccumulator current;
+        boolean open;
+        long firstSeq;
+        long startEpochNanos;
+        long endEpochNanos;
+        // Ring of the trade sequence ranges and intervals of the most recently closed bars
+        final long[] closedFirstSeqs;
+        final long[] closedEndSeqs;
+        final long[] closedStartEpochNanos;
+        final long[] closedEndEpochNanos;
+        int closedCount;
+        int closedHead;
+
+        BarState(BarTimeframe timeframe) {
+            this.timeframe = timeframe;
+            time = timeframe.getType() == BarTimeframeType.TIME;
+            amount = timeframe.getAmount();
+            current = new BarAccumulator();
+            current.reset();
+            closedFirstSeqs = new long[RETAINED_BARS];
+            closedEndSeqs = new long[RETAINED_BARS];
+            closedStartEpochNanos = new long[RETAINED_BARS];
+            closedEndEpochNanos = new long[RETAINED_BARS];
+        }
+
+        boolean isFull() {
+            return timeframe.getType() == BarTimeframeType.TICK ? current.tradeCount >= amount :
+                    current.volume >= amount;
+        }
+
+        void recordClosed(long endSeq) {
+            closedHead = (closedHead + 1) % RETAINED_BARS;
+            closedFirstSeqs[closedHead] = firstSeq;
+            closedEndSeqs[closedHead] = endSeq;
+            closedStartEpochNanos[closedHead] = startEpochNanos;
+            closedEndEpochNanos[closedHead] = endEpochNanos;
+            closedCount = Math.min(closedCount + 1, RETAINED_BARS);
+        }
+
+        /**
+         * Finds the closed bar that contains a trade.
+         *
+         * @return the index into the closed bar ring or <code>-1</code> if not found
+         */
+        int findClosed(long seq, long timestampEpochNanos) {
+            for (int offset = 0; offset < closedCount; offset++) {
+                final int index = Math.floorMod(closedHead - offset, RETAINED_BARS);
+                if (time ? timestampEpochNanos >= closedStartEpochNanos[index] &&
+                        timestampEpochNanos < closedEndEpochNanos[index] :
+                        seq >= closedFirstSeqs[index] && seq < closedEndSeqs[index]) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * {@link SymbolState} holds the retained trades and the {@link BarState}s of a symbol.
+     */
+    private final class SymbolState {
+
+        final String symbol;
+        final BarState[] barStates;
+        final AggregatedBar bar;
+        final BarAccumulator scratch;
+        // Ring of the retained trades indexed by trade sequence number
+        long[] tradeIDs;
+        char[] exchanges;
+        double[] prices;
+        long[] sizes;
+        long[] timestamps;
+        boolean[] canceled;
+        long nextSeq;
+
+        SymbolState(String symbol) {
+            this.symbol = symbol;
+            barStates = new BarState[timeframes.size()];
+            for (int index = 0; index < barStates.length; index++) {
+                barStates[index] = new BarState(timeframes.get(index));
+            }
+            bar = new AggregatedBar();
+            bar.symbol = symbol;
+            scratch = new BarAccumulator();
+            allocateRing(Math.min(INITIAL_RETAINED_TRADES, maxRetainedTrades));
+        }
+
+        private void allocateRing(int capacity) {
+            final long[] oldTradeIDs = tradeIDs;
+            final char[] oldExchanges = exchanges;
+            final double[] oldPrices = prices;
+            final long[] oldSizes = sizes;
+            final long[] oldTimestamps = timestamps;
+            final boolean[] oldCanceled = canceled;
+            tradeIDs = new long[capacity];
+            exchanges = new char[capacity];
+            prices = new double[capacity];
+            sizes = new long[capacity];
+            timestamps = new long[capacity];
+            canceled = new boolean[capacity];
+            if (oldTradeIDs != null) {
+                final int oldMask = oldTradeIDs.length - 1;
+                final int mask = capacity - 1;
+                for (long seq = getOldestSeq(oldTradeIDs.length); seq < nextSeq; seq++) {
+                    final int oldIndex = (int) (seq & oldMask);
+                    final int index = (int) (seq & mask);
+                    tradeIDs[index] = oldTradeIDs[oldIndex];
+                    exchanges[index] = oldExchanges[oldIndex];
+                    prices[index] = oldPrices[oldIndex];
+                    sizes[index] = oldSizes[oldIndex];
+                    timestamps[index] = oldTimestamps[oldIndex];
+                    canceled[index] = oldCanceled[oldIndex];
+                }
+            }
+        }
+
+        private long getOldestSeq(int capacity) {
+            return Math.max(0, nextSeq - capacity);
+        }
+
+        void addTrade(long tradeID, char exchange, double price, long size, long timestampEpochNanos) {
+            if (nextSeq - getOldestSeq(tradeIDs.length) == tradeIDs.length && tradeIDs.length < maxRetainedTrades) {
+                allocateRing(tradeIDs.length << 1);
+            }
+            final long seq = nextSeq;
+            final int index = (int) (seq & (tradeIDs.length - 1));
+            tradeIDs[index] = tradeID;
+            exchanges[index] = exchange;
+            prices[index] = price;
+            sizes[index] = size;
+            timestamps[index] = timestampEpochNanos;
+            canceled[index] = false;
+            nextSeq++;
+
+            for (BarState barState : barStates) {
+                if (barState.time) {
+                    addTimeTrade(barState, seq, price, size, timestampEpochNanos);
+                } else {
+                    if (!barState.open) {
+                        openBar(barState, seq, timestampEpochNanos);
+                    }
+                    barState.current.add(price, size, timestampEpochNanos);
+                    barState.endEpochNanos = Math.max(barState.endEpochNanos, timestampEpochNanos);
+                    if (barState.isFull()) {
+                        closeBar(barState);
+                    }
+                }
+            }
+        }
+
+        private void addTimeTrade(BarState barState, long seq, double price, long size, long timestampEpochNanos) {
+            final long intervalStart = Math.floorDiv(timestampEpochNanos, barState.amount) * barState.amount;
+            if (barState.open && intervalStart == barState.startEpochNanos) {
+                barState.current.add(price, size, timestampEpochNanos);
+                return;
+            }
+            final long latestStart = barState.open ? barState.startEpochNanos : barState.closedCount == 0 ?
+                    Long.MIN_VALUE : barState.closedEndEpochNanos[barState.closedHead];
+            if (timestampEpochNanos < latestStart) { // Late trade
+                final int closedIndex = barState.findClosed(seq, timestampEpochNanos);
+                if (closedIndex != -1) {
+                    recomputeClosedBar(barState, closedIndex);
+                } else {
+                    LOGGER.debug("Ignoring late {} trade for {} bars: {}", symbol, barState.timeframe,
+                            timestampEpochNanos);
+                }
+                return;
+            }
+            if (barState.open) {
+                closeBar(barState);
+            }
+            openBar(barState, seq, intervalStart);
+            barState.endEpochNanos = intervalStart + barState.amount;
+            barState.current.add(price, size, timestampEpochNanos);
+        }
+
+        private void openBar(BarState barState, long seq, long startEpochNanos) {
+            barState.open = true;
+            barState.firstSeq = seq;
+            barState.startEpochNanos = startEpochNanos;
+            barState.endEpochNanos = startEpochNanos;
+            barState.current.reset();
+        }
+
+        private void closeBar(BarState barState) {
+            barState.open = false;
+            barState.recordClosed(nextSeq);
+            if (barState.current.tradeCount == 0) { // All trades were canceled
+                return;
+            }
+            prepareBar(barState, barState.current, barState.startEpochNanos, barState.endEpochNanos);
+            listener.onBar(bar);
+        }
+
+        private void prepareBar(BarState barState, BarAccumulator accumulator, long startEpochNanos,
+                long endEpochNanos) {
+            bar.timeframe = barState.timeframe;
+            bar.startEpochNanos = startEpochNanos;
+            bar.endEpochNanos = endEpochNanos;
+            accumulator.copyTo(bar);
+        }
+
+        void advanceTime(long epochNanos) {
+            for (BarState barState : barStates) {
+                if (barState.time && barState.open && barState.endEpochNanos <= epochNanos) {
+                    closeBar(barState);
+                }
+            }
+        }
+
+        void reviseTrade(long tradeID, char exchange, boolean cancel, long correctedTradeID, double correctedPrice,
+                long correctedSize) {
+            final int mask = tradeIDs.length - 1;
+            final long oldestSeq = getOldestSeq(tradeIDs.length);
+            long seq = nextSeq - 1;
+            for (; seq >= oldestSeq; seq--) {
+                final int index = (int) (seq & mask);
+                if (tradeIDs[index] == tradeID && !canceled[index] &&
+                        (exchange == '\0' || exchanges[index] == '\0' || exchanges[index] == exchange)) {
+                    break;
+                }
+            }
+            if (seq < oldestSeq) {
+                LOGGER.debug("Ignoring correction or cancel of unretained {} trade: {}", symbol, tradeID);
+                return;
+            }
+
+            final int index = (int) (seq & mask);
+            final double oldPrice = prices[index];
+            final long oldSize = sizes[index];
+            if (cancel) {
+                canceled[index] = true;
+            } else {
+                tradeIDs[index] = correctedTradeID;
+                prices[index] = correctedPrice;
+                sizes[index] = correctedSize;
+            }
+
+            final long timestampEpochNanos = timestamps[index];
+            for (BarState barState : barStates) {
+                if (barState.open && (barState.time ?
+                        timestampEpochNanos >= barState.startEpochNanos &&
+                                timestampEpochNanos < barState.endEpochNanos :
+                        seq >= barState.firstSeq)) {
+                    if (!accumulate(barState, barState.current, barState.firstSeq, nextSeq,
+                            barState.startEpochNanos, barState.endEpochNanos)) {
+                        // Some trades of the open bar are no longer retained, so only adjust the totals
+                        final BarAccumulator current = barState.current;
+                        current.volume -= oldSize;
+                        current.notional -= oldPrice * oldSize;
+                        if (cancel) {
+                            current.tradeCount--;
+                        } else {
+                            current.volume += correctedSize;
+                            current.notional += correctedPrice * correctedSize;
+                        }
+                        continue;
+                    }
+                    if (!barState.time && barState.isFull()) {
+                        closeBar(barState);
+                    }
+                    continue;
+                }
+                final int closedIndex = barState.findClosed(seq, timestampEpochNanos);
+                if (closedIndex != -1) {
+                    recomputeClosedBar(barState, closedIndex);
+                }
+            }
+        }
+
+        private void recomputeClosedBar(BarState barState, int closedIndex) {
+            final long startEpochNanos = barState.closedStartEpochNanos[closedIndex];
+            final long endEpochNanos = barState.closedEndEpochNanos[closedIndex];
+            // Late trades of time bars are retained after the end of their bars
+            final long endSeq = barState.time ? nextSeq : barState.closedEndSeqs[closedIndex];
+            if (!accumulate(barState, scratch, barState.closedFirstSeqs[closedIndex], endSeq, startEpochNanos,
+                    endEpochNanos)) {
+                LOGGER.debug("Unable to revise {} {} bar since its trades are no longer retained.", symbol,
+                        barState.timeframe);
+                return;
+            }
+            prepareBar(barState, scratch, startEpochNanos, endEpochNanos);
+            listener.onBarCorrection(bar);
+        }
+
+        /**
+         * Accumulates the retained, uncanceled trades of a bar from <code>firstSeq</code> (inclusive) to
+         * <code>endSeq</code> (exclusive) into the given {@link BarAccumulator}. For {@link BarTimeframeType#TIME}
+         * bars, only the trades within the interval are accumulated. The {@link BarAccumulator} is left untouched if
+         * not all trades of the bar are retained.
+         *
+         * @return <code>true</code> if all trades of the bar are retained, <code>false</code> otherwise
+         */
+        private boolean accumulate(BarState barState, BarAccumulator accumulator, long firstSeq, long endSeq,
+                long startEpochNanos, long endEpochNanos) {
+            if (firstSeq < getOldestSeq(tradeIDs.length)) {
+                return false;
+            }
+            accumulator.reset();
+            final int mask = tradeIDs.length - 1;
+            for (long seq = firstSeq; seq < endSeq; seq++) {
+                final int index = (int) (seq & mask);
+                if (!canceled[index] && (!barState.time ||
+                        timestamps[index] >= startEpochNanos && timestamps[index] < endEpochNanos)) {
+                    accumulator.add(prices[index], sizes[index], timestamps[index]);
+                }
+            }
+            return true;
+        }
+    }
+}
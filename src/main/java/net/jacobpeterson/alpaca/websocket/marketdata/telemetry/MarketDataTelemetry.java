@@ -0,0 +1,175 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.telemetry;
+
+import net.jacobpeterson.alpaca.util.histogram.LogLinearHistogram;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.MarketDataDispatcher;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * {@link MarketDataTelemetry} records feed lag and backpressure telemetry of a market data websocket: the
+ * exchange-to-receive latency (the message <code>"t"</code> timestamp vs. the local receive clock), the
+ * receive-to-dispatch latency (the local receive clock vs. when the listener is called), the dispatch queue depth, and
+ * the message count of each message type. Recording is lock-free and allocation-free. Use
+ * {@link #snapshot(MarketDataDispatcher)} to poll the telemetry.
+ *
+ * @param <T> the 'message type' type
+ */
+public class MarketDataTelemetry<T> {
+
+    private static final long HIGHEST_TRACKABLE_LATENCY_NANOS = HOURS.toNanos(1);
+    private static final long HIGHEST_TRACKABLE_QUEUE_DEPTH = 1 << 30;
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long CLOCK_CALIBRATION_INTERVAL_NANOS = SECONDS.toNanos(1);
+
+    private final T[] messageTypes;
+    private final int[] singleCharMessageTypeIndices;
+    private final AtomicLongArray messageCounts;
+    private final LogLinearHistogram exchangeToReceiveLatency;
+    private final LogLinearHistogram receiveToDispatchLatency;
+    private final LogLinearHistogram queueDepth;
+    private long calibrationNanoTime;
+    private long calibrationEpochNanos;
+    private final long[] previousMessageCounts;
+    private long previousSnapshotNanoTime;
+
+    /**
+     * Instantiates a new {@link MarketDataTelemetry}.
+     *
+     * @param messageTypes the message type enum constants whose {@link Object#toString()} is their raw code
+     */
+    public MarketDataTelemetry(T[] messageTypes) {
+        this.messageTypes = messageTypes;
+        singleCharMessageTypeIndices = new int[128];
+        Arrays.fill(singleCharMessageTypeIndices, -1);
+        for (int index = 0; index < messageTypes.length; index++) {
+            final String code = messageTypes[index].toString();
+            if (code.length() == 1 && code.charAt(0) < singleCharMessageTypeIndices.length) {
+                singleCharMessageTypeIndices[code.charAt(0)] = index;
+            }
+        }
+        messageCounts = new AtomicLongArray(messageTypes.length);
+        exchangeToReceiveLatency = new LogLinearHistogram(HIGHEST_TRACKABLE_LATENCY_NANOS, SIGNIFICANT_DIGITS);
+        receiveToDispatchLatency = new LogLinearHistogram(HIGHEST_TRACKABLE_LATENCY_NANOS, SIGNIFICANT_DIGITS);
+        queueDepth = new LogLinearHistogram(HIGHEST_TRACKABLE_QUEUE_DEPTH, SIGNIFICANT_DIGITS);
+        calibrateClock();
+        previousMessageCounts = new long[messageTypes.length];
+        previousSnapshotNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Records a received message. This must only be called on the websocket reader thread.
+     *
+     * @param messageType     the message type enum constant
+     * @param timestamp       the message <code>"t"</code> {@link RFC3339Timestamp} or <code>null</code>
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the message was received
+     */
+    public void recordMessage(T messageType, RFC3339Timestamp timestamp, long receiveNanoTime) {
+        recordMessage(((Enum<?>) messageType).ordinal(), timestamp != null,
+                timestamp == null ? 0 : timestamp.getEpochNanos(), receiveNanoTime);
+    }
+
+    /**
+     * Records a received and dispatched flyweight message, which is passed to its listener directly after it is
+     * decoded. This must only be called on the websocket reader thread.
+     *
+     * @param messageTypeCode     the single-character message type code
+     * @param timestampEpochNanos the message <code>"t"</code> timestamp epoch nanoseconds
+     * @param receiveNanoTime     the {@link System#nanoTime()} at which the message was received
+     */
+    public void recordFlyweightMessage(char messageTypeCode, long timestampEpochNanos, long receiveNanoTime) {
+        final int index = messageTypeCode < singleCharMessageTypeIndices.length ?
+                singleCharMessageTypeIndices[messageTypeCode] : -1;
+        if (index >= 0) {
+            recordMessage(index, true, timestampEpochNanos, receiveNanoTime);
+        }
+        recordDispatch(receiveNanoTime);
+    }
+
+    private void recordMessage(int messageTypeIndex, boolean hasTimestamp, long timestampEpochNanos,
+            long receiveNanoTime) {
+        messageCounts.incrementAndGet(messageTypeIndex);
+        if (hasTimestamp) {
+            exchangeToReceiveLatency.record(toEpochNanos(receiveNanoTime) - timestampEpochNanos);
+        }
+    }
+
+    /**
+     * Records that a message is being passed to the listener. This may be called on any thread.
+     *
+     * @param receiveNanoTime the {@link System#nanoTime()} at which the message was received
+     */
+    public void recordDispatch(long receiveNanoTime) {
+        receiveToDispatchLatency.record(System.nanoTime() - receiveNanoTime);
+    }
+
+    /**
+     * Records the current queue depth of the {@link MarketDataDispatcher}.
+     *
+     * @param queueDepth the queue depth
+     */
+    public void recordQueueDepth(int queueDepth) {
+        this.queueDepth.record(queueDepth);
+    }
+
+    /**
+     * Converts the given {@link System#nanoTime()} to wall clock epoch nanoseconds. The offset between the two clocks
+     * is recalibrated at most once per second to follow wall clock adjustments without reading the wall clock for
+     * every message.
+     *
+     * @param nanoTime the {@link System#nanoTime()}
+     *
+     * @return the epoch nanoseconds
+     */
+    private long toEpochNanos(long nanoTime) {
+        if (nanoTime - calibrationNanoTime > CLOCK_CALIBRATION_INTERVAL_NANOS) {
+            calibrateClock();
+        }
+        return calibrationEpochNanos + (nanoTime - calibrationNanoTime);
+    }
+
+    private void calibrateClock() {
+        final Instant now = Instant.now();
+        calibrationNanoTime = System.nanoTime();
+        calibrationEpochNanos = SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+    }
+
+    /**
+     * Takes a {@link MarketDataTelemetrySnapshot}. The latency and queue depth histograms are cumulative, while the
+     * message rates are measured since the previous call to this method (or since instantiation).
+     *
+     * @param dispatcher the current {@link MarketDataDispatcher} or <code>null</code> for direct dispatch
+     *
+     * @return the {@link MarketDataTelemetrySnapshot}
+     */
+    public synchronized MarketDataTelemetrySnapshot<T> snapshot(MarketDataDispatcher<?> dispatcher) {
+        final long nanoTime = System.nanoTime();
+        final double elapsedSeconds = Math.max(nanoTime - previousSnapshotNanoTime, 1) / 1_000_000_000d;
+        previousSnapshotNanoTime = nanoTime;
+
+        final Map<T, Long> messageCounts = new LinkedHashMap<>();
+        final Map<T, Double> messageRates = new LinkedHashMap<>();
+        for (int index = 0; index < messageTypes.length; index++) {
+            final long messageCount = this.messageCounts.get(index);
+            if (messageCount > 0) {
+                messageCounts.put(messageTypes[index], messageCount);
+                messageRates.put(messageTypes[index], (messageCount - previousMessageCounts[index]) / elapsedSeconds);
+            }
+            previousMessageCounts[index] = messageCount;
+        }
+
+        return new MarketDataTelemetrySnapshot<>(exchangeToReceiveLatency.snapshot(),
+                receiveToDispatchLatency.snapshot(), queueDepth.snapshot(),
+                dispatcher == null ? 0 : dispatcher.getQueueDepth(),
+                dispatcher == null ? 0 : dispatcher.getDroppedMessageCount(),
+                dispatcher == null ? 0 : dispatcher.getConflatedMessageCount(),
+                messageCounts, messageRates);
+    }
+}
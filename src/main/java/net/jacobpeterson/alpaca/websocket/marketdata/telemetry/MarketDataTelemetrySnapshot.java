@@ -0,0 +1,151 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.telemetry;
+
+import net.jacobpeterson.alpaca.util.histogram.LogLinearHistogramSnapshot;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link MarketDataTelemetrySnapshot} is an immutable snapshot of {@link MarketDataTelemetry}. Latencies are in
+ * nanoseconds.
+ *
+ * @param <T> the 'message type' type
+ */
+public class MarketDataTelemetrySnapshot<T> {
+
+    private final LogLinearHistogramSnapshot exchangeToReceiveLatency;
+    private final LogLinearHistogramSnapshot receiveToDispatchLatency;
+    private final LogLinearHistogramSnapshot queueDepth;
+    private final int currentQueueDepth;
+    private final long droppedMessageCount;
+    private final long conflatedMessageCount;
+    private final Map<T, Long> messageCounts;
+    private final Map<T, Double> messageRates;
+
+    /**
+     * Instantiates a new {@link MarketDataTelemetrySnapshot}.
+     *
+     * @param exchangeToReceiveLatency the exchange-to-receive latency {@link LogLinearHistogramSnapshot}
+     * @param receiveToDispatchLatency the receive-to-dispatch latency {@link LogLinearHistogramSnapshot}
+     * @param queueDepth               the dispatch queue depth {@link LogLinearHistogramSnapshot}
+     * @param currentQueueDepth        the current dispatch queue depth
+     * @param droppedMessageCount      the dropped message count
+     * @param conflatedMessageCount    the conflated message count
+     * @param messageCounts            the {@link Map} of message types to message counts
+     * @param messageRates             the {@link Map} of message types to messages per second
+     */
+    public MarketDataTelemetrySnapshot(LogLinearHistogramSnapshot exchangeToReceiveLatency,
+            LogLinearHistogramSnapshot receiveToDispatchLatency, LogLinearHistogramSnapshot queueDepth,
+            int currentQueueDepth, long droppedMessageCount, long conflatedMessageCount, Map<T, Long> messageCounts,
+            Map<T, Double> messageRates) {
+        this.exchangeToReceiveLatency = exchangeToReceiveLatency;
+        this.receiveToDispatchLatency = receiveToDispatchLatency;
+        this.queueDepth = queueDepth;
+        this.currentQueueDepth = currentQueueDepth;
+        this.droppedMessageCount = droppedMessageCount;
+        this.conflatedMessageCount = conflatedMessageCount;
+        this.messageCounts = Collections.unmodifiableMap(messageCounts);
+        this.messageRates = Collections.unmodifiableMap(messageRates);
+    }
+
+    /**
+     * Merges this {@link MarketDataTelemetrySnapshot} with the given one, e.g. to aggregate the snapshots of the shards
+     * of a sharded stream. Histograms, queue depths, and counts are summed, as are the message rates, since the
+     * merged websockets receive their messages concurrently.
+     *
+     * @param other the other {@link MarketDataTelemetrySnapshot}
+     *
+     * @return a new {@link MarketDataTelemetrySnapshot}
+     */
+    public MarketDataTelemetrySnapshot<T> merge(MarketDataTelemetrySnapshot<T> other) {
+        final Map<T, Long> mergedMessageCounts = new LinkedHashMap<>(messageCounts);
+        other.messageCounts.forEach((messageType, count) -> mergedMessageCounts.merge(messageType, count, Long::sum));
+        final Map<T, Double> mergedMessageRates = new LinkedHashMap<>(messageRates);
+        other.messageRates.forEach((messageType, rate) -> mergedMessageRates.merge(messageType, rate, Double::sum));
+        return new MarketDataTelemetrySnapshot<>(exchangeToReceiveLatency.merge(other.exchangeToReceiveLatency),
+                receiveToDispatchLatency.merge(other.receiveToDispatchLatency), queueDepth.merge(other.queueDepth),
+                currentQueueDepth + other.currentQueueDepth, droppedMessageCount + other.droppedMessageCount,
+                conflatedMessageCount + other.conflatedMessageCount, mergedMessageCounts, mergedMessageRates);
+    }
+
+    /**
+     * Gets the latency between the message <code>"t"</code> timestamp and when the message was received, as measured
+     * by the local wall clock. This includes any clock skew between the exchange and this machine, and negative
+     * latencies are recorded as <code>0</code>.
+     *
+     * @return the exchange-to-receive latency {@link LogLinearHistogramSnapshot}
+     */
+    public LogLinearHistogramSnapshot getExchangeToReceiveLatency() {
+        return exchangeToReceiveLatency;
+    }
+
+    /**
+     * Gets the latency between when a message was received and when it was passed to the listener, which includes the
+     * decoding time and the dispatch queue wait time.
+     *
+     * @return the receive-to-dispatch latency {@link LogLinearHistogramSnapshot}
+     */
+    public LogLinearHistogramSnapshot getReceiveToDispatchLatency() {
+        return receiveToDispatchLatency;
+    }
+
+    /**
+     * Gets the dispatch queue depth as sampled after each dispatched message. This is empty for direct dispatch.
+     *
+     * @return the queue depth {@link LogLinearHistogramSnapshot}
+     */
+    public LogLinearHistogramSnapshot getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getCurrentQueueDepth() {
+        return currentQueueDepth;
+    }
+
+    public long getDroppedMessageCount() {
+        return droppedMessageCount;
+    }
+
+    /**
+     * Gets the number of messages that were replaced by a newer message before they were passed to the listener. This
+     * is <code>0</code> unless conflating dispatch is enabled.
+     *
+     * @return the conflated message count
+     */
+    public long getConflatedMessageCount() {
+        return conflatedMessageCount;
+    }
+
+    /**
+     * Gets the total number of received messages of each message type.
+     *
+     * @return an unmodifiable {@link Map} of message types to message counts
+     */
+    public Map<T, Long> getMessageCounts() {
+        return messageCounts;
+    }
+
+    /**
+     * Gets the messages per second of each message type since the previous snapshot.
+     *
+     * @return an unmodifiable {@link Map} of message types to messages per second
+     */
+    public Map<T, Double> getMessageRates() {
+        return messageRates;
+    }
+
+    @Override
+    public String toString() {
+        return "MarketDataTelemetrySnapshot{" +
+                "exchangeToReceiveLatency=" + exchangeToReceiveLatency +
+                ", receiveToDispatchLatency=" + receiveToDispatchLatency +
+                ", queueDepth=" + queueDepth +
+                ", currentQueueDepth=" + currentQueueDepth +
+                ", droppedMessageCount=" + droppedMessageCount +
+                ", conflatedMessageCount=" + conflatedMessageCount +
+                ", messageCounts=" + messageCounts +
+                ", messageRates=" + messageRates +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+import java.util.Set;
+
+/**
+ * {@link QuoteTick} is a reusable, mutable, primitive-backed quote of a {@link TickStore} query. An instance is only
+ * valid for the duration of a {@link QuoteTickVisitor} callback, so copy any needed values instead of retaining the
+ * instance.
+ */
+public class QuoteTick {
+
+    String symbol;
+    long timestampEpochNanos;
+    double bidPrice;
+    double bidSize;
+    char bidExchange;
+    double askPrice;
+    double askSize;
+    char askExchange;
+    Set<String> conditions;
+
+    QuoteTick() {}
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    public double getBidPrice() {
+        return bidPrice;
+    }
+
+    public double getBidSize() {
+        return bidSize;
+    }
+
+    /**
+     * Gets the bid exchange code.
+     *
+     * @return the bid exchange code or <code>'\0'</code> if there is none (e.g. for crypto quotes)
+     */
+    public char getBidExchange() {
+        return bidExchange;
+    }
+
+    public double getAskPrice() {
+        return askPrice;
+    }
+
+    public double getAskSize() {
+        return askSize;
+    }
+
+    /**
+     * Gets the ask exchange code.
+     *
+     * @return the ask exchange code or <code>'\0'</code> if there is none (e.g. for crypto quotes)
+     */
+    public char getAskExchange() {
+        return askExchange;
+    }
+
+    /**
+     * Gets the quote conditions.
+     *
+     * @return an unmodifiable {@link Set} of the quote conditions, which is empty if there are none
+     */
+    public Set<String> getConditions() {
+        return conditions;
+    }
+
+    @Override
+    public String toString() {
+        return "QuoteTick{symbol=" + symbol + ", timestampEpochNanos=" + timestampEpochNanos + ", bidPrice=" +
+                bidPrice + ", bidSize=" + bidSize + ", bidExchange=" + bidExchange + ", askPrice=" + askPrice +
+                ", askSize=" + askSize + ", askExchange=" + askExchange + ", conditions=" + conditions + "}";
+    }
+}
@@ -0,0 +1,16 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+/**
+ * {@link QuoteTickVisitor} defines a visitor interface for the quotes of a {@link TickStore} query. The given
+ * {@link QuoteTick} instance is reused, so it is only valid for the duration of the callback.
+ */
+@FunctionalInterface
+public interface QuoteTickVisitor {
+
+    /**
+     * Called for each quote of a query in order.
+     *
+     * @param quote the {@link QuoteTick}
+     */
+    void visit(QuoteTick quote);
+}
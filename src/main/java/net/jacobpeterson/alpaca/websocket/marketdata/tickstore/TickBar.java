@@ -0,0 +1,74 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+/**
+ * {@link TickBar} is a reusable, mutable, primitive-backed bar of a {@link TickStore} downsampling query. An instance
+ * is only valid for the duration of a {@link TickBarVisitor} callback, so copy any needed values instead of retaining
+ * the instance.
+ */
+public class TickBar {
+
+    String symbol;
+    long startEpochNanos;
+    long endEpochNanos;
+    double open;
+    double high;
+    double low;
+    double close;
+    double volume;
+    long tradeCount;
+
+    TickBar() {}
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the inclusive start epoch nanoseconds of the interval.
+     *
+     * @return the start epoch nanoseconds
+     */
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    /**
+     * Gets the exclusive end epoch nanoseconds of the interval.
+     *
+     * @return the end epoch nanoseconds
+     */
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TickBar{symbol=" + symbol + ", startEpochNanos=" + startEpochNanos + ", endEpochNanos=" +
+                endEpochNanos + ", open=" + open + ", high=" + high + ", low=" + low + ", close=" + close +
+                ", volume=" + volume + ", tradeCount=" + tradeCount + "}";
+    }
+}
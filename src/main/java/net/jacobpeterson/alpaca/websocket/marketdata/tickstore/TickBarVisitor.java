@@ -0,0 +1,16 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+/**
+ * {@link TickBarVisitor} defines a visitor interface for the bars of a {@link TickStore} downsampling query. The given
+ * {@link TickBar} instance is reused, so it is only valid for the duration of the callback.
+ */
+@FunctionalInterface
+public interface TickBarVisitor {
+
+    /**
+     * Called for each non-empty interval of a query in chronological order.
+     *
+     * @param bar the {@link TickBar}
+     */
+    void visit(TickBar bar);
+}
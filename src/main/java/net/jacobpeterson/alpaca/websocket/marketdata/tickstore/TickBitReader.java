@@ -0,0 +1,56 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link TickBitReader} reads big-endian bit strings written by a {@link TickBitWriter} from a {@link ByteBuffer} at
+ * absolute positions, without changing the position of the {@link ByteBuffer}.
+ */
+final class TickBitReader {
+
+    private ByteBuffer buffer;
+    private int bitPosition;
+
+    /**
+     * Resets this {@link TickBitReader} to read from the given {@link ByteBuffer} from its start.
+     *
+     * @param buffer the {@link ByteBuffer}
+     */
+    void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        bitPosition = 0;
+    }
+
+    /**
+     * Reads <code>bitCount</code> bits.
+     *
+     * @param bitCount the number of bits (0 to 64)
+     *
+     * @return the bits as the lowest bits of a <code>long</code>
+     */
+    long readBits(int bitCount) {
+        long value = 0;
+        while (bitCount > 0) {
+            final int availableBitCount = 8 - (bitPosition & 7);
+            final int readBitCount = Math.min(availableBitCount, bitCount);
+            final int currentByte = buffer.get(bitPosition >>> 3) & 0xFF;
+            final int bits = currentByte >>> (availableBitCount - readBitCount) & ((1 << readBitCount) - 1);
+            value = value << readBitCount | bits;
+            bitPosition += readBitCount;
+            bitCount -= readBitCount;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a single bit.
+     *
+     * @return <code>true</code> for <code>1</code>, <code>false</code> for <code>0</code>
+     */
+    boolean readBit() {
+        final int currentByte = buffer.get(bitPosition >>> 3);
+        final boolean bit = (currentByte >>> (7 - (bitPosition & 7)) & 1) != 0;
+        bitPosition++;
+        return bit;
+    }
+}
@@ -0,0 +1,65 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link TickBitWriter} writes big-endian bit strings into a {@link ByteBuffer} at absolute positions, without
+ * changing the position of the {@link ByteBuffer}.
+ */
+final class TickBitWriter {
+
+    private ByteBuffer buffer;
+    private int bitPosition;
+
+    /**
+     * Resets this {@link TickBitWriter} to write into the given {@link ByteBuffer} from its start.
+     *
+     * @param buffer the {@link ByteBuffer}
+     */
+    void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        bitPosition = 0;
+    }
+
+    /**
+     * Writes the lowest <code>bitCount</code> bits of the given <code>value</code>.
+     *
+     * @param value    the value
+     * @param bitCount the number of bits (0 to 64)
+     */
+    void writeBits(long value, int bitCount) {
+        while (bitCount > 0) {
+            final int byteIndex = bitPosition >>> 3;
+            final int freeBitCount = 8 - (bitPosition & 7);
+            final int writtenBitCount = Math.min(freeBitCount, bitCount);
+            final int bits = (int) (value >>> (bitCount - writtenBitCount)) & ((1 << writtenBitCount) - 1);
+            // A byte is always started at its first bit, so stale bytes of a reused buffer are overwritten
+            final int currentByte = freeBitCount == 8 ? 0 : buffer.get(byteIndex);
+            buffer.put(byteIndex, (byte) (currentByte | bits << (freeBitCount - writtenBitCount)));
+            bitPosition += writtenBitCount;
+            bitCount -= writtenBitCount;
+        }
+    }
+
+    /**
+     * Writes a single bit.
+     *
+     * @param bit <code>true</code> for <code>1</code>, <code>false</code> for <code>0</code>
+     */
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    int getBitPosition() {
+        return bitPosition;
+    }
+
+    /**
+     * Gets the number of bits that can still be written.
+     *
+     * @return the remaining bit count
+     */
+    int getRemainingBitCount() {
+        return buffer.capacity() * 8 - bitPosition;
+    }
+}
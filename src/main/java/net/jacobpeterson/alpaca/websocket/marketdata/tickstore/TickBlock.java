@@ -0,0 +1,37 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link TickBlock} is an immutable block of compressed ticks of a {@link TickColumn}, which holds one bit stream
+ * {@link ByteBuffer} per field. The {@link ByteBuffer}s of a sealed {@link TickBlock} are slices of one exact-size
+ * direct {@link ByteBuffer}.
+ */
+final class TickBlock {
+
+    final int count;
+    final long minTimestamp;
+    final long maxTimestamp;
+    final ByteBuffer[] fieldBuffers;
+    final int byteSize;
+
+    TickBlock(int count, long minTimestamp, long maxTimestamp, ByteBuffer[] fieldBuffers, int byteSize) {
+        this.count = count;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+        this.fieldBuffers = fieldBuffers;
+        this.byteSize = byteSize;
+    }
+
+    /**
+     * Whether this {@link TickBlock} may contain ticks in the given time range.
+     *
+     * @param fromEpochNanos the inclusive start epoch nanoseconds
+     * @param toEpochNanos   the exclusive end epoch nanoseconds
+     *
+     * @return a boolean
+     */
+    boolean overlaps(long fromEpochNanos, long toEpochNanos) {
+        return maxTimestamp >= fromEpochNanos && minTimestamp < toEpochNanos;
+    }
+}
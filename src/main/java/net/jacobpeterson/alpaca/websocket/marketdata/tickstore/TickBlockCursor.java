@@ -0,0 +1,135 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+/**
+ * {@link TickBlockCursor} decodes the ticks of a {@link TickBlock} in append order. The <code>char</code> fields and
+ * the conditions code are separate bit streams, so they are only decoded if requested, which lets aggregating queries
+ * skip them. A {@link TickBlockCursor} is reusable, but it isn't thread-safe.
+ */
+final class TickBlockCursor {
+
+    private final int doubleFieldCount;
+    private final int charFieldCount;
+    private final TickBitReader[] readers;
+    private final long[] previousDoubleBits;
+    private final int[] leadingZeros;
+    private final int[] trailingZeros;
+    private boolean decodeAttributes;
+    private int remainingCount;
+    private boolean first;
+    private long previousTimestampDelta;
+
+    long timestamp;
+    final double[] doubles;
+    final char[] chars;
+    int conditionsCode;
+
+    /**
+     * Instantiates a new {@link TickBlockCursor}.
+     *
+     * @param doubleFieldCount the number of <code>double</code> fields
+     * @param charFieldCount   the number of <code>char</code> fields
+     */
+    TickBlockCursor(int doubleFieldCount, int charFieldCount) {
+        this.doubleFieldCount = doubleFieldCount;
+        this.charFieldCount = charFieldCount;
+        readers = new TickBitReader[TickColumn.getFieldCount(doubleFieldCount, charFieldCount)];
+        for (int field = 0; field < readers.length; field++) {
+            readers[field] = new TickBitReader();
+        }
+        previousDoubleBits = new long[doubleFieldCount];
+        leadingZeros = new int[doubleFieldCount];
+        trailingZeros = new int[doubleFieldCount];
+        doubles = new double[doubleFieldCount];
+        chars = new char[charFieldCount];
+    }
+
+    /**
+     * Resets this {@link TickBlockCursor} to the start of the given {@link TickBlock}.
+     *
+     * @param block            the {@link TickBlock}
+     * @param decodeAttributes <code>true</code> to decode the <code>char</code> fields and the conditions code
+     */
+    void reset(TickBlock block, boolean decodeAttributes) {
+        final int fieldCount = decodeAttributes ? readers.length : 1 + doubleFieldCount;
+        for (int field = 0; field < fieldCount; field++) {
+            readers[field].reset(block.fieldBuffers[field]);
+        }
+        this.decodeAttributes = decodeAttributes;
+        remainingCount = block.count;
+        first = true;
+    }
+
+    /**
+     * Decodes the next tick into the fields of this {@link TickBlockCursor}.
+     *
+     * @return <code>true</code> if a tick was decoded, <code>false</code> if the {@link TickBlock} is exhausted
+     */
+    boolean next() {
+        if (remainingCount == 0) {
+            return false;
+        }
+        remainingCount--;
+
+        decodeTimestamp();
+        for (int index = 0; index < doubleFieldCount; index++) {
+            decodeDouble(index);
+        }
+        if (decodeAttributes) {
+            for (int index = 0; index < charFieldCount; index++) {
+                final TickBitReader reader = readers[1 + doubleFieldCount + index];
+                if (reader.readBit()) {
+                    chars[index] = (char) reader.readBits(16);
+                }
+            }
+            final TickBitReader reader = readers[1 + doubleFieldCount + charFieldCount];
+            if (reader.readBit()) {
+                conditionsCode = (int) reader.readBits(32);
+            }
+        }
+        first = false;
+        return true;
+    }
+
+    private void decodeTimestamp() {
+        final TickBitReader reader = readers[0];
+        if (first) {
+            timestamp = reader.readBits(64);
+            previousTimestampDelta = 0;
+            return;
+        }
+
+        final long zigZag;
+        if (!reader.readBit()) {
+            zigZag = 0;
+        } else if (!reader.readBit()) {
+            zigZag = reader.readBits(16);
+        } else if (!reader.readBit()) {
+            zigZag = reader.readBits(32);
+        } else {
+            zigZag = reader.readBits(64);
+        }
+        final long deltaOfDelta = zigZag >>> 1 ^ -(zigZag & 1);
+        previousTimestampDelta += deltaOfDelta;
+        timestamp += previousTimestampDelta;
+    }
+
+    private void decodeDouble(int index) {
+        final TickBitReader reader = readers[1 + index];
+        if (first) {
+            previousDoubleBits[index] = reader.readBits(64);
+        } else if (reader.readBit()) {
+            final long xor;
+            if (!reader.readBit()) {
+                xor = reader.readBits(64 - leadingZeros[index] - trailingZeros[index]) << trailingZeros[index];
+            } else {
+                final int leading = (int) reader.readBits(6);
+                final int meaningfulBitCount = (int) reader.readBits(6) + 1;
+                leadingZeros[index] = leading;
+                trailingZeros[index] = 64 - leading - meaningfulBitCount;
+                xor = reader.readBits(meaningfulBitCount) << trailingZeros[index];
+            }
+            previousDoubleBits[index] ^= xor;
+        }
+        doubles[index] = Double.longBitsToDouble(previousDoubleBits[index]);
+    }
+}
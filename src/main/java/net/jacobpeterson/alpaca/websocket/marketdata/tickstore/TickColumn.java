@@ -0,0 +1,322 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * {@link TickColumn} holds the compressed ticks of one symbol and tick type (e.g. the trades of a symbol) as a series
+ * of {@link TickBlock}s. Each field is a separate bit stream: the timestamp is delta-of-delta encoded, each
+ * <code>double</code> field is XOR encoded against its previous value, and each <code>char</code> field and the
+ * conditions code only store a value when it changes. Ticks are appended to an open block in per-field direct scratch
+ * buffers, which is sealed into an exact-size direct {@link ByteBuffer} when a scratch buffer can't hold another
+ * worst-case value. Sealed {@link TickBlock}s are evicted once all their ticks are older than the retention relative to
+ * the newest tick.
+ * <br>
+ * Appending requires holding the monitor of this {@link TickColumn}: call {@link #beginRow(long)}, then
+ * {@link #writeDouble(int, double)} for each <code>double</code> field and {@link #writeChar(int, char)} for each
+ * <code>char</code> field in order, then {@link #endRow(int)}.
+ */
+final class TickColumn {
+
+    private static final int MAX_TIMESTAMP_BITS = 3 + 64;
+    private static final int MAX_DOUBLE_BITS = 2 + 6 + 6 + 64;
+    private static final int MAX_CHAR_BITS = 1 + 16;
+    private static final int MAX_CODE_BITS = 1 + 32;
+
+    /**
+     * The minimum scratch buffer size, which can hold at least one worst-case value of any field.
+     */
+    static final int MIN_SCRATCH_BYTES = (MAX_DOUBLE_BITS + 7) / 8;
+
+    private final int doubleFieldCount;
+    private final int charFieldCount;
+    private final long retentionNanos;
+    private final ByteBuffer[] scratchBuffers;
+    private final TickBitWriter[] writers;
+    private final ArrayDeque<TickBlock> sealedBlocks;
+    private long sealedByteSize;
+
+    // Open block state
+    private int openCount;
+    private long openMinTimestamp;
+    private long openMaxTimestamp;
+    private long previousTimestamp;
+    private long previousTimestampDelta;
+    private final long[] previousDoubleBits;
+    private final int[] previousLeadingZeros;
+    private final int[] previousTrailingZeros;
+    private final char[] previousChars;
+    private int previousConditionsCode;
+
+    private long newestTimestamp;
+
+    /**
+     * Instantiates a new {@link TickColumn}.
+     *
+     * @param doubleFieldCount the number of <code>double</code> fields
+     * @param charFieldCount   the number of <code>char</code> fields
+     * @param scratchBytes     the scratch buffer size of each field, which bounds the size of a {@link TickBlock}
+     * @param retentionNanos   the retention nanoseconds
+     */
+    TickColumn(int doubleFieldCount, int charFieldCount, int scratchBytes, long retentionNanos) {
+        this.doubleFieldCount = doubleFieldCount;
+        this.charFieldCount = charFieldCount;
+        this.retentionNanos = retentionNanos;
+        final int fieldCount = getFieldCount(doubleFieldCount, charFieldCount);
+        scratchBuffers = new ByteBuffer[fieldCount];
+        writers = new TickBitWriter[fieldCount];
+        for (int field = 0; field < fieldCount; field++) {
+            scratchBuffers[field] = ByteBuffer.allocateDirect(scratchBytes);
+            writers[field] = new TickBitWriter();
+            writers[field].reset(scratchBuffers[field]);
+        }
+        sealedBlocks = new ArrayDeque<>();
+        previousDoubleBits = new long[doubleFieldCount];
+        previousLeadingZeros = new int[doubleFieldCount];
+        previousTrailingZeros = new int[doubleFieldCount];
+        previousChars = new char[charFieldCount];
+        newestTimestamp = Long.MIN_VALUE;
+    }
+
+    /**
+     * Gets the number of bit streams of a {@link TickColumn}: the timestamp, the <code>double</code> fields, the
+     * <code>char</code> fields, and the conditions code.
+     *
+     * @param doubleFieldCount the number of <code>double</code> fields
+     * @param charFieldCount   the number of <code>char</code> fields
+     *
+     * @return the field count
+     */
+    static int getFieldCount(int doubleFieldCount, int charFieldCount) {
+        return 1 + doubleFieldCount + charFieldCount + 1;
+    }
+
+    /**
+     * Begins appending a tick by writing its timestamp, sealing the open block first if it is full.
+     *
+     * @param timestampEpochNanos the timestamp epoch nanoseconds
+     */
+    void beginRow(long timestampEpochNanos) {
+        if (openCount > 0 && !hasRoomForRow()) {
+            seal();
+        }
+
+        final TickBitWriter writer = writers[0];
+        if (openCount == 0) {
+            writer.writeBits(timestampEpochNanos, 64);
+            openMinTimestamp = openMaxTimestamp = timestampEpochNanos;
+            previousTimestampDelta = 0;
+        } else {
+            final long delta = timestampEpochNanos - previousTimestamp;
+            final long deltaOfDelta = delta - previousTimestampDelta;
+            final long zigZag = deltaOfDelta << 1 ^ deltaOfDelta >> 63;
+            if (zigZag == 0) {
+                writer.writeBit(false);
+            } else if (zigZag >>> 16 == 0) {
+                writer.writeBits(0b10, 2);
+                writer.writeBits(zigZag, 16);
+            } else if (zigZag >>> 32 == 0) {
+                writer.writeBits(0b110, 3);
+                writer.writeBits(zigZag, 32);
+            } else {
+                writer.writeBits(0b111, 3);
+                writer.writeBits(zigZag, 64);
+            }
+            previousTimestampDelta = delta;
+            openMinTimestamp = Math.min(openMinTimestamp, timestampEpochNanos);
+            openMaxTimestamp = Math.max(openMaxTimestamp, timestampEpochNanos);
+        }
+        previousTimestamp = timestampEpochNanos;
+        newestTimestamp = Math.max(newestTimestamp, timestampEpochNanos);
+    }
+
+    private boolean hasRoomForRow() {
+        if (writers[0].getRemainingBitCount() < MAX_TIMESTAMP_BITS) {
+            return false;
+        }
+        int field = 1;
+        for (int index = 0; index < doubleFieldCount; index++, field++) {
+            if (writers[field].getRemainingBitCount() < MAX_DOUBLE_BITS) {
+                return false;
+            }
+        }
+        for (int index = 0; index < charFieldCount; index++, field++) {
+            if (writers[field].getRemainingBitCount() < MAX_CHAR_BITS) {
+                return false;
+            }
+        }
+        return writers[field].getRemainingBitCount() >= MAX_CODE_BITS;
+    }
+
+    /**
+     * Writes a <code>double</code> field of the current tick.
+     *
+     * @param index the <code>double</code> field index
+     * @param value the value
+     */
+    void writeDouble(int index, double value) {
+        final TickBitWriter writer = writers[1 + index];
+        final long bits = Double.doubleToRawLongBits(value);
+        if (openCount == 0) {
+            writer.writeBits(bits, 64);
+            previousLeadingZeros[index] = -1;
+        } else {
+            final long xor = bits ^ previousDoubleBits[index];
+            if (xor == 0) {
+                writer.writeBit(false);
+            } else {
+                final int leadingZeros = Long.numberOfLeadingZeros(xor);
+                final int trailingZeros = Long.numberOfTrailingZeros(xor);
+                final int previousLeading = previousLeadingZeros[index];
+                if (previousLeading >= 0 && leadingZeros >= previousLeading &&
+                        trailingZeros >= previousTrailingZeros[index]) {
+                    // The meaningful bits fit in the previous window
+                    writer.writeBits(0b10, 2);
+                    writer.writeBits(xor >>> previousTrailingZeros[index],
+                            64 - previousLeading - previousTrailingZeros[index]);
+                } else {
+                    final int meaningfulBitCount = 64 - leadingZeros - trailingZeros;
+                    writer.writeBits(0b11, 2);
+                    writer.writeBits(leadingZeros, 6);
+                    writer.writeBits(meaningfulBitCount - 1, 6);
+                    writer.writeBits(xor >>> trailingZeros, meaningfulBitCount);
+                    previousLeadingZeros[index] = leadingZeros;
+                    previousTrailingZeros[index] = trailingZeros;
+                }
+            }
+        }
+        previousDoubleBits[index] = bits;
+    }
+
+    /**
+     * Writes a <code>char</code> field of the current tick.
+     *
+     * @param index the <code>char</code> field index
+     * @param value the value
+     */
+    void writeChar(int index, char value) {
+        final TickBitWriter writer = writers[1 + doubleFieldCount + index];
+        if (openCount > 0 && value == previousChars[index]) {
+            writer.writeBit(false);
+        } else {
+            writer.writeBit(true);
+            writer.writeBits(value, 16);
+            previousChars[index] = value;
+        }
+    }
+
+    /**
+     * Ends appending a tick by writing its conditions code, then evicts expired {@link TickBlock}s.
+     *
+     * @param conditionsCode the conditions code
+     */
+    void endRow(int conditionsCode) {
+        final TickBitWriter writer = writers[1 + doubleFieldCount + charFieldCount];
+        if (openCount > 0 && conditionsCode == previousConditionsCode) {
+            writer.writeBit(false);
+        } else {
+            writer.writeBit(true);
+            writer.writeBits(conditionsCode, 32);
+            previousConditionsCode = conditionsCode;
+        }
+        openCount++;
+        evictExpiredBlocks();
+    }
+
+    private void seal() {
+        int byteSize = 0;
+        for (TickBitWriter writer : writers) {
+            byteSize += getUsedByteCount(writer);
+        }
+
+        final ByteBuffer blockBuffer = ByteBuffer.allocateDirect(byteSize);
+        final ByteBuffer[] fieldBuffers = new ByteBuffer[writers.length];
+        int offset = 0;
+        for (int field = 0; field < writers.length; field++) {
+            final int usedByteCount = getUsedByteCount(writers[field]);
+            blockBuffer.put(offset, scratchBuffers[field], 0, usedByteCount);
+            fieldBuffers[field] = blockBuffer.slice(offset, usedByteCount);
+            offset += usedByteCount;
+            writers[field].reset(scratchBuffers[field]);
+        }
+
+        sealedBlocks.addLast(new TickBlock(openCount, openMinTimestamp, openMaxTimestamp, fieldBuffers, byteSize));
+        sealedByteSize += byteSize;
+        openCount = 0;
+    }
+
+    private void evictExpiredBlocks() {
+        // Saturate instead of overflowing for timestamps near Long.MIN_VALUE
+        final long cutoffTimestamp = newestTimestamp - retentionNanos > newestTimestamp ?
+                Long.MIN_VALUE : newestTimestamp - retentionNanos;
+        TickBlock oldestBlock;
+        while ((oldestBlock = sealedBlocks.peekFirst()) != null && oldestBlock.maxTimestamp < cutoffTimestamp) {
+            sealedBlocks.pollFirst();
+            sealedByteSize -= oldestBlock.byteSize;
+        }
+    }
+
+    private static int getUsedByteCount(TickBitWriter writer) {
+        return (writer.getBitPosition() + 7) >>> 3;
+    }
+
+    /**
+     * Gets a snapshot of the {@link TickBlock}s of this {@link TickColumn} in append order, which includes an on-heap
+     * copy of the open block if it isn't empty. The snapshot can be decoded without holding the monitor of this
+     * {@link TickColumn}.
+     *
+     * @return the {@link TickBlock}s
+     */
+    synchronized TickBlock[] snapshot() {
+        final TickBlock[] blocks = new TickBlock[sealedBlocks.size() + (openCount > 0 ? 1 : 0)];
+        sealedBlocks.toArray(blocks);
+        if (openCount > 0) {
+            final ByteBuffer[] fieldBuffers = new ByteBuffer[writers.length];
+            int byteSize = 0;
+            for (int field = 0; field < writers.length; field++) {
+                final int usedByteCount = getUsedByteCount(writers[field]);
+                fieldBuffers[field] = ByteBuffer.allocate(usedByteCount).put(0, scratchBuffers[field], 0,
+                        usedByteCount);
+                byteSize += usedByteCount;
+            }
+            blocks[blocks.length - 1] = new TickBlock(openCount, openMinTimestamp, openMaxTimestamp, fieldBuffers,
+                    byteSize);
+        }
+        return blocks;
+    }
+
+    /**
+     * Gets the number of off-heap bytes of this {@link TickColumn}, which are its sealed {@link TickBlock}s plus its
+     * scratch buffers.
+     *
+     * @return the off-heap byte count
+     */
+    synchronized long getOffHeapByteSize() {
+        long scratchByteSize = 0;
+        for (ByteBuffer scratchBuffer : scratchBuffers) {
+            scratchByteSize += scratchBuffer.capacity();
+        }
+        return sealedByteSize + scratchByteSize;
+    }
+
+    /**
+     * Gets the number of retained ticks of this {@link TickColumn}.
+     *
+     * @return the tick count
+     */
+    synchronized long getTickCount() {
+        long tickCount = openCount;
+        for (TickBlock block : sealedBlocks) {
+            tickCount += block.count;
+        }
+        return tickCount;
+    }
+
+    int getDoubleFieldCount() {
+        return doubleFieldCount;
+    }
+
+    int getCharFieldCount() {
+        return charFieldCount;
+    }
+}
@@ -0,0 +1,664 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.quote.CryptoQuoteMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.trade.CryptoTradeMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.quote.StockQuoteMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link TickStore} is a thread-safe, off-heap, columnar store of the trades and quotes of each symbol that supports
+ * time-range scans, last-N lookups, and downsampling. It is fed from the decode path of a market data websocket via
+ * <code>setTickStore()</code>, or manually via {@link #appendTrade(String, long, double, double, char, Set)} and
+ * {@link #appendQuote(String, long, double, double, char, double, double, char, Set)}.
+ * <br>
+ * Ticks are compressed into blocks of direct {@link java.nio.ByteBuffer}s with one bit stream per field: timestamps
+ * are delta-of-delta encoded, prices and sizes are XOR encoded against their previous value, and exchange codes and
+ * conditions only take a bit when they don't change, so a typical tick takes a few bytes. A block is evicted once all
+ * of its ticks are older than the retention relative to the newest tick of its symbol, so retention is bounded by
+ * event time and applied at block granularity.
+ * <br>
+ * Ticks are kept in append order, so queries visit them in the order they were received (which is chronological
+ * for an in-order stream). Queries decode a snapshot of the blocks without blocking appends, and the visitor
+ * callbacks are called on the querying thread.
+ */
+public class TickStore {
+
+    /**
+     * The default scratch buffer size in bytes of each field of an open block, which bounds the block size.
+     */
+    public static final int DEFAULT_BLOCK_BYTES = 1024;
+
+    private static final int TRADE_DOUBLE_FIELD_COUNT = 2;
+    private static final int TRADE_CHAR_FIELD_COUNT = 1;
+    private static final int QUOTE_DOUBLE_FIELD_COUNT = 4;
+    private static final int QUOTE_CHAR_FIELD_COUNT = 2;
+    private static final int NO_CONDITIONS_CODE = 0;
+
+    private final Duration retention;
+    private final long retentionNanos;
+    private final int blockBytes;
+    private final ConcurrentHashMap<String, TickColumn> tradeColumns;
+    private final ConcurrentHashMap<String, TickColumn> quoteColumns;
+    private final ConcurrentHashMap<Set<String>, Integer> codesOfConditions;
+    private volatile Set<String>[] conditionsOfCodes;
+
+    /**
+     * Instantiates a new {@link TickStore} with {@link #DEFAULT_BLOCK_BYTES}.
+     *
+     * @param retention the retention {@link Duration} of ticks relative to the newest tick of their symbol
+     */
+    public TickStore(Duration retention) {
+        this(retention, DEFAULT_BLOCK_BYTES);
+    }
+
+    /**
+     * Instantiates a new {@link TickStore}.
+     *
+     * @param retention  the retention {@link Duration} of ticks relative to the newest tick of their symbol
+     * @param blockBytes the scratch buffer size in bytes of each field of an open block, which bounds the block size
+     */
+    @SuppressWarnings("unchecked")
+    public TickStore(Duration retention, int blockBytes) {
+        checkNotNull(retention);
+        checkArgument(!retention.isNegative() && !retention.isZero(), "retention must be positive!");
+        checkArgument(blockBytes >= TickColumn.MIN_SCRATCH_BYTES, "blockBytes must be at least %s!",
+                TickColumn.MIN_SCRATCH_BYTES);
+
+        this.retention = retention;
+        retentionNanos = retention.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0 ?
+                Long.MAX_VALUE : retention.toNanos();
+        this.blockBytes = blockBytes;
+        tradeColumns = new ConcurrentHashMap<>();
+        quoteColumns = new ConcurrentHashMap<>();
+        codesOfConditions = new ConcurrentHashMap<>();
+        conditionsOfCodes = new Set[]{Collections.emptySet()};
+    }
+
+    /**
+     * Appends the given {@link StockTradeMessage}. This does nothing if a required field is missing.
+     *
+     * @param trade the {@link StockTradeMessage}
+     */
+    public void appendTrade(StockTradeMessage trade) {
+        if (trade.getSymbol() != null && trade.getRfc3339Timestamp() != null && trade.getPrice() != null &&
+                trade.getSize() != null) {
+            appendTrade(trade.getSymbol(), trade.getTimestampEpochNanos(), trade.getPrice(), trade.getSize(),
+                    toExchangeChar(trade.getExchange()), trade.getConditions());
+        }
+    }
+
+    /**
+     * Appends the given {@link CryptoTradeMessage}. This does nothing if a required field is missing.
+     *
+     * @param trade the {@link CryptoTradeMessage}
+     */
+    public void appendTrade(CryptoTradeMessage trade) {
+        if (trade.getSymbol() != null && trade.getRfc3339Timestamp() != null && trade.getPrice() != null &&
+                trade.getSize() != null) {
+            appendTrade(trade.getSymbol(), trade.getTimestampEpochNanos(), trade.getPrice(), trade.getSize(),
+                    '\0', null);
+        }
+    }
+
+    /**
+     * Appends a trade.
+     *
+     * @param symbol              the symbol
+     * @param timestampEpochNanos the timestamp epoch nanoseconds
+     * @param price               the price
+     * @param size                the size
+     * @param exchange            the exchange code or <code>'\0'</code>
+     * @param conditions          the conditions (<code>null</code> for none)
+     */
+    public void appendTrade(String symbol, long timestampEpochNanos, double price, double size, char exchange,
+            Set<String> conditions) {
+        checkNotNull(symbol);
+        final int conditionsCode = getConditionsCode(conditions);
+        final TickColumn column = getOrCreateColumn(tradeColumns, symbol, TRADE_DOUBLE_FIELD_COUNT,
+                TRADE_CHAR_FIELD_COUNT);
+        synchronized (column) {
+            column.beginRow(timestampEpochNanos);
+            column.writeDouble(0, price);
+            column.writeDouble(1, size);
+            column.writeChar(0, exchange);
+            column.endRow(conditionsCode);
+        }
+    }
+
+    /**
+     * Appends the given {@link StockQuoteMessage}. This does nothing if a required field is missing.
+     *
+     * @param quote the {@link StockQuoteMessage}
+     */
+    public void appendQuote(StockQuoteMessage quote) {
+        if (quote.getSymbol() != null && quote.getRfc3339Timestamp() != null && quote.getBidPrice() != null &&
+                quote.getBidSize() != null && quote.getAskPrice() != null && quote.getAskSize() != null) {
+            appendQuote(quote.getSymbol(), quote.getTimestampEpochNanos(),
+                    quote.getBidPrice(), quote.getBidSize(), toExchangeChar(quote.getBidExchange()),
+                    quote.getAskPrice(), quote.getAskSize(), toExchangeChar(quote.getAskExchange()),
+                    quote.getConditions());
+        }
+    }
+
+    /**
+     * Appends the given {@link CryptoQuoteMessage}. This does nothing if a required field is missing.
+     *
+     * @param quote the {@link CryptoQuoteMessage}
+     */
+    public void appendQuote(CryptoQuoteMessage quote) {
+        if (quote.getSymbol() != null && quote.getRfc3339Timestamp() != null && quote.getBidPrice() != null &&
+                quote.getBidSize() != null && quote.getAskPrice() != null && quote.getAskSize() != null) {
+            appendQuote(quote.getSymbol(), quote.getTimestampEpochNanos(),
+                    quote.getBidPrice(), quote.getBidSize(), '\0', quote.getAskPrice(), quote.getAskSize(), '\0',
+                    null);
+        }
+    }
+
+    /**
+     * Appends a quote.
+     *
+     * @param symbol              the symbol
+     * @param timestampEpochNanos the timestamp epoch nanoseconds
+     * @param bidPrice            the bid price
+     * @param bidSize             the bid size
+     * @param bidExchange         the bid exchange code or <code>'\0'</code>
+     * @param askPrice            the ask price
+     * @param askSize             the ask size
+     * @param askExchange         the ask exchange code or <code>'\0'</code>
+     * @param conditions          the conditions (<code>null</code> for none)
+     */
+    public void appendQuote(String symbol, long timestampEpochNanos, double bidPrice, double bidSize,
+            char bidExchange, double askPrice, double askSize, char askExchange, Set<String> conditions) {
+        checkNotNull(symbol);
+        final int conditionsCode = getConditionsCode(conditions);
+        final TickColumn column = getOrCreateColumn(quoteColumns, symbol, QUOTE_DOUBLE_FIELD_COUNT,
+                QUOTE_CHAR_FIELD_COUNT);
+        synchronized (column) {
+            column.beginRow(timestampEpochNanos);
+            column.writeDouble(0, bidPrice);
+            column.writeDouble(1, bidSize);
+            column.writeDouble(2, askPrice);
+            column.writeDouble(3, askSize);
+            column.writeChar(0, bidExchange);
+            column.writeChar(1, askExchange);
+            column.endRow(conditionsCode);
+        }
+    }
+
+    private TickColumn getOrCreateColumn(ConcurrentHashMap<String, TickColumn> columns, String symbol,
+            int doubleFieldCount, int charFieldCount) {
+        final TickColumn column = columns.get(symbol);
+        return column != null ? column : columns.computeIfAbsent(symbol,
+                key -> new TickColumn(doubleFieldCount, charFieldCount, blockBytes, retentionNanos));
+    }
+
+    private int getConditionsCode(Set<String> conditions) {
+        if (conditions == null || conditions.isEmpty()) {
+            return NO_CONDITIONS_CODE;
+        }
+        final Integer code = codesOfConditions.get(conditions);
+        return code != null ? code : addConditions(conditions);
+    }
+
+    private synchronized int addConditions(Set<String> conditions) {
+        final Integer existingCode = codesOfConditions.get(conditions);
+        if (existingCode != null) {
+            return existingCode;
+        }
+        final Set<String> conditionsCopy = Collections.unmodifiableSet(new LinkedHashSet<>(conditions));
+        final int code = conditionsOfCodes.length;
+        final Set<String>[] newConditionsOfCodes = Arrays.copyOf(conditionsOfCodes, code + 1);
+        newConditionsOfCodes[code] = conditionsCopy;
+        // Publish the decoding array before the code can be used
+        conditionsOfCodes = newConditionsOfCodes;
+        codesOfConditions.put(conditionsCopy, code);
+        return code;
+    }
+
+    private static char toExchangeChar(String exchange) {
+        return exchange == null || exchange.isEmpty() ? '\0' : exchange.charAt(0);
+    }
+
+    /**
+     * Visits the trades of the given <code>symbol</code> with a timestamp in the given time range.
+     *
+     * @param symbol         the symbol
+     * @param fromEpochNanos the inclusive start epoch nanoseconds
+     * @param toEpochNanos   the exclusive end epoch nanoseconds
+     * @param visitor        the {@link TradeTickVisitor}
+     *
+     * @return the number of visited trades
+     */
+    public int scanTrades(String symbol, long fromEpochNanos, long toEpochNanos, TradeTickVisitor visitor) {
+        checkNotNull(visitor);
+        final TickColumn column = tradeColumns.get(checkNotNull(symbol));
+        if (column == null) {
+            return 0;
+        }
+        final TickBlockCursor cursor = new TickBlockCursor(TRADE_DOUBLE_FIELD_COUNT, TRADE_CHAR_FIELD_COUNT);
+        final TradeTick trade = new TradeTick();
+        trade.symbol = symbol;
+        final TickBlock[] blocks = column.snapshot();
+        // Read after the snapshot, so it has the codes of all snapshotted ticks
+        final Set<String>[] conditionsOfCodes = this.conditionsOfCodes;
+        int visitedCount = 0;
+        for (TickBlock block : blocks) {
+            if (!block.overlaps(fromEpochNanos, toEpochNanos)) {
+                continue;
+            }
+            cursor.reset(block, true);
+            while (cursor.next()) {
+                if (cursor.timestamp >= fromEpochNanos && cursor.timestamp < toEpochNanos) {
+                    visitTrade(cursor, conditionsOfCodes, trade, visitor);
+                    visitedCount++;
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Visits the last <code>count</code> trades of the given <code>symbol</code> in append order.
+     *
+     * @param symbol  the symbol
+     * @param count   the maximum number of trades
+     * @param visitor the {@link TradeTickVisitor}
+     *
+     * @return the number of visited trades
+     */
+    public int lastTrades(String symbol, int count, TradeTickVisitor visitor) {
+        checkArgument(count >= 0, "count must not be negative!");
+        checkNotNull(visitor);
+        final TickColumn column = tradeColumns.get(checkNotNull(symbol));
+        if (column == null || count == 0) {
+            return 0;
+        }
+        final TickBlock[] blocks = column.snapshot();
+        final Set<String>[] conditionsOfCodes = this.conditionsOfCodes;
+        final TickBlockCursor cursor = new TickBlockCursor(TRADE_DOUBLE_FIELD_COUNT, TRADE_CHAR_FIELD_COUNT);
+        final TradeTick trade = new TradeTick();
+        trade.symbol = symbol;
+        int visitedCount = 0;
+        long skipCount = getLastBlocksSkipCount(blocks, count);
+        for (int index = getLastBlocksStartIndex(blocks, count); index < blocks.length; index++) {
+            cursor.reset(blocks[index], true);
+            while (cursor.next()) {
+                if (skipCount > 0) {
+                    skipCount--;
+                } else {
+                    visitTrade(cursor, conditionsOfCodes, trade, visitor);
+                    visitedCount++;
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    private static void visitTrade(TickBlockCursor cursor, Set<String>[] conditionsOfCodes, TradeTick trade,
+            TradeTickVisitor visitor) {
+        trade.timestampEpochNanos = cursor.timestamp;
+        trade.price = cursor.doubles[0];
+        trade.size = cursor.doubles[1];
+        trade.exchange = cursor.chars[0];
+        trade.conditions = conditionsOfCodes[cursor.conditionsCode];
+        visitor.visit(trade);
+    }
+
+    /**
+     * Downsamples the trades of the given <code>symbol</code> with a timestamp in the given time range into OHLCV bars
+     * of the given <code>interval</code>, which are aligned to the epoch. Only intervals with at least one trade are
+     * visited. The open and close of a bar are the trades with the earliest and latest timestamp in its interval.
+     *
+     * @param symbol         the symbol
+     * @param fromEpochNanos the inclusive start epoch nanoseconds
+     * @param toEpochNanos   the exclusive end epoch nanoseconds
+     * @param interval       the bar interval {@link Duration}
+     * @param visitor        the {@link TickBarVisitor}
+     *
+     * @return the number of visited bars
+     */
+    public int downsampleTrades(String symbol, long fromEpochNanos, long toEpochNanos, Duration interval,
+            TickBarVisitor visitor) {
+        final long intervalNanos = toIntervalNanos(interval);
+        checkNotNull(visitor);
+        final TickColumn column = tradeColumns.get(checkNotNull(symbol));
+        if (column == null) {
+            return 0;
+        }
+
+        final TickBlockCursor cursor = new TickBlockCursor(TRADE_DOUBLE_FIELD_COUNT, TRADE_CHAR_FIELD_COUNT);
+        // A sorted map handles ticks that arrived out of order, e.g. late prints
+        final TreeMap<Long, TradeBarAccumulator> accumulators = new TreeMap<>();
+        TradeBarAccumulator accumulator = null;
+        for (TickBlock block : column.snapshot()) {
+            if (!block.overlaps(fromEpochNanos, toEpochNanos)) {
+                continue;
+            }
+            cursor.reset(block, false);
+            while (cursor.next()) {
+                final long timestamp = cursor.timestamp;
+                if (timestamp < fromEpochNanos || timestamp >= toEpochNanos) {
+                    continue;
+                }
+                final long startEpochNanos = Math.floorDiv(timestamp, intervalNanos) * intervalNanos;
+                if (accumulator == null || accumulator.startEpochNanos != startEpochNanos) {
+                    accumulator = accumulators.computeIfAbsent(startEpochNanos, TradeBarAccumulator::new);
+                }
+                accumulator.add(timestamp, cursor.doubles[0], cursor.doubles[1]);
+            }
+        }
+
+        final TickBar bar = new TickBar();
+        bar.symbol = symbol;
+        for (TradeBarAccumulator barAccumulator : accumulators.values()) {
+            bar.startEpochNanos = barAccumulator.startEpochNanos;
+            bar.endEpochNanos = barAccumulator.startEpochNanos + intervalNanos;
+            bar.open = barAccumulator.open;
+            bar.high = barAccumulator.high;
+            bar.low = barAccumulator.low;
+            bar.close = barAccumulator.close;
+            bar.volume = barAccumulator.volume;
+            bar.tradeCount = barAccumulator.tradeCount;
+            visitor.visit(bar);
+        }
+        return accumulators.size();
+    }
+
+    /**
+     * Visits the quotes of the given <code>symbol</code> with a timestamp in the given time range.
+     *
+     * @param symbol         the symbol
+     * @param fromEpochNanos the inclusive start epoch nanoseconds
+     * @param toEpochNanos   the exclusive end epoch nanoseconds
+     * @param visitor        the {@link QuoteTickVisitor}
+     *
+     * @return the number of visited quotes
+     */
+    public int scanQuotes(String symbol, long fromEpochNanos, long toEpochNanos, QuoteTickVisitor visitor) {
+        checkNotNull(visitor);
+        final TickColumn column = quoteColumns.get(checkNotNull(symbol));
+        if (column == null) {
+            return 0;
+        }
+        final TickBlockCursor cursor = new TickBlockCursor(QUOTE_DOUBLE_FIELD_COUNT, QUOTE_CHAR_FIELD_COUNT);
+        final QuoteTick quote = new QuoteTick();
+        quote.symbol = symbol;
+        final TickBlock[] blocks = column.snapshot();
+        // Read after the snapshot, so it has the codes of all snapshotted ticks
+        final Set<String>[] conditionsOfCodes = this.conditionsOfCodes;
+        int visitedCount = 0;
+        for (TickBlock block : blocks) {
+            if (!block.overlaps(fromEpochNanos, toEpochNanos)) {
+                continue;
+            }
+            cursor.reset(block, true);
+            while (cursor.next()) {
+                if (cursor.timestamp >= fromEpochNanos && cursor.timestamp < toEpochNanos) {
+                    visitQuote(cursor, conditionsOfCodes, quote, visitor);
+                    visitedCount++;
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Visits the last <code>count</code> quotes of the given <code>symbol</code> in append order.
+     *
+     * @param symbol  the symbol
+     * @param count   the maximum number of quotes
+     * @param visitor the {@link QuoteTickVisitor}
+     *
+     * @return the number of visited quotes
+     */
+    public int lastQuotes(String symbol, int count, QuoteTickVisitor visitor) {
+        checkArgument(count >= 0, "count must not be negative!");
+        checkNotNull(visitor);
+        final TickColumn column = quoteColumns.get(checkNotNull(symbol));
+        if (column == null || count == 0) {
+            return 0;
+        }
+        final TickBlock[] blocks = column.snapshot();
+        final Set<String>[] conditionsOfCodes = this.conditionsOfCodes;
+        final TickBlockCursor cursor = new TickBlockCursor(QUOTE_DOUBLE_FIELD_COUNT, QUOTE_CHAR_FIELD_COUNT);
+        final QuoteTick quote = new QuoteTick();
+        quote.symbol = symbol;
+        int visitedCount = 0;
+        long skipCount = getLastBlocksSkipCount(blocks, count);
+        for (int index = getLastBlocksStartIndex(blocks, count); index < blocks.length; index++) {
+            cursor.reset(blocks[index], true);
+            while (cursor.next()) {
+                if (skipCount > 0) {
+                    skipCount--;
+                } else {
+                    visitQuote(cursor, conditionsOfCodes, quote, visitor);
+                    visitedCount++;
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Downsamples the quotes of the given <code>symbol</code> with a timestamp in the given time range to the quote
+     * with the latest timestamp in each interval of the given <code>interval</code>, which are aligned to the epoch.
+     * Only intervals with at least one quote are visited.
+     *
+     * @param symbol         the symbol
+     * @param fromEpochNanos the inclusive start epoch nanoseconds
+     * @param toEpochNanos   the exclusive end epoch nanoseconds
+     * @param interval       the interval {@link Duration}
+     * @param visitor        the {@link QuoteTickVisitor}
+     *
+     * @return the number of visited quotes
+     */
+    public int downsampleQuotes(String symbol, long fromEpochNanos, long toEpochNanos, Duration interval,
+            QuoteTickVisitor visitor) {
+        final long intervalNanos = toIntervalNanos(interval);
+        checkNotNull(visitor);
+        final TickColumn column = quoteColumns.get(checkNotNull(symbol));
+        if (column == null) {
+            return 0;
+        }
+
+        final TickBlockCursor cursor = new TickBlockCursor(QUOTE_DOUBLE_FIELD_COUNT, QUOTE_CHAR_FIELD_COUNT);
+        final TreeMap<Long, QuoteTick> lastQuotes = new TreeMap<>();
+        final TickBlock[] blocks = column.snapshot();
+        final Set<String>[] conditionsOfCodes = this.conditionsOfCodes;
+        for (TickBlock block : blocks) {
+            if (!block.overlaps(fromEpochNanos, toEpochNanos)) {
+                continue;
+            }
+            cursor.reset(block, true);
+            while (cursor.next()) {
+                final long timestamp = cursor.timestamp;
+                if (timestamp < fromEpochNanos || timestamp >= toEpochNanos) {
+                    continue;
+                }
+                final long startEpochNanos = Math.floorDiv(timestamp, intervalNanos) * intervalNanos;
+                QuoteTick lastQuote = lastQuotes.get(startEpochNanos);
+                if (lastQuote == null) {
+                    lastQuote = new QuoteTick();
+                    lastQuote.symbol = symbol;
+                    lastQuotes.put(startEpochNanos, lastQuote);
+                } else if (timestamp < lastQuote.timestampEpochNanos) {
+                    continue;
+                }
+                copyQuote(cursor, conditionsOfCodes, lastQuote);
+            }
+        }
+
+        for (QuoteTick lastQuote : lastQuotes.values()) {
+            visitor.visit(lastQuote);
+        }
+        return lastQuotes.size();
+    }
+
+    private static void visitQuote(TickBlockCursor cursor, Set<String>[] conditionsOfCodes, QuoteTick quote,
+            QuoteTickVisitor visitor) {
+        copyQuote(cursor, conditionsOfCodes, quote);
+        visitor.visit(quote);
+    }
+
+    private static void copyQuote(TickBlockCursor cursor, Set<String>[] conditionsOfCodes, QuoteTick quote) {
+        quote.timestampEpochNanos = cursor.timestamp;
+        quote.bidPrice = cursor.doubles[0];
+        quote.bidSize = cursor.doubles[1];
+        quote.askPrice = cursor.doubles[2];
+        quote.askSize = cursor.doubles[3];
+        quote.bidExchange = cursor.chars[0];
+        quote.askExchange = cursor.chars[1];
+        quote.conditions = conditionsOfCodes[cursor.conditionsCode];
+    }
+
+    private static int getLastBlocksStartIndex(TickBlock[] blocks, int count) {
+        long tickCount = 0;
+        int index = blocks.length;
+        while (index > 0 && tickCount < count) {
+            tickCount += blocks[--index].count;
+        }
+        return index;
+    }
+
+    private static long getLastBlocksSkipCount(TickBlock[] blocks, int count) {
+        long tickCount = 0;
+        for (int index = getLastBlocksStartIndex(blocks, count); index < blocks.length; index++) {
+            tickCount += blocks[index].count;
+        }
+        return Math.max(0, tickCount - count);
+    }
+
+    private static long toIntervalNanos(Duration interval) {
+        checkNotNull(interval);
+        checkArgument(!interval.isNegative() && !interval.isZero(), "interval must be positive!");
+        return interval.toNanos();
+    }
+
+    /**
+     * Removes all ticks of the given <code>symbol</code>.
+     *
+     * @param symbol the symbol
+     */
+    public void remove(String symbol) {
+        tradeColumns.remove(symbol);
+        quoteColumns.remove(symbol);
+    }
+
+    /**
+     * Removes all ticks.
+     */
+    public void clear() {
+        tradeColumns.clear();
+        quoteColumns.clear();
+    }
+
+    /**
+     * Gets the symbols that have at least one retained trade or quote column.
+     *
+     * @return a {@link Set} of symbols
+     */
+    public Set<String> getSymbols() {
+        final Set<String> symbols = new LinkedHashSet<>(tradeColumns.keySet());
+        symbols.addAll(quoteColumns.keySet());
+        return symbols;
+    }
+
+    /**
+     * Gets the number of retained trades of the given <code>symbol</code>.
+     *
+     * @param symbol the symbol
+     *
+     * @return the trade count
+     */
+    public long getTradeCount(String symbol) {
+        final TickColumn column = tradeColumns.get(symbol);
+        return column == null ? 0 : column.getTickCount();
+    }
+
+    /**
+     * Gets the number of retained quotes of the given <code>symbol</code>.
+     *
+     * @param symbol the symbol
+     *
+     * @return the quote count
+     */
+    public long getQuoteCount(String symbol) {
+        final TickColumn column = quoteColumns.get(symbol);
+        return column == null ? 0 : column.getTickCount();
+    }
+
+    /**
+     * Gets the number of off-heap bytes used by this {@link TickStore}, including the scratch buffers of open blocks.
+     *
+     * @return the off-heap byte count
+     */
+    public long getOffHeapBytes() {
+        long offHeapBytes = 0;
+        for (Map<String, TickColumn> columns : Arrays.asList(tradeColumns, quoteColumns)) {
+            for (TickColumn column : columns.values()) {
+                offHeapBytes += column.getOffHeapByteSize();
+            }
+        }
+        return offHeapBytes;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public int getBlockBytes() {
+        return blockBytes;
+    }
+
+    /**
+     * {@link TradeBarAccumulator} accumulates the trades of a downsampled bar.
+     */
+    private static final class TradeBarAccumulator {
+
+        final long startEpochNanos;
+        long openEpochNanos;
+        long closeEpochNanos;
+        double open;
+        double high;
+        double low;
+        double close;
+        double volume;
+        long tradeCount;
+
+        TradeBarAccumulator(long startEpochNanos) {
+            this.startEpochNanos = startEpochNanos;
+        }
+
+        void add(long timestampEpochNanos, double price, double size) {
+            if (tradeCount == 0) {
+                open = high = low = close = price;
+                openEpochNanos = closeEpochNanos = timestampEpochNanos;
+            } else {
+                if (timestampEpochNanos < openEpochNanos) {
+                    open = price;
+                    openEpochNanos = timestampEpochNanos;
+                }
+                if (timestampEpochNanos >= closeEpochNanos) {
+                    close = price;
+                    closeEpochNanos = timestampEpochNanos;
+                }
+                high = Math.max(high, price);
+                low = Math.min(low, price);
+            }
+            volume += size;
+            tradeCount++;
+        }
+    }
+}
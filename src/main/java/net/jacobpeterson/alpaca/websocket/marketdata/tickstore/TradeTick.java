@@ -0,0 +1,60 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+import java.util.Set;
+
+/**
+ * {@link TradeTick} is a reusable, mutable, primitive-backed trade of a {@link TickStore} query. An instance is only
+ * valid for the duration of a {@link TradeTickVisitor} callback, so copy any needed values instead of retaining the
+ * instance.
+ */
+public class TradeTick {
+
+    String symbol;
+    long timestampEpochNanos;
+    double price;
+    double size;
+    char exchange;
+    Set<String> conditions;
+
+    TradeTick() {}
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the exchange code.
+     *
+     * @return the exchange code or <code>'\0'</code> if there is none (e.g. for crypto trades)
+     */
+    public char getExchange() {
+        return exchange;
+    }
+
+    /**
+     * Gets the trade conditions.
+     *
+     * @return an unmodifiable {@link Set} of the trade conditions, which is empty if there are none
+     */
+    public Set<String> getConditions() {
+        return conditions;
+    }
+
+    @Override
+    public String toString() {
+        return "TradeTick{symbol=" + symbol + ", timestampEpochNanos=" + timestampEpochNanos + ", price=" + price +
+                ", size=" + size + ", exchange=" + exchange + ", conditions=" + conditions + "}";
+    }
+}
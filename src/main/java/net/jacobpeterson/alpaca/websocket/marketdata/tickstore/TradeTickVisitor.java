@@ -0,0 +1,16 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.tickstore;
+
+/**
+ * {@link TradeTickVisitor} defines a visitor interface for the trades of a {@link TickStore} query. The given
+ * {@link TradeTick} instance is reused, so it is only valid for the duration of the callback.
+ */
+@FunctionalInterface
+public interface TradeTickVisitor {
+
+    /**
+     * Called for each trade of a query in order.
+     *
+     * @param trade the {@link TradeTick}
+     */
+    void visit(TradeTick trade);
+}
@@ -6,6 +6,10 @@ import net.jacobpeterson.alpaca.model.util.apitype.TraderAPIEndpointType;
 import net.jacobpeterson.alpaca.model.websocket.updates.model.UpdatesMessageType;
 import net.jacobpeterson.alpaca.model.websocket.updates.model.authorization.AuthorizationMessage;
 import net.jacobpeterson.alpaca.model.websocket.updates.model.tradeupdate.TradeUpdateMessage;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
+import net.jacobpeterson.alpaca.util.metrics.AlpacaMetrics;
+import net.jacobpeterson.alpaca.util.metrics.MetricsTimer;
 import net.jacobpeterson.alpaca.websocket.AlpacaWebsocket;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
@@ -15,10 +19,16 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import static com.google.gson.JsonParser.parseString;
-import static java.util.concurrent.TimeUnit.SECONDS;
 import static net.jacobpeterson.alpaca.model.websocket.updates.model.UpdatesMessageType.TRADE_UPDATES;
 import static net.jacobpeterson.alpaca.openapi.trader.JSON.getGson;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.MESSAGE_TYPE_TAG;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_DECODE_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_LISTENER_TIME;
+import static net.jacobpeterson.alpaca.util.metrics.AlpacaMetricNames.WEBSOCKET_TAG;
 
 /**
  * {@link UpdatesWebsocket} is an {@link AlpacaWebsocket} implementation and provides the
@@ -30,10 +40,8 @@ public class UpdatesWebsocket extends AlpacaWebsocket implements UpdatesWebsocke
     private static final Logger LOGGER = LoggerFactory.getLogger(UpdatesWebsocket.class);
 
     @SuppressWarnings("UnnecessaryDefault")
-    private static HttpUrl createWebsocketURL(TraderAPIEndpointType traderAPIEndpointType) {
-        return new HttpUrl.Builder()
-                .scheme("https")
-                .host((switch (traderAPIEndpointType) {
+    private static HttpUrl createWebsocketURL(HttpUrl websocketBaseURL, TraderAPIEndpointType traderAPIEndpointType) {
+        return newWebsocketURLBuilder(websocketBaseURL, (switch (traderAPIEndpointType) {
                     case LIVE -> "api";
                     case PAPER -> "paper-api";
                     default -> throw new UnsupportedOperationException();
@@ -47,6 +55,9 @@ public class UpdatesWebsocket extends AlpacaWebsocket implements UpdatesWebsocke
     protected final String oAuthToken;
     protected UpdatesListener listener;
     protected boolean listenToTradeUpdates;
+    private MetricsTimer tradeUpdateDecodeTimer;
+    private MetricsTimer tradeUpdateListenerTimer;
+    private final List<AlpacaPublisher<TradeUpdateMessage>> publishers;
 
     /**
      * Instantiates a new {@link UpdatesWebsocket}.
@@ -59,10 +70,38 @@ public class UpdatesWebsocket extends AlpacaWebsocket implements UpdatesWebsocke
      */
     public UpdatesWebsocket(OkHttpClient okHttpClient, TraderAPIEndpointType traderAPIEndpointType,
             String keyID, String secretKey, String oAuthToken) {
-        super(okHttpClient, createWebsocketURL(traderAPIEndpointType), "Trades Stream");
+        this(okHttpClient, traderAPIEndpointType, keyID, secretKey, oAuthToken, null);
+    }
+
+    /**
+     * Instantiates a new {@link UpdatesWebsocket}.
+     *
+     * @param okHttpClient          the {@link OkHttpClient}
+     * @param traderAPIEndpointType the {@link TraderAPIEndpointType}
+     * @param keyID                 the key ID
+     * @param secretKey             the secret key
+     * @param oAuthToken            the OAuth token
+     * @param websocketBaseURL      the websocket base {@link HttpUrl} that overrides the Alpaca API host (e.g. a local
+     *                              stand-in server) or <code>null</code> for the default
+     */
+    public UpdatesWebsocket(OkHttpClient okHttpClient, TraderAPIEndpointType traderAPIEndpointType,
+            String keyID, String secretKey, String oAuthToken, HttpUrl websocketBaseURL) {
+        super(okHttpClient, createWebsocketURL(websocketBaseURL, traderAPIEndpointType), "Trades Stream");
         this.keyID = keyID;
         this.secretKey = secretKey;
         this.oAuthToken = oAuthToken;
+        publishers = new CopyOnWriteArrayList<>();
+        resolveTradeUpdateMetrics();
+    }
+
+    /**
+     * Resolves the {@link UpdatesMessageType#TRADE_UPDATES} metric handles from the {@link #metrics}.
+     */
+    private void resolveTradeUpdateMetrics() {
+        tradeUpdateDecodeTimer = metrics.timer(WEBSOCKET_DECODE_TIME,
+                WEBSOCKET_TAG, websocketName, MESSAGE_TYPE_TAG, TRADE_UPDATES.name());
+        tradeUpdateListenerTimer = metrics.timer(WEBSOCKET_LISTENER_TIME,
+                WEBSOCKET_TAG, websocketName, MESSAGE_TYPE_TAG, TRADE_UPDATES.name());
     }
 
     @Override
@@ -78,9 +117,11 @@ public class UpdatesWebsocket extends AlpacaWebsocket implements UpdatesWebsocke
     @Override
     protected void onReconnection() {
         sendAuthenticationMessage();
-        if (waitForAuthorization(5, SECONDS) && listenToTradeUpdates) {
-            sendTradeUpdatesListenMessage();
-        }
+        whenAuthenticated(() -> {
+            if (listenToTradeUpdates) {
+                sendTradeUpdatesListenMessage();
+            }
+        });
     }
 
     @Override
@@ -105,6 +146,7 @@ public class UpdatesWebsocket extends AlpacaWebsocket implements UpdatesWebsocke
 
     @Override
     public void onMessage(@NotNull WebSocket webSocket, @NotNull ByteString byteString) { // Binary framing
+        recordReceivedFrame(byteString, System.nanoTime());
         final String messageString = byteString.utf8();
         LOGGER.trace("Websocket message received: message={}", messageString);
 
@@ -118,11 +160,10 @@ public class UpdatesWebsocket extends AlpacaWebsocket implements UpdatesWebsocke
             case AUTHORIZATION:
                 final AuthorizationMessage authorizationMessage =
                         getGson().fromJson(messageObject, AuthorizationMessage.class);
-                authenticated = authorizationMessage.getData().getAction().equalsIgnoreCase("authenticate") &&
-                        authorizationMessage.getData().getStatus().equalsIgnoreCase("authorized");
-                if (authenticationMessageFuture != null) {
-                    authenticationMessageFuture.complete(authenticated);
-                }
+                final boolean authenticated =
+                        authorizationMessage.getData().getAction().equalsIgnoreCase("authenticate") &&
+                                authorizationMessage.getData().getStatus().equalsIgnoreCase("authorized");
+                completeAuthentication(authenticated);
                 if (!authenticated) {
                     throw new RuntimeException(websocketName + " websocket authentication failed!");
                 } else {
@@ -132,8 +173,25 @@ public class UpdatesWebsocket extends AlpacaWebsocket implements UpdatesWebsocke
             case LISTENING:
                 break;
             case TRADE_UPDATES:
-                if (listener != null) {
-                    listener.onTradeUpdate(getGson().fromJson(messageObject, TradeUpdateMessage.class));
+                final UpdatesListener listener = this.listener;
+                if (listener != null || !publishers.isEmpty()) {
+                    final boolean recordsMetrics = metrics.isEnabled();
+                    final long decodeNanoTime = recordsMetrics ? System.nanoTime() : 0;
+                    final TradeUpdateMessage tradeUpdateMessage =
+                            getGson().fromJson(messageObject, TradeUpdateMessage.class);
+                    if (recordsMetrics) {
+                        tradeUpdateDecodeTimer.record(System.nanoTime() - decodeNanoTime);
+                    }
+                    if (listener != null) {
+                        executeListenerTask(() -> callListener(listener, tradeUpdateMessage));
+                    }
+                    for (AlpacaPublisher<TradeUpdateMessage> publisher : publishers) {
+                        if (publisher.isClosed()) {
+                            publishers.remove(publisher);
+                        } else {
+                            publisher.publish(tradeUpdateMessage);
+                        }
+                    }
                 }
                 break;
             default:
@@ -141,11 +199,43 @@ public class UpdatesWebsocket extends AlpacaWebsocket implements UpdatesWebsocke
         }
     }
 
+    /**
+     * Calls the given {@link UpdatesListener} with a {@link TradeUpdateMessage} while timing it with the
+     * {@link #metrics}.
+     *
+     * @param listener           the {@link UpdatesListener}
+     * @param tradeUpdateMessage the {@link TradeUpdateMessage}
+     */
+    private void callListener(UpdatesListener listener, TradeUpdateMessage tradeUpdateMessage) {
+        if (metrics.isEnabled()) {
+            final long listenerNanoTime = System.nanoTime();
+            listener.onTradeUpdate(tradeUpdateMessage);
+            tradeUpdateListenerTimer.record(System.nanoTime() - listenerNanoTime);
+        } else {
+            listener.onTradeUpdate(tradeUpdateMessage);
+        }
+    }
+
+    @Override
+    public void setMetrics(AlpacaMetrics metrics) {
+        super.setMetrics(metrics);
+        resolveTradeUpdateMetrics();
+    }
+
     @Override
     public void setListener(UpdatesListener listener) {
         this.listener = listener;
     }
 
+    @Override
+    public AlpacaPublisher<TradeUpdateMessage> createPublisher(int bufferCapacity,
+            PublisherOverflowPolicy overflowPolicy) {
+        final AlpacaPublisher<TradeUpdateMessage> publisher =
+                new AlpacaPublisher<>(websocketName, bufferCapacity, overflowPolicy);
+        publishers.add(publisher);
+        return publisher;
+    }
+
     @Override
     public void subscribeToTradeUpdates(boolean subscribe) {
         listenToTradeUpdates = subscribe;
@@ -1,6 +1,9 @@
 package net.jacobpeterson.alpaca.websocket.updates;
 
 import net.jacobpeterson.alpaca.model.websocket.updates.model.UpdatesMessageType;
+import net.jacobpeterson.alpaca.model.websocket.updates.model.tradeupdate.TradeUpdateMessage;
+import net.jacobpeterson.alpaca.util.flow.AlpacaPublisher;
+import net.jacobpeterson.alpaca.util.flow.PublisherOverflowPolicy;
 import net.jacobpeterson.alpaca.websocket.AlpacaWebsocketInterface;
 
 /**
@@ -15,6 +18,20 @@ public interface UpdatesWebsocketInterface extends AlpacaWebsocketInterface {
      */
     void setListener(UpdatesListener listener);
 
+    /**
+     * Creates an {@link AlpacaPublisher} that publishes the {@link TradeUpdateMessage}s of this websocket to any number
+     * of {@link java.util.concurrent.Flow.Subscriber}s, each with its own buffer of <code>bufferCapacity</code>
+     * {@link TradeUpdateMessage}s. {@link TradeUpdateMessage}s are published after they are passed to the
+     * {@link UpdatesListener}, if any. Closing the returned {@link AlpacaPublisher} detaches it from this websocket.
+     *
+     * @param bufferCapacity the maximum number of buffered {@link TradeUpdateMessage}s of each
+     *                       {@link java.util.concurrent.Flow.Subscriber}
+     * @param overflowPolicy the {@link PublisherOverflowPolicy}
+     *
+     * @return the {@link AlpacaPublisher}
+     */
+    AlpacaPublisher<TradeUpdateMessage> createPublisher(int bufferCapacity, PublisherOverflowPolicy overflowPolicy);
+
     /**
      * Subscribes to {@link UpdatesMessageType#TRADE_UPDATES}.
      *
@@ -0,0 +1,164 @@
+package net.jacobpeterson.alpaca.util.msgpack;
+
+import com.google.gson.stream.JsonToken;
+import net.jacobpeterson.alpaca.util.symbol.SymbolDictionary;
+import net.jacobpeterson.alpaca.util.time.RFC3339Timestamp;
+import org.junit.jupiter.api.Test;
+import org.msgpack.core.buffer.MessageBuffer;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.msgpack.core.MessagePack.newDefaultUnpacker;
+
+/**
+ * {@link MessagePackReaderTest} tests {@link MessagePackReader}.
+ */
+public class MessagePackReaderTest {
+
+    // 32-bit timestamp extension (fixext 4) of 2021-02-22T19:15:00Z
+    private static final String TIMESTAMP_32_HEX = "d6ff603402b4";
+    // 64-bit timestamp extension (fixext 8) of 2021-02-22T15:51:44.208123456Z
+    private static final String TIMESTAMP_64_HEX = "d7ff319ed9006033d310";
+    // 96-bit timestamp extension (ext 8) of 2021-02-22T15:51:44.208123456Z
+    private static final String TIMESTAMP_96_HEX = "c70cff0c67b640000000006033d310";
+    // 96-bit timestamp extension (ext 8) of 1969-12-31T23:59:59.5Z, which has negative epoch seconds
+    private static final String TIMESTAMP_96_NEGATIVE_HEX = "c70cff1dcd6500ffffffffffffffff";
+
+    @Test
+    public void readsStructure() throws IOException {
+        // [{"a": 1, "b": [true, null, 2.5], "c": "x"}]
+        final MessagePackReader reader = reader("9183a16101a16293c3c0cb4004000000000000a163a178");
+        assertEquals(JsonToken.BEGIN_ARRAY, reader.peek());
+        reader.beginArray();
+        assertTrue(reader.hasNext());
+        reader.beginObject();
+        assertEquals(JsonToken.NAME, reader.peek());
+        assertEquals("a", reader.nextName());
+        assertEquals(JsonToken.NUMBER, reader.peek());
+        assertEquals(1, reader.nextInt());
+        assertEquals("b", reader.nextName());
+        reader.beginArray();
+        assertTrue(reader.nextBoolean());
+        assertEquals(JsonToken.NULL, reader.peek());
+        reader.nextNull();
+        assertEquals(2.5, reader.nextDouble());
+        assertEquals(JsonToken.END_ARRAY, reader.peek());
+        reader.endArray();
+        assertEquals("c", reader.nextName());
+        assertEquals("x", reader.nextString());
+        assertFalse(reader.hasNext());
+        assertEquals(JsonToken.END_OBJECT, reader.peek());
+        reader.endObject();
+        reader.endArray();
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void rejectsUnbalancedContainers() throws IOException {
+        // [1, 2]
+        final MessagePackReader reader = reader("920102");
+        reader.beginArray();
+        assertEquals(1, reader.nextLong());
+        assertThrows(IllegalStateException.class, reader::endArray);
+    }
+
+    @Test
+    public void rejectsFractionalLongs() throws IOException {
+        // 2.5
+        assertThrows(NumberFormatException.class, () -> reader("cb4004000000000000").nextLong());
+    }
+
+    @Test
+    public void readsTimestamp32Extension() throws IOException {
+        assertEquals(OffsetDateTime.parse("2021-02-22T19:15:00Z").toInstant().getEpochSecond() * 1_000_000_000L,
+                reader(TIMESTAMP_32_HEX).nextRFC3339Timestamp().getEpochNanos());
+        assertEquals(OffsetDateTime.parse("2021-02-22T19:15:00Z"), reader(TIMESTAMP_32_HEX).nextOffsetDateTime());
+    }
+
+    @Test
+    public void readsTimestamp64Extension() throws IOException {
+        assertEquals(RFC3339Timestamp.parse("2021-02-22T15:51:44.208123456Z"),
+                reader(TIMESTAMP_64_HEX).nextRFC3339Timestamp());
+    }
+
+    @Test
+    public void readsTimestamp96Extension() throws IOException {
+        final RFC3339Timestamp timestamp = reader(TIMESTAMP_96_HEX).nextRFC3339Timestamp();
+        assertEquals(RFC3339Timestamp.parse("2021-02-22T15:51:44.208123456Z"), timestamp);
+        assertEquals(1_614_009_104_208_123_456L, timestamp.getEpochNanos());
+        assertEquals(OffsetDateTime.parse("2021-02-22T15:51:44.208123456Z"),
+                reader(TIMESTAMP_96_HEX).nextOffsetDateTime());
+        assertEquals("2021-02-22T15:51:44.208123456Z", reader(TIMESTAMP_96_HEX).nextString());
+        assertEquals(JsonToken.STRING, reader(TIMESTAMP_96_HEX).peek());
+
+        assertEquals(-500_000_000L, reader(TIMESTAMP_96_NEGATIVE_HEX).nextRFC3339Timestamp().getEpochNanos());
+    }
+
+    @Test
+    public void readsTimestampStrings() throws IOException {
+        // "2021-02-22T15:51:44.208123456Z"
+        final String hex = "be" + HexFormat.of().formatHex("2021-02-22T15:51:44.208123456Z".getBytes(UTF_8));
+        assertEquals(RFC3339Timestamp.parse("2021-02-22T15:51:44.208123456Z"), reader(hex).nextRFC3339Timestamp());
+        assertEquals(OffsetDateTime.parse("2021-02-22T15:51:44.208123456Z"), reader(hex).nextOffsetDateTime());
+    }
+
+    @Test
+    public void readsSymbolIDs() throws IOException {
+        final SymbolDictionary symbolDictionary = new SymbolDictionary();
+        final int aaplID = symbolDictionary.getID("AAPL");
+
+        // ["AAPL", "MSFT", "AAPL", "ÄÖ", 7]
+        final MessagePackReader reader = reader("95a44141504ca44d534654a44141504ca4c384c39607");
+        reader.beginArray();
+        assertEquals(aaplID, reader.nextSymbolID(symbolDictionary));
+        final int msftID = reader.nextSymbolID(symbolDictionary);
+        assertEquals("MSFT", symbolDictionary.getSymbol(msftID));
+        assertEquals(aaplID, reader.nextSymbolID(symbolDictionary));
+        assertEquals("ÄÖ", symbolDictionary.getSymbol(reader.nextSymbolID(symbolDictionary)));
+        assertEquals("7", symbolDictionary.getSymbol(reader.nextSymbolID(symbolDictionary)));
+        reader.endArray();
+    }
+
+    @Test
+    public void readsLongSymbolIDs() throws IOException {
+        final SymbolDictionary symbolDictionary = new SymbolDictionary();
+        final String symbol = "ABCDEFGHIJKLMNOPQRSTUVWXYZ/USD";
+        final MessagePackReader reader = reader("be" + HexFormat.of().formatHex(symbol.getBytes(UTF_8)));
+        assertEquals(symbol, symbolDictionary.getSymbol(reader.nextSymbolID(symbolDictionary)));
+    }
+
+    @Test
+    public void readsStringPayloadReferences() throws IOException {
+        final String content = "<p>Ünïcödé content</p>";
+        final byte[] contentBytes = content.getBytes(UTF_8);
+        // ["<p>Ünïcödé content</p>", 42]
+        final HexFormat hexFormat = HexFormat.of();
+        final byte[] frame = hexFormat.parseHex("92" + hexFormat.toHexDigits((byte) (0xa0 | contentBytes.length)) +
+                hexFormat.formatHex(contentBytes) + "2a");
+        final MessagePackReader reader = new MessagePackReader(newDefaultUnpacker(frame));
+        reader.beginArray();
+
+        final MessageBuffer contentBuffer = reader.nextStringPayloadReference();
+        assertSame(frame, contentBuffer.array(), "The payload should reference the frame instead of copying it");
+        assertArrayEquals(contentBytes, contentBuffer.toByteArray());
+        assertEquals(content, new String(contentBuffer.array(), contentBuffer.arrayOffset(), contentBuffer.size(),
+                UTF_8));
+
+        // Non-string values are converted to their string representation
+        assertEquals("42", new String(reader.nextStringPayloadReference().toByteArray(), UTF_8));
+        reader.endArray();
+    }
+
+    private static MessagePackReader reader(String hex) {
+        return new MessagePackReader(newDefaultUnpacker(HexFormat.of().parseHex(hex)));
+    }
+}
@@ -0,0 +1,64 @@
+package net.jacobpeterson.alpaca.util.symbol;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link SymbolDictionaryTest} tests {@link SymbolDictionary}.
+ */
+public class SymbolDictionaryTest {
+
+    private static final int SYMBOL_COUNT = 200_000;
+
+    @Test
+    public void internsSymbols() {
+        final SymbolDictionary symbolDictionary = new SymbolDictionary();
+        symbolDictionary.addSymbols(List.of("AAPL", "MSFT"));
+        assertEquals(0, symbolDictionary.getID("AAPL"));
+        assertEquals(1, symbolDictionary.getID("xMSFTx", 1, 5));
+        assertEquals(SymbolDictionary.NO_ID, symbolDictionary.findID("SPY", 0, 3));
+        assertEquals(2, symbolDictionary.getID("SPY"));
+        assertEquals("SPY", symbolDictionary.getSymbol(2));
+        assertNull(symbolDictionary.getSymbol(3));
+        assertEquals(3, symbolDictionary.size());
+    }
+
+    @Test
+    public void resolvesFoundIDsWhileSymbolsAreAdded() throws InterruptedException {
+        final String[] symbols = new String[SYMBOL_COUNT];
+        for (int index = 0; index < SYMBOL_COUNT; index++) {
+            symbols[index] = "SYM" + index;
+        }
+        final SymbolDictionary symbolDictionary = new SymbolDictionary();
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        // The reader resolves each symbol as soon as the writer has added it, like a decoder of another websocket
+        // that shares the SymbolDictionary
+        final Thread reader = new Thread(() -> {
+            for (int index = 0; index < SYMBOL_COUNT && failure.get() == null; index++) {
+                final String symbol = symbols[index];
+                int id;
+                while ((id = symbolDictionary.findID(symbol, 0, symbol.length())) == SymbolDictionary.NO_ID) {
+                    Thread.onSpinWait();
+                }
+                final String foundSymbol = symbolDictionary.getSymbol(id);
+                if (!symbol.equals(foundSymbol)) {
+                    failure.set("ID " + id + " of " + symbol + " resolved to " + foundSymbol);
+                }
+            }
+        });
+        reader.start();
+        for (String symbol : symbols) {
+            symbolDictionary.getID(symbol);
+        }
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(SYMBOL_COUNT, symbolDictionary.size());
+    }
+}
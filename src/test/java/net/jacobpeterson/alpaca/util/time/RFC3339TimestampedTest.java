@@ -0,0 +1,44 @@
+package net.jacobpeterson.alpaca.util.time;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link RFC3339TimestampedTest} tests the {@link RFC3339Timestamped} accessors of the generated models.
+ */
+public class RFC3339TimestampedTest {
+
+    @Test
+    public void createsOffsetDateTimeLazily() {
+        final RFC3339Timestamp timestamp = RFC3339Timestamp.parse("2021-02-22T15:51:44.208123456-05:00");
+        final StockTradeMessage trade = new StockTradeMessage().withRfc3339Timestamp(timestamp);
+
+        assertEquals(timestamp.getEpochNanos(), trade.getTimestampEpochNanos());
+        final OffsetDateTime offsetDateTime = trade.getTimestamp();
+        assertEquals(OffsetDateTime.parse("2021-02-22T15:51:44.208123456-05:00"), offsetDateTime);
+        assertSame(offsetDateTime, trade.getTimestamp());
+    }
+
+    @Test
+    public void setsOffsetDateTime() {
+        final OffsetDateTime offsetDateTime = OffsetDateTime.parse("2024-03-15T14:30:01.123456789Z");
+        final StockTradeMessage trade = new StockTradeMessage();
+        assertSame(trade, trade.withTimestamp(offsetDateTime));
+
+        assertSame(offsetDateTime, trade.getTimestamp());
+        assertEquals(RFC3339Timestamp.of(offsetDateTime), trade.getRfc3339Timestamp());
+        assertEquals(1_710_513_001_123_456_789L, trade.getTimestampEpochNanos());
+
+        trade.setTimestamp(null);
+        assertNull(trade.getRfc3339Timestamp());
+        assertNull(trade.getTimestamp());
+        assertThrows(NullPointerException.class, trade::getTimestampEpochNanos);
+    }
+}
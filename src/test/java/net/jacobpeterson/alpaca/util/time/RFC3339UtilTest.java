@@ -0,0 +1,101 @@
+package net.jacobpeterson.alpaca.util.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link RFC3339UtilTest} tests {@link RFC3339Util} and {@link RFC3339Timestamp} against
+ * {@link OffsetDateTime#parse(CharSequence)}.
+ */
+public class RFC3339UtilTest {
+
+    private static final int RANDOM_TIMESTAMP_COUNT = 200_000;
+    private static final long MIN_EPOCH_SECOND = LocalDate.of(1700, 1, 1).toEpochDay() * 86_400L;
+    private static final long MAX_EPOCH_SECOND = LocalDate.of(2250, 1, 1).toEpochDay() * 86_400L;
+    private static final int MAX_OFFSET_MINUTES = 18 * 60;
+
+    @Test
+    public void parsesRandomTimestamps() {
+        final SplittableRandom random = new SplittableRandom(0);
+        for (int index = 0; index < RANDOM_TIMESTAMP_COUNT; index++) {
+            final String text = randomTimestamp(random);
+            final OffsetDateTime expected = OffsetDateTime.parse(text);
+            final long expectedEpochNanos = expected.toEpochSecond() * 1_000_000_000L + expected.getNano();
+
+            assertEquals(expectedEpochNanos, RFC3339Util.parseEpochNanos(text, 0, text.length()), text);
+            assertEquals(expected.getOffset().getTotalSeconds(),
+                    RFC3339Util.parseOffsetSeconds(text, 0, text.length()), text);
+            assertEquals(expected, RFC3339Util.parseOffsetDateTime(text), text);
+            assertEquals(expected, RFC3339Timestamp.parse(text).toOffsetDateTime(), text);
+        }
+    }
+
+    @Test
+    public void parsesTimestampRegions() {
+        final String text = "[\"2021-02-22T15:51:44.208123456Z\"]";
+        assertEquals(1_614_009_104_208_123_456L, RFC3339Util.parseEpochNanos(text, 2, text.length() - 2));
+        assertEquals(-3600, RFC3339Util.parseOffsetSeconds("x2021-02-22T15:51:44-01:00", 1, 26));
+    }
+
+    @Test
+    public void parsesDates() {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay() * 86_400_000_000_000L,
+                RFC3339Util.parseEpochNanos("2024-02-29", 0, 10));
+        assertEquals(0, RFC3339Util.parseOffsetSeconds("2024-02-29", 0, 10));
+        assertEquals(OffsetDateTime.parse("2024-02-29T00:00:00Z"), RFC3339Util.parseOffsetDateTime("2024-02-29"));
+    }
+
+    @Test
+    public void rejectsInvalidTimestamps() {
+        for (String text : new String[] {"2021-13-01T00:00:00Z", "2023-02-29T00:00:00Z", "2021-02-22T24:00:00Z",
+                "2021-02-22T15:60:00Z", "2021-02-22T15:51:44", "2021-02-22X15:51:44Z", "2021-2-22T15:51:44Z",
+                "2300-01-01T00:00:00Z"}) {
+            assertThrows(DateTimeParseException.class, () -> RFC3339Util.parseEpochNanos(text, 0, text.length()),
+                    text);
+        }
+    }
+
+    @Test
+    public void computesEpochDays() {
+        final SplittableRandom random = new SplittableRandom(1);
+        for (int index = 0; index < RANDOM_TIMESTAMP_COUNT; index++) {
+            final LocalDate date = LocalDate.ofEpochDay(random.nextLong(-1_000_000, 1_000_000));
+            assertEquals(date.toEpochDay(), RFC3339Util.epochDay(date.getYear(), date.getMonthValue(),
+                    date.getDayOfMonth()), date::toString);
+        }
+    }
+
+    /**
+     * Creates a random RFC-3339 timestamp with 0 to 9 fraction digits and a <code>Z</code> or numeric UTC offset.
+     *
+     * @param random the {@link SplittableRandom}
+     *
+     * @return the timestamp {@link String}
+     */
+    private static String randomTimestamp(SplittableRandom random) {
+        final ZoneOffset offset = random.nextInt(4) == 0 ? ZoneOffset.UTC :
+                ZoneOffset.ofTotalSeconds(random.nextInt(-MAX_OFFSET_MINUTES, MAX_OFFSET_MINUTES + 1) * 60);
+        final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(
+                random.nextLong(MIN_EPOCH_SECOND, MAX_EPOCH_SECOND), 0, offset);
+        final StringBuilder text = new StringBuilder(String.format("%04d-%02d-%02dT%02d:%02d:%02d",
+                dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(),
+                dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond()));
+        final int fractionDigits = random.nextInt(10);
+        if (fractionDigits > 0) {
+            text.append('.');
+            for (int digit = 0; digit < fractionDigits; digit++) {
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+        }
+        return text.append(offset.getId()).toString();
+    }
+}
@@ -0,0 +1,101 @@
+package net.jacobpeterson.alpaca.websocket.journal;
+
+import com.sun.management.ThreadMXBean;
+import okio.ByteString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * {@link WebsocketFrameJournalTest} tests {@link WebsocketFrameJournalWriter} and {@link WebsocketFrameJournalReader}.
+ */
+public class WebsocketFrameJournalTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void readsAppendedFrames() throws IOException {
+        final ByteString binaryFrame = ByteString.decodeHex("9183a154a174a153a44141504ca170cb405fa33333333333");
+        try (WebsocketFrameJournalWriter writer = new WebsocketFrameJournalWriter(directory, "test", SEGMENT_SIZE)) {
+            writer.append("[{\"T\":\"success\",\"msg\":\"connected\"}]", 1);
+            writer.append(binaryFrame, 2);
+            writer.append("[{\"T\":\"n\",\"headline\":\"Ünïcödé 🚀\"}]", 3);
+            assertEquals(3, writer.getFrameCount());
+        }
+
+        try (WebsocketFrameJournalReader reader = new WebsocketFrameJournalReader(directory, "test")) {
+            assertTrue(reader.next());
+            assertTrue(reader.isText());
+            assertEquals("[{\"T\":\"success\",\"msg\":\"connected\"}]", reader.getText());
+            assertEquals(1, reader.getReceiveNanoTime());
+            assertTrue(reader.next());
+            assertFalse(reader.isText());
+            assertEquals(binaryFrame, reader.getBytes());
+            assertEquals(2, reader.getReceiveNanoTime());
+            assertTrue(reader.next());
+            assertEquals("[{\"T\":\"n\",\"headline\":\"Ünïcödé 🚀\"}]", reader.getText());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void rollsSegments() throws IOException {
+        final int frameCount = 10_000;
+        try (WebsocketFrameJournalWriter writer = new WebsocketFrameJournalWriter(directory, "test", SEGMENT_SIZE)) {
+            for (int index = 0; index < frameCount; index++) {
+                writer.append(ByteString.encodeUtf8("frame " + index), index);
+            }
+        }
+        assertTrue(WebsocketFrameJournalWriter.listSegments(directory, "test").size() > 1);
+
+        try (WebsocketFrameJournalReader reader = new WebsocketFrameJournalReader(directory, "test")) {
+            for (int index = 0; index < frameCount; index++) {
+                assertTrue(reader.next());
+                assertEquals("frame " + index, reader.getBytes().utf8());
+                assertEquals(index, reader.getReceiveNanoTime());
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void appendsBinaryFramesWithoutAllocating() throws IOException {
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        final ByteString binaryFrame = ByteString.decodeHex("9189a154a174a169ce00017a99a153a44141504ca178a144a170cb405fa3" +
+                "3333333333a17301a174c70cff0c67b640000000006033d310a16392a140a149a17aa143");
+        // A large segment, so that no segment is rolled while measuring
+        try (WebsocketFrameJournalWriter writer = new WebsocketFrameJournalWriter(directory, "test",
+                64 * 1024 * 1024)) {
+            for (int index = 0; index < 100_000; index++) {
+                writer.append(binaryFrame, index);
+            }
+
+            // As in the flyweight allocation test, the JIT compiler can allocate once in a while, so the steady state
+            // is reached if any round allocates nothing
+            long minimumAllocatedBytes = Long.MAX_VALUE;
+            for (int round = 0; round < 10 && minimumAllocatedBytes > 0; round++) {
+                final long startAllocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+                for (int index = 0; index < 10_000; index++) {
+                    writer.append(binaryFrame, index);
+                }
+                minimumAllocatedBytes = Math.min(minimumAllocatedBytes,
+                        threadMXBean.getCurrentThreadAllocatedBytes() - startAllocatedBytes);
+            }
+            assertEquals(0, minimumAllocatedBytes);
+        }
+    }
+}
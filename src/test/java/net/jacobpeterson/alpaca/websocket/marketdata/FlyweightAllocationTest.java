@@ -0,0 +1,196 @@
+package net.jacobpeterson.alpaca.websocket.marketdata;
+
+import com.sun.management.ThreadMXBean;
+import net.jacobpeterson.alpaca.websocket.TestWebSocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.cache.MarketDataCache;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.CryptoMarketDataFlyweightListener;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.CryptoMarketDataWebsocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.CryptoQuoteFlyweight;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.CryptoTradeFlyweight;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataFlyweightListener;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataWebsocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockQuoteFlyweight;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockTradeFlyweight;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import static net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType.IEX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * {@link FlyweightAllocationTest} tests that the flyweight decoders of {@link MarketDataWebsocket#onMessage} allocate
+ * 0 bytes per trade and quote message in the steady state, measured with
+ * {@link ThreadMXBean#getCurrentThreadAllocatedBytes()}. The decoded messages are also written to a
+ * {@link MarketDataCache}, so its update path is covered too.
+ */
+public class FlyweightAllocationTest {
+
+    private static final int FRAME_COUNT = 64;
+    private static final int MESSAGES_PER_FRAME = 10;
+    private static final int SYMBOL_COUNT = 50;
+    private static final int WARMUP_PASSES = 500;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int PASSES_PER_MEASURED_ROUND = 100;
+    private static final String[] EXCHANGES = {"V", "Q", "N", "P", "K", "Z"};
+
+    private static ThreadMXBean threadMXBean;
+
+    @BeforeAll
+    public static void setUpThreadMXBean() {
+        threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void stockFlyweightDecodingAllocatesNothing() {
+        final StockMarketDataWebsocket websocket = new StockMarketDataWebsocket(new OkHttpClient(), "key", "secret",
+                null, null, IEX);
+        final MarketDataCache marketDataCache = new MarketDataCache();
+        final MessageCounter messageCounter = new MessageCounter();
+        websocket.setMarketDataCache(marketDataCache);
+        websocket.setFlyweightListener(new StockMarketDataFlyweightListener() {
+            @Override
+            public void onTrade(StockTradeFlyweight trade) {
+                messageCounter.count(trade.getPrice() + trade.getSize());
+            }
+
+            @Override
+            public void onQuote(StockQuoteFlyweight quote) {
+                messageCounter.count(quote.getBidPrice() + quote.getAskPrice());
+            }
+        });
+
+        final String[] frames = createFrames(true);
+        assertAllocatesNothing(frames, frame -> websocket.onMessage(TestWebSocket.INSTANCE, frame), messageCounter);
+        assertEquals(SYMBOL_COUNT, marketDataCache.getSymbols().size());
+    }
+
+    @Test
+    public void cryptoFlyweightDecodingAllocatesNothing() {
+        final CryptoMarketDataWebsocket websocket = new CryptoMarketDataWebsocket(new OkHttpClient(), "key",
+                "secret", null, null);
+        final MarketDataCache marketDataCache = new MarketDataCache();
+        final MessageCounter messageCounter = new MessageCounter();
+        websocket.setMarketDataCache(marketDataCache);
+        websocket.setFlyweightListener(new CryptoMarketDataFlyweightListener() {
+            @Override
+            public void onTrade(CryptoTradeFlyweight trade) {
+                messageCounter.count(trade.getPrice() + trade.getSize());
+            }
+
+            @Override
+            public void onQuote(CryptoQuoteFlyweight quote) {
+                messageCounter.count(quote.getBidPrice() + quote.getAskPrice());
+            }
+        });
+
+        final String[] frames = createFrames(false);
+        assertAllocatesNothing(frames, frame -> websocket.onMessage(TestWebSocket.INSTANCE, frame), messageCounter);
+        assertEquals(SYMBOL_COUNT, marketDataCache.getSymbols().size());
+    }
+
+    private static void assertAllocatesNothing(String[] frames, Consumer<String> frameConsumer,
+            MessageCounter messageCounter) {
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            for (String frame : frames) {
+                frameConsumer.accept(frame);
+            }
+        }
+        assertEquals((long) WARMUP_PASSES * FRAME_COUNT * MESSAGES_PER_FRAME, messageCounter.messageCount);
+
+        // The JIT compiler can still allocate on this thread once in a while (e.g. when deoptimizing), so the
+        // steady state is reached if any round allocates nothing. An allocation per message (or per frame) would
+        // show up in every round.
+        long minimumAllocatedBytes = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS && minimumAllocatedBytes > 0; round++) {
+            messageCounter.messageCount = 0;
+            final long startAllocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+            for (int pass = 0; pass < PASSES_PER_MEASURED_ROUND; pass++) {
+                for (String frame : frames) {
+                    frameConsumer.accept(frame);
+                }
+            }
+            final long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+            assertEquals((long) PASSES_PER_MEASURED_ROUND * FRAME_COUNT * MESSAGES_PER_FRAME,
+                    messageCounter.messageCount);
+            minimumAllocatedBytes = Math.min(minimumAllocatedBytes, allocatedBytes);
+        }
+
+        final long allocatedBytes = minimumAllocatedBytes;
+        final long messageCount = messageCounter.messageCount;
+        assertEquals(0, allocatedBytes, () -> allocatedBytes + " bytes were allocated for " + messageCount +
+                " messages (" + (double) allocatedBytes / messageCount + " bytes per message)");
+    }
+
+    /**
+     * Creates frames of trade and quote messages of {@link #SYMBOL_COUNT} symbols.
+     *
+     * @param stock <code>true</code> for stock messages, <code>false</code> for crypto messages
+     *
+     * @return the frame {@link String}s
+     */
+    private static String[] createFrames(boolean stock) {
+        final SplittableRandom random = new SplittableRandom(0);
+        final String[] frames = new String[FRAME_COUNT];
+        for (int frameIndex = 0; frameIndex < FRAME_COUNT; frameIndex++) {
+            final StringBuilder frame = new StringBuilder().append('[');
+            for (int index = 0; index < MESSAGES_PER_FRAME; index++) {
+                if (index > 0) {
+                    frame.append(',');
+                }
+                // Visit every symbol so that the steady state is reached during the warmup
+                final int symbolIndex = (frameIndex * MESSAGES_PER_FRAME + index) % SYMBOL_COUNT;
+                final String symbol = stock ? "SYM" + symbolIndex : "SYM" + symbolIndex + "/USD";
+                final int priceCents = 1000 + random.nextInt(100_000);
+                final String timestamp = "2024-03-15T14:" + (10 + random.nextInt(50)) + ":" +
+                        (10 + random.nextInt(50)) + "." + (100_000_000 + random.nextInt(900_000_000)) + "Z";
+                if (random.nextBoolean()) {
+                    frame.append("{\"T\":\"q\",\"S\":\"").append(symbol)
+                            .append("\",\"bp\":").append((priceCents - 1) / 100.0)
+                            .append(",\"bs\":").append(1 + random.nextInt(20))
+                            .append(",\"ap\":").append((priceCents + 1) / 100.0)
+                            .append(",\"as\":").append(1 + random.nextInt(20))
+                            .append(",\"t\":\"").append(timestamp).append('"');
+                    if (stock) {
+                        frame.append(",\"bx\":\"").append(EXCHANGES[random.nextInt(EXCHANGES.length)])
+                                .append("\",\"ax\":\"").append(EXCHANGES[random.nextInt(EXCHANGES.length)])
+                                .append("\",\"c\":[\"R\"],\"z\":\"C\"");
+                    }
+                } else {
+                    frame.append("{\"T\":\"t\",\"S\":\"").append(symbol)
+                            .append("\",\"i\":").append(random.nextInt(Integer.MAX_VALUE))
+                            .append(",\"p\":").append(priceCents / 100.0)
+                            .append(",\"s\":").append(1 + random.nextInt(500))
+                            .append(",\"t\":\"").append(timestamp).append('"');
+                    if (stock) {
+                        frame.append(",\"x\":\"").append(EXCHANGES[random.nextInt(EXCHANGES.length)])
+                                .append("\",\"c\":[\"@\",\"I\"],\"z\":\"C\"");
+                    } else {
+                        frame.append(",\"tks\":\"B\"");
+                    }
+                }
+                frame.append('}');
+            }
+            frames[frameIndex] = frame.append(']').toString();
+        }
+        return frames;
+    }
+
+    private static final class MessageCounter {
+
+        private long messageCount;
+        private double checksum;
+
+        private void count(double value) {
+            messageCount++;
+            checksum += value;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package net.jacobpeterson.alpaca.websocket.marketdata;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.CryptoMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.trade.CryptoTradeMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.trade.CryptoTradeTakerSide;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.bar.StockBarMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.quote.StockQuoteMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import net.jacobpeterson.alpaca.websocket.TestWebSocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.CryptoMarketDataListenerAdapter;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.CryptoMarketDataWebsocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataListenerAdapter;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.stock.StockMarketDataWebsocket;
+import okhttp3.OkHttpClient;
+import okio.ByteString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType.IEX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link MarketDataMessagePackTest} tests the decoding of recorded MessagePack binary frames of the stock and crypto
+ * market data streams by {@link MarketDataWebsocket#onMessage(okhttp3.WebSocket, ByteString)}. Timestamps are
+ * MessagePack timestamp extension values: the 96-bit form for trades and quotes and the 32-bit form for bars.
+ */
+public class MarketDataMessagePackTest {
+
+    /**
+     * <code>[{"T":"t","i":96921,"S":"AAPL","x":"D","p":126.55,"s":1,"t":2021-02-22T15:51:44.208123456Z,
+     * "c":["@","I"],"z":"C"}]</code>
+     */
+    private static final String STOCK_TRADE_FRAME = "9189a154a174a169ce00017a99a153a44141504ca178a144a170cb405fa3" +
+            "3333333333a17301a174c70cff0c67b640000000006033d310a16392a140a149a17aa143";
+
+    /**
+     * <code>[{"T":"q","S":"AMD","bx":"U","bp":87.66,"bs":1,"ax":"Q","ap":87.68,"as":4,
+     * "t":2021-02-22T15:51:45.335689322Z,"c":["R"],"z":"C"}]</code>
+     */
+    private static final String STOCK_QUOTE_FRAME = "918ba154a171a153a3414d44a26278a155a26270cb4055ea3d70a3d70aa2" +
+            "627301a26178a151a26170cb4055eb851eb851eca2617304a174c70cff1402366a000000006033d311a16391a152a17aa143";
+
+    /**
+     * <code>[{"T":"b","S":"SPY","o":388.985,"h":389.13,"l":388.975,"c":389.12,"v":49378,"t":2021-02-22T19:15:00Z,
+     * "n":461,"vw":389.062639}]</code>
+     */
+    private static final String STOCK_BAR_FRAME = "918aa154a162a153a3535059a16fcb40784fc28f5c28f6a168cb407852147a" +
+            "e147aea16ccb40784f999999999aa163cb407851eb851eb852a176cdc0e2a174d6ff603402b4a16ecd01cda27677cb4078510091" +
+            "c08744";
+
+    /**
+     * <code>[{"T":"subscription","trades":["AAPL"],"quotes":["AMD","CLDR"],"bars":["*"],"updatedBars":[],
+     * "dailyBars":["VOO"],"statuses":["*"],"lulds":[],"corrections":["AAPL"],"cancelErrors":["AAPL"]}]</code>
+     */
+    private static final String STOCK_SUBSCRIPTION_FRAME = "918aa154ac737562736372697074696f6ea674726164657391a4" +
+            "4141504ca671756f74657392a3414d44a4434c4452a46261727391a12aab757064617465644261727390a96461696c7942617273" +
+            "91a3564f4fa8737461747573657391a12aa56c756c647390ab636f7272656374696f6e7391a44141504cac63616e63656c457272" +
+            "6f727391a44141504c";
+
+    /**
+     * <code>[{"T":"error","code":400,"msg":"invalid syntax"}]</code>
+     */
+    private static final String ERROR_FRAME = "9183a154a56572726f72a4636f6465cd0190a36d7367ae696e76616c69642073796e" +
+            "746178";
+
+    /**
+     * <code>[{"T":"t","S":"BTC/USD","p":51234.5,"s":0.0125,"t":2024-03-15T14:30:01.123456789Z,"i":123456789,
+     * "tks":"B"}]</code>
+     */
+    private static final String CRYPTO_TRADE_FRAME = "9187a154a174a153a74254432f555344a170cb40e9045000000000a173cb3f" +
+            "8999999999999aa174c70cff075bcd150000000065f45b69a169ce075bcd15a3746b73a142";
+
+    private StockMarketDataWebsocket stockWebsocket;
+    private List<StockTradeMessage> stockTrades;
+    private List<StockQuoteMessage> stockQuotes;
+    private List<StockBarMessage> stockBars;
+
+    @BeforeEach
+    public void setUp() {
+        stockWebsocket = new StockMarketDataWebsocket(new OkHttpClient(), "key", "secret", null, null, IEX);
+        stockTrades = new ArrayList<>();
+        stockQuotes = new ArrayList<>();
+        stockBars = new ArrayList<>();
+        stockWebsocket.setListener(new StockMarketDataListenerAdapter() {
+            @Override
+            public void onTrade(StockTradeMessage trade) {
+                stockTrades.add(trade);
+            }
+
+            @Override
+            public void onQuote(StockQuoteMessage quote) {
+                stockQuotes.add(quote);
+            }
+
+            @Override
+            public void onMinuteBar(StockBarMessage bar) {
+                stockBars.add(bar);
+            }
+        });
+    }
+
+    @Test
+    public void decodesStockTrade() {
+        stockWebsocket.onMessage(TestWebSocket.INSTANCE, frame(STOCK_TRADE_FRAME));
+
+        assertEquals(1, stockTrades.size());
+        final StockTradeMessage trade = stockTrades.get(0);
+        assertEquals(StockMarketDataMessageType.TRADES, trade.getMessageType());
+        assertEquals("AAPL", trade.getSymbol());
+        assertEquals(96921L, trade.getTradeID());
+        assertEquals("D", trade.getExchange());
+        assertEquals(126.55, trade.getPrice());
+        assertEquals(1, trade.getSize());
+        assertEquals(epochNanos("2021-02-22T15:51:44.208123456Z"), trade.getTimestampEpochNanos());
+        assertEquals(Set.of("@", "I"), trade.getConditions());
+        assertEquals("C", trade.getTape());
+    }
+
+    @Test
+    public void decodesStockQuote() {
+        stockWebsocket.onMessage(TestWebSocket.INSTANCE, frame(STOCK_QUOTE_FRAME));
+
+        assertEquals(1, stockQuotes.size());
+        final StockQuoteMessage quote = stockQuotes.get(0);
+        assertEquals(StockMarketDataMessageType.QUOTES, quote.getMessageType());
+        assertEquals("AMD", quote.getSymbol());
+        assertEquals("U", quote.getBidExchange());
+        assertEquals(87.66, quote.getBidPrice());
+        assertEquals(1, quote.getBidSize());
+        assertEquals("Q", quote.getAskExchange());
+        assertEquals(87.68, quote.getAskPrice());
+        assertEquals(4, quote.getAskSize());
+        assertEquals(epochNanos("2021-02-22T15:51:45.335689322Z"), quote.getTimestampEpochNanos());
+        assertEquals(Set.of("R"), quote.getConditions());
+        assertEquals("C", quote.getTape());
+    }
+
+    @Test
+    public void decodesStockBar() {
+        stockWebsocket.onMessage(TestWebSocket.INSTANCE, frame(STOCK_BAR_FRAME));
+
+        assertEquals(1, stockBars.size());
+        final StockBarMessage bar = stockBars.get(0);
+        assertEquals(StockMarketDataMessageType.MINUTE_BARS, bar.getMessageType());
+        assertEquals("SPY", bar.getSymbol());
+        assertEquals(388.985, bar.getOpen());
+        assertEquals(389.13, bar.getHigh());
+        assertEquals(388.975, bar.getLow());
+        assertEquals(389.12, bar.getClose());
+        assertEquals(49378L, bar.getVolume());
+        assertEquals(epochNanos("2021-02-22T19:15:00Z"), bar.getTimestampEpochNanos());
+        assertEquals(461L, bar.getTradeCount());
+        assertEquals(389.062639, bar.getVwap());
+    }
+
+    @Test
+    public void decodesStockSubscription() {
+        stockWebsocket.onMessage(TestWebSocket.INSTANCE, frame(STOCK_SUBSCRIPTION_FRAME));
+
+        assertEquals(Set.of("AAPL"), stockWebsocket.getTradeSubscriptions());
+        assertEquals(Set.of("AMD", "CLDR"), stockWebsocket.getQuoteSubscriptions());
+        assertEquals(Set.of("*"), stockWebsocket.getMinuteBarSubscriptions());
+        assertEquals(Set.of(), stockWebsocket.getUpdatedBarSubscriptions());
+        assertEquals(Set.of("VOO"), stockWebsocket.getDailyBarSubscriptions());
+        assertEquals(Set.of("*"), stockWebsocket.getTradingStatuseSubscriptions());
+        assertEquals(Set.of(), stockWebsocket.getLimitUpLimitDownBandSubscriptions());
+    }
+
+    @Test
+    public void decodesError() {
+        final RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> stockWebsocket.onMessage(TestWebSocket.INSTANCE, frame(ERROR_FRAME)));
+        assertTrue(exception.getMessage().contains("400"), exception.getMessage());
+        assertTrue(exception.getMessage().contains("invalid syntax"), exception.getMessage());
+    }
+
+    @Test
+    public void decodesCryptoTrade() {
+        final CryptoMarketDataWebsocket cryptoWebsocket = new CryptoMarketDataWebsocket(new OkHttpClient(),
+                "key", "secret", null, null);
+        final List<CryptoTradeMessage> cryptoTrades = new ArrayList<>();
+        cryptoWebsocket.setListener(new CryptoMarketDataListenerAdapter() {
+            @Override
+            public void onTrade(CryptoTradeMessage trade) {
+                cryptoTrades.add(trade);
+            }
+        });
+        cryptoWebsocket.onMessage(TestWebSocket.INSTANCE, frame(CRYPTO_TRADE_FRAME));
+
+        assertEquals(1, cryptoTrades.size());
+        final CryptoTradeMessage trade = cryptoTrades.get(0);
+        assertEquals(CryptoMarketDataMessageType.TRADES, trade.getMessageType());
+        assertEquals("BTC/USD", trade.getSymbol());
+        assertEquals(51234.5, trade.getPrice());
+        assertEquals(0.0125, trade.getSize());
+        assertEquals(epochNanos("2024-03-15T14:30:01.123456789Z"), trade.getTimestampEpochNanos());
+        assertEquals(123456789L, trade.getTradeID());
+        assertEquals(CryptoTradeTakerSide.BUY, trade.getTakerSide());
+    }
+
+    private static ByteString frame(String hex) {
+        return ByteString.decodeHex(hex);
+    }
+
+    private static long epochNanos(String timestamp) {
+        final OffsetDateTime offsetDateTime = OffsetDateTime.parse(timestamp);
+        return offsetDateTime.toEpochSecond() * 1_000_000_000L + offsetDateTime.getNano();
+    }
+}
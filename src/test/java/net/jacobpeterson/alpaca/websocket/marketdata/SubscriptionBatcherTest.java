@@ -0,0 +1,102 @@
+package net.jacobpeterson.alpaca.websocket.marketdata;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link SubscriptionBatcherTest} tests {@link SubscriptionBatcher}.
+ */
+public class SubscriptionBatcherTest {
+
+    private ScheduledExecutorService scheduler;
+    private List<JsonObject> sentFrames;
+    private int sendableFrameCount;
+    private SubscriptionBatcher subscriptionBatcher;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        sentFrames = new ArrayList<>();
+        sendableFrameCount = Integer.MAX_VALUE;
+        subscriptionBatcher = new SubscriptionBatcher("Test", frame -> {
+            if (sentFrames.size() == sendableFrameCount) {
+                throw new IllegalStateException("This websocket must be connected before send a message!");
+            }
+            sentFrames.add(frame);
+        }, scheduler);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void splitsFrames() {
+        subscriptionBatcher.setMaxSymbolsPerFrame(2);
+        subscriptionBatcher.setSubscriptions("trades", Set.of(), symbols("AAPL", "AMD", "SPY"));
+
+        assertEquals(2, sentFrames.size());
+        assertEquals("[\"AAPL\",\"AMD\"]", sentFrames.get(0).get("trades").toString());
+        assertEquals("[\"SPY\"]", sentFrames.get(1).get("trades").toString());
+        assertEquals("subscribe", sentFrames.get(1).get("action").getAsString());
+        assertEquals(2, subscriptionBatcher.getInFlightFrameCount());
+        assertEquals(0, subscriptionBatcher.getPendingChangeCount());
+    }
+
+    @Test
+    public void keepsUnsentChangesPendingWhenSendingFails() {
+        subscriptionBatcher.setMaxSymbolsPerFrame(1);
+        sendableFrameCount = 1;
+        assertThrows(IllegalStateException.class,
+                () -> subscriptionBatcher.setSubscriptions("trades", Set.of(), symbols("AAPL", "AMD")));
+        assertEquals(1, sentFrames.size());
+        assertEquals("[\"AAPL\"]", sentFrames.get(0).get("trades").toString());
+        assertEquals(1, subscriptionBatcher.getInFlightFrameCount());
+        assertEquals(1, subscriptionBatcher.getPendingChangeCount());
+
+        sendableFrameCount = Integer.MAX_VALUE;
+        subscriptionBatcher.flush();
+        assertEquals(2, sentFrames.size());
+        assertEquals("[\"AMD\"]", sentFrames.get(1).get("trades").toString());
+        assertEquals(2, subscriptionBatcher.getInFlightFrameCount());
+        assertEquals(0, subscriptionBatcher.getPendingChangeCount());
+    }
+
+    @Test
+    public void keepsCoalescedChangesPendingWhenSendingFails() {
+        subscriptionBatcher.setCoalescingWindow(Duration.ofHours(1));
+        subscriptionBatcher.setSubscriptions("trades", Set.of(), symbols("AAPL"));
+        subscriptionBatcher.setSubscriptions("quotes", Set.of(), symbols("AMD"));
+        assertEquals(2, subscriptionBatcher.getPendingChangeCount());
+
+        sendableFrameCount = 0;
+        assertThrows(IllegalStateException.class, subscriptionBatcher::flush);
+        assertEquals(0, subscriptionBatcher.getInFlightFrameCount());
+        assertEquals(2, subscriptionBatcher.getPendingChangeCount());
+
+        sendableFrameCount = Integer.MAX_VALUE;
+        subscriptionBatcher.flush();
+        assertEquals(1, sentFrames.size());
+        assertEquals("[\"AAPL\"]", sentFrames.get(0).get("trades").toString());
+        assertEquals("[\"AMD\"]", sentFrames.get(0).get("quotes").toString());
+        assertEquals(0, subscriptionBatcher.getPendingChangeCount());
+    }
+
+    private static Set<String> symbols(String... symbols) {
+        return new LinkedHashSet<>(List.of(symbols));
+    }
+}
@@ -0,0 +1,108 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.quote.StockQuoteMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.QUOTES;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.TRADES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ConflatingDispatcherTest} tests {@link ConflatingDispatcher}.
+ */
+public class ConflatingDispatcherTest {
+
+    private static final int PASSTHROUGH_CAPACITY = 4;
+
+    private final CountDownLatch listenerBlocked = new CountDownLatch(1);
+    private final CountDownLatch listenerReleased = new CountDownLatch(1);
+    private final List<Long> receiveNanoTimes = new ArrayList<>();
+    private ConflatingDispatcher<StockMarketDataMessageType> dispatcher;
+
+    @AfterEach
+    public void tearDown() {
+        listenerReleased.countDown();
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    public void dropsOldestPassthroughMessagesAndConflatesQuotes() throws InterruptedException {
+        dispatcher = newDispatcher(RingBufferOverflowPolicy.DROP_OLDEST);
+        dispatcher.dispatch(TRADES, new StockTradeMessage(), 0);
+        assertTrue(listenerBlocked.await(10, TimeUnit.SECONDS));
+
+        // Wrap around the passthrough ring several times while the listener is busy
+        for (long index = 1; index <= 10; index++) {
+            dispatcher.dispatch(TRADES, new StockTradeMessage(), index);
+            dispatcher.dispatch(QUOTES, new StockQuoteMessage().withSymbol(index % 2 == 0 ? "A" : "B"), 100 + index);
+        }
+        assertEquals(6, dispatcher.getDroppedMessageCount());
+        assertEquals(8, dispatcher.getConflatedMessageCount());
+        assertEquals(PASSTHROUGH_CAPACITY + 2, dispatcher.getQueueDepth());
+
+        listenerReleased.countDown();
+        // The quote slots keep the position at which their key first became pending
+        assertEquals(List.of(0L, 109L, 110L, 7L, 8L, 9L, 10L), awaitReceiveNanoTimes(7));
+    }
+
+    @Test
+    public void passesThroughInOrderAcrossRingWraps() throws InterruptedException {
+        dispatcher = newDispatcher(RingBufferOverflowPolicy.BLOCK);
+        listenerReleased.countDown();
+        final List<Long> expected = new ArrayList<>();
+        for (long index = 0; index < PASSTHROUGH_CAPACITY * 25; index++) {
+            dispatcher.dispatch(TRADES, new StockTradeMessage(), index);
+            expected.add(index);
+        }
+        assertEquals(expected, awaitReceiveNanoTimes(expected.size()));
+        assertEquals(0, dispatcher.getDroppedMessageCount());
+    }
+
+    private ConflatingDispatcher<StockMarketDataMessageType> newDispatcher(RingBufferOverflowPolicy overflowPolicy) {
+        return new ConflatingDispatcher<>("Test", Set.of(QUOTES), PASSTHROUGH_CAPACITY, overflowPolicy,
+                runnable -> {
+                    final Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (messageType, message) -> ((StockQuoteMessage) message).getSymbol().equals("A") ? 0 : 1,
+                this::callListener);
+    }
+
+    private void callListener(StockMarketDataMessageType messageType, MarketDataMessage message,
+            long receiveNanoTime) {
+        listenerBlocked.countDown();
+        try {
+            listenerReleased.await();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (receiveNanoTimes) {
+            receiveNanoTimes.add(receiveNanoTime);
+            receiveNanoTimes.notifyAll();
+        }
+    }
+
+    private List<Long> awaitReceiveNanoTimes(int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        synchronized (receiveNanoTimes) {
+            while (receiveNanoTimes.size() < count && System.nanoTime() < deadline) {
+                receiveNanoTimes.wait(100);
+            }
+            return new ArrayList<>(receiveNanoTimes);
+        }
+    }
+}
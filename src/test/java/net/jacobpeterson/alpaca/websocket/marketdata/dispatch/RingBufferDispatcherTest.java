@@ -0,0 +1,64 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.dispatch;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.model.MarketDataMessage;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.TRADES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RingBufferDispatcherTest} tests {@link RingBufferDispatcher}.
+ */
+public class RingBufferDispatcherTest {
+
+    private static final int MESSAGE_COUNT = 2_000_000;
+
+    @Test
+    public void dropOldestNeverDeliversClearedSlots() throws InterruptedException {
+        final AtomicLong deliveredMessageCount = new AtomicLong();
+        final AtomicLong nullMessageCount = new AtomicLong();
+        final AtomicLong outOfOrderMessageCount = new AtomicLong();
+        final long[] lastReceiveNanoTime = {-1};
+        final RingBufferDispatcher<StockMarketDataMessageType> dispatcher = new RingBufferDispatcher<>("Test", 8,
+                RingBufferWaitStrategy.BUSY_SPIN, RingBufferOverflowPolicy.DROP_OLDEST, runnable -> {
+                    final Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                }, (messageType, message, receiveNanoTime) -> {
+                    if (message == null) {
+                        nullMessageCount.incrementAndGet();
+                    }
+                    if (receiveNanoTime <= lastReceiveNanoTime[0]) {
+                        outOfOrderMessageCount.incrementAndGet();
+                    }
+                    lastReceiveNanoTime[0] = receiveNanoTime;
+                    deliveredMessageCount.incrementAndGet();
+                });
+        try {
+            // Every message is a distinct instance, as with the websocket reader thread
+            for (long index = 0; index < MESSAGE_COUNT; index++) {
+                final MarketDataMessage message = new StockTradeMessage();
+                dispatcher.dispatch(TRADES, message, index);
+            }
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (deliveredMessageCount.get() + dispatcher.getDroppedMessageCount() < MESSAGE_COUNT &&
+                    System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        } finally {
+            dispatcher.shutdown();
+        }
+
+        assertEquals(0, nullMessageCount.get(), "null messages were delivered");
+        assertEquals(0, outOfOrderMessageCount.get(), "messages were delivered out of order");
+        assertEquals(MESSAGE_COUNT, deliveredMessageCount.get() + dispatcher.getDroppedMessageCount());
+        assertTrue(dispatcher.getDroppedMessageCount() > 0, "the producer should have overtaken the listener");
+    }
+}
@@ -0,0 +1,81 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.crypto.model.orderbook.CryptoOrderBookMessage;
+import net.jacobpeterson.alpaca.websocket.TestWebSocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferOverflowPolicy;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferWaitStrategy;
+import net.jacobpeterson.alpaca.websocket.marketdata.streams.crypto.orderbook.CryptoOrderBook;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CryptoMarketDataWebsocketTest} tests that {@link CryptoMarketDataWebsocket} maintains complete
+ * {@link CryptoOrderBook}s even when its dispatcher drops {@link CryptoOrderBookMessage}s.
+ */
+public class CryptoMarketDataWebsocketTest {
+
+    private static final int UPDATE_COUNT = 100;
+
+    @Test
+    public void appliesOrderBookUpdatesBeforeDispatch() {
+        final CryptoMarketDataWebsocket websocket = new CryptoMarketDataWebsocket(new OkHttpClient(), "key",
+                "secret", null, null);
+        final CountDownLatch listenerLatch = new CountDownLatch(1);
+        websocket.setListener(new CryptoMarketDataListenerAdapter() {
+            @Override
+            public void onOrderBook(CryptoOrderBookMessage orderBook) {
+                try {
+                    listenerLatch.await();
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        websocket.setUseOrderBooks(true);
+        // The blocked listener makes the ring buffer drop all but the latest order book messages
+        websocket.setRingBufferDispatch(2, RingBufferWaitStrategy.PARK, RingBufferOverflowPolicy.DROP_OLDEST);
+
+        try {
+            websocket.onMessage(TestWebSocket.INSTANCE, orderBookFrame(0, true));
+            for (int update = 1; update < UPDATE_COUNT; update++) {
+                websocket.onMessage(TestWebSocket.INSTANCE, orderBookFrame(update, false));
+            }
+
+            assertTrue(websocket.getDispatcher().getDroppedMessageCount() > 0);
+            final CryptoOrderBook orderBook = websocket.getOrderBook("BTC/USD");
+            assertEquals(UPDATE_COUNT, orderBook.getUpdateCount());
+            assertEquals(UPDATE_COUNT, orderBook.getBidDepth());
+            assertEquals(UPDATE_COUNT, orderBook.getAskDepth());
+            assertEquals(60_000 + UPDATE_COUNT - 1, orderBook.getBestBidPrice());
+            assertEquals(70_000, orderBook.getBestAskPrice());
+
+            orderBook.clear();
+            assertEquals(UPDATE_COUNT + 1, orderBook.getUpdateCount());
+            assertEquals(0, orderBook.getBidDepth());
+            assertEquals(0, orderBook.getAskDepth());
+        } finally {
+            listenerLatch.countDown();
+            websocket.getDispatcher().shutdown();
+        }
+    }
+
+    /**
+     * Creates an order book frame that adds a bid price level at <code>60000 + update</code> and an ask price level at
+     * <code>70000 + update</code>.
+     *
+     * @param update the update index
+     * @param reset  whether the frame resets the order book
+     *
+     * @return the frame {@link String}
+     */
+    private static String orderBookFrame(int update, boolean reset) {
+        return "[{\"T\":\"o\",\"S\":\"BTC/USD\",\"t\":\"2024-03-15T14:30:01." + String.format("%09d", update) +
+                "Z\",\"b\":[{\"p\":" + (60_000 + update) + ",\"s\":0.5}],\"a\":[{\"p\":" + (70_000 + update) +
+                ",\"s\":0.25}],\"r\":" + reset + "}]";
+    }
+}
@@ -0,0 +1,80 @@
+package net.jacobpeterson.alpaca.websocket.marketdata.streams.stock;
+
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType;
+import net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.trade.StockTradeMessage;
+import net.jacobpeterson.alpaca.websocket.TestWebSocket;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.MarketDataDispatcher;
+import net.jacobpeterson.alpaca.websocket.marketdata.dispatch.RingBufferOverflowPolicy;
+import net.jacobpeterson.alpaca.websocket.marketdata.telemetry.MarketDataTelemetrySnapshot;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static net.jacobpeterson.alpaca.model.util.apitype.MarketDataWebsocketSourceType.IEX;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.QUOTES;
+import static net.jacobpeterson.alpaca.model.websocket.marketdata.streams.stock.model.StockMarketDataMessageType.TRADES;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link ShardedStockMarketDataStreamTest} tests that {@link ShardedStockMarketDataStream} aggregates the statistics of
+ * all of its shards.
+ */
+public class ShardedStockMarketDataStreamTest {
+
+    private static final String TRADE_FRAME = "[{\"T\":\"t\",\"S\":\"AAPL\",\"i\":1,\"x\":\"V\",\"p\":126.55,\"s\":1," +
+            "\"t\":\"2024-03-15T14:30:01.123Z\",\"c\":[\"@\"],\"z\":\"C\"}]";
+    private static final String QUOTE_FRAME = "[{\"T\":\"q\",\"S\":\"AMD\",\"bx\":\"U\",\"bp\":87.66,\"bs\":1," +
+            "\"ax\":\"Q\",\"ap\":87.68,\"as\":4,\"t\":\"2024-03-15T14:30:01.456Z\",\"c\":[\"R\"],\"z\":\"C\"}]";
+
+    @Test
+    public void aggregatesShardTelemetry() {
+        final ShardedStockMarketDataStream stream = new ShardedStockMarketDataStream(new OkHttpClient(), "key",
+                "secret", null, null, IEX, 3);
+        stream.setListener(new StockMarketDataListenerAdapter());
+        assertNull(stream.getTelemetrySnapshot());
+        stream.setUseTelemetry(true);
+
+        shard(stream, 0).onMessage(TestWebSocket.INSTANCE, TRADE_FRAME);
+        shard(stream, 1).onMessage(TestWebSocket.INSTANCE, TRADE_FRAME);
+        shard(stream, 2).onMessage(TestWebSocket.INSTANCE, QUOTE_FRAME);
+
+        final MarketDataTelemetrySnapshot<StockMarketDataMessageType> telemetrySnapshot =
+                stream.getTelemetrySnapshot();
+        assertEquals(2L, telemetrySnapshot.getMessageCounts().get(TRADES));
+        assertEquals(1L, telemetrySnapshot.getMessageCounts().get(QUOTES));
+        assertEquals(3, telemetrySnapshot.getReceiveToDispatchLatency().getTotalCount());
+        assertArrayEquals(new long[] {1, 1, 1}, stream.getShardMessageCounts());
+        assertEquals(3, stream.getMessageCount());
+    }
+
+    @Test
+    public void aggregatesShardDispatchers() {
+        final ShardedStockMarketDataStream stream = new ShardedStockMarketDataStream(new OkHttpClient(), "key",
+                "secret", null, null, IEX, 2);
+        assertNull(stream.getDispatcher());
+
+        stream.setConflatingDispatch(Set.of(QUOTES), 16, RingBufferOverflowPolicy.BLOCK);
+        final MarketDataDispatcher<StockMarketDataMessageType> dispatcher = stream.getDispatcher();
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(0, dispatcher.getDroppedMessageCount());
+        assertThrows(UnsupportedOperationException.class,
+                () -> dispatcher.dispatch(TRADES, new StockTradeMessage(), System.nanoTime()));
+
+        // Shutting down the view shuts down the dispatcher of every shard
+        dispatcher.shutdown();
+        for (int shard = 0; shard < stream.getShardCount(); shard++) {
+            final MarketDataDispatcher<StockMarketDataMessageType> shardDispatcher = shard(stream, shard)
+                    .getDispatcher();
+            assertThrows(IllegalStateException.class,
+                    () -> shardDispatcher.dispatch(TRADES, new StockTradeMessage(), System.nanoTime()));
+        }
+    }
+
+    private static StockMarketDataWebsocket shard(ShardedStockMarketDataStream stream, int shard) {
+        return (StockMarketDataWebsocket) stream.getShard(shard);
+    }
+}
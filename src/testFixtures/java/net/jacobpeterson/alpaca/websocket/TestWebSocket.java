@@ -0,0 +1,49 @@
+package net.jacobpeterson.alpaca.websocket;
+
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okio.ByteString;
+
+/**
+ * {@link TestWebSocket} is the {@link WebSocket} passed to the <code>onMessage</code> methods of the
+ * {@link AlpacaWebsocket}s under test or benchmark. It doesn't send anything.
+ */
+public final class TestWebSocket implements WebSocket {
+
+    /**
+     * The {@link TestWebSocket} instance.
+     */
+    public static final TestWebSocket INSTANCE = new TestWebSocket();
+
+    private static final Request REQUEST = new Request.Builder().url("http://test.invalid/").build();
+
+    private TestWebSocket() {}
+
+    @Override
+    public Request request() {
+        return REQUEST;
+    }
+
+    @Override
+    public long queueSize() {
+        return 0;
+    }
+
+    @Override
+    public boolean send(String text) {
+        return false;
+    }
+
+    @Override
+    public boolean send(ByteString bytes) {
+        return false;
+    }
+
+    @Override
+    public boolean close(int code, String reason) {
+        return false;
+    }
+
+    @Override
+    public void cancel() {}
+}
@@ -0,0 +1,604 @@
+package net.jacobpeterson.alpaca.websocket.standin;
+
+import okhttp3.HttpUrl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link AlpacaStandInWebsocketServer} is an embeddable, local stand-in for the Alpaca websocket streams, which is
+ * intended for load and chaos testing of the {@link net.jacobpeterson.alpaca.websocket.AlpacaWebsocket}
+ * implementations without the live service. It serves the stock (<code>/v2/{feed}</code>), crypto
+ * (<code>/v1beta3/crypto/us</code>), news (<code>/v1beta1/news</code>), and trade updates (<code>/stream</code>)
+ * protocols at {@link #getBaseURL()}, which can be passed to
+ * {@link net.jacobpeterson.alpaca.AlpacaAPI.Builder#withWebsocketBaseURL(HttpUrl)}. Subscribed streams receive
+ * synthetic messages at {@link #getMessagesPerSecond()} per connection. Disconnects, authentication timeouts, and slow
+ * frames can be injected at any time. This class is thread-safe.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * try (AlpacaStandInWebsocketServer server = new AlpacaStandInWebsocketServer()) {
+ *     server.start();
+ *     server.setMessagesPerSecond(1_000_000);
+ *     AlpacaAPI alpacaAPI = AlpacaAPI.builder()
+ *             .withTraderKeyID("key")
+ *             .withTraderSecretKey("secret")
+ *             .withWebsocketBaseURL(server.getBaseURL())
+ *             .build();
+ *     // Connect and subscribe to alpacaAPI.stockMarketDataStream()...
+ *     server.disconnectAll();
+ * }
+ * }</pre>
+ */
+public class AlpacaStandInWebsocketServer implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AlpacaStandInWebsocketServer.class);
+
+    /**
+     * The default number of synthetic messages per second per connection.
+     */
+    public static final double DEFAULT_MESSAGES_PER_SECOND = 1000;
+
+    /**
+     * The default maximum number of synthetic messages per market data frame.
+     */
+    public static final int DEFAULT_MAX_MESSAGES_PER_FRAME = 1000;
+
+    /**
+     * The default authentication timeout, which matches the Alpaca market data streams.
+     */
+    public static final Duration DEFAULT_AUTH_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The default stock symbols that the <code>"*"</code> wildcard expands to and that trade updates are generated
+     * for.
+     */
+    public static final List<String> DEFAULT_STOCK_SYMBOLS =
+            List.of("AAPL", "MSFT", "AMZN", "NVDA", "GOOGL", "META", "TSLA", "SPY");
+
+    /**
+     * The default crypto symbols that the <code>"*"</code> wildcard expands to.
+     */
+    public static final List<String> DEFAULT_CRYPTO_SYMBOLS = List.of("BTC/USD", "ETH/USD", "SOL/USD", "LTC/USD");
+
+    private static final String WEBSOCKET_ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final InetSocketAddress bindAddress;
+    private final Set<StandInConnection> connections;
+    private final AtomicLong sentMessageCount;
+    private final AtomicLong nextNewsID;
+    private final AtomicInteger threadCount;
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private volatile String key;
+    private volatile String secret;
+    private volatile double messagesPerSecond;
+    private volatile int maxMessagesPerFrame;
+    private volatile int orderBookDepth;
+    private volatile List<String> stockSymbols;
+    private volatile List<String> cryptoSymbols;
+    private volatile int connectionLimit;
+    private volatile Duration authTimeout;
+    private volatile boolean authenticationIgnored;
+    private volatile double slowFrameProbability;
+    private volatile Duration slowFrameDelay;
+    private volatile long disconnectAfterFrames;
+
+    /**
+     * Instantiates a new {@link AlpacaStandInWebsocketServer} on an ephemeral loopback port.
+     */
+    public AlpacaStandInWebsocketServer() {
+        this(0);
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaStandInWebsocketServer}.
+     *
+     * @param port the loopback port or <code>0</code> for an ephemeral port
+     */
+    public AlpacaStandInWebsocketServer(int port) {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Instantiates a new {@link AlpacaStandInWebsocketServer}.
+     *
+     * @param bindAddress the {@link InetSocketAddress} to bind to
+     */
+    public AlpacaStandInWebsocketServer(InetSocketAddress bindAddress) {
+        this.bindAddress = checkNotNull(bindAddress);
+        connections = ConcurrentHashMap.newKeySet();
+        sentMessageCount = new AtomicLong();
+        nextNewsID = new AtomicLong(1);
+        threadCount = new AtomicInteger();
+        messagesPerSecond = DEFAULT_MESSAGES_PER_SECOND;
+        maxMessagesPerFrame = DEFAULT_MAX_MESSAGES_PER_FRAME;
+        orderBookDepth = 10;
+        stockSymbols = DEFAULT_STOCK_SYMBOLS;
+        cryptoSymbols = DEFAULT_CRYPTO_SYMBOLS;
+        connectionLimit = Integer.MAX_VALUE;
+        authTimeout = DEFAULT_AUTH_TIMEOUT;
+        slowFrameDelay = Duration.ZERO;
+    }
+
+    /**
+     * Starts accepting connections.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public synchronized void start() throws IOException {
+        checkState(serverSocket == null, "The server was already started!");
+        executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable,
+                    "Alpaca Stand-In Websocket Server " + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "Alpaca Stand-In Websocket Server Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        scheduler = scheduledExecutor;
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(bindAddress);
+        executor.execute(this::acceptConnections);
+        LOGGER.info("Alpaca stand-in websocket server listening at {}.", getBaseURL());
+    }
+
+    private void acceptConnections() {
+        final ServerSocket acceptingServerSocket = serverSocket;
+        while (!acceptingServerSocket.isClosed()) {
+            try {
+                final Socket socket = acceptingServerSocket.accept();
+                executor.execute(() -> handleSocket(socket));
+            } catch (IOException exception) {
+                if (!acceptingServerSocket.isClosed()) {
+                    LOGGER.error("Alpaca stand-in websocket server could not accept a connection!", exception);
+                }
+            }
+        }
+    }
+
+    private void handleSocket(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            final InputStream input = new BufferedInputStream(socket.getInputStream());
+            final String[] requestHead = StandInConnection.readRequestHead(input);
+            final String[] requestLine = requestHead[0].split(" ");
+            final Map<String, String> headers = new HashMap<>();
+            for (int index = 1; index < requestHead.length; index++) {
+                final int colonIndex = requestHead[index].indexOf(':');
+                if (colonIndex > 0) {
+                    headers.put(requestHead[index].substring(0, colonIndex).trim().toLowerCase(),
+                            requestHead[index].substring(colonIndex + 1).trim());
+                }
+            }
+
+            final String websocketKey = headers.get("sec-websocket-key");
+            if (requestLine.length != 3 || !requestLine[0].equals("GET") || websocketKey == null ||
+                    !"websocket".equalsIgnoreCase(headers.get("upgrade"))) {
+                writeHTTPResponse(socket, "400 Bad Request");
+                return;
+            }
+            final String path = requestLine[1].split("\\?", 2)[0];
+            final StandInStreamType streamType = StandInStreamType.fromPath(path);
+            if (streamType == null) {
+                writeHTTPResponse(socket, "404 Not Found");
+                return;
+            }
+
+            final OutputStream output = socket.getOutputStream();
+            output.write(("HTTP/1.1 101 Switching Protocols\r\n" +
+                    "Upgrade: websocket\r\n" +
+                    "Connection: Upgrade\r\n" +
+                    "Sec-WebSocket-Accept: " + createWebsocketAccept(websocketKey) + "\r\n\r\n")
+                    .getBytes(ISO_8859_1));
+            output.flush();
+            LOGGER.debug("Alpaca stand-in websocket server accepted a {} connection at {}.", streamType, path);
+
+            final StandInConnection connection = streamType == StandInStreamType.UPDATES ?
+                    new StandInUpdatesConnection(this, socket, input) :
+                    new StandInMarketDataConnection(this, streamType, socket, input);
+            connection.run();
+        } catch (IOException exception) {
+            LOGGER.debug("Alpaca stand-in websocket server handshake failed.", exception);
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException exception) {
+                LOGGER.debug("Alpaca stand-in websocket server could not close a socket.", exception);
+            }
+        }
+    }
+
+    private static void writeHTTPResponse(Socket socket, String status) throws IOException {
+        final OutputStream output = socket.getOutputStream();
+        output.write(("HTTP/1.1 " + status + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+                .getBytes(ISO_8859_1));
+        output.flush();
+    }
+
+    private static String createWebsocketAccept(String websocketKey) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                    .digest((websocketKey + WEBSOCKET_ACCEPT_GUID).getBytes(UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Gets the base {@link HttpUrl} of this server, which the websocket paths are appended to.
+     *
+     * @return the base {@link HttpUrl}
+     */
+    public HttpUrl getBaseURL() {
+        return new HttpUrl.Builder()
+                .scheme("http")
+                .host(bindAddress.getAddress().getHostAddress())
+                .port(getPort())
+                .build();
+    }
+
+    /**
+     * Gets the bound port.
+     *
+     * @return the port
+     */
+    public synchronized int getPort() {
+        checkState(serverSocket != null, "The server isn't started!");
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections, abruptly closes all connections, and stops all threads of this server.
+     */
+    @Override
+    public synchronized void close() {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException exception) {
+            LOGGER.debug("Alpaca stand-in websocket server could not close its server socket.", exception);
+        }
+        disconnectAll();
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+        LOGGER.info("Alpaca stand-in websocket server closed.");
+    }
+
+    /**
+     * Abruptly closes all connections without a close frame (i.e. a network failure from the client's perspective).
+     *
+     * @return the number of closed connections
+     */
+    public int disconnectAll() {
+        int disconnectedCount = 0;
+        for (StandInConnection connection : connections) {
+            connection.disconnect();
+            disconnectedCount++;
+        }
+        return disconnectedCount;
+    }
+
+    /**
+     * Gracefully closes all connections with a close frame.
+     *
+     * @param code   the close status code (e.g. <code>1001</code> for "going away")
+     * @param reason the close reason
+     *
+     * @return the number of closed connections
+     */
+    public int closeAll(int code, String reason) {
+        checkNotNull(reason);
+        int closedCount = 0;
+        for (StandInConnection connection : connections) {
+            connection.close(code, reason);
+            closedCount++;
+        }
+        return closedCount;
+    }
+
+    /**
+     * Sends the given raw message to all authenticated connections (e.g. a custom error, trading status, or trade
+     * update message). Market data messages must be JSON arrays.
+     *
+     * @param message the message {@link String}
+     *
+     * @return the number of connections the message was sent to
+     */
+    public int sendToAll(String message) {
+        checkNotNull(message);
+        int sentCount = 0;
+        for (StandInConnection connection : connections) {
+            if (connection.sendIfAuthenticated(message)) {
+                sentCount++;
+            }
+        }
+        return sentCount;
+    }
+
+    public boolean isAuthenticationIgnored() {
+        return authenticationIgnored;
+    }
+
+    /**
+     * Sets whether authentication messages are ignored, so that clients run into the authentication timeout (see
+     * {@link #setAuthTimeout(Duration)}).
+     *
+     * @param authenticationIgnored <code>true</code> to ignore authentication messages
+     */
+    public void setAuthenticationIgnored(boolean authenticationIgnored) {
+        this.authenticationIgnored = authenticationIgnored;
+    }
+
+    public Duration getAuthTimeout() {
+        return authTimeout;
+    }
+
+    /**
+     * Sets the duration after which connections that haven't authenticated receive an <code>"auth timeout"</code>
+     * error and are closed. Defaults to {@link #DEFAULT_AUTH_TIMEOUT}. Only applies to new connections.
+     *
+     * @param authTimeout the authentication timeout {@link Duration}
+     */
+    public void setAuthTimeout(Duration authTimeout) {
+        checkNotNull(authTimeout);
+        checkArgument(!authTimeout.isNegative(), "authTimeout must not be negative!");
+        this.authTimeout = authTimeout;
+    }
+
+    public double getSlowFrameProbability() {
+        return slowFrameProbability;
+    }
+
+    public Duration getSlowFrameDelay() {
+        return slowFrameDelay;
+    }
+
+    /**
+     * Sets the probability with which a sent frame is delayed by the given <code>delay</code> (e.g. to simulate
+     * server-side stalls and slow networks). Delays also throttle the synthetic message generation of the affected
+     * connection.
+     *
+     * @param probability the probability between <code>0</code> (disabled) and <code>1</code> (every frame)
+     * @param delay       the delay {@link Duration}
+     */
+    public void setSlowFrames(double probability, Duration delay) {
+        checkArgument(probability >= 0 && probability <= 1, "probability must be between 0 and 1!");
+        checkNotNull(delay);
+        checkArgument(!delay.isNegative(), "delay must not be negative!");
+        slowFrameDelay = delay;
+        slowFrameProbability = probability;
+    }
+
+    public long getDisconnectAfterFrames() {
+        return disconnectAfterFrames;
+    }
+
+    /**
+     * Sets the number of data frames after which every connection is abruptly disconnected, so that reconnection can
+     * be tested repeatedly.
+     *
+     * @param disconnectAfterFrames the number of frames or <code>0</code> to disable
+     */
+    public void setDisconnectAfterFrames(long disconnectAfterFrames) {
+        checkArgument(disconnectAfterFrames >= 0, "disconnectAfterFrames must not be negative!");
+        this.disconnectAfterFrames = disconnectAfterFrames;
+    }
+
+    public int getConnectionLimit() {
+        return connectionLimit;
+    }
+
+    /**
+     * Sets the maximum number of concurrent connections. Further connections receive a
+     * <code>"connection limit exceeded"</code> error and are closed.
+     *
+     * @param connectionLimit the connection limit
+     */
+    public void setConnectionLimit(int connectionLimit) {
+        checkArgument(connectionLimit > 0, "connectionLimit must be greater than 0!");
+        this.connectionLimit = connectionLimit;
+    }
+
+    /**
+     * Sets the accepted credentials. By default, any credentials are accepted.
+     *
+     * @param key    the key or <code>null</code> to accept any credentials
+     * @param secret the secret or <code>null</code> to accept any credentials
+     */
+    public void setCredentials(String key, String secret) {
+        this.key = key;
+        this.secret = secret;
+    }
+
+    boolean acceptsCredentials(String key, String secret) {
+        final String acceptedKey = this.key;
+        final String acceptedSecret = this.secret;
+        if (acceptedKey == null || acceptedSecret == null) {
+            return key != null && secret != null;
+        }
+        return acceptedKey.equals(key) && acceptedSecret.equals(secret);
+    }
+
+    boolean acceptsOAuthToken(String oAuthToken) {
+        // OAuth tokens are only accepted when any credentials are accepted
+        return key == null && secret == null && !oAuthToken.isEmpty();
+    }
+
+    public double getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
+
+    /**
+     * Sets the number of synthetic messages per second per connection, which are spread across all subscribed
+     * channels and symbols of a connection. Messages are batched into frames of up to
+     * {@link #getMaxMessagesPerFrame()} messages, so rates of millions of messages per second are possible.
+     *
+     * @param messagesPerSecond the messages per second, <code>0</code> to disable generation, or
+     *                          {@link Double#POSITIVE_INFINITY} to generate as fast as possible
+     */
+    public void setMessagesPerSecond(double messagesPerSecond) {
+        checkArgument(messagesPerSecond >= 0, "messagesPerSecond must not be negative!");
+        this.messagesPerSecond = messagesPerSecond;
+    }
+
+    public int getMaxMessagesPerFrame() {
+        return maxMessagesPerFrame;
+    }
+
+    /**
+     * Sets the maximum number of synthetic messages per market data frame. Defaults to
+     * {@link #DEFAULT_MAX_MESSAGES_PER_FRAME}. Trade updates are always sent one message per frame.
+     *
+     * @param maxMessagesPerFrame the maximum number of messages per frame
+     */
+    public void setMaxMessagesPerFrame(int maxMessagesPerFrame) {
+        checkArgument(maxMessagesPerFrame > 0, "maxMessagesPerFrame must be greater than 0!");
+        this.maxMessagesPerFrame = maxMessagesPerFrame;
+    }
+
+    public int getOrderBookDepth() {
+        return orderBookDepth;
+    }
+
+    /**
+     * Sets the number of levels per side of the initial synthetic crypto order book snapshot of a symbol.
+     *
+     * @param orderBookDepth the order book depth
+     */
+    public void setOrderBookDepth(int orderBookDepth) {
+        checkArgument(orderBookDepth > 0, "orderBookDepth must be greater than 0!");
+        this.orderBookDepth = orderBookDepth;
+    }
+
+    public List<String> getStockSymbols() {
+        return stockSymbols;
+    }
+
+    /**
+     * Sets the stock symbols that a <code>"*"</code> wildcard subscription expands to and that trade updates are
+     * generated for. Only applies to subsequent subscription changes.
+     *
+     * @param stockSymbols the stock symbols {@link List}
+     */
+    public void setStockSymbols(List<String> stockSymbols) {
+        this.stockSymbols = List.copyOf(stockSymbols);
+    }
+
+    public List<String> getCryptoSymbols() {
+        return cryptoSymbols;
+    }
+
+    /**
+     * Sets the crypto symbols that a <code>"*"</code> wildcard subscription expands to. Only applies to subsequent
+     * subscription changes.
+     *
+     * @param cryptoSymbols the crypto symbols {@link List}
+     */
+    public void setCryptoSymbols(List<String> cryptoSymbols) {
+        this.cryptoSymbols = List.copyOf(cryptoSymbols);
+    }
+
+    /**
+     * Gets the number of open connections.
+     *
+     * @return the connection count
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Gets the number of authenticated open connections.
+     *
+     * @return the authenticated connection count
+     */
+    public int getAuthenticatedConnectionCount() {
+        return (int) connections.stream().filter(StandInConnection::isAuthenticated).count();
+    }
+
+    /**
+     * Gets the total number of sent synthetic messages.
+     *
+     * @return the sent message count
+     */
+    public long getSentMessageCount() {
+        return sentMessageCount.get();
+    }
+
+    synchronized boolean registerConnection(StandInConnection connection) {
+        if (connections.size() >= connectionLimit) {
+            return false;
+        }
+        connections.add(connection);
+        return true;
+    }
+
+    void unregisterConnection(StandInConnection connection) {
+        connections.remove(connection);
+    }
+
+    void addSentMessageCount(int messageCount) {
+        sentMessageCount.addAndGet(messageCount);
+    }
+
+    long nextNewsID() {
+        return nextNewsID.getAndIncrement();
+    }
+
+    void execute(Runnable runnable) {
+        executor.execute(runnable);
+    }
+
+    void schedule(Runnable runnable, Duration delay) {
+        scheduler.schedule(runnable, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "AlpacaStandInWebsocketServer{" +
+                "bindAddress=" + bindAddress +
+                ", connectionCount=" + connections.size() +
+                ", sentMessageCount=" + sentMessageCount +
+                '}';
+    }
+}
@@ -0,0 +1,415 @@
+package net.jacobpeterson.alpaca.websocket.standin;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link StandInConnection} is a server-side RFC 6455 websocket connection of an {@link AlpacaStandInWebsocketServer}.
+ * It reads client frames on the thread that calls {@link #run()} and generates synthetic message frames on a second
+ * thread. Server frames are never masked and never fragmented.
+ */
+abstract class StandInConnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandInConnection.class);
+
+    private static final int CONTINUATION_OPCODE = 0x0;
+    private static final int TEXT_OPCODE = 0x1;
+    private static final int BINARY_OPCODE = 0x2;
+    private static final int CLOSE_OPCODE = 0x8;
+    private static final int PING_OPCODE = 0x9;
+    private static final int PONG_OPCODE = 0xA;
+    private static final int MAX_CLIENT_MESSAGE_LENGTH = 16 * 1024 * 1024;
+    private static final int TARGET_FRAMES_PER_SECOND = 1000;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_GENERATION_LAG_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    protected final AlpacaStandInWebsocketServer server;
+    protected final StandInStreamType streamType;
+    protected final SplittableRandom random;
+    private final Socket socket;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private final Object writeLock;
+    private final boolean binaryFraming;
+    private long sentDataFrameCount;
+    protected volatile boolean authenticated;
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new {@link StandInConnection}.
+     *
+     * @param server        the {@link AlpacaStandInWebsocketServer}
+     * @param streamType    the {@link StandInStreamType}
+     * @param socket        the {@link Socket} that completed the websocket handshake
+     * @param input         the {@link InputStream} of the <code>socket</code> positioned after the handshake
+     * @param binaryFraming <code>true</code> to send messages in binary frames, <code>false</code> for text frames
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    protected StandInConnection(AlpacaStandInWebsocketServer server, StandInStreamType streamType, Socket socket,
+            InputStream input, boolean binaryFraming) throws IOException {
+        this.server = server;
+        this.streamType = streamType;
+        this.socket = socket;
+        this.input = new DataInputStream(input);
+        this.binaryFraming = binaryFraming;
+        output = new DataOutputStream(socket.getOutputStream());
+        writeLock = new Object();
+        random = new SplittableRandom();
+    }
+
+    /**
+     * Runs this {@link StandInConnection} on the calling thread until it is closed.
+     */
+    void run() {
+        try {
+            if (!server.registerConnection(this)) {
+                onConnectionLimitExceeded();
+                close();
+                return;
+            }
+            onOpen();
+            final Duration authTimeout = server.getAuthTimeout();
+            server.schedule(() -> {
+                if (!authenticated && !closed) {
+                    LOGGER.debug("{} stand-in connection authentication timed out.", streamType);
+                    onAuthTimeout();
+                }
+            }, authTimeout);
+            server.execute(this::generateMessages);
+            readFrames();
+        } catch (IOException exception) {
+            if (!closed) {
+                LOGGER.debug("{} stand-in connection failed.", streamType, exception);
+            }
+        } finally {
+            disconnect();
+            server.unregisterConnection(this);
+        }
+    }
+
+    /**
+     * Called after the handshake, before any client frame is read.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    protected abstract void onOpen() throws IOException;
+
+    /**
+     * Called when the server's connection limit is exceeded. The connection is closed afterwards.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    protected abstract void onConnectionLimitExceeded() throws IOException;
+
+    /**
+     * Called when the client didn't authenticate within the {@link AlpacaStandInWebsocketServer#getAuthTimeout()}.
+     */
+    protected abstract void onAuthTimeout();
+
+    /**
+     * Called for every complete client text or binary message.
+     *
+     * @param message the message {@link String}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    protected abstract void onMessage(String message) throws IOException;
+
+    /**
+     * Gets whether this {@link StandInConnection} currently has anything to generate synthetic messages for.
+     *
+     * @return a boolean
+     */
+    protected abstract boolean isGenerating();
+
+    /**
+     * Gets the maximum number of synthetic messages per frame of this stream.
+     *
+     * @return the maximum number of messages per frame
+     */
+    protected int getMaxMessagesPerFrame() {
+        return server.getMaxMessagesPerFrame();
+    }
+
+    /**
+     * Appends up to <code>maxMessages</code> synthetic messages to the given frame {@link StringBuilder}.
+     *
+     * @param frame       the frame {@link StringBuilder}
+     * @param maxMessages the maximum number of messages
+     *
+     * @return the number of appended messages
+     */
+    protected abstract int appendMessages(StringBuilder frame, int maxMessages);
+
+    private void generateMessages() {
+        final StringBuilder frame = new StringBuilder(4096);
+        long nextFrameNanoTime = System.nanoTime();
+        while (!closed) {
+            final double messagesPerSecond = server.getMessagesPerSecond();
+            if (!authenticated || messagesPerSecond <= 0 || !isGenerating()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                nextFrameNanoTime = System.nanoTime();
+                continue;
+            }
+            final boolean throttled = messagesPerSecond != Double.POSITIVE_INFINITY;
+            final int maxMessages = throttled ? (int) Math.min(getMaxMessagesPerFrame(),
+                    Math.max(1, Math.ceil(messagesPerSecond / TARGET_FRAMES_PER_SECOND))) : getMaxMessagesPerFrame();
+            frame.setLength(0);
+            final int messageCount = appendMessages(frame, maxMessages);
+            if (messageCount == 0) {
+                continue;
+            }
+            try {
+                sendMessage(frame.toString());
+            } catch (IOException exception) {
+                if (!closed) {
+                    LOGGER.debug("{} stand-in connection could not send a generated frame.", streamType, exception);
+                    disconnect();
+                }
+                return;
+            }
+            server.addSentMessageCount(messageCount);
+            if (throttled) {
+                nextFrameNanoTime += (long) (messageCount * 1e9 / messagesPerSecond);
+                final long lagNanos = System.nanoTime() - nextFrameNanoTime;
+                if (lagNanos > MAX_GENERATION_LAG_NANOS) {
+                    // Don't burst to catch up after a stall (e.g. a slow frame or a slow client)
+                    nextFrameNanoTime += lagNanos;
+                } else if (lagNanos < 0) {
+                    LockSupport.parkNanos(-lagNanos);
+                }
+            }
+        }
+    }
+
+    private void readFrames() throws IOException {
+        final ByteArrayOutputStream fragments = new ByteArrayOutputStream();
+        while (!closed) {
+            final int firstByte = input.read();
+            if (firstByte == -1) {
+                return;
+            }
+            final boolean finalFragment = (firstByte & 0x80) != 0;
+            final int opcode = firstByte & 0x0F;
+            final int secondByte = input.readUnsignedByte();
+            long payloadLength = secondByte & 0x7F;
+            if (payloadLength == 126) {
+                payloadLength = input.readUnsignedShort();
+            } else if (payloadLength == 127) {
+                payloadLength = input.readLong();
+            }
+            if (payloadLength < 0 || payloadLength + fragments.size() > MAX_CLIENT_MESSAGE_LENGTH) {
+                throw new IOException("Client frame is too large: " + payloadLength);
+            }
+            final byte[] mask = new byte[4];
+            final boolean masked = (secondByte & 0x80) != 0;
+            if (masked) {
+                input.readFully(mask);
+            }
+            final byte[] payload = new byte[(int) payloadLength];
+            input.readFully(payload);
+            if (masked) {
+                for (int index = 0; index < payload.length; index++) {
+                    payload[index] ^= mask[index & 3];
+                }
+            }
+
+            switch (opcode) {
+                case TEXT_OPCODE:
+                case BINARY_OPCODE:
+                case CONTINUATION_OPCODE:
+                    fragments.write(payload);
+                    if (finalFragment) {
+                        final String message = fragments.toString(UTF_8);
+                        fragments.reset();
+                        onMessage(message);
+                    }
+                    break;
+                case CLOSE_OPCODE:
+                    // Echo the close status code and close the connection
+                    writeFrame(CLOSE_OPCODE, payload, Math.min(payload.length, 2));
+                    closed = true;
+                    return;
+                case PING_OPCODE:
+                    writeFrame(PONG_OPCODE, payload, payload.length);
+                    break;
+                case PONG_OPCODE:
+                    break;
+                default:
+                    throw new IOException("Unknown client frame opcode: " + opcode);
+            }
+        }
+    }
+
+    /**
+     * Sends the given message in a text or binary frame, depending on the framing of this stream. This applies the
+     * slow frame and disconnect chaos settings of the {@link AlpacaStandInWebsocketServer}.
+     *
+     * @param message the message {@link String}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    protected void sendMessage(String message) throws IOException {
+        final double slowFrameProbability = server.getSlowFrameProbability();
+        if (slowFrameProbability > 0 && ThreadLocalRandom.current().nextDouble() < slowFrameProbability) {
+            LockSupport.parkNanos(server.getSlowFrameDelay().toNanos());
+        }
+        final byte[] payload = message.getBytes(UTF_8);
+        final boolean disconnect;
+        synchronized (writeLock) {
+            writeFrame(binaryFraming ? BINARY_OPCODE : TEXT_OPCODE, payload, payload.length);
+            final long disconnectAfterFrames = server.getDisconnectAfterFrames();
+            disconnect = disconnectAfterFrames > 0 && ++sentDataFrameCount >= disconnectAfterFrames;
+        }
+        if (disconnect) {
+            LOGGER.debug("{} stand-in connection injecting a disconnect.", streamType);
+            disconnect();
+        }
+    }
+
+    private void writeFrame(int opcode, byte[] payload, int payloadLength) throws IOException {
+        synchronized (writeLock) {
+            output.write(0x80 | opcode);
+            if (payloadLength < 126) {
+                output.write(payloadLength);
+            } else if (payloadLength <= 0xFFFF) {
+                output.write(126);
+                output.writeShort(payloadLength);
+            } else {
+                output.write(127);
+                output.writeLong(payloadLength);
+            }
+            output.write(payload, 0, payloadLength);
+            output.flush();
+        }
+    }
+
+    /**
+     * Gracefully closes this {@link StandInConnection} with a close frame.
+     *
+     * @param code   the close status code
+     * @param reason the close reason
+     */
+    void close(int code, String reason) {
+        final byte[] reasonBytes = reason.getBytes(UTF_8);
+        final byte[] payload = new byte[2 + Math.min(reasonBytes.length, 123)];
+        payload[0] = (byte) (code >> 8);
+        payload[1] = (byte) code;
+        System.arraycopy(reasonBytes, 0, payload, 2, payload.length - 2);
+        try {
+            writeFrame(CLOSE_OPCODE, payload, payload.length);
+        } catch (IOException exception) {
+            LOGGER.debug("{} stand-in connection could not send a close frame.", streamType, exception);
+        }
+        disconnect();
+    }
+
+    /**
+     * Gracefully closes this {@link StandInConnection} with a normal closure.
+     */
+    void close() {
+        close(1000, "");
+    }
+
+    /**
+     * Abruptly closes the socket of this {@link StandInConnection} without a close frame.
+     */
+    void disconnect() {
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException exception) {
+            LOGGER.debug("{} stand-in connection could not close its socket.", streamType, exception);
+        }
+    }
+
+    /**
+     * Sends the given message if this {@link StandInConnection} is authenticated.
+     *
+     * @param message the message {@link String}
+     *
+     * @return <code>true</code> if the message was sent
+     */
+    boolean sendIfAuthenticated(String message) {
+        if (!authenticated || closed) {
+            return false;
+        }
+        try {
+            sendMessage(message);
+            return true;
+        } catch (IOException exception) {
+            LOGGER.debug("{} stand-in connection could not send a message.", streamType, exception);
+            disconnect();
+            return false;
+        }
+    }
+
+    /**
+     * Sends the given control message, ignoring any {@link IOException} since the read loop will observe it.
+     *
+     * @param message the message {@link String}
+     */
+    protected void sendControlMessage(String message) {
+        try {
+            sendMessage(message);
+        } catch (IOException exception) {
+            LOGGER.debug("{} stand-in connection could not send a control message.", streamType, exception);
+            disconnect();
+        }
+    }
+
+    StandInStreamType getStreamType() {
+        return streamType;
+    }
+
+    boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Reads the HTTP request head of the websocket handshake from the given {@link InputStream}.
+     *
+     * @param input the {@link InputStream}
+     *
+     * @return the request head lines
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    static String[] readRequestHead(InputStream input) throws IOException {
+        final StringBuilder head = new StringBuilder();
+        int matchedTerminatorBytes = 0;
+        while (matchedTerminatorBytes < 4) {
+            final int nextByte = input.read();
+            if (nextByte == -1) {
+                throw new EOFException("Connection closed during the handshake!");
+            }
+            if (head.length() > 16384) {
+                throw new IOException("Handshake request head is too large!");
+            }
+            head.append((char) nextByte);
+            matchedTerminatorBytes = nextByte == (matchedTerminatorBytes % 2 == 0 ? '\r' : '\n') ?
+                    matchedTerminatorBytes + 1 : (nextByte == '\r' ? 1 : 0);
+        }
+        return head.toString().trim().split("\r\n");
+    }
+}
@@ -0,0 +1,286 @@
+package net.jacobpeterson.alpaca.websocket.standin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import net.jacobpeterson.alpaca.websocket.standin.SyntheticMarketDataWriter.SymbolState;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.google.gson.JsonParser.parseString;
+
+/**
+ * {@link StandInMarketDataConnection} is a {@link StandInConnection} that speaks the Alpaca market data stream
+ * protocol: a <code>"connected"</code> success message on connect, the <code>"auth"</code>, <code>"subscribe"</code>,
+ * and <code>"unsubscribe"</code> actions, <code>"subscription"</code> acknowledgements, and the documented error
+ * codes. Subscribed trades, quotes, bars, order books, and news are generated synthetically. Subscribed trading
+ * statuses and LULD bands are acknowledged, but not generated.
+ */
+class StandInMarketDataConnection extends StandInConnection {
+
+    private static final String WILDCARD = "*";
+    private static final long MINUTE_SECONDS = 60;
+    private static final long DAY_SECONDS = 86_400;
+
+    private final Map<String, Set<String>> subscriptions;
+    private final SyntheticMarketDataWriter writer;
+    private final Map<String, SymbolState> symbolStates;
+    private volatile GeneratedStream[] generatedStreams;
+    private int generatedStreamIndex;
+
+    /**
+     * {@link GeneratedStream} is a subscribed channel and symbol pair that synthetic messages are generated for.
+     */
+    private static final class GeneratedStream {
+
+        final String channel;
+        final SymbolState state;
+
+        GeneratedStream(String channel, SymbolState state) {
+            this.channel = channel;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Instantiates a new {@link StandInMarketDataConnection}.
+     *
+     * @param server     the {@link AlpacaStandInWebsocketServer}
+     * @param streamType the {@link StandInStreamType}
+     * @param socket     the {@link Socket}
+     * @param input      the {@link InputStream} of the <code>socket</code> positioned after the handshake
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    StandInMarketDataConnection(AlpacaStandInWebsocketServer server, StandInStreamType streamType, Socket socket,
+            InputStream input) throws IOException {
+        super(server, streamType, socket, input, false);
+        subscriptions = new LinkedHashMap<>();
+        for (String channel : streamType.getChannels()) {
+            subscriptions.put(channel, new TreeSet<>());
+        }
+        writer = new SyntheticMarketDataWriter(random);
+        symbolStates = new HashMap<>();
+        generatedStreams = new GeneratedStream[0];
+    }
+
+    @Override
+    protected void onOpen() throws IOException {
+        sendMessage("[{\"T\":\"success\",\"msg\":\"connected\"}]");
+    }
+
+    @Override
+    protected void onConnectionLimitExceeded() throws IOException {
+        sendMessage("[{\"T\":\"success\",\"msg\":\"connected\"}]");
+        sendError(406, "connection limit exceeded");
+    }
+
+    @Override
+    protected void onAuthTimeout() {
+        sendControlMessage(createErrorMessage(404, "auth timeout"));
+        close();
+    }
+
+    @Override
+    protected void onMessage(String message) throws IOException {
+        final JsonObject messageObject;
+        try {
+            final JsonElement messageElement = parseString(message);
+            if (!messageElement.isJsonObject()) {
+                sendError(400, "invalid syntax");
+                return;
+            }
+            messageObject = messageElement.getAsJsonObject();
+        } catch (JsonParseException exception) {
+            sendError(400, "invalid syntax");
+            return;
+        }
+
+        final JsonElement actionElement = messageObject.get("action");
+        final String action = actionElement != null && actionElement.isJsonPrimitive() ?
+                actionElement.getAsString() : "";
+        switch (action) {
+            case "auth":
+                handleAuth(messageObject);
+                break;
+            case "subscribe":
+            case "unsubscribe":
+                if (!authenticated) {
+                    sendError(401, "not authenticated");
+                } else {
+                    handleSubscriptionChange(messageObject, action.equals("subscribe"));
+                }
+                break;
+            default:
+                sendError(400, "invalid syntax");
+                break;
+        }
+    }
+
+    private void handleAuth(JsonObject messageObject) throws IOException {
+        if (server.isAuthenticationIgnored()) {
+            return;
+        }
+        if (authenticated) {
+            sendError(403, "already authenticated");
+            return;
+        }
+        if (server.acceptsCredentials(getString(messageObject, "key"), getString(messageObject, "secret"))) {
+            authenticated = true;
+            sendMessage("[{\"T\":\"success\",\"msg\":\"authenticated\"}]");
+        } else {
+            sendError(402, "auth failed");
+        }
+    }
+
+    private void handleSubscriptionChange(JsonObject messageObject, boolean subscribe) throws IOException {
+        final String subscriptionMessage;
+        synchronized (subscriptions) {
+            for (Map.Entry<String, Set<String>> channelSubscriptions : subscriptions.entrySet()) {
+                final JsonElement symbolsElement = messageObject.get(channelSubscriptions.getKey());
+                if (symbolsElement == null || !symbolsElement.isJsonArray()) {
+                    continue;
+                }
+                for (JsonElement symbolElement : symbolsElement.getAsJsonArray()) {
+                    if (subscribe) {
+                        channelSubscriptions.getValue().add(symbolElement.getAsString());
+                    } else {
+                        channelSubscriptions.getValue().remove(symbolElement.getAsString());
+                    }
+                }
+            }
+            updateGeneratedStreams();
+            subscriptionMessage = createSubscriptionMessage();
+        }
+        sendMessage(subscriptionMessage);
+    }
+
+    private String createSubscriptionMessage() {
+        final JsonObject subscriptionObject = new JsonObject();
+        subscriptionObject.addProperty("T", "subscription");
+        for (Map.Entry<String, Set<String>> channelSubscriptions : subscriptions.entrySet()) {
+            final JsonArray symbolsArray = new JsonArray();
+            channelSubscriptions.getValue().forEach(symbolsArray::add);
+            subscriptionObject.add(channelSubscriptions.getKey(), symbolsArray);
+        }
+        final JsonArray messageArray = new JsonArray();
+        messageArray.add(subscriptionObject);
+        return messageArray.toString();
+    }
+
+    private void updateGeneratedStreams() {
+        final List<String> wildcardSymbols = streamType == StandInStreamType.CRYPTO ?
+                server.getCryptoSymbols() : server.getStockSymbols();
+        final List<GeneratedStream> streams = new ArrayList<>();
+        synchronized (symbolStates) {
+            for (Map.Entry<String, Set<String>> channelSubscriptions : subscriptions.entrySet()) {
+                final String channel = channelSubscriptions.getKey();
+                if (channel.equals("statuses") || channel.equals("lulds")) {
+                    continue;
+                }
+                for (String symbol : channelSubscriptions.getValue()) {
+                    for (String expandedSymbol : symbol.equals(WILDCARD) ? wildcardSymbols : List.of(symbol)) {
+                        streams.add(new GeneratedStream(channel,
+                                symbolStates.computeIfAbsent(expandedSymbol, writer::createSymbolState)));
+                    }
+                }
+            }
+        }
+        generatedStreams = streams.toArray(new GeneratedStream[0]);
+    }
+
+    @Override
+    protected boolean isGenerating() {
+        return generatedStreams.length > 0;
+    }
+
+    @Override
+    protected int appendMessages(StringBuilder frame, int maxMessages) {
+        final GeneratedStream[] streams = generatedStreams;
+        if (streams.length == 0) {
+            return 0;
+        }
+        writer.setTimestampToNow();
+        frame.append('[');
+        synchronized (symbolStates) {
+            for (int messageIndex = 0; messageIndex < maxMessages; messageIndex++) {
+                if (messageIndex > 0) {
+                    frame.append(',');
+                }
+                if (generatedStreamIndex >= streams.length) {
+                    generatedStreamIndex = 0;
+                }
+                appendMessage(frame, streams[generatedStreamIndex++]);
+            }
+        }
+        frame.append(']');
+        return maxMessages;
+    }
+
+    private void appendMessage(StringBuilder frame, GeneratedStream stream) {
+        final boolean crypto = streamType == StandInStreamType.CRYPTO;
+        switch (stream.channel) {
+            case "trades":
+                if (crypto) {
+                    writer.appendCryptoTrade(frame, stream.state);
+                } else {
+                    writer.appendStockTrade(frame, stream.state);
+                }
+                break;
+            case "quotes":
+                if (crypto) {
+                    writer.appendCryptoQuote(frame, stream.state);
+                } else {
+                    writer.appendStockQuote(frame, stream.state);
+                }
+                break;
+            case "bars":
+                writer.appendBar(frame, "b", stream.state, MINUTE_SECONDS);
+                break;
+            case "updatedBars":
+                writer.appendBar(frame, "u", stream.state, MINUTE_SECONDS);
+                break;
+            case "dailyBars":
+                writer.appendBar(frame, "d", stream.state, DAY_SECONDS);
+                break;
+            case "orderbooks":
+                writer.appendCryptoOrderBook(frame, stream.state, server.getOrderBookDepth());
+                break;
+            case "news":
+                writer.appendNews(frame, server.nextNewsID(), stream.state.symbol);
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    private void sendError(int code, String message) throws IOException {
+        sendMessage(createErrorMessage(code, message));
+    }
+
+    private static String createErrorMessage(int code, String message) {
+        final JsonObject errorObject = new JsonObject();
+        errorObject.addProperty("T", "error");
+        errorObject.addProperty("code", code);
+        errorObject.addProperty("msg", message);
+        final JsonArray messageArray = new JsonArray();
+        messageArray.add(errorObject);
+        return messageArray.toString();
+    }
+
+    private static String getString(JsonObject object, String memberName) {
+        final JsonElement element = object.get(memberName);
+        return element instanceof JsonPrimitive ? element.getAsString() : null;
+    }
+}
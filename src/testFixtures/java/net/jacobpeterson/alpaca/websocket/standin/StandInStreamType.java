@@ -0,0 +1,66 @@
+package net.jacobpeterson.alpaca.websocket.standin;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * {@link StandInStreamType} defines the Alpaca streams that the {@link AlpacaStandInWebsocketServer} serves, keyed by
+ * the path suffix that the corresponding websocket connects to.
+ */
+enum StandInStreamType {
+
+    /**
+     * The stock market data stream (<code>/v2/{feed}</code>).
+     */
+    STOCK(Pattern.compile(".*/v2/[^/]+"),
+            List.of("trades", "quotes", "bars", "dailyBars", "updatedBars", "statuses", "lulds")),
+
+    /**
+     * The crypto market data stream (<code>/v1beta3/crypto/{location}</code>).
+     */
+    CRYPTO(Pattern.compile(".*/v1beta\\d+/crypto/[^/]+"),
+            List.of("trades", "quotes", "bars", "dailyBars", "updatedBars", "orderbooks")),
+
+    /**
+     * The news market data stream (<code>/v1beta1/news</code>).
+     */
+    NEWS(Pattern.compile(".*/v1beta\\d+/news"), List.of("news")),
+
+    /**
+     * The trade updates stream (<code>/stream</code>).
+     */
+    UPDATES(Pattern.compile(".*/stream"), List.of());
+
+    private final Pattern pathPattern;
+    private final List<String> channels;
+
+    StandInStreamType(Pattern pathPattern, List<String> channels) {
+        this.pathPattern = pathPattern;
+        this.channels = channels;
+    }
+
+    /**
+     * Gets the subscription channels in the order of the <code>"subscription"</code> message.
+     *
+     * @return the channel {@link List}
+     */
+    public List<String> getChannels() {
+        return channels;
+    }
+
+    /**
+     * Resolves the {@link StandInStreamType} of the given request path.
+     *
+     * @param path the request path (without the query)
+     *
+     * @return the {@link StandInStreamType} or <code>null</code> if no stream is served at the <code>path</code>
+     */
+    public static StandInStreamType fromPath(String path) {
+        for (StandInStreamType streamType : values()) {
+            if (streamType.pathPattern.matcher(path).matches()) {
+                return streamType;
+            }
+        }
+        return null;
+    }
+}
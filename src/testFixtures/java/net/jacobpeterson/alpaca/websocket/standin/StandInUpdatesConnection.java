@@ -0,0 +1,149 @@
+package net.jacobpeterson.alpaca.websocket.standin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import net.jacobpeterson.alpaca.websocket.standin.SyntheticMarketDataWriter.SymbolState;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.gson.JsonParser.parseString;
+
+/**
+ * {@link StandInUpdatesConnection} is a {@link StandInConnection} that speaks the Alpaca trade updates stream
+ * protocol: the <code>"authenticate"</code> and <code>"listen"</code> actions with <code>"authorization"</code> and
+ * <code>"listening"</code> responses in binary frames. While listening to <code>"trade_updates"</code>, synthetic
+ * <code>"new"</code> and <code>"fill"</code> events of market orders are generated, one message per frame.
+ */
+class StandInUpdatesConnection extends StandInConnection {
+
+    private static final String TRADE_UPDATES_STREAM = "trade_updates";
+
+    private final SyntheticMarketDataWriter writer;
+    private final Map<String, SymbolState> symbolStates;
+    private volatile boolean listeningToTradeUpdates;
+    private long nextOrderID;
+    private boolean orderFillPending;
+    private int symbolIndex;
+
+    /**
+     * Instantiates a new {@link StandInUpdatesConnection}.
+     *
+     * @param server the {@link AlpacaStandInWebsocketServer}
+     * @param socket the {@link Socket}
+     * @param input  the {@link InputStream} of the <code>socket</code> positioned after the handshake
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    StandInUpdatesConnection(AlpacaStandInWebsocketServer server, Socket socket, InputStream input)
+            throws IOException {
+        super(server, StandInStreamType.UPDATES, socket, input, true);
+        writer = new SyntheticMarketDataWriter(random);
+        symbolStates = new HashMap<>();
+        nextOrderID = 1;
+    }
+
+    @Override
+    protected void onOpen() {}
+
+    @Override
+    protected void onConnectionLimitExceeded() {}
+
+    @Override
+    protected void onAuthTimeout() {
+        close(1008, "auth timeout");
+    }
+
+    @Override
+    protected void onMessage(String message) throws IOException {
+        final JsonObject messageObject;
+        try {
+            final JsonElement messageElement = parseString(message);
+            if (!messageElement.isJsonObject()) {
+                return;
+            }
+            messageObject = messageElement.getAsJsonObject();
+        } catch (JsonParseException exception) {
+            return;
+        }
+
+        final String action = getString(messageObject, "action");
+        final JsonElement dataElement = messageObject.get("data");
+        final JsonObject data = dataElement != null && dataElement.isJsonObject() ?
+                dataElement.getAsJsonObject() : new JsonObject();
+        if ("authenticate".equals(action)) {
+            if (server.isAuthenticationIgnored()) {
+                return;
+            }
+            final String oAuthToken = getString(data, "oauth_token");
+            final boolean authorized = oAuthToken != null ? server.acceptsOAuthToken(oAuthToken) :
+                    server.acceptsCredentials(getString(data, "key_id"), getString(data, "secret_key"));
+            authenticated |= authorized;
+            sendMessage("{\"stream\":\"authorization\",\"data\":{\"status\":\"" +
+                    (authorized ? "authorized" : "unauthorized") + "\",\"action\":\"authenticate\"}}");
+        } else if ("listen".equals(action) && authenticated) {
+            final JsonArray streamsArray = new JsonArray();
+            boolean listenToTradeUpdates = false;
+            final JsonElement streamsElement = data.get("streams");
+            if (streamsElement != null && streamsElement.isJsonArray()) {
+                for (JsonElement streamElement : streamsElement.getAsJsonArray()) {
+                    if (TRADE_UPDATES_STREAM.equals(streamElement.getAsString())) {
+                        listenToTradeUpdates = true;
+                        streamsArray.add(TRADE_UPDATES_STREAM);
+                    }
+                }
+            }
+            listeningToTradeUpdates = listenToTradeUpdates;
+            final JsonObject listeningData = new JsonObject();
+            listeningData.add("streams", streamsArray);
+            final JsonObject listeningObject = new JsonObject();
+            listeningObject.addProperty("stream", "listening");
+            listeningObject.add("data", listeningData);
+            sendMessage(listeningObject.toString());
+        }
+    }
+
+    @Override
+    protected boolean isGenerating() {
+        return listeningToTradeUpdates;
+    }
+
+    @Override
+    protected int getMaxMessagesPerFrame() {
+        return 1;
+    }
+
+    @Override
+    protected int appendMessages(StringBuilder frame, int maxMessages) {
+        final List<String> symbols = server.getStockSymbols();
+        if (symbols.isEmpty()) {
+            return 0;
+        }
+        writer.setTimestampToNow();
+        if (symbolIndex >= symbols.size()) {
+            symbolIndex = 0;
+        }
+        final SymbolState state = symbolStates.computeIfAbsent(symbols.get(symbolIndex), writer::createSymbolState);
+        // Every order is reported as "new" and then as "fill"
+        if (orderFillPending) {
+            writer.appendTradeUpdate(frame, nextOrderID++, state, "fill");
+            symbolIndex++;
+        } else {
+            writer.appendTradeUpdate(frame, nextOrderID, state, "new");
+        }
+        orderFillPending = !orderFillPending;
+        return 1;
+    }
+
+    private static String getString(JsonObject object, String memberName) {
+        final JsonElement element = object.get(memberName);
+        return element instanceof JsonPrimitive ? element.getAsString() : null;
+    }
+}
@@ -0,0 +1,327 @@
+package net.jacobpeterson.alpaca.websocket.standin;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * {@link SyntheticMarketDataWriter} appends synthetic Alpaca market data and trade update JSON messages to a
+ * {@link StringBuilder}. Prices follow a per-symbol random walk so that consecutive messages of a symbol are
+ * plausible. This class is not thread-safe.
+ */
+final class SyntheticMarketDataWriter {
+
+    private static final DateTimeFormatter SECOND_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static final String[] STOCK_EXCHANGES = {"V", "Q", "N", "P", "K", "Z"};
+    private static final double PRICE_SCALE = 100;
+    private static final double TICK_SIZE = 1 / PRICE_SCALE;
+
+    private final SplittableRandom random;
+    private long formattedEpochSecond;
+    private String formattedSecond;
+    private long epochSecond;
+    private int nano;
+
+    /**
+     * Instantiates a new {@link SyntheticMarketDataWriter}.
+     *
+     * @param random the {@link SplittableRandom}
+     */
+    SyntheticMarketDataWriter(SplittableRandom random) {
+        this.random = random;
+        formattedEpochSecond = Long.MIN_VALUE;
+    }
+
+    /**
+     * Sets the timestamp of the following messages to the current time. Each following message advances the
+     * timestamp by one nanosecond so that timestamps within a frame are unique.
+     */
+    void setTimestampToNow() {
+        final long epochNanos = System.currentTimeMillis() * 1_000_000L + System.nanoTime() % 1_000_000L;
+        epochSecond = Math.floorDiv(epochNanos, 1_000_000_000L);
+        nano = (int) Math.floorMod(epochNanos, 1_000_000_000L);
+    }
+
+    /**
+     * {@link SymbolState} is the random walk state of a symbol.
+     */
+    static final class SymbolState {
+
+        final String symbol;
+        double price;
+        long nextTradeID;
+        boolean orderBookSent;
+
+        SymbolState(String symbol, double initialPrice) {
+            this.symbol = symbol;
+            this.price = initialPrice;
+            nextTradeID = 1;
+        }
+    }
+
+    /**
+     * Creates a {@link SymbolState} with a random initial price.
+     *
+     * @param symbol the symbol
+     *
+     * @return the {@link SymbolState}
+     */
+    SymbolState createSymbolState(String symbol) {
+        // Crypto pairs (e.g. "BTC/USD") get a higher initial price range
+        final double initialPrice = symbol.indexOf('/') != -1 ?
+                1000 + random.nextDouble() * 50_000 : 10 + random.nextDouble() * 490;
+        return new SymbolState(symbol, initialPrice);
+    }
+
+    private double nextPrice(SymbolState state) {
+        state.price = Math.max(1, state.price * (1 + (random.nextDouble() - 0.5) * 0.001));
+        return state.price;
+    }
+
+    private void appendTimestamp(StringBuilder builder) {
+        if (epochSecond != formattedEpochSecond) {
+            formattedSecond = SECOND_FORMATTER.format(Instant.ofEpochSecond(epochSecond));
+            formattedEpochSecond = epochSecond;
+        }
+        builder.append('"').append(formattedSecond).append('.');
+        for (int divisor = 100_000_000; divisor > 0; divisor /= 10) {
+            builder.append((char) ('0' + nano / divisor % 10));
+        }
+        builder.append("Z\"");
+        if (nano < 999_999_999) {
+            nano++;
+        }
+    }
+
+    private void appendTimestamp(StringBuilder builder, long truncatedEpochSecond) {
+        builder.append('"').append(SECOND_FORMATTER.format(Instant.ofEpochSecond(truncatedEpochSecond)))
+                .append("Z\"");
+    }
+
+    private double nextCryptoSize() {
+        return (1 + random.nextInt(100_000)) / 10_000.0;
+    }
+
+    private static void appendPrice(StringBuilder builder, double price) {
+        builder.append(Math.round(price * PRICE_SCALE) / PRICE_SCALE);
+    }
+
+    private void appendSymbol(StringBuilder builder, String type, SymbolState state) {
+        builder.append("{\"T\":\"").append(type).append("\",\"S\":\"").append(state.symbol).append('"');
+    }
+
+    /**
+     * Appends a stock trade (<code>"t"</code>) message.
+     *
+     * @param builder the {@link StringBuilder}
+     * @param state   the {@link SymbolState}
+     */
+    void appendStockTrade(StringBuilder builder, SymbolState state) {
+        appendSymbol(builder, "t", state);
+        builder.append(",\"i\":").append(state.nextTradeID++);
+        builder.append(",\"x\":\"").append(STOCK_EXCHANGES[random.nextInt(STOCK_EXCHANGES.length)]).append('"');
+        builder.append(",\"p\":");
+        appendPrice(builder, nextPrice(state));
+        builder.append(",\"s\":").append(1 + random.nextInt(500));
+        builder.append(",\"c\":[\"@\"],\"z\":\"C\",\"t\":");
+        appendTimestamp(builder);
+        builder.append('}');
+    }
+
+    /**
+     * Appends a stock quote (<code>"q"</code>) message.
+     *
+     * @param builder the {@link StringBuilder}
+     * @param state   the {@link SymbolState}
+     */
+    void appendStockQuote(StringBuilder builder, SymbolState state) {
+        final double price = nextPrice(state);
+        appendSymbol(builder, "q", state);
+        builder.append(",\"bx\":\"").append(STOCK_EXCHANGES[random.nextInt(STOCK_EXCHANGES.length)]).append('"');
+        builder.append(",\"bp\":");
+        appendPrice(builder, price - TICK_SIZE);
+        builder.append(",\"bs\":").append(1 + random.nextInt(20));
+        builder.append(",\"ax\":\"").append(STOCK_EXCHANGES[random.nextInt(STOCK_EXCHANGES.length)]).append('"');
+        builder.append(",\"ap\":");
+        appendPrice(builder, price + TICK_SIZE);
+        builder.append(",\"as\":").append(1 + random.nextInt(20));
+        builder.append(",\"c\":[\"R\"],\"z\":\"C\",\"t\":");
+        appendTimestamp(builder);
+        builder.append('}');
+    }
+
+    /**
+     * Appends a crypto trade (<code>"t"</code>) message.
+     *
+     * @param builder the {@link StringBuilder}
+     * @param state   the {@link SymbolState}
+     */
+    void appendCryptoTrade(StringBuilder builder, SymbolState state) {
+        appendSymbol(builder, "t", state);
+        builder.append(",\"p\":");
+        appendPrice(builder, nextPrice(state));
+        builder.append(",\"s\":").append(nextCryptoSize());
+        builder.append(",\"t\":");
+        appendTimestamp(builder);
+        builder.append(",\"i\":").append(state.nextTradeID++);
+        builder.append(",\"tks\":\"").append(random.nextBoolean() ? 'B' : 'S').append("\"}");
+    }
+
+    /**
+     * Appends a crypto quote (<code>"q"</code>) message.
+     *
+     * @param builder the {@link StringBuilder}
+     * @param state   the {@link SymbolState}
+     */
+    void appendCryptoQuote(StringBuilder builder, SymbolState state) {
+        final double price = nextPrice(state);
+        appendSymbol(builder, "q", state);
+        builder.append(",\"bp\":");
+        appendPrice(builder, price - TICK_SIZE);
+        builder.append(",\"bs\":").append(nextCryptoSize());
+        builder.append(",\"ap\":");
+        appendPrice(builder, price + TICK_SIZE);
+        builder.append(",\"as\":").append(nextCryptoSize());
+        builder.append(",\"t\":");
+        appendTimestamp(builder);
+        builder.append('}');
+    }
+
+    /**
+     * Appends a bar message.
+     *
+     * @param builder          the {@link StringBuilder}
+     * @param type             the message type (<code>"b"</code>, <code>"d"</code>, or <code>"u"</code>)
+     * @param state            the {@link SymbolState}
+     * @param timeframeSeconds the bar timeframe in seconds (e.g. <code>60</code>)
+     */
+    void appendBar(StringBuilder builder, String type, SymbolState state, long timeframeSeconds) {
+        final double open = state.price;
+        final double close = nextPrice(state);
+        final double high = Math.max(open, close) * (1 + random.nextDouble() * 0.001);
+        final double low = Math.min(open, close) * (1 - random.nextDouble() * 0.001);
+        appendSymbol(builder, type, state);
+        builder.append(",\"o\":");
+        appendPrice(builder, open);
+        builder.append(",\"h\":");
+        appendPrice(builder, high);
+        builder.append(",\"l\":");
+        appendPrice(builder, low);
+        builder.append(",\"c\":");
+        appendPrice(builder, close);
+        builder.append(",\"v\":").append(100 + random.nextInt(100_000));
+        builder.append(",\"t\":");
+        appendTimestamp(builder, epochSecond - Math.floorMod(epochSecond, timeframeSeconds));
+        builder.append(",\"n\":").append(1 + random.nextInt(1000));
+        builder.append(",\"vw\":");
+        appendPrice(builder, (open + high + low + close) / 4);
+        builder.append('}');
+    }
+
+    /**
+     * Appends a crypto order book (<code>"o"</code>) message. The first message of a {@link SymbolState} is a full
+     * snapshot with <code>depth</code> levels per side, the following messages are incremental updates that may
+     * remove a level with a size of <code>0</code>.
+     *
+     * @param builder the {@link StringBuilder}
+     * @param state   the {@link SymbolState}
+     * @param depth   the number of levels per side of the snapshot
+     */
+    void appendCryptoOrderBook(StringBuilder builder, SymbolState state, int depth) {
+        final boolean reset = !state.orderBookSent;
+        state.orderBookSent = true;
+        final double price = nextPrice(state);
+        appendSymbol(builder, "o", state);
+        builder.append(",\"t\":");
+        appendTimestamp(builder);
+        builder.append(",\"b\":");
+        appendOrderBookLevels(builder, price, -1, reset ? depth : 1, depth);
+        builder.append(",\"a\":");
+        appendOrderBookLevels(builder, price, 1, reset ? depth : 1, depth);
+        if (reset) {
+            builder.append(",\"r\":true");
+        }
+        builder.append('}');
+    }
+
+    private void appendOrderBookLevels(StringBuilder builder, double price, int direction, int levels, int depth) {
+        builder.append('[');
+        for (int level = 0; level < levels; level++) {
+            if (level > 0) {
+                builder.append(',');
+            }
+            final int offset = levels == depth ? level + 1 : 1 + random.nextInt(depth);
+            builder.append("{\"p\":");
+            appendPrice(builder, price + direction * offset * TICK_SIZE);
+            builder.append(",\"s\":");
+            builder.append(levels != depth && random.nextInt(10) == 0 ? 0 :
+                    nextCryptoSize());
+            builder.append('}');
+        }
+        builder.append(']');
+    }
+
+    /**
+     * Appends a news (<code>"n"</code>) message.
+     *
+     * @param builder the {@link StringBuilder}
+     * @param newsID  the news ID
+     * @param symbol  the symbol of the news
+     */
+    void appendNews(StringBuilder builder, long newsID, String symbol) {
+        builder.append("{\"T\":\"n\",\"id\":").append(newsID);
+        builder.append(",\"headline\":\"Synthetic headline ").append(newsID).append(" about ").append(symbol);
+        builder.append("\",\"summary\":\"Synthetic summary ").append(newsID);
+        builder.append("\",\"author\":\"Stand-In\",\"created_at\":");
+        appendTimestamp(builder);
+        builder.append(",\"updated_at\":");
+        appendTimestamp(builder);
+        builder.append(",\"url\":\"https://example.invalid/news/").append(newsID);
+        builder.append("\",\"content\":\"\",\"symbols\":[\"").append(symbol);
+        builder.append("\"],\"source\":\"stand-in\"}");
+    }
+
+    /**
+     * Appends a <code>"trade_updates"</code> message of a filled market order.
+     *
+     * @param builder the {@link StringBuilder}
+     * @param orderID the order ID
+     * @param state   the {@link SymbolState}
+     * @param event   the trade update event (e.g. <code>"new"</code> or <code>"fill"</code>)
+     */
+    void appendTradeUpdate(StringBuilder builder, long orderID, SymbolState state, String event) {
+        final boolean filled = event.equals("fill");
+        final double price = nextPrice(state);
+        final String id = String.format("00000000-0000-4000-8000-%012d", orderID);
+        builder.append("{\"stream\":\"trade_updates\",\"data\":{\"event\":\"").append(event).append('"');
+        if (filled) {
+            builder.append(",\"execution_id\":\"").append(id).append("\",\"price\":\"");
+            appendPrice(builder, price);
+            builder.append("\",\"qty\":\"1\",\"position_qty\":\"1\"");
+        }
+        builder.append(",\"timestamp\":");
+        appendTimestamp(builder);
+        builder.append(",\"order\":{\"id\":\"").append(id);
+        builder.append("\",\"client_order_id\":\"stand-in-").append(orderID);
+        builder.append("\",\"created_at\":");
+        appendTimestamp(builder);
+        builder.append(",\"updated_at\":");
+        appendTimestamp(builder);
+        builder.append(",\"submitted_at\":");
+        appendTimestamp(builder);
+        if (filled) {
+            builder.append(",\"filled_at\":");
+            appendTimestamp(builder);
+            builder.append(",\"filled_avg_price\":\"");
+            appendPrice(builder, price);
+            builder.append('"');
+        }
+        builder.append(",\"asset_id\":\"00000000-0000-4000-8000-000000000000\",\"symbol\":\"").append(state.symbol);
+        builder.append("\",\"asset_class\":\"us_equity\",\"qty\":\"1\",\"filled_qty\":\"").append(filled ? 1 : 0);
+        builder.append("\",\"order_class\":\"simple\",\"order_type\":\"market\",\"type\":\"market\",\"side\":\"buy\"");
+        builder.append(",\"time_in_force\":\"day\",\"status\":\"").append(filled ? "filled" : "new");
+        builder.append("\",\"extended_hours\":false}}}");
+    }
+}